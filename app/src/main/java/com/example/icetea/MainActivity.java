@@ -20,6 +20,7 @@ import com.example.icetea.notifications.NotificationsFragment;
 import com.example.icetea.notifications.NotificationsViewModel;
 import com.example.icetea.profile.ProfileFragment;
 import com.example.icetea.scanner.QRScannerFragment;
+import com.google.android.material.badge.BadgeDrawable;
 import com.google.android.material.bottomnavigation.BottomNavigationView;
 
 
@@ -81,6 +82,25 @@ public class MainActivity extends AppCompatActivity {
                 showBanner(notification.getTitle() + ": " + notification.getMessage());
             }
         });
+
+        viewModel.getUnreadCount().observe(this, unread -> updateUnreadBadge(bottomNav, unread));
+    }
+
+    /**
+     * Shows the number of unread notifications on the notifications tab, or hides
+     * the badge when there are none.
+     *
+     * @param bottomNav The bottom navigation bar
+     * @param unread    Number of unread notifications
+     */
+    private void updateUnreadBadge(BottomNavigationView bottomNav, Integer unread) {
+        if (unread == null || unread <= 0) {
+            bottomNav.removeBadge(R.id.nav_notifications);
+            return;
+        }
+        BadgeDrawable badge = bottomNav.getOrCreateBadge(R.id.nav_notifications);
+        badge.setNumber(unread);
+        badge.setVisible(true);
     }
 
     @Override
@@ -1,9 +1,6 @@
 package com.example.icetea.admin;
 
 import android.content.Context;
-import android.graphics.Bitmap;
-import android.graphics.BitmapFactory;
-import android.util.Base64;
 import android.view.LayoutInflater;
 import android.view.View;
 import android.view.ViewGroup;
@@ -14,11 +11,18 @@ import androidx.recyclerview.widget.RecyclerView;
 
 import com.example.icetea.R;
 import com.example.icetea.models.Event;
+import com.example.icetea.models.Stores;
+import com.example.icetea.util.Callback;
+import com.example.icetea.util.PosterLoader;
 import com.google.android.material.imageview.ShapeableImageView;
 
 import java.text.SimpleDateFormat;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
 
 /**
  * RecyclerView Adapter for displaying a list of events in the Admin section.
@@ -44,6 +48,8 @@ public class AdminEventsAdapter extends RecyclerView.Adapter<AdminEventsAdapter.
     private final ActionListener listener;
     private final SimpleDateFormat dateFormat = new SimpleDateFormat("MMMM d, yyyy @ h:mm a", Locale.getDefault());
     private final SimpleDateFormat regDateFormat = new SimpleDateFormat("MMM d, yyyy @ h:mm a", Locale.getDefault());
+    private final Map<String, Integer> entrantCounts = new HashMap<>();
+    private final Set<String> pendingCounts = new HashSet<>();
 
     /**
      * Constructor for AdminEventsAdapter.
@@ -84,7 +90,12 @@ public class AdminEventsAdapter extends RecyclerView.Adapter<AdminEventsAdapter.
 
         holder.textEventName.setText(event.getName());
         holder.textEventDescription.setText(event.getDescription());
-        holder.textCurrentEntrants.setText("👤 " + (event.getCurrentEntrants() != null ? event.getCurrentEntrants() : 0));
+        Integer entrants = entrantCounts.get(event.getEventId());
+        if (entrants == null) {
+            entrants = event.getCurrentEntrants() != null ? event.getCurrentEntrants() : 0;
+            loadEntrantCount(event);
+        }
+        holder.textCurrentEntrants.setText("👤 " + entrants);
 
         // Format dates
         if (event.getEventStartDate() != null) {
@@ -99,28 +110,24 @@ public class AdminEventsAdapter extends RecyclerView.Adapter<AdminEventsAdapter.
             holder.textRegEnd.setText("Registration end TBD");
         }
 
-        // Decode Base64 poster image
-        Bitmap posterBitmap = null;
-        if (event.getPosterBase64() != null && !event.getPosterBase64().isEmpty()) {
-            try {
-                byte[] decodedBytes = Base64.decode(event.getPosterBase64(), Base64.DEFAULT);
-                posterBitmap = BitmapFactory.decodeByteArray(decodedBytes, 0, decodedBytes.length);
-            } catch (IllegalArgumentException e) {
-                e.printStackTrace(); // Could log this properly in production
-            }
-        }
-
-        // Set image or default
-        if (posterBitmap != null) {
-            holder.imageEventPoster.setImageBitmap(posterBitmap);
-        } else {
-            holder.imageEventPoster.setImageResource(R.drawable.default_poster);
-        }
+        // Decode the poster off the main thread, or show the default
+        PosterLoader.getInstance(context).loadThumbnail(event, holder.imageEventPoster, R.drawable.default_poster);
 
         // Set click listener
         holder.itemView.setOnClickListener(v -> listener.onEventClick(event));
     }
 
+    /**
+     * Cancels any image still loading for a recycled row.
+     *
+     * @param holder The recycled ViewHolder
+     */
+    @Override
+    public void onViewRecycled(@NonNull EventViewHolder holder) {
+        super.onViewRecycled(holder);
+        PosterLoader.getInstance(holder.itemView.getContext()).cancel(holder.imageEventPoster);
+    }
+
     /**
      * Returns the number of items in the dataset.
      *
@@ -131,6 +138,36 @@ public class AdminEventsAdapter extends RecyclerView.Adapter<AdminEventsAdapter.
         return events.size();
     }
 
+    /**
+     * Loads the shard-summed entrant count of an event once and rebinds its row
+     * when the count arrives.
+     *
+     * @param event the event whose count to load
+     */
+    private void loadEntrantCount(Event event) {
+        String eventId = event.getEventId();
+        if (eventId == null || !pendingCounts.add(eventId)) {
+            return;
+        }
+        Stores.waitlist().getEntrantCount(event, new Callback<Integer>() {
+            @Override
+            public void onSuccess(Integer count) {
+                pendingCounts.remove(eventId);
+                entrantCounts.put(eventId, count);
+                for (int i = 0; i < events.size(); i++) {
+                    if (eventId.equals(events.get(i).getEventId())) {
+                        notifyItemChanged(i);
+                    }
+                }
+            }
+
+            @Override
+            public void onFailure(Exception e) {
+                pendingCounts.remove(eventId);
+            }
+        });
+    }
+
     /**
      * ViewHolder class for holding and caching views for each event item.
      */
@@ -13,6 +13,8 @@ import androidx.viewpager2.adapter.FragmentStateAdapter;
 import androidx.viewpager2.widget.ViewPager2;
 
 import com.example.icetea.R;
+import com.example.icetea.models.ImageMigration;
+import com.example.icetea.models.NotificationPreferenceMigration;
 import com.google.android.material.tabs.TabLayout;
 import com.google.android.material.tabs.TabLayoutMediator;
 
@@ -57,7 +59,9 @@ public class AdminHomeFragment extends Fragment {
 
     /**
      * Called immediately after onCreateView() has returned.
-     * Sets up the back button, ViewPager2, and TabLayout with four tabs and their respective fragments.
+     * Sets up the back button, ViewPager2, and TabLayout with four tabs and their respective fragments,
+     * and starts the {@link ImageMigration} of old Base64 images and the
+     * {@link NotificationPreferenceMigration} of users created before the preference index.
      *
      * @param view               the View returned by onCreateView
      * @param savedInstanceState saved state of the fragment
@@ -72,6 +76,11 @@ public class AdminHomeFragment extends Fragment {
                 requireActivity().getSupportFragmentManager().popBackStack()
         );
 
+        // Convert images still stored as Base64 while the admin is here
+        ImageMigration.getInstance().start();
+        // Index notification settings of older users so fan-out stops reading their user documents
+        NotificationPreferenceMigration.getInstance().start();
+
         // Setup ViewPager2 and TabLayout
         ViewPager2 viewPager = view.findViewById(R.id.viewPagerHome);
         TabLayout tabLayout = view.findViewById(R.id.tabsHome);
@@ -1,9 +1,6 @@
 package com.example.icetea.admin;
 
 import android.content.Context;
-import android.graphics.Bitmap;
-import android.graphics.BitmapFactory;
-import android.util.Base64;
 import android.view.LayoutInflater;
 import android.view.View;
 import android.view.ViewGroup;
@@ -14,6 +11,7 @@ import androidx.recyclerview.widget.RecyclerView;
 
 import com.example.icetea.R;
 import com.example.icetea.models.ImageItem;
+import com.example.icetea.util.ImageLoader;
 import com.google.android.material.imageview.ShapeableImageView;
 
 import java.util.List;
@@ -77,24 +75,28 @@ public class AdminImagesAdapter extends RecyclerView.Adapter<AdminImagesAdapter.
     public void onBindViewHolder(@NonNull ImageViewHolder holder, int position) {
         ImageItem item = images.get(position);
 
-        // Decode Base64 image
-        if (item.getBase64() != null && !item.getBase64().isEmpty()) {
-            try {
-                byte[] decodedBytes = Base64.decode(item.getBase64(), Base64.DEFAULT);
-                Bitmap bitmap = BitmapFactory.decodeByteArray(decodedBytes, 0, decodedBytes.length);
-                holder.image.setImageBitmap(bitmap);
-            } catch (IllegalArgumentException e) {
-                e.printStackTrace();
-                holder.image.setImageResource(R.drawable.default_poster);
-            }
+        // Read and decode the image off the main thread, or show the default
+        if (item.getImageKey() != null) {
+            ImageLoader.getInstance(context).load(item.getImageKey(), item.getImage(), item.getBase64(), holder.image, R.drawable.default_poster);
         } else {
-            holder.image.setImageResource(R.drawable.default_poster);
+            ImageLoader.getInstance(context).load(item.getBase64(), holder.image, R.drawable.default_poster);
         }
 
         // Set delete button listener
         holder.deleteButton.setOnClickListener(v -> listener.onDeleteClick(item));
     }
 
+    /**
+     * Cancels any image still loading for a recycled row.
+     *
+     * @param holder The recycled ViewHolder
+     */
+    @Override
+    public void onViewRecycled(@NonNull ImageViewHolder holder) {
+        super.onViewRecycled(holder);
+        ImageLoader.getInstance(holder.itemView.getContext()).cancel(holder.image);
+    }
+
     /**
      * Returns the number of items in the dataset.
      *
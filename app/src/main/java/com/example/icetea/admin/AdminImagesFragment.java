@@ -16,7 +16,9 @@ import android.widget.Toast;
 import com.example.icetea.R;
 import com.example.icetea.models.EventDB;
 import com.example.icetea.models.ImageItem;
+import com.example.icetea.models.PosterDB;
 import com.example.icetea.models.UserDB;
+import com.google.firebase.firestore.Blob;
 import com.google.firebase.firestore.DocumentSnapshot;
 
 import java.util.ArrayList;
@@ -34,6 +36,9 @@ public class AdminImagesFragment extends Fragment {
     private AdminImagesAdapter adapter;
     private List<ImageItem> images;
 
+    /** Number of times the images were loaded, to key images whose documents have no version */
+    private int loadCount;
+
     /**
      * Default constructor.
      */
@@ -101,7 +106,7 @@ public class AdminImagesFragment extends Fragment {
                         } else if ("event".equals(item.getType())) {
                             EventDB.getInstance().updateEvent(item.getId(),
                                     new java.util.HashMap<String, Object>() {{
-                                        put("posterBase64", null);
+                                        put(EventDB.POSTER_FIELD, null);
                                     }},
                                     task -> {
                                         if (task.isSuccessful()) {
@@ -123,32 +128,54 @@ public class AdminImagesFragment extends Fragment {
     }
 
     /**
-     * Loads all images from UserDB (avatars) and EventDB (posters) and updates the adapter.
-     * Displays only images that have a non-empty Base64 string.
+     * Loads all images from UserDB (avatars), PosterDB (poster thumbnails) and EventDB
+     * (inline posters of older events) and updates the adapter.
+     * Displays only images that have data, stored either as a Blob or as a Base64 string.
+     * Images are only read and decoded when their cells are bound, off the main thread.
      */
     private void loadImages() {
         images.clear();
+        // Poster documents are replaced rather than versioned, so key them by this load
+        String load = "#" + (++loadCount);
 
         UserDB.getInstance().getAllUsersWithAvatar(task -> {
             if (task.isSuccessful() && task.getResult() != null) {
-                for (DocumentSnapshot doc : task.getResult().getDocuments()) {
-                    String base64 = doc.getString("avatar");
-                    if (base64 != null && !base64.isEmpty()) {
-                        images.add(new ImageItem("user", doc.getId(), base64));
+                for (DocumentSnapshot doc : task.getResult()) {
+                    Blob image = doc.getBlob(UserDB.AVATAR_IMAGE_FIELD);
+                    String base64 = doc.getString(UserDB.AVATAR_FIELD);
+                    if (image != null || (base64 != null && !base64.isEmpty())) {
+                        String key = UserDB.avatarKey(doc.getId(), doc.getLong(UserDB.AVATAR_VERSION_FIELD));
+                        images.add(new ImageItem("user", doc.getId(), key, image, base64));
                     }
                 }
 
-                EventDB.getInstance().getAllEventsWithPoster(eventTask -> {
-                    if (eventTask.isSuccessful() && eventTask.getResult() != null) {
-                        for (DocumentSnapshot doc : eventTask.getResult().getDocuments()) {
-                            String base64 = doc.getString("posterBase64");
-                            if (base64 != null && !base64.isEmpty()) {
-                                images.add(new ImageItem("event", doc.getId(), base64));
+                PosterDB.getInstance().getAllThumbnails(posterTask -> {
+                    if (posterTask.isSuccessful() && posterTask.getResult() != null) {
+                        for (DocumentSnapshot doc : posterTask.getResult().getDocuments()) {
+                            Blob image = doc.getBlob(PosterDB.IMAGE_FIELD);
+                            String base64 = doc.getString(PosterDB.DATA_FIELD);
+                            String eventId = doc.getString(PosterDB.EVENT_ID_FIELD);
+                            if (image != null || (base64 != null && !base64.isEmpty())) {
+                                images.add(new ImageItem("event", eventId != null ? eventId : doc.getId(),
+                                        doc.getReference().getPath() + load, image, base64));
+                            }
+                        }
+                    }
+
+                    // Events saved before posters had their own collection
+                    EventDB.getInstance().getAllEventsWithPoster(eventTask -> {
+                        if (eventTask.isSuccessful() && eventTask.getResult() != null) {
+                            for (DocumentSnapshot doc : eventTask.getResult().getDocuments()) {
+                                String base64 = doc.getString(EventDB.POSTER_FIELD);
+                                if (base64 != null && !base64.isEmpty()) {
+                                    images.add(new ImageItem("event", doc.getId(),
+                                            doc.getReference().getPath() + "/" + EventDB.POSTER_FIELD + load, null, base64));
+                                }
                             }
                         }
 
                         adapter.notifyDataSetChanged();
-                    }
+                    });
                 });
             }
         });
@@ -1,7 +1,6 @@
 package com.example.icetea.admin;
 
 import android.content.Context;
-import android.graphics.Bitmap;
 import android.view.LayoutInflater;
 import android.view.View;
 import android.view.ViewGroup;
@@ -13,7 +12,8 @@ import androidx.recyclerview.widget.RecyclerView;
 
 import com.example.icetea.R;
 import com.example.icetea.models.User;
-import com.example.icetea.util.ImageUtil;
+import com.example.icetea.models.UserDB;
+import com.example.icetea.util.ImageLoader;
 import com.google.android.material.imageview.ShapeableImageView;
 
 import java.util.List;
@@ -80,21 +80,23 @@ public class AdminProfilesAdapter extends RecyclerView.Adapter<AdminProfilesAdap
         holder.textName.setText(user.getName());
         holder.textEmail.setText(user.getEmail());
 
-        String avatarBase64 = user.getAvatar();
-        if (avatarBase64 == null || avatarBase64.isEmpty()) {
-            holder.imageProfile.setImageResource(R.drawable.default_avatar);
-        } else {
-            Bitmap profileBitmap = ImageUtil.base64ToBitmap(avatarBase64);
-            if (profileBitmap != null) {
-                holder.imageProfile.setImageBitmap(profileBitmap);
-            } else {
-                holder.imageProfile.setImageResource(R.drawable.default_avatar);
-            }
-        }
+        ImageLoader.getInstance(context).load(UserDB.avatarKey(user.getId(), user.getAvatarVersion()),
+                user.getAvatarImage(), user.getAvatar(), holder.imageProfile, R.drawable.default_avatar);
 
         holder.buttonDelete.setOnClickListener(v -> listener.onDelete(user));
     }
 
+    /**
+     * Cancels any image still loading for a recycled row.
+     *
+     * @param holder The recycled ViewHolder
+     */
+    @Override
+    public void onViewRecycled(@NonNull UserViewHolder holder) {
+        super.onViewRecycled(holder);
+        ImageLoader.getInstance(holder.itemView.getContext()).cancel(holder.imageProfile);
+    }
+
     /**
      * Returns the number of items in the dataset.
      *
@@ -2,6 +2,7 @@ package com.example.icetea.auth;
 
 import android.content.Intent;
 import android.os.Bundle;
+import android.util.Log;
 import android.widget.Toast;
 
 import androidx.activity.EdgeToEdge;
@@ -14,6 +15,8 @@ import com.example.icetea.util.Callback;
 import com.example.icetea.util.ImageUtil;
 import com.google.firebase.firestore.DocumentSnapshot;
 
+import java.util.Collections;
+
 /**
  * AuthActivity serves as the entry point for user authentication.
  * <p>
@@ -28,6 +31,8 @@ import com.google.firebase.firestore.DocumentSnapshot;
  */
 public class AuthActivity extends AppCompatActivity {
 
+    private static final String TAG = "AuthActivity";
+
     /** Controller responsible for authentication logic */
     AuthController controller;
 
@@ -68,7 +73,7 @@ public class AuthActivity extends AppCompatActivity {
                             String email = doc.getString("email");
                             String phone = doc.getString("phone");
                             boolean notifications = Boolean.TRUE.equals(doc.getBoolean("notifications"));
-                            String avatar = doc.getString("avatar");
+                            byte[] avatar = ImageUtil.toBytes(doc.getBlob(UserDB.AVATAR_IMAGE_FIELD), doc.getString(UserDB.AVATAR_FIELD));
 
                             // Populate CurrentUser singleton
                             CurrentUser user = CurrentUser.getInstance();
@@ -77,7 +82,14 @@ public class AuthActivity extends AppCompatActivity {
                             user.setEmail(email);
                             user.setPhone(phone);
                             user.setNotifications(notifications);
-                            user.setAvatar(ImageUtil.base64ToBitmap(avatar));
+                            user.setAvatar(ImageUtil.bytesToBitmap(avatar));
+
+                            // Index the notification setting of users created before the preference index
+                            UserDB.getInstance().setNotificationPreferences(Collections.singletonMap(fid, notifications), indexTask -> {
+                                if (!indexTask.isSuccessful()) {
+                                    Log.w(TAG, "Failed to index notification preference", indexTask.getException());
+                                }
+                            });
 
                             // Launch MainActivity and clear back stack
                             Intent intent = new Intent(AuthActivity.this, MainActivity.class);
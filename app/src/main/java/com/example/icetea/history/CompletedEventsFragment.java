@@ -151,42 +151,44 @@ public class CompletedEventsFragment extends Fragment {
     }
 
     /**
-     * Fetches Event objects from the database and pairs them with
-     * the user's waitlist status. Only includes completed events.
+     * Fetches Event objects in bulk and pairs them with the user's waitlist
+     * status. Only includes completed events. Events are shown as each group
+     * arrives instead of waiting for the slowest read.
      *
      * @param eventIds  List of event IDs to fetch
      * @param statusMap Mapping from event ID to waitlist status
      */
     private void loadEventsWithStatus(List<String> eventIds, Map<String, String> statusMap) {
-        List<HistoryEventItem> tempList = new ArrayList<>();
-        int[] loadedCount = {0};
-
-        for (String eventId : eventIds) {
-            EventDB.getInstance().getEvent(eventId, task -> {
-                loadedCount[0]++;
-
-                if (task.isSuccessful() && task.getResult() != null && task.getResult().exists()) {
-                    Event event = task.getResult().toObject(Event.class);
-                    if (event != null && isEventCompleted(event)) {
-                        String status = statusMap.get(eventId);
-                        tempList.add(new HistoryEventItem(event, status));
+        eventList.clear();
+        adapter.notifyDataSetChanged();
+
+        EventDB.getInstance().getEvents(eventIds, new EventDB.EventsCallback() {
+            @Override
+            public void onChunkLoaded(List<Event> events) {
+                if (!isAdded()) return;
+
+                int start = eventList.size();
+                for (Event event : events) {
+                    if (isEventCompleted(event)) {
+                        eventList.add(new HistoryEventItem(event, statusMap.get(event.getEventId())));
                     }
                 }
 
-                // Update adapter once all events are loaded
-                if (loadedCount[0] == eventIds.size()) {
-                    eventList.clear();
-                    eventList.addAll(tempList);
+                if (eventList.size() > start) {
+                    hideEmptyState();
+                    adapter.notifyItemRangeInserted(start, eventList.size() - start);
+                }
+            }
 
-                    if (eventList.isEmpty()) {
-                        showEmptyState();
-                    } else {
-                        hideEmptyState();
-                        adapter.notifyDataSetChanged();
-                    }
+            @Override
+            public void onAllLoaded(Exception error) {
+                if (!isAdded()) return;
+
+                if (eventList.isEmpty()) {
+                    showEmptyState();
                 }
-            });
-        }
+            }
+        });
     }
 
     /**
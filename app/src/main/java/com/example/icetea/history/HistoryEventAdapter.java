@@ -1,6 +1,5 @@
 package com.example.icetea.history;
 
-import android.graphics.Bitmap;
 import android.view.LayoutInflater;
 import android.view.View;
 import android.view.ViewGroup;
@@ -13,7 +12,7 @@ import androidx.recyclerview.widget.RecyclerView;
 import com.example.icetea.R;
 import com.example.icetea.models.Event;
 import com.example.icetea.models.Waitlist;
-import com.example.icetea.util.ImageUtil;
+import com.example.icetea.util.PosterLoader;
 
 import java.text.SimpleDateFormat;
 import java.util.List;
@@ -84,12 +83,8 @@ public class HistoryEventAdapter extends RecyclerView.Adapter<HistoryEventAdapte
         setStatusLabel(holder, status);
 
         // Load poster image or fallback to default
-        Bitmap posterBitmap = ImageUtil.base64ToBitmap(event.getPosterBase64());
-        if (posterBitmap != null) {
-            holder.imageEventPoster.setImageBitmap(posterBitmap);
-        } else {
-            holder.imageEventPoster.setImageResource(R.drawable.default_poster);
-        }
+        PosterLoader.getInstance(holder.itemView.getContext())
+                .loadThumbnail(event, holder.imageEventPoster, R.drawable.default_poster);
 
         // Bind click listener
         holder.bind(item, listener);
@@ -152,6 +147,17 @@ public class HistoryEventAdapter extends RecyclerView.Adapter<HistoryEventAdapte
         }
     }
 
+    /**
+     * Cancels any image still loading for a recycled row.
+     *
+     * @param holder The recycled ViewHolder
+     */
+    @Override
+    public void onViewRecycled(@NonNull HistoryEventViewHolder holder) {
+        super.onViewRecycled(holder);
+        PosterLoader.getInstance(holder.itemView.getContext()).cancel(holder.imageEventPoster);
+    }
+
     @Override
     public int getItemCount() {
         return eventItems.size();
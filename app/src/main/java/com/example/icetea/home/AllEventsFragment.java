@@ -24,6 +24,7 @@ import com.example.icetea.scanner.QRScannerFragment;
 import com.google.android.material.dialog.MaterialAlertDialogBuilder;
 
 import com.example.icetea.R;
+import com.example.icetea.core.EventFilter;
 import com.example.icetea.models.Event;
 import com.example.icetea.models.EventDB;
 import com.google.android.material.floatingactionbutton.FloatingActionButton;
@@ -69,6 +70,30 @@ public class AllEventsFragment extends Fragment {
     /** Formatter for displaying dates in the UI. */
     private SimpleDateFormat dateFormat = new SimpleDateFormat("MMM dd, yyyy", Locale.getDefault());
 
+    /** Number of events requested from the database per page. */
+    private static final int PAGE_SIZE = EventDB.DEFAULT_PAGE_SIZE;
+
+    /** Number of rows from the end of the list at which the next page is requested. */
+    private static final int LOAD_MORE_THRESHOLD = 5;
+
+    /** Search and date range filter applied to loaded events. */
+    private static final EventFilter<Event> EVENT_FILTER = new EventFilter<>(
+            Event::getName,
+            Event::getDescription,
+            event -> event.getEventStartDate() != null ? event.getEventStartDate().toDate() : null);
+
+    /** RecyclerView displaying the events. */
+    private RecyclerView recyclerView;
+
+    /** Last document of the most recently loaded page, used as the query cursor. */
+    private DocumentSnapshot lastVisible = null;
+
+    /** Whether a page request is currently in flight. */
+    private boolean isLoading = false;
+
+    /** Whether more pages may be available from the database. */
+    private boolean hasMore = true;
+
     /**
      * Required empty public constructor.
      */
@@ -105,7 +130,7 @@ public class AllEventsFragment extends Fragment {
         filterButton = view.findViewById(R.id.buttonFilter);
 
         // Setup RecyclerView
-        RecyclerView recyclerView = view.findViewById(R.id.recyclerViewAllEvents);
+        recyclerView = view.findViewById(R.id.recyclerViewAllEvents);
         eventList = new ArrayList<>();
         filteredEventList = new ArrayList<>();
 
@@ -125,13 +150,24 @@ public class AllEventsFragment extends Fragment {
             transaction.commit();
         });
 
-        recyclerView.setLayoutManager(new LinearLayoutManager(getContext()));
+        LinearLayoutManager layoutManager = new LinearLayoutManager(getContext());
+        recyclerView.setLayoutManager(layoutManager);
         recyclerView.setAdapter(adapter);
+        recyclerView.addOnScrollListener(new RecyclerView.OnScrollListener() {
+            @Override
+            public void onScrolled(@NonNull RecyclerView rv, int dx, int dy) {
+                if (dy <= 0) return;
+                int lastPosition = layoutManager.findLastVisibleItemPosition();
+                if (lastPosition >= adapter.getItemCount() - LOAD_MORE_THRESHOLD) {
+                    loadNextPage();
+                }
+            }
+        });
 
         setupSearch();
         filterButton.setOnClickListener(v -> showFilterDialog());
 
-        loadEvents();
+        loadNextPage();
     }
 
     /**
@@ -161,80 +197,64 @@ public class AllEventsFragment extends Fragment {
      */
     private void filterEvents(String query) {
         filteredEventList.clear();
-
-        List<Event> eventsToFilter = eventList;
-
-        // Apply date range filter if set
-        if (selectedStartDate != null && selectedEndDate != null) {
-            List<Event> dateFilteredEvents = new ArrayList<>();
-
-            Calendar startCal = Calendar.getInstance();
-            startCal.setTime(selectedStartDate);
-            startCal.set(Calendar.HOUR_OF_DAY, 0);
-            startCal.set(Calendar.MINUTE, 0);
-            startCal.set(Calendar.SECOND, 0);
-            startCal.set(Calendar.MILLISECOND, 0);
-
-            Calendar endCal = Calendar.getInstance();
-            endCal.setTime(selectedEndDate);
-            endCal.set(Calendar.HOUR_OF_DAY, 23);
-            endCal.set(Calendar.MINUTE, 59);
-            endCal.set(Calendar.SECOND, 59);
-            endCal.set(Calendar.MILLISECOND, 999);
-
-            for (Event event : eventList) {
-                if (event.getEventStartDate() != null) {
-                    Date eventDate = event.getEventStartDate().toDate();
-                    if (eventDate.compareTo(startCal.getTime()) >= 0 &&
-                            eventDate.compareTo(endCal.getTime()) <= 0) {
-                        dateFilteredEvents.add(event);
-                    }
-                }
-            }
-            eventsToFilter = dateFilteredEvents;
-        }
-
-        // Apply text search filter
-        if (query.isEmpty()) {
-            filteredEventList.addAll(eventsToFilter);
-        } else {
-            String lowerCaseQuery = query.toLowerCase().trim();
-            for (Event event : eventsToFilter) {
-                if (event.getName() != null &&
-                        event.getName().toLowerCase().contains(lowerCaseQuery)) {
-                    filteredEventList.add(event);
-                    continue;
-                }
-                if (event.getDescription() != null &&
-                        event.getDescription().toLowerCase().contains(lowerCaseQuery)) {
-                    filteredEventList.add(event);
-                }
-            }
-        }
-
+        filteredEventList.addAll(applyFilters(eventList, query));
         adapter.notifyDataSetChanged();
     }
 
     /**
-     * Loads all active events from the database and applies current filters.
+     * Returns the events from the given list that match the search query
+     * and the selected date range, preserving their order.
+     *
+     * @param source The events to filter.
+     * @param query  The search text input by the user.
+     * @return A new list containing only the matching events.
+     */
+    private List<Event> applyFilters(List<Event> source, String query) {
+        return EVENT_FILTER.filter(source, query, selectedStartDate, selectedEndDate);
+    }
+
+    /**
+     * Loads the next page of active events from the database and appends the
+     * ones matching the current filters to the list.
+     * <p>
+     * Does nothing if a page is already loading or the last page has been reached.
      */
-    private void loadEvents() {
-        EventDB.getInstance().getActiveEvents(task -> {
+    private void loadNextPage() {
+        if (isLoading || !hasMore) return;
+        isLoading = true;
+
+        EventDB.getInstance().getActiveEventsPage(lastVisible, PAGE_SIZE, task -> {
+            isLoading = false;
+            if (!isAdded()) return;
+
             if (task.isSuccessful() && task.getResult() != null) {
+                List<DocumentSnapshot> docs = task.getResult().getDocuments();
                 List<Event> fetchedEvents = new ArrayList<>();
-                for (DocumentSnapshot doc : task.getResult()) {
+                for (DocumentSnapshot doc : docs) {
                     Event event = doc.toObject(Event.class);
                     if (event != null) {
                         fetchedEvents.add(event);
                     }
                 }
-                eventList.clear();
+
+                if (!docs.isEmpty()) {
+                    lastVisible = docs.get(docs.size() - 1);
+                }
+                hasMore = docs.size() == PAGE_SIZE;
+
                 eventList.addAll(fetchedEvents);
 
-                // Apply current search filter
+                // Only append the new page's matches; rows already shown are untouched
                 String currentQuery = searchEditText.getText() != null ?
                         searchEditText.getText().toString() : "";
-                filterEvents(currentQuery);
+                adapter.appendEvents(applyFilters(fetchedEvents, currentQuery));
+
+                // Keep loading while the filtered list is too short to scroll
+                recyclerView.post(() -> {
+                    if (isAdded() && !recyclerView.canScrollVertically(1)) {
+                        loadNextPage();
+                    }
+                });
             } else {
                 Toast.makeText(getContext(), "Failed to load events", Toast.LENGTH_SHORT).show();
                 Log.e("AllEventsFragment", "Failed to fetch events", task.getException());
@@ -0,0 +1,247 @@
+package com.example.icetea.home;
+
+import android.Manifest;
+import android.content.pm.PackageManager;
+import android.os.Bundle;
+import android.view.LayoutInflater;
+import android.view.View;
+import android.view.ViewGroup;
+import android.widget.ImageButton;
+import android.widget.TextView;
+import android.widget.Toast;
+
+import androidx.activity.result.ActivityResultLauncher;
+import androidx.activity.result.contract.ActivityResultContracts;
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.core.content.ContextCompat;
+import androidx.fragment.app.Fragment;
+
+import com.example.icetea.R;
+import com.example.icetea.scanner.ContinuousScanner;
+import com.google.android.material.button.MaterialButton;
+import com.journeyapps.barcodescanner.DecoratedBarcodeView;
+
+/**
+ * Fragment for checking in an event's entrants at the door.
+ * <p>
+ * Entrants show the check-in code from their event details screen. Codes are
+ * validated against a {@link CheckInSession} roster kept on the device, so each
+ * scan is answered without a network read. The camera stays open in a
+ * {@link ContinuousScanner}, so entrants can be scanned one after another.
+ */
+public class CheckInFragment extends Fragment {
+
+    /** Argument key for the event ID */
+    private static final String ARG_EVENT_ID = "eventId";
+
+    /** Most camera frames decoded per second */
+    private static final int MAX_FRAMES_PER_SECOND = 8;
+
+    /** Time in milliseconds during which the same code is not handled again */
+    private static final long DUPLICATE_WINDOW_MS = 3_000L;
+
+    /** ID of the event to check in to */
+    private String eventId;
+
+    private CheckInSession session;
+    private TextView countText;
+    private TextView resultText;
+    private MaterialButton cameraButton;
+    private ContinuousScanner scanner;
+
+    private final ActivityResultLauncher<String> cameraPermissionLauncher = registerForActivityResult(
+            new ActivityResultContracts.RequestPermission(),
+            isGranted -> {
+                if (isGranted) {
+                    startScanner();
+                } else {
+                    Toast.makeText(getContext(), "Camera permission is needed to check in entrants", Toast.LENGTH_SHORT).show();
+                }
+            });
+
+    /**
+     * Default constructor. Required empty public constructor.
+     */
+    public CheckInFragment() { }
+
+    /**
+     * Factory method to create a new instance of this fragment with a specific event ID.
+     *
+     * @param eventId The ID of the event
+     * @return A new instance of CheckInFragment
+     */
+    public static CheckInFragment newInstance(String eventId) {
+        CheckInFragment fragment = new CheckInFragment();
+        Bundle args = new Bundle();
+        args.putString(ARG_EVENT_ID, eventId);
+        fragment.setArguments(args);
+        return fragment;
+    }
+
+    /**
+     * Called when the fragment is created.
+     * Retrieves the event ID from the arguments if provided.
+     *
+     * @param savedInstanceState Saved instance state
+     */
+    @Override
+    public void onCreate(@Nullable Bundle savedInstanceState) {
+        super.onCreate(savedInstanceState);
+        if (getArguments() != null) {
+            eventId = getArguments().getString(ARG_EVENT_ID);
+        }
+    }
+
+    /**
+     * Inflates the fragment layout.
+     *
+     * @param inflater LayoutInflater to inflate the view
+     * @param container Parent view group
+     * @param savedInstanceState Saved instance state
+     * @return The inflated view
+     */
+    @Override
+    public View onCreateView(@NonNull LayoutInflater inflater, ViewGroup container,
+                             Bundle savedInstanceState) {
+        return inflater.inflate(R.layout.fragment_check_in, container, false);
+    }
+
+    /**
+     * Called after the view is created.
+     * Starts downloading the roster and sets up the back button and the embedded scanner.
+     *
+     * @param view The root view of the fragment
+     * @param savedInstanceState Saved instance state
+     */
+    @Override
+    public void onViewCreated(@NonNull View view, @Nullable Bundle savedInstanceState) {
+        super.onViewCreated(view, savedInstanceState);
+
+        ImageButton backButton = view.findViewById(R.id.buttonBack);
+        backButton.setOnClickListener(v ->
+                requireActivity().getSupportFragmentManager().popBackStack()
+        );
+
+        countText = view.findViewById(R.id.textCheckInCount);
+        resultText = view.findViewById(R.id.textCheckInResult);
+
+        session = new CheckInSession(eventId, new CheckInSession.Listener() {
+            @Override
+            public void onRosterChanged(int checkedIn, int total) {
+                countText.setText("Checked in: " + checkedIn + " / " + total);
+            }
+
+            @Override
+            public void onRosterError(Exception e) {
+                countText.setText("Could not load the roster");
+            }
+        });
+        session.start();
+
+        DecoratedBarcodeView barcodeView = view.findViewById(R.id.barcodeCheckIn);
+        scanner = new ContinuousScanner(requireActivity(), barcodeView,
+                MAX_FRAMES_PER_SECOND, DUPLICATE_WINDOW_MS, text -> {
+                    if (session != null) {
+                        showResult(session.scan(text));
+                    }
+                });
+
+        cameraButton = view.findViewById(R.id.buttonStartCheckIn);
+        cameraButton.setOnClickListener(v ->
+                cameraPermissionLauncher.launch(Manifest.permission.CAMERA));
+        if (!hasCameraPermission()) {
+            cameraPermissionLauncher.launch(Manifest.permission.CAMERA);
+        }
+    }
+
+    /**
+     * Opens the camera when the fragment is shown, if the permission has been granted.
+     */
+    @Override
+    public void onResume() {
+        super.onResume();
+        if (hasCameraPermission()) {
+            startScanner();
+        }
+    }
+
+    /**
+     * Releases the camera when the fragment is hidden.
+     */
+    @Override
+    public void onPause() {
+        super.onPause();
+        if (scanner != null) {
+            scanner.pause();
+        }
+    }
+
+    /**
+     * Stops the session, writing any check-ins still queued.
+     */
+    @Override
+    public void onDestroyView() {
+        super.onDestroyView();
+        scanner = null;
+        if (session != null) {
+            session.stop();
+            session = null;
+        }
+    }
+
+    /**
+     * @return Whether the app may use the camera.
+     */
+    private boolean hasCameraPermission() {
+        return ContextCompat.checkSelfPermission(requireContext(), Manifest.permission.CAMERA)
+                == PackageManager.PERMISSION_GRANTED;
+    }
+
+    /**
+     * Opens the camera and starts decoding entrants' codes.
+     */
+    private void startScanner() {
+        if (scanner == null || !isResumed()) {
+            return;
+        }
+        cameraButton.setVisibility(View.GONE);
+        scanner.resume();
+    }
+
+    /**
+     * Shows the outcome of a scan on screen and as a Toast.
+     *
+     * @param outcome The outcome of the scan
+     */
+    private void showResult(CheckInSession.ScanResult outcome) {
+        String message;
+        int color;
+        switch (outcome) {
+            case ADMITTED:
+                message = "Checked in";
+                color = R.color.green;
+                break;
+            case ALREADY_CHECKED_IN:
+                message = "Already checked in";
+                color = R.color.yellow;
+                break;
+            case NOT_ON_ROSTER:
+                message = "Not an accepted entrant";
+                color = android.R.color.holo_red_dark;
+                break;
+            case ROSTER_LOADING:
+                message = "Roster is still loading, try again";
+                color = R.color.bodyText;
+                break;
+            default:
+                message = "Not a check-in code for this event";
+                color = android.R.color.holo_red_dark;
+                break;
+        }
+        resultText.setText(message);
+        resultText.setTextColor(ContextCompat.getColor(requireContext(), color));
+        resultText.setVisibility(View.VISIBLE);
+        Toast.makeText(getContext(), message, Toast.LENGTH_SHORT).show();
+    }
+}
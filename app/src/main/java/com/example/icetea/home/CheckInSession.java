@@ -0,0 +1,245 @@
+package com.example.icetea.home;
+
+import android.os.Handler;
+import android.os.Looper;
+import android.util.Log;
+
+import com.example.icetea.core.CheckInCode;
+import com.example.icetea.core.CheckInRoster;
+import com.example.icetea.models.BatchWriter;
+import com.example.icetea.models.Waitlist;
+import com.example.icetea.models.WaitlistDB;
+import com.example.icetea.util.QRCode;
+import com.google.android.gms.tasks.Task;
+import com.google.android.gms.tasks.Tasks;
+import com.google.firebase.Timestamp;
+import com.google.firebase.firestore.DocumentChange;
+import com.google.firebase.firestore.DocumentSnapshot;
+import com.google.firebase.firestore.ListenerRegistration;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Door check-in for one event, validated against a roster kept in memory.
+ * <p>
+ * The event's accepted entrants are downloaded once into a {@link CheckInRoster},
+ * and the same snapshot listener then applies only the entries that change, such
+ * as late acceptances or cancellations. Scanned check-in codes are checked on the
+ * device with no network read. Check-ins are queued and written back with
+ * {@link WaitlistDB#checkInEntrants} in batches of up to {@value #FLUSH_SIZE}, or
+ * after {@value #FLUSH_DELAY_MS} ms, whichever comes first.
+ * </p>
+ *
+ * <p>All methods must be called on the main thread.</p>
+ */
+public class CheckInSession {
+
+    private static final String TAG = "CheckInSession";
+
+    /** Number of queued check-ins that triggers a write */
+    static final int FLUSH_SIZE = 50;
+
+    /** Longest time in milliseconds a check-in waits in the queue */
+    static final long FLUSH_DELAY_MS = 2_000L;
+
+    /**
+     * Outcome of a scan.
+     */
+    public enum ScanResult {
+        /** The entrant is on the roster and is now checked in */
+        ADMITTED,
+        /** The entrant is on the roster but already checked in */
+        ALREADY_CHECKED_IN,
+        /** The code is valid for this event, but the entrant is not on the roster */
+        NOT_ON_ROSTER,
+        /** The code is not a check-in code for this event */
+        INVALID_CODE,
+        /** The roster has not been downloaded yet */
+        ROSTER_LOADING
+    }
+
+    /**
+     * Receives changes to the roster.
+     */
+    public interface Listener {
+
+        /**
+         * Called when the roster is loaded or changes, including after each admission.
+         *
+         * @param checkedIn Number of entrants checked in
+         * @param total     Number of accepted entrants
+         */
+        void onRosterChanged(int checkedIn, int total);
+
+        /**
+         * Called when the roster cannot be downloaded or kept current.
+         *
+         * @param e The failure
+         */
+        void onRosterError(Exception e);
+    }
+
+    private final String eventId;
+    private final Listener listener;
+    private final CheckInRoster roster = new CheckInRoster();
+    private final Handler handler = new Handler(Looper.getMainLooper());
+    private final Runnable flushTask = this::flush;
+
+    /** Entrants admitted by this device, kept checked in even before their write lands */
+    private final Set<String> admitted = new HashSet<>();
+
+    /** Check-ins not yet written, by user ID */
+    private final Map<String, Timestamp> queued = new LinkedHashMap<>();
+
+    private ListenerRegistration registration;
+    private boolean loaded;
+    private boolean flushing;
+
+    /**
+     * Creates a session; call {@link #start()} to download the roster.
+     *
+     * @param eventId  The event whose entrants check in
+     * @param listener Receives roster changes
+     */
+    public CheckInSession(String eventId, Listener listener) {
+        this.eventId = eventId;
+        this.listener = listener;
+    }
+
+    /**
+     * Downloads the roster and keeps it current until {@link #stop()}.
+     */
+    public void start() {
+        if (registration != null) return;
+        registration = WaitlistDB.getInstance().listenToEntrantsByStatus(eventId, Waitlist.STATUS_ACCEPTED, (snapshot, e) -> {
+            if (e != null || snapshot == null) {
+                listener.onRosterError(e != null ? e : new Exception("Failed to load the roster"));
+                return;
+            }
+            for (DocumentChange change : snapshot.getDocumentChanges()) {
+                DocumentSnapshot doc = change.getDocument();
+                String userId = doc.getString("userId");
+                if (userId == null) continue;
+                if (change.getType() == DocumentChange.Type.REMOVED) {
+                    roster.remove(userId);
+                } else {
+                    boolean checkedIn = doc.getTimestamp(WaitlistDB.CHECKED_IN_AT_FIELD) != null || admitted.contains(userId);
+                    roster.put(userId, checkedIn);
+                }
+            }
+            loaded = true;
+            listener.onRosterChanged(roster.checkedInCount(), roster.size());
+        });
+    }
+
+    /**
+     * Stops following the roster and writes any queued check-ins.
+     */
+    public void stop() {
+        if (registration != null) {
+            registration.remove();
+            registration = null;
+        }
+        flush();
+    }
+
+    /**
+     * Checks in the entrant of a scanned code.
+     *
+     * @param text The scanned text
+     * @return The outcome of the scan
+     */
+    public ScanResult scan(String text) {
+        CheckInCode code = QRCode.parseCheckIn(text != null ? text.trim() : null);
+        if (code == null || !eventId.equals(code.getEventId())) {
+            return ScanResult.INVALID_CODE;
+        }
+        if (!loaded) {
+            return ScanResult.ROSTER_LOADING;
+        }
+
+        switch (roster.checkIn(code.getUserId())) {
+            case ADMITTED:
+                admitted.add(code.getUserId());
+                queue(code.getUserId(), Timestamp.now());
+                listener.onRosterChanged(roster.checkedInCount(), roster.size());
+                return ScanResult.ADMITTED;
+            case ALREADY_CHECKED_IN:
+                return ScanResult.ALREADY_CHECKED_IN;
+            default:
+                return ScanResult.NOT_ON_ROSTER;
+        }
+    }
+
+    private void queue(String userId, Timestamp checkedInAt) {
+        queued.put(userId, checkedInAt);
+        if (queued.size() >= FLUSH_SIZE) {
+            flush();
+        } else if (queued.size() == 1) {
+            // Timed from the oldest queued check-in, so a steady stream still gets written
+            handler.postDelayed(flushTask, FLUSH_DELAY_MS);
+        }
+    }
+
+    /**
+     * Writes the queued check-ins. A write that failed with a transient error puts them
+     * back in the queue to be retried; after any other failure, such as an entry deleted
+     * since the roster was loaded, each check-in is written on its own so only the
+     * failing ones are dropped.
+     */
+    private void flush() {
+        handler.removeCallbacks(flushTask);
+        if (flushing || queued.isEmpty()) return;
+
+        Map<String, Timestamp> batch = new LinkedHashMap<>(queued);
+        queued.clear();
+        flushing = true;
+        WaitlistDB.getInstance().checkInEntrants(eventId, batch).continueWithTask(task -> {
+            if (task.isSuccessful()) {
+                return Tasks.forResult(null);
+            }
+            if (BatchWriter.isTransient(task.getException())) {
+                Log.w(TAG, "Failed to write check-ins, retrying", task.getException());
+                requeue(batch);
+                return Tasks.forResult(null);
+            }
+            List<Task<Void>> writes = new ArrayList<>();
+            for (Map.Entry<String, Timestamp> checkIn : batch.entrySet()) {
+                writes.add(writeOne(checkIn.getKey(), checkIn.getValue()));
+            }
+            return Tasks.whenAll(writes);
+        }).addOnCompleteListener(task -> {
+            flushing = false;
+            if (!queued.isEmpty()) {
+                handler.postDelayed(flushTask, FLUSH_DELAY_MS);
+            }
+        });
+    }
+
+    /**
+     * Writes a single check-in, queueing it again if it failed with a transient error
+     * and dropping it otherwise.
+     */
+    private Task<Void> writeOne(String userId, Timestamp checkedInAt) {
+        return WaitlistDB.getInstance().checkInEntrants(eventId, Collections.singletonMap(userId, checkedInAt))
+                .addOnFailureListener(e -> {
+                    if (BatchWriter.isTransient(e)) {
+                        requeue(Collections.singletonMap(userId, checkedInAt));
+                    } else {
+                        Log.e(TAG, "Dropped check-in of " + userId, e);
+                    }
+                });
+    }
+
+    private void requeue(Map<String, Timestamp> checkIns) {
+        for (Map.Entry<String, Timestamp> checkIn : checkIns.entrySet()) {
+            queued.putIfAbsent(checkIn.getKey(), checkIn.getValue());
+        }
+    }
+}
@@ -5,7 +5,9 @@ import android.util.Log;
 import com.example.icetea.auth.CurrentUser;
 import com.example.icetea.models.Event;
 import com.example.icetea.models.EventDB;
+import com.example.icetea.models.WaitlistStore;
 import com.example.icetea.util.Callback;
+import com.google.android.gms.tasks.OnCompleteListener;
 import com.google.firebase.Timestamp;
 
 import java.text.ParseException;
@@ -47,7 +49,51 @@ public class CreateEventController {
                             String posterBase64, String regStart, String regEnd,
                             String eventStart, String eventEnd, String eventLocation,
                             String maxEntrants, boolean geolocationRequired, Callback<Void> callback) {
+        Event newEvent = buildEvent(eventName, eventDescription, eventCriteria, regStart, regEnd,
+                eventStart, eventEnd, eventLocation, maxEntrants, geolocationRequired, callback);
+        if (newEvent == null) return;
+        newEvent.setPosterBase64(posterBase64);
+
+        EventDB.getInstance().createEvent(newEvent, completionListener(callback));
+    }
 
+    /**
+     * Creates an event with an encoded poster using the provided fields, validates
+     * conversions, and sends the event to Firestore.
+     *
+     * @param eventName           The name of the event.
+     * @param eventDescription    The description of the event.
+     * @param eventCriteria       The criteria for selecting entrants.
+     * @param poster              The encoded event poster image.
+     * @param posterThumbnail     The encoded thumbnail of the poster, or null.
+     * @param regStart            Registration open date (text).
+     * @param regEnd              Registration close date (text).
+     * @param eventStart          Event start date (text).
+     * @param eventEnd            Event end date (text).
+     * @param eventLocation       The location of the event.
+     * @param maxEntrants         Maximum number of entrants allowed.
+     * @param geolocationRequired Whether entrants must provide location.
+     * @param callback            Callback for success or failure.
+     */
+    public void createEvent(String eventName, String eventDescription, String eventCriteria,
+                            byte[] poster, byte[] posterThumbnail, String regStart, String regEnd,
+                            String eventStart, String eventEnd, String eventLocation,
+                            String maxEntrants, boolean geolocationRequired, Callback<Void> callback) {
+        Event newEvent = buildEvent(eventName, eventDescription, eventCriteria, regStart, regEnd,
+                eventStart, eventEnd, eventLocation, maxEntrants, geolocationRequired, callback);
+        if (newEvent == null) return;
+
+        EventDB.getInstance().createEvent(newEvent, poster, posterThumbnail, completionListener(callback));
+    }
+
+    /**
+     * Builds a new event from the provided fields, or reports the first invalid
+     * date to the callback and returns null.
+     */
+    private Event buildEvent(String eventName, String eventDescription, String eventCriteria,
+                             String regStart, String regEnd, String eventStart, String eventEnd,
+                             String eventLocation, String maxEntrants, boolean geolocationRequired,
+                             Callback<Void> callback) {
         Timestamp regStartTs = textToTimestamp(regStart);
         Timestamp regEndTs = textToTimestamp(regEnd);
         Timestamp eventStartTs = textToTimestamp(eventStart);
@@ -55,12 +101,12 @@ public class CreateEventController {
 
         if (regEndTs == null) {
             callback.onFailure(new Exception("Invalid registration close date format"));
-            return;
+            return null;
         }
 
         if (eventStartTs == null) {
             callback.onFailure(new Exception("Invalid event start date format"));
-            return;
+            return null;
         }
 
         Integer maxEntrantsInt = null;
@@ -78,7 +124,6 @@ public class CreateEventController {
         newEvent.setName(eventName);
         newEvent.setDescription(eventDescription);
         newEvent.setCriteria(eventCriteria);
-        newEvent.setPosterBase64(posterBase64);
         newEvent.setRegistrationStartDate(regStartTs);
         newEvent.setRegistrationEndDate(regEndTs);
         newEvent.setEventStartDate(eventStartTs);
@@ -86,10 +131,17 @@ public class CreateEventController {
         newEvent.setLocation(eventLocation);
         newEvent.setMaxEntrants(maxEntrantsInt);
         newEvent.setCurrentEntrants(0);
+        newEvent.setEntrantShardCount(WaitlistStore.DEFAULT_SHARD_COUNT);
         newEvent.setGeolocationRequirement(geolocationRequired);
         newEvent.setAlreadyDrew(false);
+        return newEvent;
+    }
 
-        EventDB.getInstance().createEvent(newEvent, task -> {
+    /**
+     * Returns a listener that reports the outcome of creating an event to a callback.
+     */
+    private static OnCompleteListener<Void> completionListener(Callback<Void> callback) {
+        return task -> {
             if (task.isSuccessful()) {
                 callback.onSuccess(null);
             } else {
@@ -98,7 +150,7 @@ public class CreateEventController {
                         : new Exception("Failed to create event");
                 callback.onFailure(e);
             }
-        });
+        };
     }
 
     /**
@@ -19,16 +19,17 @@ import android.widget.ImageView;
 import android.widget.Toast;
 
 import com.example.icetea.R;
+import com.example.icetea.models.PosterDB;
 import com.example.icetea.util.Callback;
 import com.google.android.material.button.MaterialButton;
 import com.google.android.material.card.MaterialCardView;
 import com.google.android.material.switchmaterial.SwitchMaterial;
 import com.google.android.material.textfield.TextInputEditText;
 
-import java.io.IOException;
 import java.text.SimpleDateFormat;
 import java.util.Calendar;
 import java.util.Locale;
+import java.util.function.BiConsumer;
 
 import com.example.icetea.util.ImageUtil;
 import com.google.android.material.textfield.TextInputLayout;
@@ -40,7 +41,7 @@ import com.google.android.material.textfield.TextInputLayout;
  *
  * <p>The fragment validates all fields before submitting and displays input
  * errors using {@link TextInputLayout}. A poster image can optionally be
- * selected and will be converted to Base64 before upload.</p>
+ * selected and will be encoded off the main thread before upload.</p>
  */
 public class CreateEventFragment extends Fragment {
 
@@ -155,7 +156,7 @@ public class CreateEventFragment extends Fragment {
         editTextEventEnd.setOnClickListener(v -> showDateTimePicker(editTextEventEnd));
 
         /**
-         * Create button handler — validates inputs, converts poster to Base64 if needed,
+         * Create button handler — validates inputs, encodes the poster if needed,
          * and invokes {@link CreateEventController#createEvent}.
          */
         createButton.setOnClickListener(v -> {
@@ -225,24 +226,10 @@ public class CreateEventFragment extends Fragment {
                 hasError = true;
             }
 
-            // Convert poster to Base64 if selected
-            String posterBase64 = null;
-            if (newPosterUri != null) {
-                try {
-                    posterBase64 = ImageUtil.uriToBase64(requireContext(), newPosterUri);
-                } catch (IOException e) {
-                    Toast.makeText(getContext(), "Failed loading image", Toast.LENGTH_SHORT).show();
-                    hasError = true;
-                } catch (ImageUtil.ImageTooLargeException e) {
-                    Toast.makeText(getContext(), "Image too large to upload", Toast.LENGTH_SHORT).show();
-                    hasError = true;
-                }
-            }
-
             if (hasError) return;
 
-            controller.createEvent(
-                    eventName, eventDescription, eventCriteria, posterBase64,
+            BiConsumer<byte[], byte[]> create = (poster, posterThumbnail) -> controller.createEvent(
+                    eventName, eventDescription, eventCriteria, poster, posterThumbnail,
                     regStartText, regEndText, eventStartText, eventEndText,
                     location, maxEntrantsText, geolocationRequired,
                     new Callback<Void>() {
@@ -258,6 +245,34 @@ public class CreateEventFragment extends Fragment {
                         }
                     }
             );
+
+            if (newPosterUri == null) {
+                create.accept(null, null);
+                return;
+            }
+
+            // Encode the poster and its thumbnail off the main thread
+            createButton.setEnabled(false);
+            ImageUtil.encodeImageAsync(requireContext(), newPosterUri, new int[]{PosterDB.THUMBNAIL_SIZE},
+                    new Callback<ImageUtil.EncodedImage>() {
+                        @Override
+                        public void onSuccess(ImageUtil.EncodedImage image) {
+                            if (!isAdded()) return;
+                            createButton.setEnabled(true);
+                            create.accept(image.getBytes(), image.getVariant(PosterDB.THUMBNAIL_SIZE));
+                        }
+
+                        @Override
+                        public void onFailure(Exception e) {
+                            if (!isAdded()) return;
+                            createButton.setEnabled(true);
+                            if (e instanceof ImageUtil.ImageTooLargeException) {
+                                Toast.makeText(getContext(), "Image too large to upload", Toast.LENGTH_SHORT).show();
+                            } else {
+                                Toast.makeText(getContext(), "Failed loading image", Toast.LENGTH_SHORT).show();
+                            }
+                        }
+                    });
         });
     }
 
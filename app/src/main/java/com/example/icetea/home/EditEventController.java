@@ -3,6 +3,7 @@ package com.example.icetea.home;
 import com.example.icetea.models.Event;
 import com.example.icetea.models.EventDB;
 import com.example.icetea.util.Callback;
+import com.google.android.gms.tasks.OnCompleteListener;
 import com.google.firebase.Timestamp;
 
 import java.text.ParseException;
@@ -48,7 +49,8 @@ public class EditEventController {
      * @param name                 Event name.
      * @param description          Event description.
      * @param criteria             Entry criteria text.
-     * @param posterBase64         Optional Base64-encoded poster image.
+     * @param poster               Optional encoded poster image.
+     * @param posterThumbnail      Encoded thumbnail of the poster, or null.
      * @param regStart             Registration start (string).
      * @param regEnd               Registration end (string).
      * @param eventStart           Event start date (string).
@@ -63,7 +65,8 @@ public class EditEventController {
             String name,
             String description,
             String criteria,
-            String posterBase64,
+            byte[] poster,
+            byte[] posterThumbnail,
             String regStart,
             String regEnd,
             String eventStart,
@@ -82,7 +85,6 @@ public class EditEventController {
         updates.put("name", name);
         updates.put("description", description);
         updates.put("criteria", criteria);
-        if (posterBase64 != null) updates.put("posterBase64", posterBase64);
         updates.put("registrationStartDate", regStartTs);
         updates.put("registrationEndDate", regEndTs);
         updates.put("eventStartDate", eventStartTs);
@@ -97,13 +99,18 @@ public class EditEventController {
 
         updates.put("geolocationRequirement", geolocationRequired);
 
-        EventDB.getInstance().updateEvent(event.getEventId(), updates, task -> {
+        OnCompleteListener<Void> listener = task -> {
             if (task.isSuccessful()) {
                 callback.onSuccess(null);
             } else {
                 callback.onFailure(task.getException());
             }
-        });
+        };
+        if (poster != null) {
+            EventDB.getInstance().updateEvent(event.getEventId(), updates, poster, posterThumbnail, listener);
+        } else {
+            EventDB.getInstance().updateEvent(event.getEventId(), updates, listener);
+        }
     }
 
     /**
@@ -22,8 +22,10 @@ import android.widget.Toast;
 import com.example.icetea.R;
 import com.example.icetea.models.Event;
 import com.example.icetea.models.EventDB;
+import com.example.icetea.models.PosterDB;
 import com.example.icetea.util.Callback;
 import com.example.icetea.util.ImageUtil;
+import com.example.icetea.util.PosterLoader;
 import com.google.android.material.button.MaterialButton;
 import com.google.android.material.card.MaterialCardView;
 import com.google.android.material.switchmaterial.SwitchMaterial;
@@ -33,6 +35,7 @@ import com.google.firebase.firestore.DocumentSnapshot;
 
 import java.text.SimpleDateFormat;
 import java.util.Locale;
+import java.util.function.BiConsumer;
 
 
 /**
@@ -71,6 +74,7 @@ public class EditEventFragment extends Fragment {
     private final ActivityResultLauncher<String> pickPosterLauncher =
             registerForActivityResult(new ActivityResultContracts.GetContent(), uri -> {
                 if (uri != null) {
+                    PosterLoader.getInstance(requireContext()).cancel(eventPosterImageView);
                     eventPosterImageView.setImageURI(uri);
                     newPosterUri = uri;
                 }
@@ -185,10 +189,9 @@ public class EditEventFragment extends Fragment {
             editDesc.setText(currentEvent.getDescription());
             editCriteria.setText(currentEvent.getCriteria());
 
-            if (currentEvent.getPosterBase64() != null) {
-                eventPosterImageView.setImageBitmap(
-                        ImageUtil.base64ToBitmap(currentEvent.getPosterBase64())
-                );
+            if (newPosterUri == null) {
+                PosterLoader.getInstance(requireContext())
+                        .loadThumbnail(currentEvent, eventPosterImageView, R.drawable.default_poster);
             }
 
             if (currentEvent.getRegistrationStartDate() != null)
@@ -261,21 +264,11 @@ public class EditEventFragment extends Fragment {
             String maxEntrantsError = controller.validateMaxEntrants(maxEnt);
             if (maxEntrantsError != null) { inputLayoutMaxEntrants.setError(maxEntrantsError); error = true; }
 
-            String posterBase64 = null;
-            if (newPosterUri != null) {
-                try {
-                    posterBase64 = ImageUtil.uriToBase64(requireContext(), newPosterUri);
-                } catch (Exception e) {
-                    Toast.makeText(getContext(), "Failed loading image", Toast.LENGTH_SHORT).show();
-                    return;
-                }
-            }
-
             if (error) return;
 
-            controller.updateEvent(
+            BiConsumer<byte[], byte[]> update = (poster, posterThumbnail) -> controller.updateEvent(
                     currentEvent,
-                    name, desc, criteria, posterBase64,
+                    name, desc, criteria, poster, posterThumbnail,
                     regStart, regEnd, eventStart, eventEnd, location, maxEnt, geo,
                     new Callback<Void>() {
                         @Override
@@ -290,6 +283,30 @@ public class EditEventFragment extends Fragment {
                         }
                     }
             );
+
+            if (newPosterUri == null) {
+                update.accept(null, null);
+                return;
+            }
+
+            // Encode the poster and its thumbnail off the main thread
+            updateButton.setEnabled(false);
+            ImageUtil.encodeImageAsync(requireContext(), newPosterUri, new int[]{PosterDB.THUMBNAIL_SIZE},
+                    new Callback<ImageUtil.EncodedImage>() {
+                        @Override
+                        public void onSuccess(ImageUtil.EncodedImage image) {
+                            if (!isAdded()) return;
+                            updateButton.setEnabled(true);
+                            update.accept(image.getBytes(), image.getVariant(PosterDB.THUMBNAIL_SIZE));
+                        }
+
+                        @Override
+                        public void onFailure(Exception e) {
+                            if (!isAdded()) return;
+                            updateButton.setEnabled(true);
+                            Toast.makeText(getContext(), "Failed loading image", Toast.LENGTH_SHORT).show();
+                        }
+                    });
         });
     }
 
@@ -1,6 +1,5 @@
 package com.example.icetea.home;
 
-import android.graphics.Bitmap;
 import android.view.LayoutInflater;
 import android.view.View;
 import android.view.ViewGroup;
@@ -12,11 +11,17 @@ import androidx.recyclerview.widget.RecyclerView;
 
 import com.example.icetea.R;
 import com.example.icetea.models.Event;
-import com.example.icetea.util.ImageUtil;
+import com.example.icetea.models.Stores;
+import com.example.icetea.util.Callback;
+import com.example.icetea.util.PosterLoader;
 
 import java.text.SimpleDateFormat;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
 
 /**
  * RecyclerView adapter for displaying a list of {@link Event} objects
@@ -30,6 +35,12 @@ public class EventAdapter extends RecyclerView.Adapter<EventAdapter.EventViewHol
     /** Callback for handling click events on list items. */
     private final OnItemClickListener listener;
 
+    /** Entrant counts summed from each event's counter shards, keyed by event ID. */
+    private final Map<String, Integer> entrantCounts = new HashMap<>();
+
+    /** Event IDs whose entrant count is currently being loaded. */
+    private final Set<String> pendingCounts = new HashSet<>();
+
     /**
      * Listener interface for handling clicks on an event card.
      */
@@ -83,24 +94,80 @@ public class EventAdapter extends RecyclerView.Adapter<EventAdapter.EventViewHol
             );
         }
 
-        int entrants = event.getCurrentEntrants() != null ? event.getCurrentEntrants() : 0;
+        Integer entrants = entrantCounts.get(event.getEventId());
+        if (entrants == null) {
+            entrants = event.getCurrentEntrants() != null ? event.getCurrentEntrants() : 0;
+            loadEntrantCount(event);
+        }
         holder.textCurrentEntrants.setText("👤 " + entrants);
 
-        Bitmap posterBitmap = ImageUtil.base64ToBitmap(event.getPosterBase64());
-        if (posterBitmap != null) {
-            holder.imageEventPoster.setImageBitmap(posterBitmap);
-        } else {
-            holder.imageEventPoster.setImageResource(R.drawable.default_poster);
-        }
+        PosterLoader.getInstance(holder.itemView.getContext())
+                .loadThumbnail(event, holder.imageEventPoster, R.drawable.default_poster);
 
         holder.bind(event, listener);
     }
 
+    /**
+     * Cancels any image still loading for a recycled row.
+     *
+     * @param holder The recycled ViewHolder
+     */
+    @Override
+    public void onViewRecycled(@NonNull EventViewHolder holder) {
+        super.onViewRecycled(holder);
+        PosterLoader.getInstance(holder.itemView.getContext()).cancel(holder.imageEventPoster);
+    }
+
     @Override
     public int getItemCount() {
         return events.size();
     }
 
+    /**
+     * Appends a page of events to the end of the list and notifies only the
+     * inserted range, so rows that are already on screen are not rebound.
+     *
+     * @param newEvents the events to append
+     */
+    public void appendEvents(List<Event> newEvents) {
+        if (newEvents == null || newEvents.isEmpty()) {
+            return;
+        }
+        int start = events.size();
+        events.addAll(newEvents);
+        notifyItemRangeInserted(start, newEvents.size());
+    }
+
+    /**
+     * Loads the shard-summed entrant count of an event once and rebinds its row
+     * when the count arrives.
+     *
+     * @param event the event whose count to load
+     */
+    private void loadEntrantCount(Event event) {
+        String eventId = event.getEventId();
+        if (eventId == null || !pendingCounts.add(eventId)) {
+            return;
+        }
+        Stores.waitlist().getEntrantCount(event, new Callback<Integer>() {
+            @Override
+            public void onSuccess(Integer count) {
+                pendingCounts.remove(eventId);
+                entrantCounts.put(eventId, count);
+                for (int i = 0; i < events.size(); i++) {
+                    if (eventId.equals(events.get(i).getEventId())) {
+                        notifyItemChanged(i);
+                    }
+                }
+            }
+
+            @Override
+            public void onFailure(Exception e) {
+                pendingCounts.remove(eventId);
+            }
+        });
+    }
+
     /**
      * ViewHolder class for representing each event card item.
      * Holds references to the views within the card layout.
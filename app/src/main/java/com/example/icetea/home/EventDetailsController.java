@@ -1,12 +1,12 @@
 package com.example.icetea.home;
 
 import com.example.icetea.models.Event;
-import com.example.icetea.models.EventDB;
+import com.example.icetea.models.EventRepository;
+import com.example.icetea.models.Stores;
 import com.example.icetea.models.Waitlist;
-import com.example.icetea.models.WaitlistDB;
+import com.example.icetea.models.WaitlistStore;
 import com.example.icetea.util.Callback;
 import com.google.firebase.Timestamp;
-import com.google.firebase.firestore.DocumentSnapshot;
 
 import java.text.SimpleDateFormat;
 import java.util.Locale;
@@ -36,25 +36,15 @@ public class EventDetailsController {
     }
 
     /**
-     * Retrieves an {@link Event} object for the given event ID.
+     * Retrieves an {@link Event} object for the given event ID through
+     * {@link EventRepository}, so repeated lookups share one read.
      *
      * @param eventId  the Firestore document ID of the event
      * @param callback callback returning the loaded {@link Event} on success,
      *                 or an error on failure
      */
     public void getEventObject(String eventId, Callback<Event> callback) {
-        EventDB.getInstance().getEvent(eventId, task -> {
-            if (!task.isSuccessful() || task.getResult() == null || !task.getResult().exists()) {
-                callback.onFailure(task.getException() != null ? task.getException() : new Exception("Error loading event"));
-                return;
-            }
-            Event event = task.getResult().toObject(Event.class);
-            if (event == null) {
-                callback.onFailure(new Exception("Event is null"));
-                return;
-            }
-            callback.onSuccess(event);
-        });
+        EventRepository.getInstance().getEvent(eventId, callback);
     }
 
     /**
@@ -66,29 +56,20 @@ public class EventDetailsController {
      *                 <ul>
      *                     <li>the status string ("pending", "accepted", etc.)</li>
      *                     <li>null if no entry exists or status is missing</li>
-     *                     <li>a failure if the Firestore task errors</li>
+     *                     <li>a failure if the lookup errors</li>
      *                 </ul>
      */
     public void getEntrantStatus(String userId, String eventId, Callback<String> callback) {
-        WaitlistDB.getInstance().getWaitlistEntry(userId, eventId, task -> {
-            if (!task.isSuccessful()) {
-                callback.onFailure(task.getException() != null ? task.getException() : new Exception("Error loading waitlist status"));
-                return;
+        Stores.waitlist().getWaitlistEntry(userId, eventId, new Callback<Waitlist>() {
+            @Override
+            public void onSuccess(Waitlist entry) {
+                callback.onSuccess(entry != null ? entry.getStatus() : null);
             }
-            DocumentSnapshot doc = task.getResult();
 
-            if (doc == null || !doc.exists()) {
-                callback.onSuccess(null);
-                return;
+            @Override
+            public void onFailure(Exception e) {
+                callback.onFailure(e);
             }
-
-            String status = doc.getString("status");
-            if (status == null) {
-                callback.onSuccess(null);
-                return;
-            }
-
-            callback.onSuccess(status);
         });
     }
 
@@ -101,13 +82,7 @@ public class EventDetailsController {
      * @param callback  callback invoked on success or failure
      */
     public void updateEntrantStatus(String userId, String eventId, String newStatus, Callback<Void> callback) {
-        WaitlistDB.getInstance().updateWaitlistStatus(userId, eventId, newStatus, task -> {
-            if (task.isSuccessful()) {
-                callback.onSuccess(null);
-            } else {
-                callback.onFailure(task.getException() != null ? task.getException() : new Exception("Error updating status"));
-            }
-        });
+        Stores.waitlist().updateWaitlistStatus(userId, eventId, newStatus, callback);
     }
 
     /**
@@ -118,13 +93,19 @@ public class EventDetailsController {
      * @param callback callback invoked on success or failure
      */
     public void removeFromWaitlist(String userId, String eventId, Callback<Void> callback) {
-        WaitlistDB.getInstance().removeFromWaitlist(userId, eventId, task -> {
-            if (task.isSuccessful()) {
-                callback.onSuccess(null);
-            } else {
-                callback.onFailure(task.getException() != null ? task.getException() : new Exception("Error deleting waitlist"));
-            }
-        });
+        removeFromWaitlist(userId, eventId, WaitlistStore.DEFAULT_SHARD_COUNT, callback);
+    }
+
+    /**
+     * Removes a user from an event’s waitlist, decrementing one of the event's counter shards.
+     *
+     * @param userId     the user ID
+     * @param eventId    the event ID
+     * @param shardCount number of shards the event's entrant counter uses
+     * @param callback   callback invoked on success or failure
+     */
+    public void removeFromWaitlist(String userId, String eventId, int shardCount, Callback<Void> callback) {
+        Stores.waitlist().removeFromWaitlist(userId, eventId, shardCount, callback);
     }
 
     /**
@@ -134,13 +115,29 @@ public class EventDetailsController {
      * @param callback callback invoked on success or failure
      */
     public void addToWaitlist(Waitlist waitlist, Callback<Void> callback) {
-        WaitlistDB.getInstance().addToWaitlist(waitlist, task -> {
-            if (task.isSuccessful()) {
-                callback.onSuccess(null);
-            } else {
-                callback.onFailure(task.getException() != null ? task.getException() : new Exception("Error adding to waitlist"));
-            }
-        });
+        addToWaitlist(waitlist, WaitlistStore.DEFAULT_SHARD_COUNT, callback);
+    }
+
+    /**
+     * Adds a new waitlist entry for an event, incrementing one of the event's counter shards.
+     *
+     * @param waitlist   the {@link Waitlist} object to add
+     * @param shardCount number of shards the event's entrant counter uses
+     * @param callback   callback invoked on success or failure
+     */
+    public void addToWaitlist(Waitlist waitlist, int shardCount, Callback<Void> callback) {
+        Stores.waitlist().addToWaitlist(waitlist, shardCount, callback);
+    }
+
+    /**
+     * Retrieves the number of entrants of an event by summing its counter shards.
+     * Falls back to the count stored on the event if the shards cannot be read.
+     *
+     * @param event    the event to count entrants for
+     * @param callback callback invoked with the entrant count
+     */
+    public void getEntrantCount(Event event, Callback<Integer> callback) {
+        Stores.waitlist().getEntrantCount(event, callback);
     }
 
 }
\ No newline at end of file
@@ -27,15 +27,19 @@ import com.example.icetea.R;
 import com.example.icetea.auth.CurrentUser;
 import com.example.icetea.models.Event;
 import com.example.icetea.models.Waitlist;
+import com.example.icetea.models.WaitlistStore;
 import com.example.icetea.util.Callback;
-import com.example.icetea.util.ImageUtil;
 import com.example.icetea.util.LocationCallback;
+import com.example.icetea.util.PosterLoader;
+import com.example.icetea.util.QRCode;
+import com.example.icetea.util.QrCodeLoader;
 import com.google.android.gms.location.FusedLocationProviderClient;
 import com.google.android.gms.location.LocationServices;
 import com.google.android.gms.location.Priority;
 
 import com.google.android.gms.tasks.CancellationTokenSource;
 import com.google.android.material.button.MaterialButton;
+import com.google.android.material.dialog.MaterialAlertDialogBuilder;
 import com.google.android.material.textfield.TextInputEditText;
 import com.google.firebase.Timestamp;
 
@@ -72,6 +76,12 @@ public class EventDetailsFragment extends Fragment {
     /** Current user's entrant status for this event. */
     private String status;
 
+    /** Whether the current user's entrant status has been loaded. */
+    private boolean statusLoaded;
+
+    /** Number of entrants on the waitlist, summed from the event's counter shards. */
+    private int entrantCount;
+
     /**
      * Required empty public constructor.
      */
@@ -176,12 +186,7 @@ public class EventDetailsFragment extends Fragment {
             public void onSuccess(Event result) {
 
                 event = result;
-                if (event.getPosterBase64() != null && !event.getPosterBase64().isEmpty()) {
-                    Bitmap bitmap = ImageUtil.base64ToBitmap(event.getPosterBase64());
-                    poster.setImageBitmap(bitmap);
-                } else {
-                    poster.setImageResource(R.drawable.default_poster);
-                }
+                PosterLoader.getInstance(requireContext()).loadFull(event, poster, R.drawable.default_poster);
 
                 name.setText(event.getName());
                 description.setText(event.getDescription());
@@ -205,33 +210,33 @@ public class EventDetailsFragment extends Fragment {
 
                 geolocation.setText(event.getGeolocationRequirement() ? "Geolocation Required" : "");
 
-                int current = event.getCurrentEntrants() != null ? event.getCurrentEntrants() : 0;
-                int max = event.getMaxEntrants() != null ? event.getMaxEntrants() : 0;
+                entrantCount = event.getCurrentEntrants() != null ? event.getCurrentEntrants() : 0;
+                showEntrantCount(waitlist);
 
-                if (max == 0) {
-                    waitlist.setText("👤 " + current);
-                } else {
-                    waitlist.setText("👤 " + current + " / " + max);
-                }
+                controller.getEntrantCount(event, new Callback<Integer>() {
+                    @Override
+                    public void onSuccess(Integer result) {
+                        if (!isAdded()) return;
+                        entrantCount = result;
+                        showEntrantCount(waitlist);
+                        showJoinButton(actionButton);
+                    }
+
+                    @Override
+                    public void onFailure(Exception e) {
+                        // getEntrantCount falls back to the stored count and never fails
+                    }
+                });
 
                 controller.getEntrantStatus(CurrentUser.getInstance().getFid(), eventId, new Callback<String>() {
                     @Override
                     public void onSuccess(String result) {
 
                         status = result;
-                        boolean waitlistFull = event.getMaxEntrants() != null && event.getCurrentEntrants() != null
-                                && event.getCurrentEntrants() >= event.getMaxEntrants();
+                        statusLoaded = true;
 
                         if (status == null) {
-                            if (waitlistFull) {
-                                actionButton.setText("Waitlist Full");
-                                actionButton.setEnabled(false);
-                                actionButton.setAlpha(0.5f);
-                            } else {
-                                actionButton.setText("Join Waitlist");
-                                actionButton.setEnabled(true);
-                                actionButton.setAlpha(1.0f);
-                            }
+                            showJoinButton(actionButton);
                             return;
                         }
 
@@ -257,9 +262,9 @@ public class EventDetailsFragment extends Fragment {
                                 break;
 
                             case Waitlist.STATUS_ACCEPTED:
-                                actionButton.setText("Invitation Accepted");
-                                actionButton.setEnabled(false);
-                                actionButton.setAlpha(0.5f);
+                                actionButton.setText("Show Check-in Code");
+                                actionButton.setEnabled(true);
+                                actionButton.setAlpha(1.0f);
                                 break;
 
                             case Waitlist.STATUS_DECLINED:
@@ -301,15 +306,13 @@ public class EventDetailsFragment extends Fragment {
                 waitlistObj.setStatus(Waitlist.STATUS_WAITING);
                 waitlistObj.setReplaced(false);
 
-                controller.addToWaitlist(waitlistObj, new Callback<Void>() {
+                controller.addToWaitlist(waitlistObj, WaitlistStore.shardCountOf(event), new Callback<Void>() {
                             @Override
                             public void onSuccess(Void result) {
                                 actionButton.setText("Leave Waitlist");
 
-                                int current = (event.getCurrentEntrants() != null ? event.getCurrentEntrants() : 0) + 1;
-                                event.setCurrentEntrants(current);
-                                int max = event.getMaxEntrants() != null ? event.getMaxEntrants() : 0;
-                                waitlist.setText("👤 " + current + (max > 0 ? " / " + max : ""));
+                                entrantCount++;
+                                showEntrantCount(waitlist);
 
                                 actionButton.setEnabled(true);
                                 actionButton.setAlpha(1.0f);
@@ -340,14 +343,12 @@ public class EventDetailsFragment extends Fragment {
                         waitlistObj.setStatus(Waitlist.STATUS_WAITING);
                         waitlistObj.setReplaced(false);
 
-                        controller.addToWaitlist(waitlistObj, new Callback<Void>() {
+                        controller.addToWaitlist(waitlistObj, WaitlistStore.shardCountOf(event), new Callback<Void>() {
                             @Override
                             public void onSuccess(Void result) {
                                 actionButton.setText("Leave Waitlist");
-                                int current = (event.getCurrentEntrants() != null ? event.getCurrentEntrants() : 0) + 1;
-                                event.setCurrentEntrants(current);
-                                int max = event.getMaxEntrants() != null ? event.getMaxEntrants() : 0;
-                                waitlist.setText("👤 " + current + (max > 0 ? " / " + max : ""));
+                                entrantCount++;
+                                showEntrantCount(waitlist);
 
                                 actionButton.setEnabled(true);
                                 actionButton.setAlpha(1.0f);
@@ -373,14 +374,12 @@ public class EventDetailsFragment extends Fragment {
 
             } else if (Waitlist.STATUS_WAITING.equals(status)) {
 
-                controller.removeFromWaitlist(userId, eventId, new Callback<Void>() {
+                controller.removeFromWaitlist(userId, eventId, WaitlistStore.shardCountOf(event), new Callback<Void>() {
                     @Override
                     public void onSuccess(Void result) {
                         actionButton.setText("Join Waitlist");
-                        int current = Math.max((event.getCurrentEntrants() != null ? event.getCurrentEntrants() : 0) - 1, 0);
-                        event.setCurrentEntrants(current);
-                        int max = event.getMaxEntrants() != null ? event.getMaxEntrants() : 0;
-                        waitlist.setText("👤 " + current + (max > 0 ? " / " + max : ""));
+                        entrantCount = Math.max(entrantCount - 1, 0);
+                        showEntrantCount(waitlist);
 
                         actionButton.setEnabled(true);
                         actionButton.setAlpha(1.0f);
@@ -399,10 +398,10 @@ public class EventDetailsFragment extends Fragment {
                 controller.updateEntrantStatus(CurrentUser.getInstance().getFid(), eventId, Waitlist.STATUS_ACCEPTED, new Callback<Void>() {
                     @Override
                     public void onSuccess(Void result) {
-                        actionButton.setText("Invitation Accepted");
-                        actionButton.setEnabled(false);
+                        actionButton.setText("Show Check-in Code");
+                        actionButton.setEnabled(true);
                         declineButton.setVisibility(View.GONE);
-                        actionButton.setAlpha(0.5f);
+                        actionButton.setAlpha(1.0f);
                         status = Waitlist.STATUS_ACCEPTED;
                     }
 
@@ -414,6 +413,9 @@ public class EventDetailsFragment extends Fragment {
                     }
                 });
 
+            } else if (Waitlist.STATUS_ACCEPTED.equals(status)) {
+                showCheckInCode(userId);
+                actionButton.setEnabled(true);
             }
 
         });
@@ -443,6 +445,38 @@ public class EventDetailsFragment extends Fragment {
 
     }
 
+    /**
+     * Displays the current entrant count, with the event's capacity if it has one.
+     *
+     * @param waitlist TextView showing the entrant count.
+     */
+    private void showEntrantCount(TextView waitlist) {
+        int max = event.getMaxEntrants() != null ? event.getMaxEntrants() : 0;
+        waitlist.setText("👤 " + entrantCount + (max > 0 ? " / " + max : ""));
+    }
+
+    /**
+     * Shows the join button, or "Waitlist Full" if the event has reached capacity.
+     * Does nothing until the user's status is known or if the user is already an entrant.
+     *
+     * @param actionButton The main action button.
+     */
+    private void showJoinButton(MaterialButton actionButton) {
+        if (!statusLoaded || status != null) {
+            return;
+        }
+        boolean waitlistFull = event.getMaxEntrants() != null && entrantCount >= event.getMaxEntrants();
+        if (waitlistFull) {
+            actionButton.setText("Waitlist Full");
+            actionButton.setEnabled(false);
+            actionButton.setAlpha(0.5f);
+        } else {
+            actionButton.setText("Join Waitlist");
+            actionButton.setEnabled(true);
+            actionButton.setAlpha(1.0f);
+        }
+    }
+
     /**
      * Checks whether fine location permission is granted. If not, requests permission.
      *
@@ -478,6 +512,38 @@ public class EventDetailsFragment extends Fragment {
         }
     }
 
+    /**
+     * Displays the entrant's check-in code for the organizer to scan at the door.
+     *
+     * @param userId The entrant's user ID.
+     */
+    private void showCheckInCode(String userId) {
+        ImageView codeImage = new ImageView(requireContext());
+        int padding = (int) (24 * getResources().getDisplayMetrics().density);
+        codeImage.setPadding(padding, padding, padding, padding);
+        codeImage.setAdjustViewBounds(true);
+        QrCodeLoader.getInstance(requireContext()).loadCheckIn(eventId, userId, QRCode.DEFAULT_SIZE, new Callback<Bitmap>() {
+            @Override
+            public void onSuccess(Bitmap result) {
+                codeImage.setImageBitmap(result);
+            }
+
+            @Override
+            public void onFailure(Exception e) {
+                if (getView() != null) {
+                    Toast.makeText(requireContext(), "Failed to generate check-in code", Toast.LENGTH_SHORT).show();
+                }
+            }
+        });
+
+        new MaterialAlertDialogBuilder(requireContext())
+                .setTitle("Check-in Code")
+                .setMessage("Show this code to the organizer at the door.")
+                .setView(codeImage)
+                .setPositiveButton("Done", null)
+                .show();
+    }
+
     /**
      * Displays a dialog instructing the user to manually enable location permission
      * from the system settings if they permanently denied it.
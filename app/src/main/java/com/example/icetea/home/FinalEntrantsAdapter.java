@@ -1,7 +1,6 @@
 package com.example.icetea.home;
 
 import android.content.Context;
-import android.graphics.Bitmap;
 import android.view.LayoutInflater;
 import android.view.View;
 import android.view.ViewGroup;
@@ -9,36 +8,49 @@ import android.widget.ImageView;
 import android.widget.TextView;
 
 import androidx.annotation.NonNull;
+import androidx.recyclerview.widget.ListAdapter;
 import androidx.recyclerview.widget.RecyclerView;
 
 import com.example.icetea.R;
+import com.example.icetea.models.User;
 import com.example.icetea.models.UserDB;
 import com.example.icetea.models.Waitlist;
-import com.example.icetea.util.ImageUtil;
-import com.google.firebase.firestore.DocumentSnapshot;
+import com.example.icetea.util.ImageLoader;
+import com.google.firebase.firestore.Blob;
 
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 /**
  * RecyclerView Adapter for displaying the final entrants of an event.
  * <p>
  * Each item in the list shows the entrant's name, email, profile image,
  * and their waitlist status. User data is fetched asynchronously from Firestore
- * and cached to reduce repeated network requests.
+ * and cached to reduce repeated network requests. New lists are diffed with
+ * {@link WaitlistDiffCallback} off the main thread, so only changed rows are rebound.
  */
-public class FinalEntrantsAdapter extends RecyclerView.Adapter<FinalEntrantsAdapter.ViewHolder> {
+public class FinalEntrantsAdapter extends ListAdapter<Waitlist, FinalEntrantsAdapter.ViewHolder> {
 
     /** Context used for inflating layouts */
     private final Context context;
 
-    /** List of waitlist entries representing the final entrants */
-    private final List<Waitlist> entries;
+    /** Stable row IDs of the entries */
+    private final WaitlistDiffCallback.StableIds stableIds = new WaitlistDiffCallback.StableIds();
 
     /** Cache of user data keyed by userId to avoid repeated Firestore requests */
     private final Map<String, UserData> userCache = new HashMap<>();
 
+    /** User IDs currently being fetched by a bulk request */
+    private final Set<String> pendingUsers = new HashSet<>();
+
+    /** User IDs whose last fetch failed or that no longer exist */
+    private final Set<String> failedUsers = new HashSet<>();
+
     /**
      * Constructor for the adapter.
      *
@@ -46,8 +58,10 @@ public class FinalEntrantsAdapter extends RecyclerView.Adapter<FinalEntrantsAdap
      * @param entries The list of Waitlist entries to display
      */
     public FinalEntrantsAdapter(Context context, List<Waitlist> entries) {
+        super(new WaitlistDiffCallback());
         this.context = context;
-        this.entries = entries;
+        setHasStableIds(true);
+        submitList(new ArrayList<>(entries));
     }
 
     /**
@@ -73,70 +87,111 @@ public class FinalEntrantsAdapter extends RecyclerView.Adapter<FinalEntrantsAdap
      */
     @Override
     public void onBindViewHolder(@NonNull ViewHolder holder, int position) {
-        Waitlist entry = entries.get(position);
+        Waitlist entry = getItem(position);
 
         holder.textName.setText("Loading...");
         holder.textEmail.setText("");
-        holder.imageProfile.setImageResource(R.drawable.default_avatar);
         holder.textStatus.setText("Status: " + entry.getStatus());
 
-        if (userCache.containsKey(entry.getUserId())) {
-            UserData cached = userCache.get(entry.getUserId());
-            if (cached != null) {
-                holder.textName.setText(cached.name);
-                holder.textEmail.setText(cached.email);
-                if (cached.avatar != null) holder.imageProfile.setImageBitmap(cached.avatar);
-            }
+        UserData cached = userCache.get(entry.getUserId());
+        if (cached != null) {
+            holder.textName.setText(cached.name);
+            holder.textEmail.setText(cached.email);
+            ImageLoader.getInstance(context).load(cached.avatarKey, cached.avatarImage, cached.avatar, holder.imageProfile, R.drawable.default_avatar);
+        } else if (failedUsers.contains(entry.getUserId())) {
+            holder.textName.setText("Unknown");
+            holder.textEmail.setText("");
+            ImageLoader.getInstance(context).load(null, holder.imageProfile, R.drawable.default_avatar);
         } else {
-            UserDB.getInstance().getUser(entry.getUserId(), task -> {
-                if (task.isSuccessful() && task.getResult() != null) {
-                    DocumentSnapshot doc = task.getResult();
-                    String name = doc.getString("name");
-                    String email = doc.getString("email");
-                    String avatarBase64 = doc.getString("avatar");
-
-                    Bitmap bitmap = null;
-                    if (avatarBase64 != null) {
-                        bitmap = ImageUtil.base64ToBitmap(avatarBase64);
-                    }
-
-                    UserData data = new UserData();
-                    data.name = name != null ? name : "Unknown";
-                    data.email = email != null ? email : "";
-                    data.avatar = bitmap;
-
-                    userCache.put(entry.getUserId(), data);
-
-                    holder.textName.setText(data.name);
-                    holder.textEmail.setText(data.email);
-                    if (data.avatar != null) holder.imageProfile.setImageBitmap(data.avatar);
-                } else {
-                    holder.textName.setText("Unknown");
-                    holder.textEmail.setText("");
-                }
-            });
+            ImageLoader.getInstance(context).load(null, holder.imageProfile, R.drawable.default_avatar);
+            // Normally already requested by updateList; rows are refreshed when the batch arrives
+            prefetchUsers(Collections.singletonList(entry));
         }
     }
 
     /**
-     * Returns the total number of entries in the list.
+     * Cancels any image still loading for a recycled row.
      *
-     * @return The number of items
+     * @param holder The recycled ViewHolder
      */
     @Override
-    public int getItemCount() {
-        return entries.size();
+    public void onViewRecycled(@NonNull ViewHolder holder) {
+        super.onViewRecycled(holder);
+        ImageLoader.getInstance(holder.itemView.getContext()).cancel(holder.imageProfile);
     }
 
     /**
-     * Updates the adapter's data list with new entries and refreshes the RecyclerView.
+     * Returns a stable ID for the entry at a position, so rows keep their
+     * views when entries move.
      *
-     * @param newEntries New list of Waitlist entries
+     * @param position The position of the entry in the list
+     * @return The stable ID of the entry
+     */
+    @Override
+    public long getItemId(int position) {
+        return stableIds.idOf(getItem(position));
+    }
+
+    /**
+     * Submits a new list of entries. The list is diffed against the current one
+     * on a background thread and only rows whose entry changed are rebound.
+     *
+     * @param newEntries New list of waitlist entries
      */
     public void updateList(List<Waitlist> newEntries) {
-        entries.clear();
-        entries.addAll(newEntries);
-        notifyDataSetChanged();
+        failedUsers.clear();
+        prefetchUsers(newEntries);
+        submitList(new ArrayList<>(newEntries));
+    }
+
+    /**
+     * Fetches the users behind the given entries that are not cached or already
+     * being fetched, using a single bulk {@link UserDB#getUsers} request.
+     * Rows showing those users are refreshed once the results arrive.
+     *
+     * @param toFetch Waitlist entries whose users should be loaded
+     */
+    private void prefetchUsers(List<Waitlist> toFetch) {
+        List<String> missing = new ArrayList<>();
+        for (Waitlist entry : toFetch) {
+            String userId = entry.getUserId();
+            if (userId != null && !userCache.containsKey(userId) && pendingUsers.add(userId)) {
+                missing.add(userId);
+            }
+        }
+        if (missing.isEmpty()) return;
+
+        UserDB.getInstance().getUsers(missing, task -> {
+            pendingUsers.removeAll(missing);
+
+            if (task.isSuccessful() && task.getResult() != null) {
+                Map<String, User> users = task.getResult();
+                for (String userId : missing) {
+                    User user = users.get(userId);
+                    if (user == null) {
+                        failedUsers.add(userId);
+                        continue;
+                    }
+                    UserData data = new UserData();
+                    data.name = user.getName() != null ? user.getName() : "Unknown";
+                    data.email = user.getEmail() != null ? user.getEmail() : "";
+                    data.avatar = user.getAvatar();
+                    data.avatarImage = user.getAvatarImage();
+                    data.avatarKey = UserDB.avatarKey(userId, user.getAvatarVersion());
+                    userCache.put(userId, data);
+                }
+            } else {
+                failedUsers.addAll(missing);
+            }
+
+            Set<String> fetched = new HashSet<>(missing);
+            List<Waitlist> current = getCurrentList();
+            for (int i = 0; i < current.size(); i++) {
+                if (fetched.contains(current.get(i).getUserId())) {
+                    notifyItemChanged(i);
+                }
+            }
+        });
     }
 
     /**
@@ -174,7 +229,11 @@ public class FinalEntrantsAdapter extends RecyclerView.Adapter<FinalEntrantsAdap
         String name;
         /** User's email */
         String email;
-        /** User's avatar as a Bitmap */
-        Bitmap avatar;
+        /** User's avatar as a Base64 string, for users not yet migrated to avatarImage */
+        String avatar;
+        /** User's avatar as a Blob */
+        Blob avatarImage;
+        /** Key the avatar is cached under */
+        String avatarKey;
     }
 }
\ No newline at end of file
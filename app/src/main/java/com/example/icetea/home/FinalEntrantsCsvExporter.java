@@ -6,19 +6,18 @@ import android.net.Uri;
 import android.provider.MediaStore;
 import android.widget.Toast;
 
-import com.google.android.gms.tasks.Task;
-import com.google.android.gms.tasks.Tasks;
+import com.example.icetea.core.EntrantCsv;
+import com.example.icetea.models.User;
+import com.example.icetea.models.UserDB;
 import com.google.firebase.Timestamp;
-import com.google.firebase.firestore.DocumentSnapshot;
 import com.google.firebase.firestore.FirebaseFirestore;
 import com.google.firebase.firestore.QueryDocumentSnapshot;
 
 import java.io.OutputStream;
 import java.io.OutputStreamWriter;
-import java.text.SimpleDateFormat;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Locale;
+import java.util.Map;
 
 /**
  * Utility class for exporting the list of final entrants of an event
@@ -32,7 +31,8 @@ import java.util.Locale;
  * </ul>
  * <p>
  * This class fetches the accepted entrants from Firestore's "waitlist" collection,
- * retrieves their user details from the "users" collection, and writes them to a CSV file.
+ * retrieves their user details in bulk through {@link UserDB#getUsers}, and writes
+ * them to a CSV file.
  */
 public class FinalEntrantsCsvExporter {
 
@@ -61,7 +61,7 @@ public class FinalEntrantsCsvExporter {
                         return;
                     }
 
-                    List<Task<DocumentSnapshot>> userTasks = new ArrayList<>();
+                    List<String> userIds = new ArrayList<>();
                     List<Timestamp> joinedAtList = new ArrayList<>();
 
                     for (QueryDocumentSnapshot doc : waitlistSnapshot) {
@@ -69,17 +69,24 @@ public class FinalEntrantsCsvExporter {
                         Timestamp joinedAt = doc.getTimestamp("timestamp");
 
                         if (userId != null) {
-                            userTasks.add(db.collection("users").document(userId).get());
+                            userIds.add(userId);
                             joinedAtList.add(joinedAt);
                         }
                     }
 
-                    Tasks.whenAllSuccess(userTasks)
-                            .addOnSuccessListener(results -> writeCsv(context, eventId, results, joinedAtList))
-                            .addOnFailureListener(e -> {
-                                e.printStackTrace();
-                                Toast.makeText(context, "Failed to load entrant details.", Toast.LENGTH_SHORT).show();
-                            });
+                    UserDB.getInstance().getUsers(userIds, task -> {
+                        if (task.isSuccessful() && task.getResult() != null) {
+                            Map<String, User> usersById = task.getResult();
+                            List<User> users = new ArrayList<>();
+                            for (String userId : userIds) {
+                                users.add(usersById.get(userId));
+                            }
+                            writeCsv(context, eventId, users, joinedAtList);
+                        } else {
+                            if (task.getException() != null) task.getException().printStackTrace();
+                            Toast.makeText(context, "Failed to load entrant details.", Toast.LENGTH_SHORT).show();
+                        }
+                    });
 
                 })
                 .addOnFailureListener(e -> {
@@ -93,10 +100,10 @@ public class FinalEntrantsCsvExporter {
      *
      * @param context Context used to access ContentResolver and show Toasts
      * @param eventId The ID of the event (used to name the CSV file)
-     * @param userDocs List of Firestore user documents corresponding to entrants
+     * @param users List of users corresponding to entrants; entries may be null if a user no longer exists
      * @param joinedAtList List of timestamps indicating when each entrant joined
      */
-    private static void writeCsv(Context context, String eventId, List<Object> userDocs, List<Timestamp> joinedAtList) {
+    private static void writeCsv(Context context, String eventId, List<User> users, List<Timestamp> joinedAtList) {
         try {
             String fileName = "final_entrants_" + eventId + ".csv";
 
@@ -115,18 +122,17 @@ public class FinalEntrantsCsvExporter {
             OutputStream outputStream = context.getContentResolver().openOutputStream(uri);
             OutputStreamWriter writer = new OutputStreamWriter(outputStream);
 
-            writer.write("Name,Email,Registration Date\n");
-            SimpleDateFormat dateFormat = new SimpleDateFormat("yyyy-MM-dd HH:mm", Locale.getDefault());
+            writer.write(EntrantCsv.HEADER);
+            EntrantCsv csv = new EntrantCsv();
 
-            for (int i = 0; i < userDocs.size(); i++) {
-                DocumentSnapshot userDoc = (DocumentSnapshot) userDocs.get(i);
+            for (int i = 0; i < users.size(); i++) {
+                User user = users.get(i);
                 Timestamp joinedAt = joinedAtList.get(i);
 
-                String name = userDoc != null ? userDoc.getString("name") : "N/A";
-                String email = userDoc != null ? userDoc.getString("email") : "N/A";
-                String dateString = joinedAt != null ? dateFormat.format(joinedAt.toDate()) : "N/A";
-
-                writer.write(name + "," + email + "," + dateString + "\n");
+                csv.appendRow(writer,
+                        user != null ? user.getName() : null,
+                        user != null ? user.getEmail() : null,
+                        joinedAt != null ? joinedAt.toDate() : null);
             }
 
             writer.flush();
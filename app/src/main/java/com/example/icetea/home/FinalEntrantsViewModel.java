@@ -6,8 +6,10 @@ import androidx.lifecycle.ViewModel;
 
 import com.example.icetea.models.Waitlist;
 import com.example.icetea.models.WaitlistDB;
+import com.example.icetea.util.UpdateCoalescer;
 import com.google.firebase.firestore.DocumentSnapshot;
 import com.google.firebase.firestore.ListenerRegistration;
+import com.google.firebase.firestore.QuerySnapshot;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -37,6 +39,18 @@ public class FinalEntrantsViewModel extends ViewModel {
     /** Listener registration for the Firestore waitlist listener */
     private ListenerRegistration listener;
 
+    /** Coalesces snapshot bursts into one list per frame window */
+    private final UpdateCoalescer<QuerySnapshot> snapshots = new UpdateCoalescer<>(snap -> {
+        List<Waitlist> acceptedEntries = new ArrayList<>();
+        for (DocumentSnapshot doc : snap) {
+            Waitlist entry = doc.toObject(Waitlist.class);
+            if (entry != null && Waitlist.STATUS_ACCEPTED.equals(entry.getStatus())) {
+                acceptedEntries.add(entry);
+            }
+        }
+        entrantsLiveData.setValue(acceptedEntries);
+    });
+
     /**
      * Starts listening for accepted entrants for a given event ID.
      * Updates {@link #entrantsLiveData} whenever changes occur.
@@ -49,16 +63,7 @@ public class FinalEntrantsViewModel extends ViewModel {
         if (listener != null) return;
 
         listener = WaitlistDB.getInstance().listenToWaitlist(eventId, (snap, e) -> {
-            if (snap != null) {
-                List<Waitlist> acceptedEntries = new ArrayList<>();
-                for (DocumentSnapshot doc : snap) {
-                    Waitlist entry = doc.toObject(Waitlist.class);
-                    if (entry != null && Waitlist.STATUS_ACCEPTED.equals(entry.getStatus())) {
-                        acceptedEntries.add(entry);
-                    }
-                }
-                entrantsLiveData.postValue(acceptedEntries);
-            }
+            if (snap != null) snapshots.submit(snap);
         });
     }
 
@@ -72,5 +77,6 @@ public class FinalEntrantsViewModel extends ViewModel {
             listener.remove();
             listener = null;
         }
+        snapshots.cancel();
     }
 }
\ No newline at end of file
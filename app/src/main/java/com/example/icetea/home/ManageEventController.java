@@ -1,12 +1,20 @@
 package com.example.icetea.home;
 
+import android.util.Log;
+
+import com.example.icetea.core.LotteryEngine;
 import com.example.icetea.models.*;
 import com.example.icetea.util.Callback;
 import com.google.firebase.Timestamp;
-import com.google.firebase.firestore.*;
 
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.function.Consumer;
 
 /**
  * Controller class responsible for handling all event-related logic for ManageEventFragment.
@@ -15,191 +23,360 @@ import java.util.List;
  */
 public class ManageEventController {
 
+    private static final String TAG = "ManageEventController";
+
+    /** Number of waiting entrants fetched per page when drawing */
+    private static final int DRAW_PAGE_SIZE = WaitlistDB.DEFAULT_PAGE_SIZE;
+
     /**
-     * Retrieves an {@link Event} object from the database given an event ID.
+     * Retrieves an {@link Event} object given an event ID, served from
+     * {@link EventRepository} when a fresh copy is cached.
      *
      * @param eventId  ID of the event to fetch
      * @param callback Callback invoked with the fetched Event or an Exception on failure
      */
     public void getEventObject(String eventId, Callback<Event> callback) {
-        EventDB.getInstance().getEvent(eventId, task -> {
-            if (!task.isSuccessful() || task.getResult() == null || !task.getResult().exists()) {
-                callback.onFailure(task.getException() != null ? task.getException() : new Exception("Error loading event"));
-                return;
-            }
-            Event event = task.getResult().toObject(Event.class);
-            if (event == null) {
-                callback.onFailure(new Exception("Event is null"));
-                return;
-            }
-            callback.onSuccess(event);
-        });
+        EventRepository.getInstance().getEvent(eventId, callback);
     }
 
     /**
-     * Draws winners from the waiting list for a given event and notifies users accordingly.
+     * Draws winners from the waiting list for a given event with a fresh random seed
+     * and notifies users accordingly.
      *
      * @param event    The event for which winners are being drawn
      * @param count    Number of winners to draw
      * @param callback Callback invoked on success or failure
      */
     public void drawWinners(Event event, int count, Callback<Void> callback) {
+        drawWinners(event, count, new SplittableRandom().nextLong(), callback);
+    }
+
+    /**
+     * Draws winners from the waiting list for a given event and notifies users accordingly.
+     * <p>
+     * Winners are read directly through the waiting list's random draw keys, so the draw
+     * reads about as many entries as there are winners. Events with entries that predate
+     * draw keys fall back to streaming the whole waiting list through {@link LotteryEngine}.
+     * The seed is stored on the event; drawing again with the same seed over the same
+     * waiting list selects the same winners.
+     * </p>
+     *
+     * <p>Entrants already selected by an earlier draw that failed before the event was
+     * marked as drawn count towards {@code count}, so retrying such a draw only draws
+     * the missing winners instead of over-filling the event.</p>
+     *
+     * @param event    The event for which winners are being drawn
+     * @param count    Number of winners to draw
+     * @param seed     Seed of the random generator used for the draw
+     * @param callback Callback invoked on success or failure
+     */
+    public void drawWinners(Event event, int count, long seed, Callback<Void> callback) {
         if (count <= 0) {
             callback.onFailure(new IllegalArgumentException("Count must be greater than 0"));
             return;
         }
 
-        FirebaseFirestore db = FirebaseFirestore.getInstance();
-        WaitlistDB waitlistDB = WaitlistDB.getInstance();
-
-        waitlistDB.getEntrantsByStatus(event.getEventId(), Waitlist.STATUS_WAITING, task -> {
-            if (!task.isSuccessful()) {
-                callback.onFailure(task.getException() != null ? task.getException() :
-                        new Exception("Failed to fetch waiting entrants"));
-                return;
+        Stores.waitlist().getEntrantsByStatus(event.getEventId(), Waitlist.STATUS_SELECTED, new Callback<List<Waitlist>>() {
+            @Override
+            public void onSuccess(List<Waitlist> alreadySelected) {
+                List<String> selectedIds = new ArrayList<>();
+                for (Waitlist entry : alreadySelected) {
+                    selectedIds.add(entry.getUserId());
+                }
+                drawRemainingWinners(event, count - selectedIds.size(), seed, selectedIds, callback);
             }
 
-            QuerySnapshot querySnapshot = task.getResult();
-            if (querySnapshot == null || querySnapshot.isEmpty()) {
-                callback.onFailure(new Exception("No waiting entrants found"));
-                return;
+            @Override
+            public void onFailure(Exception e) {
+                callback.onFailure(e);
             }
+        });
+    }
 
-            List<DocumentSnapshot> waitingList = querySnapshot.getDocuments();
+    /**
+     * Draws the winners still missing from an interrupted earlier draw, or all of them,
+     * then selects them and notifies every winner and the entrants who were not selected.
+     *
+     * @param event       The event for which winners are being drawn
+     * @param remaining   Number of winners still to draw; 0 or less if none
+     * @param seed        Seed of the random generator used for the draw
+     * @param selectedIds IDs of the entrants already selected; the new winners are added
+     * @param callback    Callback invoked on success or failure
+     */
+    private void drawRemainingWinners(Event event, int remaining, long seed, List<String> selectedIds,
+                                      Callback<Void> callback) {
+        if (remaining <= 0) {
+            selectWinners(event, Collections.emptyList(), seed, selectedIds, callback);
+            return;
+        }
 
-            if (waitingList.size() < count) {
-                callback.onFailure(new Exception("Not enough entrants to draw " + count + " winners"));
-                return;
-            }
+        drawWaitingEntrants(event.getEventId(), remaining, new SplittableRandom(seed), new Callback<List<Waitlist>>() {
+            @Override
+            public void onSuccess(List<Waitlist> drawn) {
+                if (drawn.isEmpty()) {
+                    callback.onFailure(new Exception("No waiting entrants found"));
+                    return;
+                }
 
-            Collections.shuffle(waitingList);
-            List<DocumentSnapshot> selectedList = waitingList.subList(0, Math.min(count, waitingList.size()));
+                if (drawn.size() < remaining) {
+                    callback.onFailure(new Exception("Not enough entrants to draw " + remaining + " winners"));
+                    return;
+                }
 
-            WriteBatch batch = db.batch();
+                List<String> drawnIds = new ArrayList<>();
+                for (Waitlist entry : drawn) {
+                    drawnIds.add(entry.getUserId());
+                }
+                selectWinners(event, drawnIds, seed, selectedIds, callback);
+            }
 
-            for (DocumentSnapshot doc : selectedList) {
-                batch.update(doc.getReference(), "status", Waitlist.STATUS_SELECTED);
+            @Override
+            public void onFailure(Exception e) {
+                callback.onFailure(e);
             }
+        });
+    }
 
-            DocumentReference eventRef = db.collection("events").document(event.getEventId());
-            batch.update(eventRef, "alreadyDrew", true);
+    /**
+     * Selects newly drawn winners, marks the event as drawn and notifies every winner
+     * and the entrants who were not selected.
+     *
+     * @param event       The event for which winners were drawn
+     * @param drawnIds    IDs of the newly drawn winners
+     * @param seed        Seed the winners were drawn with
+     * @param selectedIds IDs of the entrants selected before this draw
+     * @param callback    Callback invoked on success or failure
+     */
+    private void selectWinners(Event event, List<String> drawnIds, long seed, List<String> selectedIds,
+                               Callback<Void> callback) {
+        Stores.waitlist().selectEntrants(event.getEventId(), drawnIds, seed, new Callback<Void>() {
+            @Override
+            public void onSuccess(Void result) {
+                EventRepository.getInstance().invalidate(event.getEventId());
+
+                List<String> winnerIds = new ArrayList<>(selectedIds);
+                winnerIds.addAll(drawnIds);
+
+                // Send notifications to winners and non-winners
+                notifyEntrants(
+                        event.getEventId(),
+                        winnerIds,
+                        "You're a winner!",
+                        "You have been selected for the event: " + event.getName(),
+                        Collections.singletonList(Waitlist.STATUS_SELECTED),
+                        null
+                );
 
-            batch.commit()
-                    .addOnSuccessListener(aVoid -> {
-                        // Send notifications to winners and non-winners
-                        for (DocumentSnapshot doc : selectedList) {
-                            String userId = doc.getString("userId");
-                            sendNotificationIfEnabled(
-                                    userId,
-                                    "You're a winner!",
-                                    "You have been selected for the event: " + event.getName(),
-                                    event.getEventId()
-                            );
-                        }
+                notifyNotSelected(event);
 
-                        for (DocumentSnapshot doc : waitingList) {
-                            if (!selectedList.contains(doc)) {
-                                String userId = doc.getString("userId");
-                                sendNotificationIfEnabled(
-                                        userId,
-                                        "Event Results",
-                                        "You were not selected for the event: " + event.getName() + ". However you can still be selected if someone else declines their offer.",
-                                        event.getEventId()
-                                );
-                            }
-                        }
+                callback.onSuccess(null);
+            }
 
-                        callback.onSuccess(null);
-                    })
-                    .addOnFailureListener(callback::onFailure);
+            @Override
+            public void onFailure(Exception e) {
+                callback.onFailure(e);
+            }
         });
     }
 
     /**
-     * Replaces a winner with a new entrant from the waiting list.
+     * Replaces a winner with a new entrant from the waiting list, drawn with a fresh random seed.
      *
      * @param userId   ID of the current winner to be replaced
      * @param eventId  ID of the event
      * @param callback Callback invoked on success or failure
      */
     public void replaceWinner(String userId, String eventId, Callback<Void> callback) {
-        FirebaseFirestore db = FirebaseFirestore.getInstance();
-        WaitlistDB waitlistDB = WaitlistDB.getInstance();
-
-        waitlistDB.getWaitlistEntry(userId, eventId, task -> {
-            if (!task.isSuccessful() || task.getResult() == null || !task.getResult().exists()) {
-                callback.onFailure(new Exception("Current winner entry not found"));
-                return;
-            }
-
-            DocumentSnapshot currentEntry = task.getResult();
-            String currentStatus = currentEntry.getString("status");
+        replaceWinner(userId, eventId, new SplittableRandom().nextLong(), callback);
+    }
 
-            waitlistDB.getEntrantsByStatus(eventId, Waitlist.STATUS_WAITING, waitingTask -> {
-                if (!waitingTask.isSuccessful()) {
-                    callback.onFailure(waitingTask.getException() != null ? waitingTask.getException() : new Exception("Unknown error finding replacement"));
+    /**
+     * Replaces a winner with a new entrant from the waiting list. The replacement is
+     * drawn the same way as in {@link #drawWinners(Event, int, long, Callback)}.
+     *
+     * @param userId   ID of the current winner to be replaced
+     * @param eventId  ID of the event
+     * @param seed     Seed of the random generator used for the draw
+     * @param callback Callback invoked on success or failure
+     */
+    public void replaceWinner(String userId, String eventId, long seed, Callback<Void> callback) {
+        WaitlistStore waitlistStore = Stores.waitlist();
+
+        waitlistStore.getWaitlistEntry(userId, eventId, new Callback<Waitlist>() {
+            @Override
+            public void onSuccess(Waitlist currentEntry) {
+                if (currentEntry == null) {
+                    callback.onFailure(new Exception("Current winner entry not found"));
                     return;
                 }
 
-                QuerySnapshot waitingSnap = waitingTask.getResult();
-                if (waitingSnap == null || waitingSnap.isEmpty()) {
-                    callback.onFailure(new Exception("No waiting entrants available"));
+                String currentStatus = currentEntry.getStatus();
+                boolean cancelCurrent;
+                if (Waitlist.STATUS_SELECTED.equals(currentStatus)) {
+                    cancelCurrent = true;
+                } else if (Waitlist.STATUS_DECLINED.equals(currentStatus)) {
+                    cancelCurrent = false;
+                } else {
+                    callback.onFailure(new Exception("Cannot replace a user with status: " + currentStatus));
                     return;
                 }
 
-                List<DocumentSnapshot> waitingList = waitingSnap.getDocuments();
-                Collections.shuffle(waitingList);
-                DocumentSnapshot replacementEntry = waitingList.get(0);
+                drawWaitingEntrants(eventId, 1, new SplittableRandom(seed), new Callback<List<Waitlist>>() {
+                    @Override
+                    public void onSuccess(List<Waitlist> drawn) {
+                        if (drawn.isEmpty()) {
+                            callback.onFailure(new Exception("No waiting entrants available"));
+                            return;
+                        }
 
-                WriteBatch batch = db.batch();
+                        String newWinnerId = drawn.get(0).getUserId();
+
+                        waitlistStore.replaceEntrant(eventId, userId, cancelCurrent, newWinnerId, new Callback<Void>() {
+                            @Override
+                            public void onSuccess(Void result) {
+                                getEventName(eventId, eventName -> {
+                                    sendNotificationIfEnabled(
+                                            userId,
+                                            "You were replaced",
+                                            "Your spot in " + eventName + " has been cancelled and a new winner was selected.",
+                                            eventId
+                                    );
+
+                                    sendNotificationIfEnabled(
+                                            newWinnerId,
+                                            "You're a winner!",
+                                            "You have been selected for " + eventName + ".",
+                                            eventId
+                                    );
+
+                                    callback.onSuccess(null);
+                                });
+                            }
 
-                if (Waitlist.STATUS_SELECTED.equals(currentStatus)) {
-                    batch.update(currentEntry.getReference(),
-                            "status", Waitlist.STATUS_CANCELLED,
-                            "replaced", true
-                    );
-                } else if (Waitlist.STATUS_DECLINED.equals(currentStatus)) {
-                    batch.update(currentEntry.getReference(),
-                            "replaced", true
-                    );
-                } else {
-                    callback.onFailure(new Exception("Cannot replace a user with status: " + currentStatus));
+                            @Override
+                            public void onFailure(Exception e) {
+                                callback.onFailure(e);
+                            }
+                        });
+                    }
+
+                    @Override
+                    public void onFailure(Exception e) {
+                        callback.onFailure(e);
+                    }
+                });
+            }
+
+            @Override
+            public void onFailure(Exception e) {
+                callback.onFailure(new Exception("Current winner entry not found"));
+            }
+        });
+    }
+
+    /**
+     * Draws up to {@code count} waiting entrants of an event at random.
+     * Uses the draw key index when every waiting entry has a key, which is fair
+     * over the random keys but weighted by the gaps between them (see
+     * {@link com.example.icetea.core.KeyedDraw}), and otherwise streams the whole
+     * waiting list through {@link LotteryEngine}, which is exactly uniform.
+     *
+     * @param eventId  ID of the event
+     * @param count    Number of entrants to draw
+     * @param random   Source of randomness
+     * @param callback Callback invoked with the drawn entries; fewer than {@code count}
+     *                 if the waiting list is smaller
+     */
+    private void drawWaitingEntrants(String eventId, int count, SplittableRandom random,
+                                     Callback<List<Waitlist>> callback) {
+        Stores.waitlist().drawWaitingEntrants(eventId, count, random.nextDouble(), new Callback<List<Waitlist>>() {
+            @Override
+            public void onSuccess(List<Waitlist> drawn) {
+                if (drawn != null) {
+                    callback.onSuccess(drawn);
                     return;
                 }
 
-                batch.update(replacementEntry.getReference(),
-                        "status", Waitlist.STATUS_SELECTED
+                LotteryEngine<Waitlist> lottery = new LotteryEngine<>(count, random);
+                streamWaitingEntrants(eventId, null, lottery::offer, new Callback<Void>() {
+                    @Override
+                    public void onSuccess(Void result) {
+                        callback.onSuccess(lottery.getWinners());
+                    }
+
+                    @Override
+                    public void onFailure(Exception e) {
+                        callback.onFailure(e);
+                    }
+                });
+            }
+
+            @Override
+            public void onFailure(Exception e) {
+                callback.onFailure(e);
+            }
+        });
+    }
+
+    /**
+     * Notifies every entrant still waiting after a draw that they were not selected.
+     *
+     * @param event The event that was drawn
+     */
+    private void notifyNotSelected(Event event) {
+        List<String> waitingIds = new ArrayList<>();
+        streamWaitingEntrants(event.getEventId(), null, page -> {
+            for (Waitlist entry : page) {
+                waitingIds.add(entry.getUserId());
+            }
+        }, new Callback<Void>() {
+            @Override
+            public void onSuccess(Void result) {
+                notifyEntrants(
+                        event.getEventId(),
+                        waitingIds,
+                        "Event Results",
+                        "You were not selected for the event: " + event.getName() + ". However you can still be selected if someone else declines their offer.",
+                        Collections.singletonList(Waitlist.STATUS_WAITING),
+                        null
                 );
+            }
 
-                batch.commit().addOnSuccessListener(aVoid -> {
-                    EventDB.getInstance().getEvent(eventId, eventTask -> {
-                        String eventName = "the event";
-                        if (eventTask.isSuccessful() && eventTask.getResult() != null && eventTask.getResult().exists()) {
-                            DocumentSnapshot doc = eventTask.getResult();
-                            String name = doc.getString("name");
-                            if (name != null) eventName = name;
+            @Override
+            public void onFailure(Exception e) {
+                Log.e(TAG, "Failed to notify entrants who were not selected", e);
+            }
+        });
+    }
+
+    /**
+     * Passes an event's waiting entrants to a consumer one page at a time,
+     * starting after the given page token.
+     *
+     * @param eventId   ID of the event
+     * @param pageToken Token of the page to fetch, or null for the first page
+     * @param onPage    Receives each page
+     * @param callback  Callback invoked once every page has been passed on, or on the first failure
+     */
+    private void streamWaitingEntrants(String eventId, String pageToken, Consumer<List<Waitlist>> onPage,
+                                       Callback<Void> callback) {
+        Stores.waitlist().getEntrantsPageByStatus(eventId, Waitlist.STATUS_WAITING, pageToken, DRAW_PAGE_SIZE,
+                new Callback<Page<Waitlist>>() {
+                    @Override
+                    public void onSuccess(Page<Waitlist> page) {
+                        onPage.accept(page.getItems());
+                        if (page.hasNextPage()) {
+                            streamWaitingEntrants(eventId, page.getNextPageToken(), onPage, callback);
+                        } else {
+                            callback.onSuccess(null);
                         }
+                    }
 
-                        sendNotificationIfEnabled(
-                                userId,
-                                "You were replaced",
-                                "Your spot in " + eventName + " has been cancelled and a new winner was selected.",
-                                eventId
-                        );
-
-                        String newWinnerId = replacementEntry.getString("userId");
-                        sendNotificationIfEnabled(
-                                newWinnerId,
-                                "You're a winner!",
-                                "You have been selected for " + eventName + ".",
-                                eventId
-                        );
-
-                        callback.onSuccess(null);
-                    });
-                }).addOnFailureListener(callback::onFailure);
-            });
-        });
+                    @Override
+                    public void onFailure(Exception e) {
+                        callback.onFailure(e);
+                    }
+                });
     }
 
     /**
@@ -210,45 +387,112 @@ public class ManageEventController {
      * @param callback Callback invoked on success or failure
      */
     public void revokeWinner(String userId, String eventId, Callback<Void> callback) {
-        WaitlistDB waitlistDB = WaitlistDB.getInstance();
+        WaitlistStore waitlistStore = Stores.waitlist();
 
-        waitlistDB.getWaitlistEntry(userId, eventId, task -> {
-            if (!task.isSuccessful() || task.getResult() == null || !task.getResult().exists()) {
-                callback.onFailure(new Exception("Winner entry not found"));
-                return;
+        waitlistStore.getWaitlistEntry(userId, eventId, new Callback<Waitlist>() {
+            @Override
+            public void onSuccess(Waitlist entry) {
+                if (entry == null) {
+                    callback.onFailure(new Exception("Winner entry not found"));
+                    return;
+                }
+
+                String currentStatus = entry.getStatus();
+
+                if (!Waitlist.STATUS_SELECTED.equals(currentStatus)) {
+                    callback.onFailure(new Exception("Cannot revoke user with status: " + currentStatus));
+                    return;
+                }
+
+                waitlistStore.updateWaitlistStatus(userId, eventId, Waitlist.STATUS_CANCELLED, new Callback<Void>() {
+                    @Override
+                    public void onSuccess(Void result) {
+                        getEventName(eventId, eventName -> {
+                            sendNotificationIfEnabled(
+                                    userId,
+                                    "Your spot was revoked",
+                                    "Your winning spot in " + eventName + " has been cancelled.",
+                                    eventId
+                            );
+
+                            callback.onSuccess(null);
+                        });
+                    }
+
+                    @Override
+                    public void onFailure(Exception e) {
+                        callback.onFailure(e);
+                    }
+                });
             }
 
-            DocumentSnapshot entry = task.getResult();
-            String currentStatus = entry.getString("status");
+            @Override
+            public void onFailure(Exception e) {
+                callback.onFailure(new Exception("Winner entry not found"));
+            }
+        });
+    }
 
-            if (!Waitlist.STATUS_SELECTED.equals(currentStatus)) {
-                callback.onFailure(new Exception("Cannot revoke user with status: " + currentStatus));
-                return;
+    /**
+     * Looks up an event's display name through {@link EventRepository},
+     * falling back to "the event" if it cannot be loaded.
+     *
+     * @param eventId  ID of the event
+     * @param consumer Receives the event name
+     */
+    private void getEventName(String eventId, Consumer<String> consumer) {
+        EventRepository.getInstance().getEvent(eventId, new Callback<Event>() {
+            @Override
+            public void onSuccess(Event result) {
+                consumer.accept(result.getName() != null ? result.getName() : "the event");
             }
 
-            waitlistDB.updateWaitlistStatus(userId, eventId, Waitlist.STATUS_CANCELLED, statusTask -> {
-                if (statusTask.isSuccessful()) {
-                    EventDB.getInstance().getEvent(eventId, eventTask -> {
-                        String eventName = "the event";
-                        if (eventTask.isSuccessful() && eventTask.getResult() != null && eventTask.getResult().exists()) {
-                            DocumentSnapshot doc = eventTask.getResult();
-                            String name = doc.getString("name");
-                            if (name != null) eventName = name;
-                        }
+            @Override
+            public void onFailure(Exception e) {
+                consumer.accept("the event");
+            }
+        });
+    }
 
-                        sendNotificationIfEnabled(
-                                userId,
-                                "Your spot was revoked",
-                                "Your winning spot in " + eventName + " has been cancelled.",
-                                eventId
-                        );
+    /**
+     * Sends a notification to many entrants of an event through a
+     * {@link NotificationDispatcher} and logs the broadcast with its result.
+     *
+     * @param eventId  ID of the related event
+     * @param userIds  IDs of the recipients
+     * @param title    Notification title
+     * @param message  Notification message
+     * @param statuses Waitlist statuses the recipients were chosen by, for the log
+     * @param callback Callback invoked with the dispatch result, or null
+     */
+    public void notifyEntrants(String eventId,
+                               Collection<String> userIds,
+                               String title,
+                               String message,
+                               List<String> statuses,
+                               Callback<NotificationDispatcher.Result> callback) {
+        List<String> recipients = new ArrayList<>(new LinkedHashSet<>(userIds));
+
+        new NotificationDispatcher().dispatch(recipients, title, message, eventId, new Callback<NotificationDispatcher.Result>() {
+            @Override
+            public void onSuccess(NotificationDispatcher.Result result) {
+                if (result.getFailure() != null) {
+                    Log.e(TAG, "Failed to notify some users", result.getFailure());
+                }
+                if (!recipients.isEmpty()) {
+                    addNotificationLogForEvent(eventId, title, message, recipients, statuses, result);
+                }
+                if (callback != null) {
+                    callback.onSuccess(result);
+                }
+            }
 
-                        callback.onSuccess(null);
-                    });
-                } else {
-                    callback.onFailure(statusTask.getException() != null ? statusTask.getException() : new Exception("Failed to update status"));
+            @Override
+            public void onFailure(Exception e) {
+                if (callback != null) {
+                    callback.onFailure(e);
                 }
-            });
+            }
         });
     }
 
@@ -261,17 +505,22 @@ public class ManageEventController {
      * @param eventId ID of the event related to the notification
      */
     public void sendNotificationIfEnabled(String userId, String title, String message, String eventId) {
-        UserDB userDB = UserDB.getInstance();
-        userDB.getUser(userId, task -> {
-            if (task.isSuccessful() && task.getResult() != null && task.getResult().exists()) {
-                Boolean notificationsEnabled = task.getResult().getBoolean("notifications");
-                if (notificationsEnabled != null && notificationsEnabled) {
+        Stores.users().getNotificationPreferences(Collections.singletonList(userId), new Callback<Map<String, Boolean>>() {
+            @Override
+            public void onSuccess(Map<String, Boolean> preferences) {
+                Boolean enabled = preferences.get(userId);
+                if (enabled == null) {
+                    Log.e(TAG, "Failed to fetch user " + userId + ": not found");
+                } else if (enabled) {
                     sendNotification(userId, title, message, eventId);
                 } else {
-                    System.out.println("User " + userId + " has notifications disabled.");
+                    Log.d(TAG, "User " + userId + " has notifications disabled.");
                 }
-            } else {
-                System.err.println("Failed to fetch user " + userId + ": " + task.getException());
+            }
+
+            @Override
+            public void onFailure(Exception e) {
+                Log.e(TAG, "Failed to fetch user " + userId, e);
             }
         });
     }
@@ -285,7 +534,6 @@ public class ManageEventController {
      * @param eventId ID of the related event
      */
     private void sendNotification(String userId, String title, String message, String eventId) {
-        NotificationDB notificationDB = NotificationDB.getInstance();
         Notification notification = new Notification();
         notification.setUserId(userId);
         notification.setTitle(title);
@@ -293,9 +541,14 @@ public class ManageEventController {
         notification.setEventId(eventId);
         notification.setTimestamp(Timestamp.now());
 
-        notificationDB.addNotification(notification, task -> {
-            if (!task.isSuccessful()) {
-                System.err.println("Failed to send notification: " + task.getException());
+        Stores.notifications().addNotification(notification, new Callback<Void>() {
+            @Override
+            public void onSuccess(Void result) {
+            }
+
+            @Override
+            public void onFailure(Exception e) {
+                Log.e(TAG, "Failed to send notification", e);
             }
         });
     }
@@ -322,8 +575,55 @@ public class ManageEventController {
         log.setStatuses(statuses);
         log.setTimestamp(Timestamp.now());
 
-        FirebaseFirestore.getInstance()
-                .collection("notificationsLog")
-                .add(log);
+        Stores.notifications().addNotificationLog(log, new Callback<Void>() {
+            @Override
+            public void onSuccess(Void result) {
+            }
+
+            @Override
+            public void onFailure(Exception e) {
+                Log.e(TAG, "Failed to log notification", e);
+            }
+        });
+    }
+
+    /**
+     * Adds a log entry for notifications sent regarding an event, including how many
+     * recipients were notified, skipped or failed.
+     *
+     * @param eventId    ID of the event
+     * @param title      Notification title
+     * @param message    Notification message
+     * @param recipients List of user IDs the notification was addressed to
+     * @param statuses   List of status strings corresponding to recipients
+     * @param result     Result of dispatching the notification
+     */
+    public void addNotificationLogForEvent(String eventId,
+                                           String title,
+                                           String message,
+                                           List<String> recipients,
+                                           List<String> statuses,
+                                           NotificationDispatcher.Result result) {
+        NotificationLog log = new NotificationLog();
+        log.setEventId(eventId);
+        log.setTitle(title);
+        log.setMessage(message);
+        log.setRecipients(recipients);
+        log.setStatuses(statuses);
+        log.setTimestamp(Timestamp.now());
+        log.setSentCount(result.getSent());
+        log.setSkippedCount(result.getSkippedDisabled());
+        log.setFailedCount(result.getFailed());
+
+        Stores.notifications().addNotificationLog(log, new Callback<Void>() {
+            @Override
+            public void onSuccess(Void result) {
+            }
+
+            @Override
+            public void onFailure(Exception e) {
+                Log.e(TAG, "Failed to log notification", e);
+            }
+        });
     }
-}
\ No newline at end of file
+}
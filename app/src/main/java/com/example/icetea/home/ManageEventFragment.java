@@ -18,8 +18,9 @@ import android.widget.Toast;
 import com.example.icetea.R;
 import com.example.icetea.models.Event;
 import com.example.icetea.models.EventDB;
+import com.example.icetea.models.Stores;
 import com.example.icetea.util.Callback;
-import com.example.icetea.util.ImageUtil;
+import com.example.icetea.util.PosterLoader;
 import com.google.android.material.button.MaterialButton;
 import com.google.android.material.dialog.MaterialAlertDialogBuilder;
 import com.google.android.material.textfield.TextInputEditText;
@@ -44,6 +45,9 @@ public class ManageEventFragment extends Fragment {
     /** Event ID used to load the event */
     private String eventId;
 
+    /** Number of entrants summed from the event's counter shards */
+    private int entrantCount;
+
     /** ImageView showing the event poster */
     private ImageView posterImageView;
 
@@ -151,6 +155,28 @@ public class ManageEventFragment extends Fragment {
             transaction.commit();
         });
 
+        // Check-in button listener
+        MaterialButton checkInButton = view.findViewById(R.id.buttonCheckIn);
+        checkInButton.setOnClickListener(v -> {
+            if (eventId == null) {
+                Toast.makeText(getContext(), "Error: event not loaded yet", Toast.LENGTH_SHORT).show();
+                return;
+            }
+
+            FragmentManager fm = requireActivity().getSupportFragmentManager();
+            FragmentTransaction transaction = fm.beginTransaction();
+            transaction.setReorderingAllowed(true);
+            transaction.setCustomAnimations(
+                    R.anim.slide_in_right,
+                    R.anim.slide_out_left,
+                    R.anim.slide_in_left,
+                    R.anim.slide_out_right
+            );
+            transaction.replace(R.id.main_fragment_container, CheckInFragment.newInstance(eventId));
+            transaction.addToBackStack(null);
+            transaction.commit();
+        });
+
         descriptionEditText = view.findViewById(R.id.textEventDescriptionDetail);
 
         // Edit Event button listener
@@ -175,6 +201,18 @@ public class ManageEventFragment extends Fragment {
             @Override
             public void onSuccess(Event result) {
                 event = result;
+                entrantCount = event.getCurrentEntrants() != null ? event.getCurrentEntrants() : 0;
+                Stores.waitlist().getEntrantCount(event, new Callback<Integer>() {
+                    @Override
+                    public void onSuccess(Integer count) {
+                        entrantCount = count;
+                    }
+
+                    @Override
+                    public void onFailure(Exception e) {
+                        // Keep the count stored on the event
+                    }
+                });
 
                 if (eventNameTextView != null && event.getName() != null) {
                     eventNameTextView.setText(event.getName());
@@ -188,12 +226,7 @@ public class ManageEventFragment extends Fragment {
                     descriptionEditText.setText(event.getDescription());
                 }
 
-                String posterBase64 = event.getPosterBase64();
-                if (posterBase64 != null && !posterBase64.isEmpty()) {
-                    posterImageView.setImageBitmap(
-                            ImageUtil.base64ToBitmap(posterBase64)
-                    );
-                }
+                PosterLoader.getInstance(requireContext()).loadFull(event, posterImageView, R.drawable.default_poster);
             }
 
             @Override
@@ -229,7 +262,7 @@ public class ManageEventFragment extends Fragment {
 
                 MaterialAlertDialogBuilder builder = new MaterialAlertDialogBuilder(requireContext())
                         .setTitle("Draw Winners")
-                        .setMessage("How many winners would you like to draw?\nCurrent amount of entrants: " + event.getCurrentEntrants())
+                        .setMessage("How many winners would you like to draw?\nCurrent amount of entrants: " + entrantCount)
                         .setView(dialogView)
                         .setNegativeButton("Cancel", null)
                         .setPositiveButton("Draw", null);
@@ -18,7 +18,10 @@ import com.example.icetea.R;
 import com.example.icetea.auth.CurrentUser;
 import com.example.icetea.models.Event;
 import com.example.icetea.models.EventDB;
+import com.example.icetea.util.Callback;
+import com.google.android.material.button.MaterialButton;
 import com.google.android.material.floatingactionbutton.FloatingActionButton;
+import com.google.android.material.progressindicator.LinearProgressIndicator;
 import com.google.firebase.firestore.DocumentSnapshot;
 
 import java.util.ArrayList;
@@ -80,7 +83,8 @@ public class MyEventsFragment extends Fragment {
 
     /**
      * Called immediately after onCreateView.
-     * Sets up the RecyclerView, adapter, and floating action button to create new events.
+     * Sets up the RecyclerView, adapter, floating action button to create new events,
+     * and the button that exports the QR codes of all events.
      *
      * @param view The View returned by onCreateView
      * @param savedInstanceState If non-null, this fragment is being re-constructed from a previous saved state
@@ -106,6 +110,11 @@ public class MyEventsFragment extends Fragment {
             transaction.commit();
         });
 
+        // Export the QR codes of all events to one PDF
+        MaterialButton exportButton = view.findViewById(R.id.buttonExportQr);
+        LinearProgressIndicator exportProgress = view.findViewById(R.id.progressExportQr);
+        exportButton.setOnClickListener(v -> exportQrCodes(exportButton, exportProgress));
+
         // RecyclerView setup
         RecyclerView recyclerView = view.findViewById(R.id.recyclerViewMyEvents);
         adapter = new EventAdapter(myEventList, event -> {
@@ -131,6 +140,46 @@ public class MyEventsFragment extends Fragment {
         loadMyEvents();
     }
 
+    /**
+     * Exports the QR codes of all of the current user's events to a PDF,
+     * showing the progress and disabling the button until it is done.
+     *
+     * @param exportButton   The button that started the export
+     * @param exportProgress The progress bar to update
+     */
+    private void exportQrCodes(MaterialButton exportButton, LinearProgressIndicator exportProgress) {
+        exportButton.setEnabled(false);
+        exportProgress.setIndeterminate(true);
+        exportProgress.setVisibility(View.VISIBLE);
+
+        QrSheetExporter.export(requireContext(), CurrentUser.getInstance().getFid(),
+                (done, total) -> {
+                    exportProgress.setIndeterminate(false);
+                    exportProgress.setMax(total);
+                    exportProgress.setProgressCompat(done, true);
+                },
+                new Callback<String>() {
+                    @Override
+                    public void onSuccess(String fileName) {
+                        exportButton.setEnabled(true);
+                        exportProgress.setVisibility(View.GONE);
+                        if (getContext() != null) {
+                            Toast.makeText(getContext(), "QR codes saved in Downloads as " + fileName, Toast.LENGTH_LONG).show();
+                        }
+                    }
+
+                    @Override
+                    public void onFailure(Exception e) {
+                        exportButton.setEnabled(true);
+                        exportProgress.setVisibility(View.GONE);
+                        if (getContext() != null) {
+                            Toast.makeText(getContext(), "Failed to export QR codes", Toast.LENGTH_SHORT).show();
+                        }
+                        Log.e("MyEventsFragment", "Error exporting QR codes", e);
+                    }
+                });
+    }
+
     /**
      * Fetches events created by the current user (organizer) from the database.
      * Updates the RecyclerView adapter upon successful retrieval.
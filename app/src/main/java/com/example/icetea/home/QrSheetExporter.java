@@ -0,0 +1,184 @@
+package com.example.icetea.home;
+
+import android.content.ContentResolver;
+import android.content.ContentValues;
+import android.content.Context;
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.graphics.Color;
+import android.graphics.Paint;
+import android.graphics.Rect;
+import android.graphics.pdf.PdfDocument;
+import android.net.Uri;
+import android.os.Handler;
+import android.os.Looper;
+import android.provider.MediaStore;
+
+import com.example.icetea.core.WindowedPipeline;
+import com.example.icetea.models.Event;
+import com.example.icetea.models.EventDB;
+import com.example.icetea.util.Callback;
+import com.example.icetea.util.QRCode;
+import com.google.firebase.firestore.DocumentSnapshot;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Utility class for exporting the QR codes of all of an organizer's events
+ * to one PDF in the device's Downloads folder, one event per page.
+ * <p>
+ * The codes are rendered in parallel on a small worker pool and written to the
+ * PDF in order by a single writer thread. At most {@value #WINDOW} codes are
+ * rendered ahead of the page being written, so only a few bitmaps are in memory
+ * at once however many events there are.
+ */
+public class QrSheetExporter {
+
+    /**
+     * Receives the progress of an export on the main thread.
+     */
+    public interface ProgressListener {
+
+        /**
+         * Called after each page is written.
+         *
+         * @param done  Number of pages written so far
+         * @param total Total number of pages
+         */
+        void onProgress(int done, int total);
+    }
+
+    /** Number of QR codes rendered at the same time */
+    private static final int RENDER_THREADS = 3;
+
+    /** Maximum number of QR codes rendered ahead of the page being written */
+    private static final int WINDOW = 4;
+
+    /** A4 page size in PostScript points */
+    private static final int PAGE_WIDTH = 595;
+    private static final int PAGE_HEIGHT = 842;
+
+    /** Margin around the page content in points */
+    private static final int MARGIN = 48;
+
+    /** Text size of the event name in points */
+    private static final float TITLE_SIZE = 24f;
+
+    private static final ExecutorService RENDER_POOL = Executors.newFixedThreadPool(RENDER_THREADS);
+    private static final Executor WRITER = Executors.newSingleThreadExecutor();
+
+    /**
+     * Exports the QR codes of every event of an organizer to a PDF in the Downloads folder.
+     *
+     * @param context     Context used to access the ContentResolver
+     * @param organizerId The ID of the organizer whose events are exported
+     * @param progress    Receives the progress on the main thread
+     * @param callback    Receives the name of the saved file, or the failure, on the main thread
+     */
+    public static void export(Context context, String organizerId, ProgressListener progress, Callback<String> callback) {
+        Context appContext = context.getApplicationContext();
+        EventDB.getInstance().getEventsByOrganizer(organizerId, task -> {
+            if (!task.isSuccessful() || task.getResult() == null) {
+                callback.onFailure(task.getException() != null ? task.getException() : new Exception("Failed to load events"));
+                return;
+            }
+
+            List<Event> events = new ArrayList<>();
+            for (DocumentSnapshot doc : task.getResult()) {
+                Event event = doc.toObject(Event.class);
+                if (event != null && event.getEventId() != null) events.add(event);
+            }
+            if (events.isEmpty()) {
+                callback.onFailure(new Exception("No events to export"));
+                return;
+            }
+
+            Handler mainHandler = new Handler(Looper.getMainLooper());
+            WRITER.execute(() -> {
+                try {
+                    String fileName = writePdf(appContext, events,
+                            (done, total) -> mainHandler.post(() -> progress.onProgress(done, total)));
+                    mainHandler.post(() -> callback.onSuccess(fileName));
+                } catch (Exception e) {
+                    mainHandler.post(() -> callback.onFailure(e));
+                }
+            });
+        });
+    }
+
+    /**
+     * Renders the QR codes and streams them into a new PDF in the Downloads folder.
+     * Runs on the writer thread.
+     *
+     * @return The name of the saved file
+     */
+    private static String writePdf(Context context, List<Event> events, ProgressListener progress) throws Exception {
+        String fileName = "event_qr_codes_" + System.currentTimeMillis() + ".pdf";
+        ContentValues values = new ContentValues();
+        values.put(MediaStore.MediaColumns.DISPLAY_NAME, fileName);
+        values.put(MediaStore.MediaColumns.MIME_TYPE, "application/pdf");
+        values.put(MediaStore.MediaColumns.RELATIVE_PATH, "Download/");
+
+        ContentResolver resolver = context.getContentResolver();
+        Uri uri = resolver.insert(MediaStore.Downloads.EXTERNAL_CONTENT_URI, values);
+        if (uri == null) {
+            throw new IOException("Could not create download file");
+        }
+
+        PdfDocument document = new PdfDocument();
+        try {
+            Paint titlePaint = new Paint(Paint.ANTI_ALIAS_FLAG);
+            titlePaint.setColor(Color.BLACK);
+            titlePaint.setTextSize(TITLE_SIZE);
+            titlePaint.setTextAlign(Paint.Align.CENTER);
+            // Keep modules sharp when the code is scaled onto the page
+            Paint codePaint = new Paint();
+            codePaint.setFilterBitmap(false);
+
+            int total = events.size();
+            new WindowedPipeline<Bitmap>(WINDOW, RENDER_POOL).run(total,
+                    index -> QRCode.render(QRCode.payloadFor(events.get(index).getEventId()), QRCode.DEFAULT_SIZE),
+                    (index, bitmap) -> {
+                        PdfDocument.Page page = document.startPage(
+                                new PdfDocument.PageInfo.Builder(PAGE_WIDTH, PAGE_HEIGHT, index + 1).create());
+                        drawPage(page.getCanvas(), events.get(index), bitmap, titlePaint, codePaint);
+                        document.finishPage(page);
+                        bitmap.recycle();
+                        progress.onProgress(index + 1, total);
+                    });
+
+            try (OutputStream out = resolver.openOutputStream(uri)) {
+                if (out == null) {
+                    throw new IOException("Could not open download file");
+                }
+                document.writeTo(out);
+            }
+            return fileName;
+        } catch (Exception e) {
+            resolver.delete(uri, null, null);
+            throw e;
+        } finally {
+            document.close();
+        }
+    }
+
+    /**
+     * Draws the event name and its QR code, as large as fits, on a page.
+     */
+    private static void drawPage(Canvas canvas, Event event, Bitmap code, Paint titlePaint, Paint codePaint) {
+        String name = event.getName() != null ? event.getName() : event.getEventId();
+        float titleBaseline = MARGIN + TITLE_SIZE;
+        canvas.drawText(name, PAGE_WIDTH / 2f, titleBaseline, titlePaint);
+
+        int top = (int) titleBaseline + MARGIN;
+        int side = Math.min(PAGE_WIDTH - 2 * MARGIN, PAGE_HEIGHT - MARGIN - top);
+        int left = (PAGE_WIDTH - side) / 2;
+        canvas.drawBitmap(code, null, new Rect(left, top, left + side, top + side), codePaint);
+    }
+}
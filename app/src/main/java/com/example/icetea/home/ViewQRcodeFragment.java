@@ -1,5 +1,6 @@
 package com.example.icetea.home;
 
+import android.graphics.Bitmap;
 import android.os.Bundle;
 import android.view.LayoutInflater;
 import android.view.View;
@@ -15,6 +16,7 @@ import androidx.fragment.app.Fragment;
 import com.example.icetea.R;
 import com.example.icetea.util.Callback;
 import com.example.icetea.util.QRCode;
+import com.example.icetea.util.QrCodeLoader;
 import com.google.android.material.button.MaterialButton;
 
 /**
@@ -96,7 +98,21 @@ public class ViewQRcodeFragment extends Fragment {
         // Generate and display the QR code for the event
         ImageView qrImageView = view.findViewById(R.id.qrImageView);
         if (eventId != null && !eventId.isEmpty()) {
-            QRCode.generateQRCode(eventId, qrImageView);
+            QrCodeLoader.getInstance(requireContext()).load(eventId, QRCode.DEFAULT_SIZE, new Callback<Bitmap>() {
+                @Override
+                public void onSuccess(Bitmap result) {
+                    if (getView() != null) {
+                        qrImageView.setImageBitmap(result);
+                    }
+                }
+
+                @Override
+                public void onFailure(Exception e) {
+                    if (getView() != null) {
+                        Toast.makeText(requireContext(), "Failed to generate QR Code", Toast.LENGTH_SHORT).show();
+                    }
+                }
+            });
         }
 
         // Download QR code button
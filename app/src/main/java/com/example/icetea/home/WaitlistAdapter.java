@@ -1,7 +1,6 @@
 package com.example.icetea.home;
 
 import android.content.Context;
-import android.graphics.Bitmap;
 import android.view.LayoutInflater;
 import android.view.View;
 import android.view.ViewGroup;
@@ -9,24 +8,32 @@ import android.widget.ImageView;
 import android.widget.TextView;
 
 import androidx.annotation.NonNull;
+import androidx.recyclerview.widget.ListAdapter;
 import androidx.recyclerview.widget.RecyclerView;
 
 import com.example.icetea.R;
+import com.example.icetea.models.User;
 import com.example.icetea.models.UserDB;
 import com.example.icetea.models.Waitlist;
-import com.example.icetea.util.ImageUtil;
+import com.example.icetea.util.ImageLoader;
 import com.google.android.material.button.MaterialButton;
-import com.google.firebase.firestore.DocumentSnapshot;
+import com.google.firebase.firestore.Blob;
 
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 /**
  * Adapter for displaying waitlist entries in a RecyclerView.
  * Handles displaying user information, status, and actions such as replacing or revoking winners.
+ * New lists are diffed with {@link WaitlistDiffCallback} off the main thread, so only
+ * changed rows are rebound.
  */
-public class WaitlistAdapter extends RecyclerView.Adapter<WaitlistAdapter.WaitlistViewHolder> {
+public class WaitlistAdapter extends ListAdapter<Waitlist, WaitlistAdapter.WaitlistViewHolder> {
 
     /**
      * Interface to handle actions performed on waitlist entries.
@@ -53,12 +60,18 @@ public class WaitlistAdapter extends RecyclerView.Adapter<WaitlistAdapter.Waitli
     /** Context for inflating views */
     private final Context context;
 
-    /** List of waitlist entries */
-    private final List<Waitlist> entries;
+    /** Stable row IDs of the entries */
+    private final WaitlistDiffCallback.StableIds stableIds = new WaitlistDiffCallback.StableIds();
 
     /** Cache to store user data for faster display */
     private final Map<String, UserData> userCache = new HashMap<>();
 
+    /** User IDs currently being fetched by a bulk request */
+    private final Set<String> pendingUsers = new HashSet<>();
+
+    /** User IDs whose last fetch failed or that no longer exist */
+    private final Set<String> failedUsers = new HashSet<>();
+
     /**
      * Constructor for the adapter.
      *
@@ -67,9 +80,11 @@ public class WaitlistAdapter extends RecyclerView.Adapter<WaitlistAdapter.Waitli
      * @param listener ActionListener to handle replace/revoke actions
      */
     public WaitlistAdapter(Context context, List<Waitlist> entries, ActionListener listener) {
+        super(new WaitlistDiffCallback());
         this.context = context;
-        this.entries = entries;
         this.listener = listener;
+        setHasStableIds(true);
+        submitList(new ArrayList<>(entries));
     }
 
     /**
@@ -95,12 +110,11 @@ public class WaitlistAdapter extends RecyclerView.Adapter<WaitlistAdapter.Waitli
      */
     @Override
     public void onBindViewHolder(@NonNull WaitlistViewHolder holder, int position) {
-        Waitlist entry = entries.get(position);
+        Waitlist entry = getItem(position);
 
         // Initialize default display
         holder.textName.setText("Loading...");
         holder.textEmail.setText("");
-        holder.imageProfile.setImageResource(R.drawable.default_avatar);
         holder.textStatus.setText("Status: " + entry.getStatus());
 
         // Update button visibility and state based on entry status
@@ -129,42 +143,20 @@ public class WaitlistAdapter extends RecyclerView.Adapter<WaitlistAdapter.Waitli
             holder.buttonReplace.setVisibility(View.GONE);
         }
 
-        // Load user data from cache or Firestore
-        if (userCache.containsKey(entry.getUserId())) {
-            UserData cached = userCache.getOrDefault(entry.getUserId(), null);
-            if (cached != null) {
-                holder.textName.setText(cached.name);
-                holder.textEmail.setText(cached.email);
-                if (cached.avatar != null) holder.imageProfile.setImageBitmap(cached.avatar);
-            }
+        // Load user data from the cache filled by the bulk prefetch
+        UserData cached = userCache.get(entry.getUserId());
+        if (cached != null) {
+            holder.textName.setText(cached.name);
+            holder.textEmail.setText(cached.email);
+            ImageLoader.getInstance(context).load(cached.avatarKey, cached.avatarImage, cached.avatar, holder.imageProfile, R.drawable.default_avatar);
+        } else if (failedUsers.contains(entry.getUserId())) {
+            holder.textName.setText("Unknown");
+            holder.textEmail.setText("");
+            ImageLoader.getInstance(context).load(null, holder.imageProfile, R.drawable.default_avatar);
         } else {
-            UserDB.getInstance().getUser(entry.getUserId(), task -> {
-                if (task.isSuccessful() && task.getResult() != null) {
-                    DocumentSnapshot doc = task.getResult();
-                    String name = doc.getString("name");
-                    String email = doc.getString("email");
-                    String avatarBase64 = doc.getString("avatar");
-
-                    Bitmap bitmap = null;
-                    if (avatarBase64 != null) {
-                        bitmap = ImageUtil.base64ToBitmap(avatarBase64);
-                    }
-
-                    UserData data = new UserData();
-                    data.name = name != null ? name : "Unknown";
-                    data.email = email != null ? email : "";
-                    data.avatar = bitmap;
-
-                    userCache.put(entry.getUserId(), data);
-
-                    holder.textName.setText(data.name);
-                    holder.textEmail.setText(data.email);
-                    if (data.avatar != null) holder.imageProfile.setImageBitmap(data.avatar);
-                } else {
-                    holder.textName.setText("Unknown");
-                    holder.textEmail.setText("");
-                }
-            });
+            ImageLoader.getInstance(context).load(null, holder.imageProfile, R.drawable.default_avatar);
+            // Normally already requested by updateList; rows are refreshed when the batch arrives
+            prefetchUsers(Collections.singletonList(entry));
         }
 
         // Set click listeners for action buttons
@@ -179,13 +171,26 @@ public class WaitlistAdapter extends RecyclerView.Adapter<WaitlistAdapter.Waitli
     }
 
     /**
-     * Returns the total number of entries in the adapter.
+     * Cancels any image still loading for a recycled row.
      *
-     * @return Number of entries
+     * @param holder The recycled ViewHolder
      */
     @Override
-    public int getItemCount() {
-        return entries.size();
+    public void onViewRecycled(@NonNull WaitlistViewHolder holder) {
+        super.onViewRecycled(holder);
+        ImageLoader.getInstance(holder.itemView.getContext()).cancel(holder.imageProfile);
+    }
+
+    /**
+     * Returns a stable ID for the entry at a position, so rows keep their
+     * views when entries move.
+     *
+     * @param position The position of the entry in the list
+     * @return The stable ID of the entry
+     */
+    @Override
+    public long getItemId(int position) {
+        return stableIds.idOf(getItem(position));
     }
 
     /**
@@ -215,14 +220,65 @@ public class WaitlistAdapter extends RecyclerView.Adapter<WaitlistAdapter.Waitli
     }
 
     /**
-     * Updates the adapter's list of entries and refreshes the RecyclerView.
+     * Submits a new list of entries. The list is diffed against the current one
+     * on a background thread and only rows whose entry changed are rebound.
      *
      * @param newEntries New list of waitlist entries
      */
     public void updateList(List<Waitlist> newEntries) {
-        entries.clear();
-        entries.addAll(newEntries);
-        notifyDataSetChanged();
+        failedUsers.clear();
+        prefetchUsers(newEntries);
+        submitList(new ArrayList<>(newEntries));
+    }
+
+    /**
+     * Fetches the users behind the given entries that are not cached or already
+     * being fetched, using a single bulk {@link UserDB#getUsers} request.
+     * Rows showing those users are refreshed once the results arrive.
+     *
+     * @param toFetch Waitlist entries whose users should be loaded
+     */
+    private void prefetchUsers(List<Waitlist> toFetch) {
+        List<String> missing = new ArrayList<>();
+        for (Waitlist entry : toFetch) {
+            String userId = entry.getUserId();
+            if (userId != null && !userCache.containsKey(userId) && pendingUsers.add(userId)) {
+                missing.add(userId);
+            }
+        }
+        if (missing.isEmpty()) return;
+
+        UserDB.getInstance().getUsers(missing, task -> {
+            pendingUsers.removeAll(missing);
+
+            if (task.isSuccessful() && task.getResult() != null) {
+                Map<String, User> users = task.getResult();
+                for (String userId : missing) {
+                    User user = users.get(userId);
+                    if (user == null) {
+                        failedUsers.add(userId);
+                        continue;
+                    }
+                    UserData data = new UserData();
+                    data.name = user.getName() != null ? user.getName() : "Unknown";
+                    data.email = user.getEmail() != null ? user.getEmail() : "";
+                    data.avatar = user.getAvatar();
+                    data.avatarImage = user.getAvatarImage();
+                    data.avatarKey = UserDB.avatarKey(userId, user.getAvatarVersion());
+                    userCache.put(userId, data);
+                }
+            } else {
+                failedUsers.addAll(missing);
+            }
+
+            Set<String> fetched = new HashSet<>(missing);
+            List<Waitlist> current = getCurrentList();
+            for (int i = 0; i < current.size(); i++) {
+                if (fetched.contains(current.get(i).getUserId())) {
+                    notifyItemChanged(i);
+                }
+            }
+        });
     }
 
     /**
@@ -231,7 +287,9 @@ public class WaitlistAdapter extends RecyclerView.Adapter<WaitlistAdapter.Waitli
     private static class UserData {
         String name;
         String email;
-        Bitmap avatar;
+        String avatar;
+        Blob avatarImage;
+        String avatarKey;
     }
 
 }
\ No newline at end of file
@@ -0,0 +1,57 @@
+package com.example.icetea.home;
+
+import androidx.annotation.NonNull;
+import androidx.recyclerview.widget.DiffUtil;
+
+import com.example.icetea.models.Waitlist;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Compares waitlist entries for the list adapters, so that only rows whose
+ * entry changed are rebound.
+ * <p>
+ * Entries are the same item when they have the same {@link Waitlist#getId()}.
+ * Their contents are the same when every field a row shows is equal.
+ * </p>
+ */
+public class WaitlistDiffCallback extends DiffUtil.ItemCallback<Waitlist> {
+
+    @Override
+    public boolean areItemsTheSame(@NonNull Waitlist oldItem, @NonNull Waitlist newItem) {
+        return oldItem.getId().equals(newItem.getId());
+    }
+
+    @Override
+    public boolean areContentsTheSame(@NonNull Waitlist oldItem, @NonNull Waitlist newItem) {
+        return Objects.equals(oldItem.getStatus(), newItem.getStatus())
+                && oldItem.getReplaced() == newItem.getReplaced();
+    }
+
+    /**
+     * Assigns stable adapter IDs to waitlist entries.
+     * <p>
+     * Each distinct {@link Waitlist#getId()} gets its own number for the lifetime
+     * of the adapter, so IDs never collide the way hashed IDs can.
+     * </p>
+     */
+    static class StableIds {
+
+        private final Map<String, Long> ids = new HashMap<>();
+
+        /**
+         * @param entry A waitlist entry
+         * @return The stable ID of the entry
+         */
+        long idOf(Waitlist entry) {
+            Long id = ids.get(entry.getId());
+            if (id == null) {
+                id = (long) ids.size();
+                ids.put(entry.getId(), id);
+            }
+            return id;
+        }
+    }
+}
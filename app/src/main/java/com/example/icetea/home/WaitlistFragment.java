@@ -16,7 +16,9 @@ import android.widget.ImageButton;
 import android.widget.Toast;
 
 import com.example.icetea.R;
+import com.example.icetea.models.NotificationDispatcher;
 import com.example.icetea.models.Waitlist;
+import com.example.icetea.util.Callback;
 import com.google.android.material.button.MaterialButton;
 import com.google.android.material.chip.Chip;
 
@@ -222,7 +224,7 @@ public class WaitlistFragment extends Fragment {
 
     /**
      * Sends notifications to all waitlist entrants whose statuses are currently selected.
-     * Updates Firestore and logs notifications for the event.
+     * Recipients are notified in bulk and the broadcast is logged for the event.
      *
      * @param title   The notification title
      * @param message The notification message
@@ -244,29 +246,42 @@ public class WaitlistFragment extends Fragment {
             return;
         }
 
-        ManageEventController controller = new ManageEventController();
-
         List<String> recipients = new ArrayList<>();
 
         for (Waitlist entry : entries) {
-            if (selectedStatuses.contains(entry.getStatus())) {
-                String uid = entry.getUserId();
-                if (uid != null && !recipients.contains(uid)) {
-                    recipients.add(uid);
-                }
-                controller.sendNotificationIfEnabled(uid, title, message, eventId);
+            if (selectedStatuses.contains(entry.getStatus()) && entry.getUserId() != null) {
+                recipients.add(entry.getUserId());
             }
         }
 
-        if (!recipients.isEmpty()) {
-            List<String> statusesList = new ArrayList<>(selectedStatuses);
-            controller.addNotificationLogForEvent(eventId, title, message, recipients, statusesList);
-        } else {
+        if (recipients.isEmpty()) {
             Toast.makeText(requireContext(), "No entrants found for selected statuses.", Toast.LENGTH_SHORT).show();
             return;
         }
 
-        Toast.makeText(requireContext(), "Notifications sent!", Toast.LENGTH_SHORT).show();
+        Toast.makeText(requireContext(), "Sending notifications...", Toast.LENGTH_SHORT).show();
+
+        new ManageEventController().notifyEntrants(eventId, recipients, title, message, new ArrayList<>(selectedStatuses),
+                new Callback<NotificationDispatcher.Result>() {
+                    @Override
+                    public void onSuccess(NotificationDispatcher.Result result) {
+                        if (!isAdded()) return;
+                        String summary = "Notifications sent: " + result.getSent();
+                        if (result.getSkippedDisabled() > 0) {
+                            summary += ", " + result.getSkippedDisabled() + " turned off";
+                        }
+                        if (result.getFailed() > 0) {
+                            summary += ", " + result.getFailed() + " failed";
+                        }
+                        Toast.makeText(requireContext(), summary, Toast.LENGTH_SHORT).show();
+                    }
+
+                    @Override
+                    public void onFailure(Exception e) {
+                        if (!isAdded()) return;
+                        Toast.makeText(requireContext(), "Failed to send notifications", Toast.LENGTH_SHORT).show();
+                    }
+                });
     }
 
 }
\ No newline at end of file
@@ -9,8 +9,10 @@ import androidx.lifecycle.ViewModel;
 import com.example.icetea.models.Waitlist;
 import com.example.icetea.models.WaitlistDB;
 import com.example.icetea.util.Callback;
+import com.example.icetea.util.UpdateCoalescer;
 import com.google.firebase.firestore.DocumentSnapshot;
 import com.google.firebase.firestore.ListenerRegistration;
+import com.google.firebase.firestore.QuerySnapshot;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -38,6 +40,16 @@ public class WaitlistViewModel extends ViewModel {
     /** Firestore listener for real-time updates to the waitlist */
     private ListenerRegistration listener;
 
+    /** Coalesces snapshot bursts, such as a join rush, into one list per frame window */
+    private final UpdateCoalescer<QuerySnapshot> snapshots = new UpdateCoalescer<>(snap -> {
+        List<Waitlist> list = new ArrayList<>();
+        for (DocumentSnapshot doc : snap) {
+            Waitlist entry = doc.toObject(Waitlist.class);
+            if (entry != null) list.add(entry);
+        }
+        waitlistLiveData.setValue(list);
+    });
+
     /**
      * Returns a LiveData that emits toast messages to be displayed on the UI.
      *
@@ -66,14 +78,7 @@ public class WaitlistViewModel extends ViewModel {
         if (listener != null) return;
 
         listener = WaitlistDB.getInstance().listenToWaitlist(eventId, (snap, e) -> {
-            if (snap != null) {
-                List<Waitlist> list = new ArrayList<>();
-                for (DocumentSnapshot doc : snap) {
-                    Waitlist entry = doc.toObject(Waitlist.class);
-                    if (entry != null) list.add(entry);
-                }
-                waitlistLiveData.postValue(list);
-            }
+            if (snap != null) snapshots.submit(snap);
         });
     }
 
@@ -88,6 +93,7 @@ public class WaitlistViewModel extends ViewModel {
             listener.remove();
             listener = null;
         }
+        snapshots.cancel();
     }
 
     /**
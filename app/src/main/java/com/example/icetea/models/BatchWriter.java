@@ -0,0 +1,300 @@
+package com.example.icetea.models;
+
+import com.example.icetea.core.ChunkedCommitter;
+import com.google.android.gms.tasks.Task;
+import com.google.android.gms.tasks.TaskCompletionSource;
+import com.google.firebase.firestore.DocumentReference;
+import com.google.firebase.firestore.FirebaseFirestore;
+import com.google.firebase.firestore.FirebaseFirestoreException;
+import com.google.firebase.firestore.SetOptions;
+import com.google.firebase.firestore.WriteBatch;
+
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Collects Firestore writes and commits them in as many {@link WriteBatch}es as needed.
+ * <p>
+ * Firestore rejects batches with more than {@value #MAX_OPERATIONS_PER_BATCH} writes.
+ * This class splits the writes into batches of at most that size and commits up to
+ * {@link #setParallelism(int)} batches at once, retrying a batch that failed with a
+ * transient error (see {@link #isTransient}) up to {@link #setMaxAttempts(int)} times.
+ * Each batch is atomic, but the writes as a whole are not: if a batch still fails, the
+ * batches before it stay committed. Callers that need an order, such as deleting
+ * children before their parent, commit one writer after another.
+ * </p>
+ *
+ * <p>A retry commits the whole batch again, and a batch that timed out may already have
+ * been applied. Sets, deletes and updates to fixed values come out the same, but
+ * {@link com.google.firebase.firestore.FieldValue#increment} and other transforms would
+ * be applied twice. Writers whose batches contain them must call
+ * {@code setMaxAttempts(1)}.</p>
+ */
+public class BatchWriter {
+
+    /** Maximum number of writes Firestore accepts in one batch */
+    public static final int MAX_OPERATIONS_PER_BATCH = 500;
+
+    /** Default number of batches committed at once */
+    public static final int DEFAULT_PARALLELISM = 4;
+
+    /** Default number of attempts per batch */
+    public static final int DEFAULT_MAX_ATTEMPTS = 3;
+
+    /** Error codes of failures that may not happen again when the write is retried */
+    private static final Set<FirebaseFirestoreException.Code> TRANSIENT_CODES = EnumSet.of(
+            FirebaseFirestoreException.Code.UNAVAILABLE,
+            FirebaseFirestoreException.Code.DEADLINE_EXCEEDED,
+            FirebaseFirestoreException.Code.ABORTED,
+            FirebaseFirestoreException.Code.RESOURCE_EXHAUSTED);
+
+    /**
+     * Receives the number of committed writes as batches complete.
+     */
+    public interface ProgressListener {
+
+        /**
+         * Called after each batch is committed.
+         *
+         * @param committed Number of writes committed so far
+         * @param total     Total number of writes
+         */
+        void onProgress(int committed, int total);
+    }
+
+    /**
+     * Thrown through the commit task when some batches could not be committed.
+     */
+    public static class BatchWriteException extends Exception {
+
+        /** Number of writes that were committed */
+        private final int committed;
+
+        /** Total number of writes */
+        private final int total;
+
+        /**
+         * Creates the exception.
+         *
+         * @param committed Number of writes that were committed
+         * @param total     Total number of writes
+         * @param cause     Failure of the first batch that was given up on
+         */
+        public BatchWriteException(int committed, int total, Exception cause) {
+            super("Committed " + committed + " of " + total + " writes", cause);
+            this.committed = committed;
+            this.total = total;
+        }
+
+        /**
+         * @return Number of writes that were committed
+         */
+        public int getCommitted() {
+            return committed;
+        }
+
+        /**
+         * @return Total number of writes
+         */
+        public int getTotal() {
+            return total;
+        }
+    }
+
+    /**
+     * A single write, applied to whichever batch its chunk ends up in.
+     */
+    private interface Write {
+        void addTo(WriteBatch batch);
+    }
+
+    /** Firestore instance creating the batches */
+    private final FirebaseFirestore db;
+
+    /** Writes in the order they were added */
+    private final List<Write> writes = new ArrayList<>();
+
+    /** Number of batches committed at once */
+    private int parallelism = DEFAULT_PARALLELISM;
+
+    /** Number of attempts per batch */
+    private int maxAttempts = DEFAULT_MAX_ATTEMPTS;
+
+    /** Optional progress listener */
+    private ProgressListener progressListener;
+
+    /**
+     * Creates an empty writer.
+     *
+     * @param db Firestore instance creating the batches
+     */
+    public BatchWriter(FirebaseFirestore db) {
+        this.db = db;
+    }
+
+    /**
+     * Adds a write that overwrites a document.
+     *
+     * @param ref  Document to write
+     * @param data Document contents
+     * @return This writer
+     */
+    public BatchWriter set(DocumentReference ref, Object data) {
+        writes.add(batch -> batch.set(ref, data));
+        return this;
+    }
+
+    /**
+     * Adds a write that sets a document with the given options.
+     *
+     * @param ref     Document to write
+     * @param data    Document contents
+     * @param options Set options, such as {@link SetOptions#merge()}
+     * @return This writer
+     */
+    public BatchWriter set(DocumentReference ref, Object data, SetOptions options) {
+        writes.add(batch -> batch.set(ref, data, options));
+        return this;
+    }
+
+    /**
+     * Adds a write that updates fields of an existing document.
+     *
+     * @param ref     Document to update
+     * @param updates Field names and values
+     * @return This writer
+     */
+    public BatchWriter update(DocumentReference ref, Map<String, Object> updates) {
+        writes.add(batch -> batch.update(ref, updates));
+        return this;
+    }
+
+    /**
+     * Adds a write that updates fields of an existing document.
+     *
+     * @param ref                 Document to update
+     * @param field               First field name
+     * @param value               First field value
+     * @param moreFieldsAndValues Further alternating field names and values
+     * @return This writer
+     */
+    public BatchWriter update(DocumentReference ref, String field, Object value, Object... moreFieldsAndValues) {
+        writes.add(batch -> batch.update(ref, field, value, moreFieldsAndValues));
+        return this;
+    }
+
+    /**
+     * Adds a write that deletes a document.
+     *
+     * @param ref Document to delete
+     * @return This writer
+     */
+    public BatchWriter delete(DocumentReference ref) {
+        writes.add(batch -> batch.delete(ref));
+        return this;
+    }
+
+    /**
+     * Sets how many batches are committed at once.
+     *
+     * @param parallelism Number of batches; at least 1
+     * @return This writer
+     */
+    public BatchWriter setParallelism(int parallelism) {
+        this.parallelism = parallelism;
+        return this;
+    }
+
+    /**
+     * Sets how many times a batch that failed with a transient error is attempted
+     * before giving up. Use 1 for writes that must not be applied twice, such as increments.
+     *
+     * @param maxAttempts Number of attempts; at least 1
+     * @return This writer
+     */
+    public BatchWriter setMaxAttempts(int maxAttempts) {
+        this.maxAttempts = maxAttempts;
+        return this;
+    }
+
+    /**
+     * Sets a listener notified after each batch is committed.
+     *
+     * @param progressListener Listener, or null for none
+     * @return This writer
+     */
+    public BatchWriter setProgressListener(ProgressListener progressListener) {
+        this.progressListener = progressListener;
+        return this;
+    }
+
+    /**
+     * Returns whether a failed write may succeed if retried: it failed with one of
+     * the Firestore codes UNAVAILABLE, DEADLINE_EXCEEDED, ABORTED or RESOURCE_EXHAUSTED.
+     * Errors such as PERMISSION_DENIED, NOT_FOUND or INVALID_ARGUMENT are permanent.
+     * Wrapping exceptions are looked through.
+     *
+     * @param failure The failure
+     * @return true if the failure is transient
+     */
+    public static boolean isTransient(Exception failure) {
+        for (Throwable cause = failure; cause != null; cause = cause.getCause()) {
+            if (cause instanceof FirebaseFirestoreException) {
+                return TRANSIENT_CODES.contains(((FirebaseFirestoreException) cause).getCode());
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @return Number of writes added so far
+     */
+    public int size() {
+        return writes.size();
+    }
+
+    /**
+     * Commits all writes added so far.
+     *
+     * @return Task that succeeds once every batch is committed, or fails with a
+     *         {@link BatchWriteException} if some batch could not be committed
+     */
+    public Task<Void> commit() {
+        TaskCompletionSource<Void> result = new TaskCompletionSource<>();
+        ProgressListener progress = progressListener;
+
+        new ChunkedCommitter<Write>(MAX_OPERATIONS_PER_BATCH, parallelism, maxAttempts, BatchWriter::isTransient).commit(
+                new ArrayList<>(writes),
+                (chunk, onDone) -> {
+                    WriteBatch batch = db.batch();
+                    for (Write write : chunk) {
+                        write.addTo(batch);
+                    }
+                    batch.commit().addOnCompleteListener(task -> onDone.accept(task.isSuccessful()
+                            ? null
+                            : task.getException() != null ? task.getException() : new Exception("Batch commit failed")));
+                },
+                new ChunkedCommitter.Listener() {
+                    @Override
+                    public void onProgress(int committed, int total) {
+                        if (progress != null) {
+                            progress.onProgress(committed, total);
+                        }
+                    }
+
+                    @Override
+                    public void onComplete(int committed, int total, Exception failure) {
+                        if (failure == null) {
+                            result.setResult(null);
+                        } else {
+                            result.setException(new BatchWriteException(committed, total, failure));
+                        }
+                    }
+                });
+
+        return result.getTask();
+    }
+}
@@ -0,0 +1,150 @@
+package com.example.icetea.models;
+
+import com.google.android.gms.tasks.OnCompleteListener;
+import com.google.android.gms.tasks.Tasks;
+import com.google.firebase.firestore.AggregateField;
+import com.google.firebase.firestore.AggregateSource;
+import com.google.firebase.firestore.CollectionReference;
+import com.google.firebase.firestore.DocumentReference;
+import com.google.firebase.firestore.FieldValue;
+import com.google.firebase.firestore.FirebaseFirestore;
+import com.google.firebase.firestore.SetOptions;
+import com.google.firebase.firestore.Transaction;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Singleton class managing the sharded entrant counter of each event.
+ * <p>
+ * Instead of incrementing a single field on the event document, every join or
+ * leave updates one of N shard documents chosen at random. This spreads the
+ * writes of a registration rush over N documents, staying under Firestore's
+ * sustained write limit for a single document. The total is the event's
+ * legacy {@code currentEntrants} value plus the sum of all shards.
+ * </p>
+ *
+ * <p>Shards are created by their first increment, so increments run in a
+ * transaction that checks the event still exists, and deleting an event deletes
+ * its shards with {@link #shardRefs}.</p>
+ *
+ * <p>Firestore structure:</p>
+ * <ul>
+ *     <li>Shards: /events/{eventId}/entrantShards/{shardIndex}</li>
+ *     <li>Fields: count (number)</li>
+ * </ul>
+ */
+public class EntrantCounterDB {
+
+    /** Name of the shard subcollection under each event document */
+    private static final String SHARDS_COLLECTION = "entrantShards";
+
+    /** Name of the counter field in each shard document */
+    private static final String COUNT_FIELD = "count";
+
+    /** Singleton instance of EntrantCounterDB */
+    private static EntrantCounterDB instance;
+
+    /** Reference to the 'events' collection in Firestore */
+    private final CollectionReference eventsCollection;
+
+    /**
+     * Private constructor to enforce the singleton pattern.
+     */
+    private EntrantCounterDB() {
+        FirebaseFirestore db = FirebaseFirestore.getInstance();
+        eventsCollection = db.collection("events");
+    }
+
+    /**
+     * Returns the singleton instance of EntrantCounterDB.
+     *
+     * @return EntrantCounterDB instance
+     */
+    public static EntrantCounterDB getInstance() {
+        if (instance == null) {
+            instance = new EntrantCounterDB();
+        }
+        return instance;
+    }
+
+    /**
+     * Adds an increment of a randomly chosen shard to a transaction.
+     * The shard document is created if it does not exist yet, so the transaction
+     * must also check that the event still exists.
+     *
+     * @param transaction The transaction to add the write to
+     * @param eventId     ID of the event whose counter changes
+     * @param shardCount  Number of shards to spread writes over
+     * @param delta       Amount to add; negative to decrement
+     */
+    public void addIncrement(Transaction transaction, String eventId, int shardCount, long delta) {
+        int shard = ThreadLocalRandom.current().nextInt(Math.max(shardCount, 1));
+        transaction.set(shardRef(eventId, shard),
+                Collections.singletonMap(COUNT_FIELD, FieldValue.increment(delta)), SetOptions.merge());
+    }
+
+    /**
+     * Returns the references of every shard an event's counter may use, for
+     * deleting them with the event. Shards that were never written do not exist.
+     *
+     * @param eventId    ID of the event
+     * @param shardCount Number of shards the event's counter is spread over
+     * @return Shard document references
+     */
+    public List<DocumentReference> shardRefs(String eventId, int shardCount) {
+        List<DocumentReference> refs = new ArrayList<>();
+        for (int shard = 0; shard < Math.max(shardCount, 1); shard++) {
+            refs.add(shardRef(eventId, shard));
+        }
+        return refs;
+    }
+
+    private DocumentReference shardRef(String eventId, int shard) {
+        return eventsCollection.document(eventId)
+                .collection(SHARDS_COLLECTION)
+                .document(String.valueOf(shard));
+    }
+
+    /**
+     * Retrieves the current number of entrants of an event.
+     * <p>
+     * Sums every shard server-side with a single aggregate query and adds the
+     * legacy {@code currentEntrants} value stored on the event document.
+     * </p>
+     *
+     * @param event    The event to count entrants for
+     * @param listener Listener receiving the total number of entrants
+     */
+    public void getEntrantCount(Event event, OnCompleteListener<Integer> listener) {
+        int base = event.getCurrentEntrants() != null ? event.getCurrentEntrants() : 0;
+
+        eventsCollection.document(event.getEventId())
+                .collection(SHARDS_COLLECTION)
+                .aggregate(AggregateField.sum(COUNT_FIELD))
+                .get(AggregateSource.SERVER)
+                .continueWith(task -> {
+                    if (!task.isSuccessful()) {
+                        throw task.getException() != null ? task.getException() : new Exception("Failed to count entrants");
+                    }
+                    Long sum = task.getResult().getLong(AggregateField.sum(COUNT_FIELD));
+                    return Math.max(base + (sum != null ? sum.intValue() : 0), 0);
+                })
+                .addOnCompleteListener(listener);
+    }
+
+    /**
+     * Retrieves the current number of entrants of an event, falling back to the
+     * legacy {@code currentEntrants} value if the shards cannot be read.
+     *
+     * @param event    The event to count entrants for
+     * @param listener Listener receiving the total; always successful
+     */
+    public void getEntrantCountOrBase(Event event, OnCompleteListener<Integer> listener) {
+        int base = event.getCurrentEntrants() != null ? event.getCurrentEntrants() : 0;
+        getEntrantCount(event, task -> listener.onComplete(
+                task.isSuccessful() && task.getResult() != null ? task : Tasks.forResult(base)));
+    }
+}
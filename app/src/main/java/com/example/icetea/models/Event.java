@@ -45,10 +45,22 @@ public class Event {
     private String criteria;
 
     /**
-     * Base64-encoded string representing the event's poster image.
+     * Base64-encoded poster image to store when the event is created.
+     * {@link EventDB} moves it into {@link PosterDB}; only events saved before
+     * posters had their own collection still carry it inline.
      */
     private String posterBase64;
 
+    /**
+     * ID of the event's poster in {@link PosterDB}, or null if it has none there.
+     */
+    private String posterId;
+
+    /**
+     * Version of the poster, increased each time it is replaced.
+     */
+    private Long posterVersion;
+
     /**
      * Timestamp indicating when registration opens for this event.
      */
@@ -81,9 +93,15 @@ public class Event {
 
     /**
      * Current number of participants registered for the event.
+     * Joins and leaves are counted in shards; see {@link EntrantCounterDB}.
      */
     private Integer currentEntrants;
 
+    /**
+     * Number of shard documents the entrant counter is spread over.
+     */
+    private Integer entrantShardCount;
+
     /**
      * Whether a geolocation requirement is enforced for participants to join.
      */
@@ -94,6 +112,11 @@ public class Event {
      */
     private boolean alreadyDrew;
 
+    /**
+     * Seed of the random generator used for the lottery, kept so the draw can be reproduced.
+     */
+    private Long drawSeed;
+
     /**
      * Default constructor required by Firestore.
      */
@@ -209,6 +232,42 @@ public class Event {
         this.posterBase64 = posterBase64;
     }
 
+    /**
+     * Returns the ID of the poster in {@link PosterDB}.
+     *
+     * @return poster ID, or null if the event has no stored poster
+     */
+    public String getPosterId() {
+        return posterId;
+    }
+
+    /**
+     * Sets the ID of the poster in {@link PosterDB}.
+     *
+     * @param posterId poster ID
+     */
+    public void setPosterId(String posterId) {
+        this.posterId = posterId;
+    }
+
+    /**
+     * Returns the version of the poster.
+     *
+     * @return poster version, or null if the event has no stored poster
+     */
+    public Long getPosterVersion() {
+        return posterVersion;
+    }
+
+    /**
+     * Sets the version of the poster.
+     *
+     * @param posterVersion poster version
+     */
+    public void setPosterVersion(Long posterVersion) {
+        this.posterVersion = posterVersion;
+    }
+
     /**
      * Returns the registration start timestamp.
      *
@@ -335,6 +394,24 @@ public class Event {
         this.currentEntrants = currentEntrants;
     }
 
+    /**
+     * Returns the number of shards the entrant counter is spread over.
+     *
+     * @return entrant shard count, or null for events created before sharding
+     */
+    public Integer getEntrantShardCount() {
+        return entrantShardCount;
+    }
+
+    /**
+     * Sets the number of shards the entrant counter is spread over.
+     *
+     * @param entrantShardCount entrant shard count
+     */
+    public void setEntrantShardCount(Integer entrantShardCount) {
+        this.entrantShardCount = entrantShardCount;
+    }
+
     /**
      * Returns whether geolocation is required for joining.
      *
@@ -370,4 +447,22 @@ public class Event {
     public void setAlreadyDrew(boolean alreadyDrew) {
         this.alreadyDrew = alreadyDrew;
     }
-}
\ No newline at end of file
+
+    /**
+     * Returns the seed the lottery was drawn with.
+     *
+     * @return the draw seed, or null if no draw has been made
+     */
+    public Long getDrawSeed() {
+        return drawSeed;
+    }
+
+    /**
+     * Sets the seed the lottery was drawn with.
+     *
+     * @param drawSeed the draw seed
+     */
+    public void setDrawSeed(Long drawSeed) {
+        this.drawSeed = drawSeed;
+    }
+}
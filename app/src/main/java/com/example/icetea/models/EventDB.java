@@ -1,15 +1,24 @@
 package com.example.icetea.models;
 
+import com.example.icetea.util.ListUtil;
 import com.google.android.gms.tasks.OnCompleteListener;
 import com.google.android.gms.tasks.Task;
 import com.google.android.gms.tasks.Tasks;
 import com.google.firebase.Timestamp;
 import com.google.firebase.firestore.CollectionReference;
+import com.google.firebase.firestore.DocumentReference;
 import com.google.firebase.firestore.DocumentSnapshot;
+import com.google.firebase.firestore.FieldPath;
+import com.google.firebase.firestore.FieldValue;
 import com.google.firebase.firestore.FirebaseFirestore;
+import com.google.firebase.firestore.Query;
 import com.google.firebase.firestore.QuerySnapshot;
 import com.google.firebase.firestore.WriteBatch;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 /**
@@ -22,11 +31,31 @@ import java.util.Map;
  * Firestore structure assumed:
  * <ul>
  *     <li>Collection: events</li>
- *     <li>Fields: eventId, organizerId, registrationEndDate, posterBase64, etc.</li>
+ *     <li>Fields: eventId, organizerId, registrationEndDate, posterId, posterVersion, etc.</li>
  * </ul>
+ * Poster images are stored by {@link PosterDB}. Events saved before that may
+ * still hold their poster inline in posterBase64.
  */
 public class EventDB {
 
+    /** Default number of events fetched per page by {@link #getActiveEventsPage} */
+    public static final int DEFAULT_PAGE_SIZE = 20;
+
+    /** Field holding an inline poster, and the update key that replaces or removes the stored poster */
+    public static final String POSTER_FIELD = "posterBase64";
+
+    /** Field holding the poster ID */
+    public static final String POSTER_ID_FIELD = "posterId";
+
+    /** Field holding the poster version */
+    public static final String POSTER_VERSION_FIELD = "posterVersion";
+
+    /** Field holding the number of entrant counter shards */
+    private static final String ENTRANT_SHARD_COUNT_FIELD = "entrantShardCount";
+
+    /** Maximum number of values Firestore accepts in a single whereIn query */
+    private static final int WHERE_IN_LIMIT = 30;
+
     /** The singleton instance of EventDB */
     private static EventDB instance;
 
@@ -58,19 +87,63 @@ public class EventDB {
      * Creates a new event in Firestore.
      * <p>
      * If the provided {@link Event} has no ID, a new document ID is generated
-     * and set on the Event object.
+     * and set on the Event object. A Base64 poster set on the event is moved into
+     * {@link PosterDB} under the event's ID, written in the same batch as the event.
      *
      * @param event    The Event object to create in Firestore
      * @param listener Listener to handle completion of the operation
      */
     public void createEvent(Event event, OnCompleteListener<Void> listener) {
+        String poster = event.getPosterBase64();
+        if (poster == null || poster.isEmpty()) {
+            String id = idOf(event);
+            eventsCollection.document(id)
+                    .set(event)
+                    .addOnCompleteListener(listener);
+            return;
+        }
+        createWithPoster(event, PosterDB.getInstance().prepare(poster), listener);
+    }
+
+    /**
+     * Creates a new event in Firestore together with its poster, stored in
+     * {@link PosterDB} under the event's ID in the same batch as the event.
+     *
+     * @param event     The Event object to create in Firestore
+     * @param poster    The encoded poster
+     * @param thumbnail The encoded thumbnail of the poster, or null to make it here
+     * @param listener  Listener to handle completion of the operation
+     */
+    public void createEvent(Event event, byte[] poster, byte[] thumbnail, OnCompleteListener<Void> listener) {
+        createWithPoster(event, PosterDB.getInstance().prepare(poster, thumbnail), listener);
+    }
+
+    /**
+     * Returns the ID of an event, generating and setting one if it has none.
+     */
+    private String idOf(Event event) {
         String id = event.getEventId();
         if (id == null) {
             id = eventsCollection.document().getId();
             event.setEventId(id);
         }
-        eventsCollection.document(id)
-                .set(event)
+        return id;
+    }
+
+    /**
+     * Writes a new event and its prepared poster in one batch.
+     */
+    private void createWithPoster(Event event, Task<PosterDB.PreparedPoster> poster, OnCompleteListener<Void> listener) {
+        String eventId = idOf(event);
+        poster.onSuccessTask(prepared -> {
+                    event.setPosterBase64(null);
+                    event.setPosterId(eventId);
+                    event.setPosterVersion(1L);
+                    WriteBatch batch = FirebaseFirestore.getInstance().batch();
+                    batch.set(eventsCollection.document(eventId), event);
+                    PosterDB.getInstance().putPoster(batch, eventId, eventId, prepared);
+                    return batch.commit();
+                })
                 .addOnCompleteListener(listener);
     }
 
@@ -86,19 +159,153 @@ public class EventDB {
                 .addOnCompleteListener(listener);
     }
 
+    /**
+     * Retrieves many events by ID using as few round trips as possible.
+     * <p>
+     * Events already fresh in {@link EventRepository} are delivered immediately.
+     * The remaining IDs are split into chunks of at most 30 and queried in parallel
+     * with {@code whereIn} on the document ID. Each chunk is delivered as soon as it
+     * arrives, so callers can render partial results, and the loaded events are
+     * stored in {@link EventRepository} for later single lookups.
+     *
+     * @param eventIds The IDs of the events to retrieve; duplicates are ignored
+     * @param callback Callback receiving each chunk and a final completion signal
+     */
+    public void getEvents(Collection<String> eventIds, EventsCallback callback) {
+        EventRepository repository = EventRepository.getInstance();
+        List<String> ids = ListUtil.distinctIds(eventIds);
+
+        List<Event> cached = new ArrayList<>();
+        List<String> missing = new ArrayList<>();
+        for (String id : ids) {
+            Event event = repository.peek(id);
+            if (event != null) {
+                cached.add(event);
+            } else {
+                missing.add(id);
+            }
+        }
+
+        if (!cached.isEmpty()) {
+            callback.onChunkLoaded(cached);
+        }
+
+        if (missing.isEmpty()) {
+            callback.onAllLoaded(null);
+            return;
+        }
+
+        List<List<String>> chunks = ListUtil.chunk(missing, WHERE_IN_LIMIT);
+        int[] remaining = {chunks.size()};
+        Exception[] firstError = {null};
+
+        for (List<String> chunk : chunks) {
+            eventsCollection.whereIn(FieldPath.documentId(), chunk)
+                    .get()
+                    .addOnCompleteListener(task -> {
+                        if (task.isSuccessful() && task.getResult() != null) {
+                            List<Event> events = new ArrayList<>();
+                            for (DocumentSnapshot doc : task.getResult().getDocuments()) {
+                                Event event = doc.toObject(Event.class);
+                                if (event != null) {
+                                    if (event.getEventId() == null) event.setEventId(doc.getId());
+                                    repository.put(event);
+                                    events.add(event);
+                                }
+                            }
+                            if (!events.isEmpty()) {
+                                callback.onChunkLoaded(events);
+                            }
+                        } else if (firstError[0] == null) {
+                            firstError[0] = task.getException() != null ? task.getException() : new Exception("Error loading events");
+                        }
+
+                        remaining[0]--;
+                        if (remaining[0] == 0) {
+                            callback.onAllLoaded(firstError[0]);
+                        }
+                    });
+        }
+    }
+
     /**
      * Updates fields of an existing event in Firestore.
      * <p>
-     * Only the fields specified in the updates map will be modified.
+     * Only the fields specified in the updates map will be modified. The cached
+     * copy in {@link EventRepository} is invalidated once the write completes.
+     * <p>
+     * A {@link #POSTER_FIELD} entry is not written to the event: a Base64 poster
+     * replaces the event's poster in {@link PosterDB} and bumps its version, and
+     * null removes it. Either way any inline poster is cleared.
      *
      * @param eventId  The ID of the event to update
      * @param updates  Map of field names to updated values
      * @param listener Listener to handle completion of the operation
      */
     public void updateEvent(String eventId, Map<String, Object> updates, OnCompleteListener<Void> listener) {
-        eventsCollection.document(eventId)
-                .update(updates)
-                .addOnCompleteListener(listener);
+        Task<Void> write;
+        if (updates.containsKey(POSTER_FIELD)) {
+            String poster = (String) updates.get(POSTER_FIELD);
+            write = poster == null || poster.isEmpty()
+                    ? removePoster(eventId, updates)
+                    : replacePoster(eventId, updates, PosterDB.getInstance().prepare(poster));
+        } else {
+            write = eventsCollection.document(eventId).update(updates);
+        }
+        write.addOnCompleteListener(task -> {
+            EventRepository.getInstance().invalidate(eventId);
+            listener.onComplete(task);
+        });
+    }
+
+    /**
+     * Updates fields of an existing event and replaces its poster in {@link PosterDB},
+     * bumping its version, in one batch. The cached copy in {@link EventRepository}
+     * is invalidated once the write completes.
+     *
+     * @param eventId   The ID of the event to update
+     * @param updates   Map of field names to updated values
+     * @param poster    The encoded poster
+     * @param thumbnail The encoded thumbnail of the poster, or null to make it here
+     * @param listener  Listener to handle completion of the operation
+     */
+    public void updateEvent(String eventId, Map<String, Object> updates, byte[] poster, byte[] thumbnail,
+                            OnCompleteListener<Void> listener) {
+        replacePoster(eventId, updates, PosterDB.getInstance().prepare(poster, thumbnail))
+                .addOnCompleteListener(task -> {
+                    EventRepository.getInstance().invalidate(eventId);
+                    listener.onComplete(task);
+                });
+    }
+
+    /**
+     * Writes event updates together with the removal of the event's poster in one batch.
+     */
+    private Task<Void> removePoster(String eventId, Map<String, Object> updates) {
+        Map<String, Object> eventUpdates = new HashMap<>(updates);
+        eventUpdates.put(POSTER_FIELD, FieldValue.delete());
+        eventUpdates.put(POSTER_ID_FIELD, FieldValue.delete());
+        eventUpdates.put(POSTER_VERSION_FIELD, FieldValue.delete());
+        WriteBatch batch = FirebaseFirestore.getInstance().batch();
+        batch.update(eventsCollection.document(eventId), eventUpdates);
+        PosterDB.getInstance().deletePoster(batch, eventId);
+        return batch.commit();
+    }
+
+    /**
+     * Writes event updates together with a replaced poster in one batch.
+     */
+    private Task<Void> replacePoster(String eventId, Map<String, Object> updates, Task<PosterDB.PreparedPoster> poster) {
+        Map<String, Object> eventUpdates = new HashMap<>(updates);
+        eventUpdates.put(POSTER_FIELD, FieldValue.delete());
+        return poster.onSuccessTask(prepared -> {
+            eventUpdates.put(POSTER_ID_FIELD, eventId);
+            eventUpdates.put(POSTER_VERSION_FIELD, FieldValue.increment(1));
+            WriteBatch batch = FirebaseFirestore.getInstance().batch();
+            batch.update(eventsCollection.document(eventId), eventUpdates);
+            PosterDB.getInstance().putPoster(batch, eventId, eventId, prepared);
+            return batch.commit();
+        });
     }
 
     /**
@@ -116,8 +323,11 @@ public class EventDB {
     /**
      * Deletes an event and its associated waitlist entries in Firestore.
      * <p>
-     * This operation uses a Firestore batch to ensure that both the event and
-     * waitlist documents are deleted atomically.
+     * The waitlist entries are deleted first with a {@link BatchWriter}, which splits
+     * them into batches of at most 500 writes; the event document is deleted only once
+     * every entry is gone, so a failed delete can simply be retried. The event's poster
+     * and entrant counter shards are deleted with the event document. The cached copy in
+     * {@link EventRepository} is invalidated once the writes complete.
      *
      * @param eventId  The ID of the event to delete
      * @param listener Listener to handle completion of the operation
@@ -152,17 +362,37 @@ public class EventDB {
                         return;
                     }
 
-                    WriteBatch batch = db.batch();
-
-                    for (DocumentSnapshot doc : eventDocs.getDocuments()) {
-                        batch.delete(doc.getReference());
-                    }
-
+                    BatchWriter waitlistWriter = new BatchWriter(db);
                     for (DocumentSnapshot doc : waitlistDocs.getDocuments()) {
-                        batch.delete(doc.getReference());
+                        waitlistWriter.delete(doc.getReference());
                     }
 
-                    batch.commit().addOnCompleteListener(listener);
+                    waitlistWriter.commit()
+                            .continueWithTask(waitlistTask -> {
+                                if (!waitlistTask.isSuccessful()) {
+                                    throw waitlistTask.getException() != null ? waitlistTask.getException() : new Exception("Error deleting event");
+                                }
+                                BatchWriter eventWriter = new BatchWriter(db);
+                                for (DocumentSnapshot doc : eventDocs.getDocuments()) {
+                                    eventWriter.delete(doc.getReference());
+                                    Long shardCount = doc.getLong(ENTRANT_SHARD_COUNT_FIELD);
+                                    for (DocumentReference ref : EntrantCounterDB.getInstance().shardRefs(eventId,
+                                            shardCount != null ? shardCount.intValue() : WaitlistStore.DEFAULT_SHARD_COUNT)) {
+                                        eventWriter.delete(ref);
+                                    }
+                                    String posterId = doc.getString(POSTER_ID_FIELD);
+                                    if (posterId != null) {
+                                        for (DocumentReference ref : PosterDB.getInstance().posterRefs(posterId)) {
+                                            eventWriter.delete(ref);
+                                        }
+                                    }
+                                }
+                                return eventWriter.commit();
+                            })
+                            .addOnCompleteListener(commitTask -> {
+                                EventRepository.getInstance().invalidate(eventId);
+                                listener.onComplete(commitTask);
+                            });
                 });
     }
 
@@ -182,6 +412,30 @@ public class EventDB {
                 .addOnCompleteListener(listener);
     }
 
+    /**
+     * Retrieves one page of currently active events.
+     * <p>
+     * Events are ordered server-side by registrationEndDate (soonest closing first)
+     * and limited to {@code pageSize} documents. To fetch the next page, pass the
+     * last {@link DocumentSnapshot} of the previous page as {@code startAfter}.
+     *
+     * @param startAfter Last document of the previous page, or null for the first page
+     * @param pageSize   Maximum number of events to return; values below 1 use {@link #DEFAULT_PAGE_SIZE}
+     * @param listener   Listener to handle the resulting QuerySnapshot
+     */
+    public void getActiveEventsPage(DocumentSnapshot startAfter, int pageSize, OnCompleteListener<QuerySnapshot> listener) {
+        Query query = eventsCollection
+                .whereGreaterThan("registrationEndDate", Timestamp.now())
+                .orderBy("registrationEndDate", Query.Direction.ASCENDING)
+                .limit(pageSize > 0 ? pageSize : DEFAULT_PAGE_SIZE);
+
+        if (startAfter != null) {
+            query = query.startAfter(startAfter);
+        }
+
+        query.get().addOnCompleteListener(listener);
+    }
+
     /**
      * Retrieves all events in the Firestore collection.
      *
@@ -194,14 +448,43 @@ public class EventDB {
     }
 
     /**
-     * Retrieves all events that have a poster image (posterBase64 field not empty).
+     * Retrieves all events that still hold their poster inline (posterBase64 field
+     * not empty). Posters stored in {@link PosterDB} are listed by
+     * {@link PosterDB#getAllThumbnails}.
      *
      * @param listener Listener to handle the resulting QuerySnapshot
      */
     public void getAllEventsWithPoster(OnCompleteListener<QuerySnapshot> listener) {
-        eventsCollection
-                .whereGreaterThan("posterBase64", "")
+        eventsWithInlinePoster()
                 .get()
                 .addOnCompleteListener(listener);
     }
-}
\ No newline at end of file
+
+    /**
+     * Returns the query for events that still hold their poster inline.
+     *
+     * @return Query over events with a non-empty {@link #POSTER_FIELD}
+     */
+    Query eventsWithInlinePoster() {
+        return eventsCollection.whereGreaterThan(POSTER_FIELD, "");
+    }
+
+    /**
+     * Callback interface for receiving events from {@link #getEvents} as they load.
+     */
+    public interface EventsCallback {
+        /**
+         * Called each time a group of events has been loaded.
+         *
+         * @param events the events in this group; never empty
+         */
+        void onChunkLoaded(List<Event> events);
+
+        /**
+         * Called once after every group has either loaded or failed.
+         *
+         * @param error the first error encountered, or null if every group loaded
+         */
+        void onAllLoaded(Exception error);
+    }
+}
@@ -0,0 +1,268 @@
+package com.example.icetea.models;
+
+import com.example.icetea.util.Callback;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Singleton read-through cache in front of {@link Stores#events()} for single event lookups.
+ * <p>
+ * Keeps a bounded, least-recently-used map of {@link Event} objects. Entries older
+ * than the time-to-live are fetched again on the next request. Concurrent requests
+ * for the same event while a fetch is in flight share that fetch, so opening a
+ * screen costs at most one Firestore read per event.
+ * </p>
+ *
+ * <p>Writes made through {@link EventDB} and {@link WaitlistDB} invalidate the
+ * affected entry so the next read sees the new document.</p>
+ */
+public class EventRepository {
+
+    /** Default maximum number of events kept in memory */
+    public static final int DEFAULT_MAX_ENTRIES = 64;
+
+    /** Default time in milliseconds before a cached event is considered stale */
+    public static final long DEFAULT_TTL_MS = 30_000L;
+
+    /** The singleton instance of EventRepository */
+    private static EventRepository instance;
+
+    /** Source used to load events that are missing or stale */
+    private final EventLoader loader;
+
+    /** Maximum number of events kept in the cache */
+    private final int maxEntries;
+
+    /** Time in milliseconds a cached event stays fresh */
+    private final long ttlMs;
+
+    /** Access-ordered map of cached events; the eldest entry is evicted first */
+    private final LinkedHashMap<String, CacheEntry> cache;
+
+    /** Callbacks waiting on a fetch that is already in flight, keyed by event ID */
+    private final Map<String, List<Callback<Event>>> inFlight = new HashMap<>();
+
+    /** Event IDs invalidated while their fetch was in flight; the result must not be cached */
+    private final Set<String> invalidatedInFlight = new HashSet<>();
+
+    /**
+     * Source of events for cache misses.
+     */
+    public interface EventLoader {
+        /**
+         * Loads a single event.
+         *
+         * @param eventId  ID of the event to load
+         * @param callback Callback invoked with the event or an exception
+         */
+        void load(String eventId, Callback<Event> callback);
+    }
+
+    /**
+     * Creates a repository with the given loader and cache limits.
+     * The app uses {@link #getInstance()}; this is for alternate sources and tests.
+     *
+     * @param loader     Source used to load events on a cache miss
+     * @param maxEntries Maximum number of cached events
+     * @param ttlMs      Time in milliseconds a cached event stays fresh
+     */
+    public EventRepository(EventLoader loader, int maxEntries, long ttlMs) {
+        this.loader = loader;
+        this.maxEntries = maxEntries;
+        this.ttlMs = ttlMs;
+        this.cache = new LinkedHashMap<String, CacheEntry>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CacheEntry> eldest) {
+                return size() > EventRepository.this.maxEntries;
+            }
+        };
+    }
+
+    /**
+     * Returns the singleton instance of EventRepository backed by {@link Stores#events()}.
+     *
+     * @return EventRepository instance
+     */
+    public static synchronized EventRepository getInstance() {
+        if (instance == null) {
+            instance = new EventRepository((eventId, callback) -> Stores.events().getEvent(eventId, callback),
+                    DEFAULT_MAX_ENTRIES, DEFAULT_TTL_MS);
+        }
+        return instance;
+    }
+
+    /**
+     * Retrieves an event, serving it from memory when a fresh copy is cached.
+     * <p>
+     * If a fetch for the same event is already in flight, the callback is attached
+     * to that fetch instead of issuing another read.
+     *
+     * @param eventId  ID of the event to retrieve
+     * @param callback Callback invoked with the event or an exception
+     */
+    public void getEvent(String eventId, Callback<Event> callback) {
+        Event cached;
+        boolean startFetch = false;
+
+        synchronized (this) {
+            cached = getFresh(eventId);
+            if (cached == null) {
+                List<Callback<Event>> waiters = inFlight.get(eventId);
+                if (waiters == null) {
+                    waiters = new ArrayList<>();
+                    inFlight.put(eventId, waiters);
+                    startFetch = true;
+                }
+                waiters.add(callback);
+            }
+        }
+
+        if (cached != null) {
+            callback.onSuccess(cached);
+            return;
+        }
+
+        if (startFetch) {
+            loader.load(eventId, new Callback<Event>() {
+                @Override
+                public void onSuccess(Event result) {
+                    List<Callback<Event>> waiters;
+                    synchronized (EventRepository.this) {
+                        if (!invalidatedInFlight.remove(eventId)) {
+                            cache.put(eventId, new CacheEntry(result, System.currentTimeMillis()));
+                        }
+                        waiters = inFlight.remove(eventId);
+                    }
+                    for (Callback<Event> waiter : waiters) {
+                        waiter.onSuccess(result);
+                    }
+                }
+
+                @Override
+                public void onFailure(Exception e) {
+                    List<Callback<Event>> waiters;
+                    synchronized (EventRepository.this) {
+                        invalidatedInFlight.remove(eventId);
+                        waiters = inFlight.remove(eventId);
+                    }
+                    for (Callback<Event> waiter : waiters) {
+                        waiter.onFailure(e);
+                    }
+                }
+            });
+        }
+    }
+
+    /**
+     * Starts loading an event without waiting for it. A screen opened next that
+     * asks for the same event gets the cached copy or joins the fetch in flight.
+     *
+     * @param eventId ID of the event to load
+     */
+    public void prefetch(String eventId) {
+        getEvent(eventId, new Callback<Event>() {
+            @Override
+            public void onSuccess(Event result) {
+                // Only the cache entry is wanted
+            }
+
+            @Override
+            public void onFailure(Exception e) {
+                // Whoever reads the event next sees the failure
+            }
+        });
+    }
+
+    /**
+     * Returns a fresh cached copy of an event without triggering a fetch.
+     *
+     * @param eventId ID of the event
+     * @return The cached event, or null if it is missing or stale
+     */
+    public synchronized Event peek(String eventId) {
+        return getFresh(eventId);
+    }
+
+    /**
+     * Stores an event that was loaded elsewhere (e.g. by a list query) in the cache.
+     *
+     * @param event The event to cache; ignored if null or without an ID
+     */
+    public synchronized void put(Event event) {
+        if (event == null || event.getEventId() == null) {
+            return;
+        }
+        cache.put(event.getEventId(), new CacheEntry(event, System.currentTimeMillis()));
+    }
+
+    /**
+     * Removes an event from the cache so the next read goes to the database.
+     * A fetch already in flight still completes but its result is not cached.
+     *
+     * @param eventId ID of the event to invalidate
+     */
+    public synchronized void invalidate(String eventId) {
+        if (eventId == null) {
+            return;
+        }
+        cache.remove(eventId);
+        if (inFlight.containsKey(eventId)) {
+            invalidatedInFlight.add(eventId);
+        }
+    }
+
+    /**
+     * Removes every event from the cache.
+     */
+    public synchronized void clear() {
+        cache.clear();
+        invalidatedInFlight.addAll(inFlight.keySet());
+    }
+
+    /**
+     * Returns the number of events currently cached.
+     *
+     * @return cache size
+     */
+    public synchronized int size() {
+        return cache.size();
+    }
+
+    /**
+     * Looks up a cached event and drops it if it has outlived the TTL.
+     * Must be called while holding the lock.
+     *
+     * @param eventId ID of the event
+     * @return The cached event, or null if missing or stale
+     */
+    private Event getFresh(String eventId) {
+        CacheEntry entry = cache.get(eventId);
+        if (entry == null) {
+            return null;
+        }
+        if (System.currentTimeMillis() - entry.loadedAt >= ttlMs) {
+            cache.remove(eventId);
+            return null;
+        }
+        return entry.event;
+    }
+
+    /**
+     * A cached event together with the time it was loaded.
+     */
+    private static class CacheEntry {
+        final Event event;
+        final long loadedAt;
+
+        CacheEntry(Event event, long loadedAt) {
+            this.event = event;
+            this.loadedAt = loadedAt;
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package com.example.icetea.models;
+
+import com.example.icetea.util.Callback;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Storage operations on events, independent of the backing database.
+ * <p>
+ * The app uses the Firestore implementation ({@link FirestoreStore}); controllers reach it
+ * through {@link Stores} so that {@link InMemoryStore} can be swapped in for tests and
+ * load measurements.
+ * </p>
+ */
+public interface EventStore {
+
+    /**
+     * Creates a new event.
+     *
+     * @param event    The event to store; its ID is used as the key
+     * @param callback Callback invoked on success or failure
+     */
+    void createEvent(Event event, Callback<Void> callback);
+
+    /**
+     * Retrieves a single event.
+     *
+     * @param eventId  ID of the event
+     * @param callback Callback invoked with the event, or a failure if it does not exist
+     */
+    void getEvent(String eventId, Callback<Event> callback);
+
+    /**
+     * Updates fields of an existing event.
+     *
+     * @param eventId  ID of the event
+     * @param updates  Map of field names to new values
+     * @param callback Callback invoked on success or failure
+     */
+    void updateEvent(String eventId, Map<String, Object> updates, Callback<Void> callback);
+
+    /**
+     * Deletes an event together with its waitlist entries.
+     *
+     * @param eventId  ID of the event
+     * @param callback Callback invoked on success or failure
+     */
+    void deleteEvent(String eventId, Callback<Void> callback);
+
+    /**
+     * Retrieves every event created by an organizer.
+     *
+     * @param organizerId ID of the organizer
+     * @param callback    Callback invoked with the organizer's events
+     */
+    void getEventsByOrganizer(String organizerId, Callback<List<Event>> callback);
+}
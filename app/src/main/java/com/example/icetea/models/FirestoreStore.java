@@ -0,0 +1,385 @@
+package com.example.icetea.models;
+
+import com.example.icetea.util.Callback;
+import com.google.android.gms.tasks.OnCompleteListener;
+import com.google.firebase.firestore.DocumentSnapshot;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Firestore implementation of the storage interfaces.
+ * <p>
+ * Every operation delegates to the existing {@code *DB} singleton and converts its
+ * snapshots to model objects, so the Firestore access code stays in one place.
+ * The singletons are looked up on each call rather than held in fields.
+ * </p>
+ */
+public class FirestoreStore implements EventStore, WaitlistStore, UserStore, NotificationStore {
+
+    /** Singleton instance of FirestoreStore */
+    private static FirestoreStore instance;
+
+    /**
+     * Private constructor to enforce the singleton pattern.
+     */
+    private FirestoreStore() {
+    }
+
+    /**
+     * Returns the singleton instance of FirestoreStore.
+     *
+     * @return FirestoreStore instance
+     */
+    public static FirestoreStore getInstance() {
+        if (instance == null) {
+            instance = new FirestoreStore();
+        }
+        return instance;
+    }
+
+    // ---------------------------------------------------------------------
+    // EventStore
+    // ---------------------------------------------------------------------
+
+    @Override
+    public void createEvent(Event event, Callback<Void> callback) {
+        EventDB.getInstance().createEvent(event, voidListener(callback, "Error creating event"));
+    }
+
+    @Override
+    public void getEvent(String eventId, Callback<Event> callback) {
+        EventDB.getInstance().getEvent(eventId, task -> {
+            if (!task.isSuccessful() || task.getResult() == null || !task.getResult().exists()) {
+                callback.onFailure(task.getException() != null ? task.getException() : new Exception("Error loading event"));
+                return;
+            }
+            Event event = task.getResult().toObject(Event.class);
+            if (event == null) {
+                callback.onFailure(new Exception("Event is null"));
+                return;
+            }
+            callback.onSuccess(event);
+        });
+    }
+
+    @Override
+    public void updateEvent(String eventId, Map<String, Object> updates, Callback<Void> callback) {
+        EventDB.getInstance().updateEvent(eventId, updates, voidListener(callback, "Error updating event"));
+    }
+
+    @Override
+    public void deleteEvent(String eventId, Callback<Void> callback) {
+        EventDB.getInstance().deleteEvent(eventId, voidListener(callback, "Error deleting event"));
+    }
+
+    @Override
+    public void getEventsByOrganizer(String organizerId, Callback<List<Event>> callback) {
+        EventDB.getInstance().getEventsByOrganizer(organizerId, task -> {
+            if (!task.isSuccessful() || task.getResult() == null) {
+                callback.onFailure(task.getException() != null ? task.getException() : new Exception("Error loading events"));
+                return;
+            }
+            List<Event> events = new ArrayList<>();
+            for (DocumentSnapshot doc : task.getResult().getDocuments()) {
+                Event event = doc.toObject(Event.class);
+                if (event != null) {
+                    if (event.getEventId() == null) event.setEventId(doc.getId());
+                    events.add(event);
+                }
+            }
+            callback.onSuccess(events);
+        });
+    }
+
+    // ---------------------------------------------------------------------
+    // WaitlistStore
+    // ---------------------------------------------------------------------
+
+    @Override
+    public void addToWaitlist(Waitlist waitlist, int shardCount, Callback<Void> callback) {
+        WaitlistDB.getInstance().addToWaitlist(waitlist, shardCount, voidListener(callback, "Error adding to waitlist"));
+    }
+
+    @Override
+    public void removeFromWaitlist(String userId, String eventId, int shardCount, Callback<Void> callback) {
+        WaitlistDB.getInstance().removeFromWaitlist(userId, eventId, shardCount, voidListener(callback, "Error deleting waitlist"));
+    }
+
+    @Override
+    public void getWaitlistEntry(String userId, String eventId, Callback<Waitlist> callback) {
+        WaitlistDB.getInstance().getWaitlistEntry(userId, eventId, task -> {
+            if (!task.isSuccessful()) {
+                callback.onFailure(task.getException() != null ? task.getException() : new Exception("Error loading waitlist entry"));
+                return;
+            }
+            DocumentSnapshot doc = task.getResult();
+            callback.onSuccess(doc != null && doc.exists() ? toWaitlist(doc) : null);
+        });
+    }
+
+    @Override
+    public void updateWaitlistStatus(String userId, String eventId, String newStatus, Callback<Void> callback) {
+        WaitlistDB.getInstance().updateWaitlistStatus(userId, eventId, newStatus, voidListener(callback, "Error updating status"));
+    }
+
+    @Override
+    public void getEntrantsByStatus(String eventId, String status, Callback<List<Waitlist>> callback) {
+        WaitlistDB.getInstance().getEntrantsByStatus(eventId, status, task -> {
+            if (!task.isSuccessful()) {
+                callback.onFailure(task.getException() != null ? task.getException() : new Exception("Failed to fetch entrants"));
+                return;
+            }
+            List<Waitlist> entries = new ArrayList<>();
+            if (task.getResult() != null) {
+                for (DocumentSnapshot doc : task.getResult().getDocuments()) {
+                    entries.add(toWaitlist(doc));
+                }
+            }
+            callback.onSuccess(entries);
+        });
+    }
+
+    @Override
+    public void getEntrantsPageByStatus(String eventId, String status, String pageToken, int pageSize,
+                                        Callback<Page<Waitlist>> callback) {
+        WaitlistDB.getInstance().getEntrantsByStatusPage(eventId, status, pageToken, pageSize, task -> {
+            if (!task.isSuccessful()) {
+                callback.onFailure(task.getException() != null ? task.getException() : new Exception("Failed to fetch entrants"));
+                return;
+            }
+            List<Waitlist> entries = new ArrayList<>();
+            String lastId = null;
+            if (task.getResult() != null) {
+                for (DocumentSnapshot doc : task.getResult().getDocuments()) {
+                    entries.add(toWaitlist(doc));
+                    lastId = doc.getId();
+                }
+            }
+            int limit = pageSize > 0 ? pageSize : WaitlistDB.DEFAULT_PAGE_SIZE;
+            callback.onSuccess(new Page<>(entries, entries.size() >= limit ? lastId : null));
+        });
+    }
+
+    @Override
+    public void drawWaitingEntrants(String eventId, int count, double pivot, Callback<List<Waitlist>> callback) {
+        WaitlistDB.getInstance().drawEntrantsByKey(eventId, count, pivot, task -> {
+            if (!task.isSuccessful()) {
+                callback.onFailure(task.getException() != null ? task.getException() : new Exception("Failed to draw entrants"));
+                return;
+            }
+            if (task.getResult() == null) {
+                callback.onSuccess(null);
+                return;
+            }
+            List<Waitlist> entries = new ArrayList<>();
+            for (DocumentSnapshot doc : task.getResult()) {
+                entries.add(toWaitlist(doc));
+            }
+            callback.onSuccess(entries);
+        });
+    }
+
+    @Override
+    public void getEntrantCount(Event event, Callback<Integer> callback) {
+        EntrantCounterDB.getInstance().getEntrantCountOrBase(event, task -> callback.onSuccess(task.getResult()));
+    }
+
+    @Override
+    public void selectEntrants(String eventId, List<String> userIds, long drawSeed, Callback<Void> callback) {
+        WaitlistDB.getInstance().selectEntrants(eventId, userIds, drawSeed, voidListener(callback, "Failed to save winners"));
+    }
+
+    @Override
+    public void replaceEntrant(String eventId, String replacedUserId, boolean cancelReplaced,
+                               String replacementUserId, Callback<Void> callback) {
+        WaitlistDB.getInstance().replaceEntrant(eventId, replacedUserId, cancelReplaced, replacementUserId,
+                voidListener(callback, "Failed to replace winner"));
+    }
+
+    // ---------------------------------------------------------------------
+    // UserStore
+    // ---------------------------------------------------------------------
+
+    @Override
+    public void createUser(User user, Callback<Void> callback) {
+        UserDB.getInstance().createUser(user, voidListener(callback, "Error creating user"));
+    }
+
+    @Override
+    public void getUser(String userId, Callback<User> callback) {
+        UserDB.getInstance().getUser(userId, task -> {
+            if (!task.isSuccessful()) {
+                callback.onFailure(task.getException() != null ? task.getException() : new Exception("Failed to fetch user " + userId));
+                return;
+            }
+            DocumentSnapshot doc = task.getResult();
+            callback.onSuccess(doc != null && doc.exists() ? toUser(doc) : null);
+        });
+    }
+
+    @Override
+    public void getUsers(Collection<String> userIds, Callback<Map<String, User>> callback) {
+        UserDB.getInstance().getUsers(userIds, task -> {
+            if (task.isSuccessful() && task.getResult() != null) {
+                callback.onSuccess(task.getResult());
+            } else {
+                callback.onFailure(task.getException() != null ? task.getException() : new Exception("Failed to load users"));
+            }
+        });
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The preference index is read first. Only users missing from it, those
+     * created before the index existed and not yet indexed by
+     * {@link NotificationPreferenceMigration}, are looked up in the user documents.
+     * </p>
+     */
+    @Override
+    public void getNotificationPreferences(Collection<String> userIds, Callback<Map<String, Boolean>> callback) {
+        UserDB.getInstance().getNotificationPreferences(userIds, task -> {
+            if (!task.isSuccessful() || task.getResult() == null) {
+                callback.onFailure(task.getException() != null ? task.getException() : new Exception("Failed to load notification preferences"));
+                return;
+            }
+            Map<String, Boolean> preferences = task.getResult();
+            List<String> unindexed = new ArrayList<>();
+            for (String userId : userIds) {
+                if (userId != null && !preferences.containsKey(userId)) {
+                    unindexed.add(userId);
+                }
+            }
+            if (unindexed.isEmpty()) {
+                callback.onSuccess(preferences);
+                return;
+            }
+
+            UserDB.getInstance().getUsers(unindexed, usersTask -> {
+                if (!usersTask.isSuccessful() || usersTask.getResult() == null) {
+                    callback.onFailure(usersTask.getException() != null ? usersTask.getException() : new Exception("Failed to load users"));
+                    return;
+                }
+                for (User user : usersTask.getResult().values()) {
+                    preferences.put(user.getId(), user.getNotifications());
+                }
+                callback.onSuccess(preferences);
+            });
+        });
+    }
+
+    @Override
+    public void updateUser(String userId, Map<String, Object> updates, Callback<Void> callback) {
+        UserDB.getInstance().updateUser(userId, new HashMap<>(updates), voidListener(callback, "Failed to update profile"));
+    }
+
+    @Override
+    public void deleteUser(String userId, Callback<Void> callback) {
+        UserDB.getInstance().deleteUser(userId, voidListener(callback, "Failed to delete user"));
+    }
+
+    // ---------------------------------------------------------------------
+    // NotificationStore
+    // ---------------------------------------------------------------------
+
+    @Override
+    public void addNotification(Notification notification, Callback<Void> callback) {
+        NotificationDB.getInstance().addNotification(notification, voidListener(callback, "Failed to send notification"));
+    }
+
+    @Override
+    public void addNotifications(List<Notification> notifications, Callback<Void> callback) {
+        NotificationDB.getInstance().addNotifications(notifications, voidListener(callback, "Failed to send notifications"));
+    }
+
+    @Override
+    public void getNotificationsForUser(String userId, Callback<List<Notification>> callback) {
+        NotificationDB.getInstance().getNotificationsForUser(userId, task -> {
+            if (task.isSuccessful() && task.getResult() != null) {
+                callback.onSuccess(task.getResult().toObjects(Notification.class));
+            } else {
+                callback.onFailure(task.getException() != null ? task.getException() : new Exception("Failed to load notifications"));
+            }
+        });
+    }
+
+    @Override
+    public void addNotificationLog(NotificationLog log, Callback<Void> callback) {
+        NotificationsLogDB.getInstance().addNotificationLog(log, voidListener(callback, "Failed to log notification"));
+    }
+
+    @Override
+    public void getAllNotificationLogs(Callback<List<NotificationLog>> callback) {
+        NotificationsLogDB.getInstance().getAllNotifications(task -> {
+            if (task.isSuccessful() && task.getResult() != null) {
+                callback.onSuccess(task.getResult().toObjects(NotificationLog.class));
+            } else {
+                callback.onFailure(task.getException() != null ? task.getException() : new Exception("Failed to load notification logs"));
+            }
+        });
+    }
+
+    // ---------------------------------------------------------------------
+    // Helpers
+    // ---------------------------------------------------------------------
+
+    /**
+     * Adapts a {@link Callback} to a Firestore write listener.
+     *
+     * @param callback     Callback to notify
+     * @param errorMessage Message used when the task fails without an exception
+     * @return Listener forwarding success or failure to the callback
+     */
+    private static OnCompleteListener<Void> voidListener(Callback<Void> callback, String errorMessage) {
+        return task -> {
+            if (task.isSuccessful()) {
+                callback.onSuccess(null);
+            } else {
+                callback.onFailure(task.getException() != null ? task.getException() : new Exception(errorMessage));
+            }
+        };
+    }
+
+    /**
+     * Reads a waitlist document field by field.
+     *
+     * @param doc Waitlist document
+     * @return Waitlist entry built from the document
+     */
+    private static Waitlist toWaitlist(DocumentSnapshot doc) {
+        Waitlist entry = new Waitlist();
+        entry.setUserId(doc.getString("userId"));
+        entry.setEventId(doc.getString("eventId"));
+        entry.setStatus(doc.getString("status"));
+        entry.setTimestamp(doc.getTimestamp("timestamp"));
+        entry.setLatitude(doc.getDouble("latitude"));
+        entry.setLongitude(doc.getDouble("longitude"));
+        entry.setReplaced(Boolean.TRUE.equals(doc.getBoolean("replaced")));
+        entry.setDrawKey(doc.getDouble("drawKey"));
+        entry.setCheckedInAt(doc.getTimestamp(WaitlistDB.CHECKED_IN_AT_FIELD));
+        return entry;
+    }
+
+    /**
+     * Reads a user document field by field.
+     *
+     * @param doc User document
+     * @return User built from the document
+     */
+    private static User toUser(DocumentSnapshot doc) {
+        User user = new User();
+        user.setId(doc.getId());
+        user.setName(doc.getString("name"));
+        user.setEmail(doc.getString("email"));
+        user.setPhone(doc.getString("phone"));
+        user.setNotifications(Boolean.TRUE.equals(doc.getBoolean("notifications")));
+        user.setAvatar(doc.getString(UserDB.AVATAR_FIELD));
+        user.setAvatarImage(doc.getBlob(UserDB.AVATAR_IMAGE_FIELD));
+        user.setAvatarVersion(doc.getLong(UserDB.AVATAR_VERSION_FIELD));
+        return user;
+    }
+}
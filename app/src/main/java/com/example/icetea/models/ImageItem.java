@@ -1,10 +1,12 @@
 package com.example.icetea.models;
 
+import com.google.firebase.firestore.Blob;
+
 /**
  * Represents an image stored in the application.
  * <p>
  * Each ImageItem has a type (e.g., "avatar", "event"), a unique ID,
- * and a Base64 string representing the image data.
+ * and the image data as a Base64 string or as a Blob, with the key it is cached under.
  * </p>
  */
 public class ImageItem {
@@ -18,6 +20,12 @@ public class ImageItem {
     /** Base64-encoded representation of the image */
     private String base64;
 
+    /** Encoded image, for images stored as a Blob */
+    private Blob image;
+
+    /** Key the image is cached under, which changes with the image */
+    private String imageKey;
+
     /**
      * Default constructor required for Firestore or serialization.
      */
@@ -38,6 +46,24 @@ public class ImageItem {
         this.base64 = base64;
     }
 
+    /**
+     * Constructs a new ImageItem instance for an image stored as a Blob, or as
+     * Base64 by older versions of the app.
+     *
+     * @param type     the type/category of the image
+     * @param id       the unique identifier of the image
+     * @param imageKey the key the image is cached under
+     * @param image    the encoded image data, or null
+     * @param base64   the Base64-encoded image data, used when there is no Blob
+     */
+    public ImageItem(String type, String id, String imageKey, Blob image, String base64) {
+        this.type = type;
+        this.id = id;
+        this.imageKey = imageKey;
+        this.image = image;
+        this.base64 = base64;
+    }
+
     /** @return the image type */
     public String getType() {
         return type;
@@ -67,4 +93,24 @@ public class ImageItem {
     public void setBase64(String base64) {
         this.base64 = base64;
     }
-}
\ No newline at end of file
+
+    /** @return the encoded image data, or null if the image is held as Base64 */
+    public Blob getImage() {
+        return image;
+    }
+
+    /** @param image the encoded image data */
+    public void setImage(Blob image) {
+        this.image = image;
+    }
+
+    /** @return the key the image is cached under, or null to key it by its Base64 data */
+    public String getImageKey() {
+        return imageKey;
+    }
+
+    /** @param imageKey the key the image is cached under */
+    public void setImageKey(String imageKey) {
+        this.imageKey = imageKey;
+    }
+}
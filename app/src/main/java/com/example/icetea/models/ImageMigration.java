@@ -0,0 +1,187 @@
+package com.example.icetea.models;
+
+import android.util.Log;
+
+import com.example.icetea.util.ImageUtil;
+import com.google.android.gms.tasks.Task;
+import com.google.android.gms.tasks.TaskCompletionSource;
+import com.google.android.gms.tasks.Tasks;
+import com.google.firebase.firestore.Blob;
+import com.google.firebase.firestore.DocumentSnapshot;
+import com.google.firebase.firestore.FieldValue;
+import com.google.firebase.firestore.FirebaseFirestore;
+import com.google.firebase.firestore.Query;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+
+/**
+ * Background job that converts images stored as Base64 strings to Firestore Blobs.
+ * <p>
+ * Older versions of the app stored avatars in the user's avatar field, posters
+ * inline in the event's posterBase64 field, and poster variants in a data
+ * field, all as Base64. The job moves them, a page at a time:
+ * <ul>
+ *     <li>avatars to the user's avatarImage Blob</li>
+ *     <li>poster variants to their image Blob</li>
+ *     <li>inline posters to {@link PosterDB}, as {@link EventDB#updateEvent} stores new ones</li>
+ * </ul>
+ * Each converted document loses its Base64 field, so every page is simply the
+ * first page of what is left and the job can stop and resume at any point.
+ * Readers accept both formats, so the app works while the job is unfinished.
+ */
+public class ImageMigration {
+
+    private static final String TAG = "ImageMigration";
+
+    /** Number of documents converted per page */
+    static final int PAGE_SIZE = 20;
+
+    /** The singleton instance of ImageMigration */
+    private static ImageMigration instance;
+
+    /** Executor that decodes Base64 off the main thread */
+    private final Executor executor = Executors.newSingleThreadExecutor();
+
+    /** Whether the job is running; only touched on the main thread */
+    private boolean running;
+
+    /**
+     * Converts one page of documents.
+     */
+    private interface PageConverter {
+
+        /**
+         * @param docs Documents of the page, all still holding Base64
+         * @return Task completing once the page is written
+         */
+        Task<Void> convert(List<DocumentSnapshot> docs);
+    }
+
+    /**
+     * Private constructor to enforce singleton pattern.
+     */
+    private ImageMigration() {
+    }
+
+    /**
+     * Retrieves the singleton instance of ImageMigration.
+     *
+     * @return ImageMigration instance
+     */
+    public static ImageMigration getInstance() {
+        if (instance == null) {
+            instance = new ImageMigration();
+        }
+        return instance;
+    }
+
+    /**
+     * Starts converting the remaining Base64 images, unless the job is already running.
+     * A job that fails stops and is picked up again by the next call.
+     */
+    public void start() {
+        if (running) return;
+        running = true;
+
+        Query[] variants = PosterDB.getInstance().variantsWithBase64();
+        migrate(UserDB.getInstance().usersWithBase64Avatar(), this::convertAvatars)
+                .onSuccessTask(v -> migrate(variants[0], this::convertVariants))
+                .onSuccessTask(v -> migrate(variants[1], this::convertVariants))
+                .onSuccessTask(v -> migrate(EventDB.getInstance().eventsWithInlinePoster(), this::convertEvents))
+                .addOnCompleteListener(task -> {
+                    running = false;
+                    if (!task.isSuccessful()) {
+                        Log.e(TAG, "Image migration stopped", task.getException());
+                    }
+                });
+    }
+
+    /**
+     * Converts the documents of a query page by page until none are left.
+     */
+    private Task<Void> migrate(Query query, PageConverter converter) {
+        return query.limit(PAGE_SIZE).get().onSuccessTask(page -> {
+            if (page.isEmpty()) {
+                return Tasks.forResult(null);
+            }
+            return converter.convert(page.getDocuments()).onSuccessTask(v ->
+                    page.size() < PAGE_SIZE ? Tasks.forResult(null) : migrate(query, converter));
+        });
+    }
+
+    /**
+     * Moves a page of Base64 avatars to Blobs. Avatars that cannot be decoded are dropped.
+     */
+    private Task<Void> convertAvatars(List<DocumentSnapshot> docs) {
+        return Tasks.call(executor, () -> {
+            BatchWriter writer = new BatchWriter(FirebaseFirestore.getInstance());
+            for (DocumentSnapshot doc : docs) {
+                byte[] bytes = ImageUtil.toBytes(null, doc.getString(UserDB.AVATAR_FIELD));
+                writer.update(doc.getReference(),
+                        UserDB.AVATAR_IMAGE_FIELD, bytes != null ? Blob.fromBytes(bytes) : FieldValue.delete(),
+                        UserDB.AVATAR_FIELD, FieldValue.delete());
+            }
+            return writer;
+        }).onSuccessTask(BatchWriter::commit);
+    }
+
+    /**
+     * Moves a page of Base64 poster variants to Blobs.
+     */
+    private Task<Void> convertVariants(List<DocumentSnapshot> docs) {
+        return Tasks.call(executor, () -> {
+            BatchWriter writer = new BatchWriter(FirebaseFirestore.getInstance());
+            for (DocumentSnapshot doc : docs) {
+                byte[] bytes = PosterDB.imageBytes(doc);
+                writer.update(doc.getReference(),
+                        PosterDB.IMAGE_FIELD, bytes != null ? Blob.fromBytes(bytes) : FieldValue.delete(),
+                        PosterDB.DATA_FIELD, FieldValue.delete());
+            }
+            return writer;
+        }).onSuccessTask(BatchWriter::commit);
+    }
+
+    /**
+     * Moves a page of inline posters to {@link PosterDB}.
+     */
+    private Task<Void> convertEvents(List<DocumentSnapshot> docs) {
+        List<Task<Void>> writes = new ArrayList<>();
+        for (DocumentSnapshot doc : docs) {
+            writes.add(movePoster(doc.getId(), doc.getString(EventDB.POSTER_FIELD)));
+        }
+        return Tasks.whenAll(writes);
+    }
+
+    /**
+     * Moves one inline poster. A poster that cannot be decoded is removed, so
+     * that it does not come back in every page; any other failure stops the job.
+     */
+    private Task<Void> movePoster(String eventId, String poster) {
+        return updatePoster(eventId, poster).continueWithTask(task -> {
+            if (task.isSuccessful() || !(task.getException() instanceof IllegalArgumentException)) {
+                return task;
+            }
+            return updatePoster(eventId, null);
+        });
+    }
+
+    private Task<Void> updatePoster(String eventId, String poster) {
+        TaskCompletionSource<Void> result = new TaskCompletionSource<>();
+        Map<String, Object> updates = new HashMap<>(Collections.singletonMap(EventDB.POSTER_FIELD, poster));
+        EventDB.getInstance().updateEvent(eventId, updates, task -> {
+            if (task.isSuccessful()) {
+                result.setResult(null);
+            } else {
+                result.setException(task.getException() != null
+                        ? task.getException() : new Exception("Failed to move poster"));
+            }
+        });
+        return result.getTask();
+    }
+}
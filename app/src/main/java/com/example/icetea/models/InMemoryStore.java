@@ -0,0 +1,606 @@
+package com.example.icetea.models;
+
+import com.example.icetea.core.KeyedDraw;
+import com.example.icetea.util.Callback;
+import com.google.firebase.Timestamp;
+import com.google.firebase.firestore.Blob;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Thread-safe in-memory implementation of the storage interfaces.
+ * <p>
+ * Lets controllers run without a Firestore backend, for unit tests and for
+ * measuring controller throughput on large waitlists. All data is guarded by a
+ * single lock. Waitlist entries are indexed by event so status queries only scan
+ * the entries of one event.
+ * </p>
+ *
+ * <p>With a latency of 0 every operation completes on the calling thread before
+ * the method returns. With a positive latency each operation is scheduled on a
+ * background pool and runs, together with its callback, after the delay, which
+ * approximates a network round trip. Call {@link #shutdown()} when done.</p>
+ *
+ * <p>Stored objects are kept by reference, not copied.</p>
+ */
+public class InMemoryStore implements EventStore, WaitlistStore, UserStore, NotificationStore {
+
+    /** Artificial delay in milliseconds applied to every operation */
+    private final long latencyMs;
+
+    /** Pool running delayed operations; null when there is no latency */
+    private final ScheduledExecutorService scheduler;
+
+    /** Lock guarding all maps below */
+    private final Object lock = new Object();
+
+    /** Events keyed by event ID */
+    private final Map<String, Event> events = new HashMap<>();
+
+    /** Waitlist entries keyed by event ID, then user ID, in user ID order */
+    private final Map<String, TreeMap<String, Waitlist>> waitlists = new HashMap<>();
+
+    /** Net joins minus leaves per event, added to the event's stored entrant count */
+    private final Map<String, Integer> entrantDeltas = new HashMap<>();
+
+    /** Users keyed by user ID */
+    private final Map<String, User> users = new HashMap<>();
+
+    /** Notifications keyed by user ID */
+    private final Map<String, List<Notification>> notifications = new HashMap<>();
+
+    /** Notification log entries in insertion order */
+    private final List<NotificationLog> notificationLogs = new ArrayList<>();
+
+    /**
+     * Creates a store that completes every operation immediately on the calling thread.
+     */
+    public InMemoryStore() {
+        this(0);
+    }
+
+    /**
+     * Creates a store that delays every operation by the given latency.
+     *
+     * @param latencyMs Artificial delay in milliseconds; 0 for none
+     */
+    public InMemoryStore(long latencyMs) {
+        if (latencyMs < 0) {
+            throw new IllegalArgumentException("Latency must not be negative");
+        }
+        this.latencyMs = latencyMs;
+        this.scheduler = latencyMs > 0
+                ? Executors.newScheduledThreadPool(Runtime.getRuntime().availableProcessors())
+                : null;
+    }
+
+    /**
+     * Stops the background pool used for delayed operations. Pending operations still run.
+     */
+    public void shutdown() {
+        if (scheduler != null) {
+            scheduler.shutdown();
+        }
+    }
+
+    // ---------------------------------------------------------------------
+    // EventStore
+    // ---------------------------------------------------------------------
+
+    @Override
+    public void createEvent(Event event, Callback<Void> callback) {
+        run(callback, () -> {
+            if (event.getEventId() == null) {
+                throw new IllegalArgumentException("Event ID is required");
+            }
+            events.put(event.getEventId(), event);
+            return null;
+        });
+    }
+
+    @Override
+    public void getEvent(String eventId, Callback<Event> callback) {
+        run(callback, () -> {
+            Event event = events.get(eventId);
+            if (event == null) {
+                throw new Exception("Error loading event");
+            }
+            return event;
+        });
+    }
+
+    @Override
+    public void updateEvent(String eventId, Map<String, Object> updates, Callback<Void> callback) {
+        run(callback, () -> {
+            Event event = events.get(eventId);
+            if (event == null) {
+                throw new Exception("Event not found");
+            }
+            for (Map.Entry<String, Object> update : updates.entrySet()) {
+                applyEventUpdate(event, update.getKey(), update.getValue());
+            }
+            return null;
+        });
+    }
+
+    @Override
+    public void deleteEvent(String eventId, Callback<Void> callback) {
+        run(callback, () -> {
+            events.remove(eventId);
+            waitlists.remove(eventId);
+            entrantDeltas.remove(eventId);
+            return null;
+        });
+    }
+
+    @Override
+    public void getEventsByOrganizer(String organizerId, Callback<List<Event>> callback) {
+        run(callback, () -> {
+            List<Event> result = new ArrayList<>();
+            for (Event event : events.values()) {
+                if (organizerId != null && organizerId.equals(event.getOrganizerId())) {
+                    result.add(event);
+                }
+            }
+            return result;
+        });
+    }
+
+    // ---------------------------------------------------------------------
+    // WaitlistStore
+    // ---------------------------------------------------------------------
+
+    @Override
+    public void addToWaitlist(Waitlist waitlist, int shardCount, Callback<Void> callback) {
+        run(callback, () -> {
+            requireEvent(waitlist.getEventId());
+            if (waitlist.getDrawKey() == null) {
+                waitlist.setDrawKey(ThreadLocalRandom.current().nextDouble());
+            }
+            if (waitlistOf(waitlist.getEventId()).put(waitlist.getUserId(), waitlist) == null) {
+                entrantDeltas.merge(waitlist.getEventId(), 1, Integer::sum);
+            }
+            return null;
+        });
+    }
+
+    @Override
+    public void removeFromWaitlist(String userId, String eventId, int shardCount, Callback<Void> callback) {
+        run(callback, () -> {
+            requireEvent(eventId);
+            if (waitlistOf(eventId).remove(userId) != null) {
+                entrantDeltas.merge(eventId, -1, Integer::sum);
+            }
+            return null;
+        });
+    }
+
+    @Override
+    public void getWaitlistEntry(String userId, String eventId, Callback<Waitlist> callback) {
+        run(callback, () -> waitlistOf(eventId).get(userId));
+    }
+
+    @Override
+    public void updateWaitlistStatus(String userId, String eventId, String newStatus, Callback<Void> callback) {
+        run(callback, () -> {
+            requireEntry(eventId, userId).setStatus(newStatus);
+            return null;
+        });
+    }
+
+    @Override
+    public void getEntrantsByStatus(String eventId, String status, Callback<List<Waitlist>> callback) {
+        run(callback, () -> {
+            List<Waitlist> result = new ArrayList<>();
+            for (Waitlist entry : waitlistOf(eventId).values()) {
+                if (status != null && status.equals(entry.getStatus())) {
+                    result.add(entry);
+                }
+            }
+            return result;
+        });
+    }
+
+    @Override
+    public void getEntrantsPageByStatus(String eventId, String status, String pageToken, int pageSize,
+                                        Callback<Page<Waitlist>> callback) {
+        run(callback, () -> {
+            TreeMap<String, Waitlist> waitlist = waitlistOf(eventId);
+            Map<String, Waitlist> remaining = pageToken != null ? waitlist.tailMap(pageToken, false) : waitlist;
+            int limit = pageSize > 0 ? pageSize : WaitlistDB.DEFAULT_PAGE_SIZE;
+
+            List<Waitlist> items = new ArrayList<>();
+            String lastUserId = null;
+            for (Map.Entry<String, Waitlist> entry : remaining.entrySet()) {
+                if (status != null && status.equals(entry.getValue().getStatus())) {
+                    items.add(entry.getValue());
+                    lastUserId = entry.getKey();
+                    if (items.size() == limit) {
+                        break;
+                    }
+                }
+            }
+            return new Page<>(items, items.size() == limit ? lastUserId : null);
+        });
+    }
+
+    @Override
+    public void drawWaitingEntrants(String eventId, int count, double pivot, Callback<List<Waitlist>> callback) {
+        run(callback, () -> {
+            List<Waitlist> keyed = new ArrayList<>();
+            for (Waitlist entry : waitlistOf(eventId).values()) {
+                if (Waitlist.STATUS_WAITING.equals(entry.getStatus())) {
+                    if (entry.getDrawKey() == null) {
+                        return null;
+                    }
+                    keyed.add(entry);
+                }
+            }
+            keyed.sort((a, b) -> Double.compare(a.getDrawKey(), b.getDrawKey()));
+            if (keyed.isEmpty()) {
+                return new ArrayList<Waitlist>();
+            }
+
+            KeyedDraw draw = new KeyedDraw(pivot);
+            if (KeyedDraw.readsAll(count, keyed.size())) {
+                return draw.sample(keyed, count);
+            }
+            LinkedHashSet<Waitlist> drawn = new LinkedHashSet<>();
+            for (int round = 0; round < KeyedDraw.MAX_ROUNDS && drawn.size() < count; round++) {
+                for (int i = drawn.size(); i < count; i++) {
+                    drawn.add(keyed.get(firstKeyAtOrAbove(keyed, draw.nextPivot()) % keyed.size()));
+                }
+            }
+            return drawn.size() >= count ? new ArrayList<>(drawn) : null;
+        });
+    }
+
+    /**
+     * Index of the first entry whose draw key is at least the pivot, or the size
+     * of the list if there is none.
+     */
+    private static int firstKeyAtOrAbove(List<Waitlist> keyed, double pivot) {
+        int low = 0;
+        int high = keyed.size();
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (keyed.get(mid).getDrawKey() < pivot) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    @Override
+    public void getEntrantCount(Event event, Callback<Integer> callback) {
+        run(callback, () -> {
+            int base = event.getCurrentEntrants() != null ? event.getCurrentEntrants() : 0;
+            Integer delta = entrantDeltas.get(event.getEventId());
+            return Math.max(base + (delta != null ? delta : 0), 0);
+        });
+    }
+
+    @Override
+    public void selectEntrants(String eventId, List<String> userIds, long drawSeed, Callback<Void> callback) {
+        run(callback, () -> {
+            List<Waitlist> selected = new ArrayList<>();
+            for (String userId : userIds) {
+                selected.add(requireEntry(eventId, userId));
+            }
+            for (Waitlist entry : selected) {
+                entry.setStatus(Waitlist.STATUS_SELECTED);
+            }
+            Event event = events.get(eventId);
+            if (event != null) {
+                event.setAlreadyDrew(true);
+                event.setDrawSeed(drawSeed);
+            }
+            return null;
+        });
+    }
+
+    @Override
+    public void replaceEntrant(String eventId, String replacedUserId, boolean cancelReplaced,
+                               String replacementUserId, Callback<Void> callback) {
+        run(callback, () -> {
+            Waitlist replaced = requireEntry(eventId, replacedUserId);
+            Waitlist replacement = requireEntry(eventId, replacementUserId);
+            if (cancelReplaced) {
+                replaced.setStatus(Waitlist.STATUS_CANCELLED);
+            }
+            replaced.setReplaced(true);
+            replacement.setStatus(Waitlist.STATUS_SELECTED);
+            return null;
+        });
+    }
+
+    // ---------------------------------------------------------------------
+    // UserStore
+    // ---------------------------------------------------------------------
+
+    @Override
+    public void createUser(User user, Callback<Void> callback) {
+        run(callback, () -> {
+            if (user.getId() == null) {
+                throw new IllegalArgumentException("User ID is required");
+            }
+            users.put(user.getId(), user);
+            return null;
+        });
+    }
+
+    @Override
+    public void getUser(String userId, Callback<User> callback) {
+        run(callback, () -> users.get(userId));
+    }
+
+    @Override
+    public void getUsers(Collection<String> userIds, Callback<Map<String, User>> callback) {
+        run(callback, () -> {
+            Map<String, User> result = new HashMap<>();
+            if (userIds != null) {
+                for (String userId : userIds) {
+                    User user = users.get(userId);
+                    if (user != null) {
+                        result.put(userId, user);
+                    }
+                }
+            }
+            return result;
+        });
+    }
+
+    @Override
+    public void getNotificationPreferences(Collection<String> userIds, Callback<Map<String, Boolean>> callback) {
+        run(callback, () -> {
+            Map<String, Boolean> result = new HashMap<>();
+            for (String userId : userIds) {
+                User user = users.get(userId);
+                if (user != null) {
+                    result.put(userId, user.getNotifications());
+                }
+            }
+            return result;
+        });
+    }
+
+    @Override
+    public void updateUser(String userId, Map<String, Object> updates, Callback<Void> callback) {
+        run(callback, () -> {
+            User user = users.get(userId);
+            if (user == null) {
+                throw new Exception("User not found");
+            }
+            for (Map.Entry<String, Object> update : updates.entrySet()) {
+                applyUserUpdate(user, update.getKey(), update.getValue());
+            }
+            return null;
+        });
+    }
+
+    @Override
+    public void deleteUser(String userId, Callback<Void> callback) {
+        run(callback, () -> {
+            Iterator<Event> it = events.values().iterator();
+            while (it.hasNext()) {
+                Event event = it.next();
+                if (userId.equals(event.getOrganizerId())) {
+                    it.remove();
+                    waitlists.remove(event.getEventId());
+                    entrantDeltas.remove(event.getEventId());
+                }
+            }
+            for (TreeMap<String, Waitlist> waitlist : waitlists.values()) {
+                waitlist.remove(userId);
+            }
+            users.remove(userId);
+            return null;
+        });
+    }
+
+    // ---------------------------------------------------------------------
+    // NotificationStore
+    // ---------------------------------------------------------------------
+
+    @Override
+    public void addNotification(Notification notification, Callback<Void> callback) {
+        run(callback, () -> {
+            notifications.computeIfAbsent(notification.getUserId(), k -> new ArrayList<>()).add(notification);
+            return null;
+        });
+    }
+
+    @Override
+    public void addNotifications(List<Notification> notifications, Callback<Void> callback) {
+        run(callback, () -> {
+            for (Notification notification : notifications) {
+                List<Notification> inbox = this.notifications.computeIfAbsent(notification.getUserId(), k -> new ArrayList<>());
+                if (!containsDispatch(inbox, notification.getDispatchId())) {
+                    inbox.add(notification);
+                }
+            }
+            return null;
+        });
+    }
+
+    /**
+     * Whether an inbox already holds the notification of a dispatch, as the
+     * dispatched notification's fixed document ID would in Firestore.
+     */
+    private static boolean containsDispatch(List<Notification> inbox, String dispatchId) {
+        if (dispatchId == null) return false;
+        for (Notification existing : inbox) {
+            if (dispatchId.equals(existing.getDispatchId())) return true;
+        }
+        return false;
+    }
+
+    @Override
+    public void getNotificationsForUser(String userId, Callback<List<Notification>> callback) {
+        run(callback, () -> {
+            List<Notification> result = new ArrayList<>(
+                    notifications.getOrDefault(userId, Collections.emptyList()));
+            result.sort((a, b) -> compareTimestamps(b.getTimestamp(), a.getTimestamp()));
+            return result;
+        });
+    }
+
+    @Override
+    public void addNotificationLog(NotificationLog log, Callback<Void> callback) {
+        run(callback, () -> {
+            notificationLogs.add(log);
+            return null;
+        });
+    }
+
+    @Override
+    public void getAllNotificationLogs(Callback<List<NotificationLog>> callback) {
+        run(callback, () -> new ArrayList<>(notificationLogs));
+    }
+
+    // ---------------------------------------------------------------------
+    // Helpers
+    // ---------------------------------------------------------------------
+
+    /**
+     * An operation on the store's data, run while holding the lock.
+     *
+     * @param <T> Result type
+     */
+    private interface Operation<T> {
+        T apply() throws Exception;
+    }
+
+    /**
+     * Runs an operation under the lock, after the configured latency, and reports
+     * its result or exception to the callback outside the lock.
+     *
+     * @param callback  Callback receiving the result
+     * @param operation Operation to run
+     * @param <T>       Result type
+     */
+    private <T> void run(Callback<T> callback, Operation<T> operation) {
+        Runnable task = () -> {
+            T result;
+            try {
+                synchronized (lock) {
+                    result = operation.apply();
+                }
+            } catch (Exception e) {
+                callback.onFailure(e);
+                return;
+            }
+            callback.onSuccess(result);
+        };
+
+        if (scheduler == null) {
+            task.run();
+        } else {
+            scheduler.schedule(task, latencyMs, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Returns the waitlist of an event, creating it if needed. Must hold the lock.
+     */
+    private TreeMap<String, Waitlist> waitlistOf(String eventId) {
+        return waitlists.computeIfAbsent(eventId, k -> new TreeMap<>());
+    }
+
+    /**
+     * Throws if an event does not exist, like the check joins and leaves make in
+     * Firestore. Must hold the lock.
+     */
+    private void requireEvent(String eventId) throws Exception {
+        if (!events.containsKey(eventId)) {
+            throw new Exception("Event not found");
+        }
+    }
+
+    /**
+     * Returns a waitlist entry or throws if it does not exist. Must hold the lock.
+     */
+    private Waitlist requireEntry(String eventId, String userId) throws Exception {
+        Waitlist entry = waitlistOf(eventId).get(userId);
+        if (entry == null) {
+            throw new Exception("Waitlist entry not found for " + userId);
+        }
+        return entry;
+    }
+
+    /**
+     * Orders timestamps with null first.
+     */
+    private static int compareTimestamps(Timestamp a, Timestamp b) {
+        if (a == null || b == null) {
+            return a == null ? (b == null ? 0 : -1) : 1;
+        }
+        return a.compareTo(b);
+    }
+
+    /**
+     * Applies a single Firestore-style field update to an event.
+     *
+     * @param event Event to modify
+     * @param field Field name as stored in Firestore
+     * @param value New value
+     */
+    private static void applyEventUpdate(Event event, String field, Object value) {
+        switch (field) {
+            case "organizerId": event.setOrganizerId((String) value); break;
+            case "name": event.setName((String) value); break;
+            case "description": event.setDescription((String) value); break;
+            case "criteria": event.setCriteria((String) value); break;
+            case "posterBase64": event.setPosterBase64((String) value); break;
+            case "registrationStartDate": event.setRegistrationStartDate((Timestamp) value); break;
+            case "registrationEndDate": event.setRegistrationEndDate((Timestamp) value); break;
+            case "eventStartDate": event.setEventStartDate((Timestamp) value); break;
+            case "eventEndDate": event.setEventEndDate((Timestamp) value); break;
+            case "location": event.setLocation((String) value); break;
+            case "maxEntrants": event.setMaxEntrants(value != null ? ((Number) value).intValue() : null); break;
+            case "currentEntrants": event.setCurrentEntrants(value != null ? ((Number) value).intValue() : null); break;
+            case "entrantShardCount": event.setEntrantShardCount(value != null ? ((Number) value).intValue() : null); break;
+            case "geolocationRequirement": event.setGeolocationRequirement(Boolean.TRUE.equals(value)); break;
+            case "alreadyDrew": event.setAlreadyDrew(Boolean.TRUE.equals(value)); break;
+            case "drawSeed": event.setDrawSeed(value != null ? ((Number) value).longValue() : null); break;
+            default: throw new IllegalArgumentException("Unknown event field: " + field);
+        }
+    }
+
+    /**
+     * Applies a single Firestore-style field update to a user.
+     *
+     * @param user  User to modify
+     * @param field Field name as stored in Firestore
+     * @param value New value
+     */
+    private static void applyUserUpdate(User user, String field, Object value) {
+        switch (field) {
+            case "name": user.setName((String) value); break;
+            case "email": user.setEmail((String) value); break;
+            case "phone": user.setPhone((String) value); break;
+            case "notifications": user.setNotifications(Boolean.TRUE.equals(value)); break;
+            case "avatar":
+                // Like UserDB, keep Blob avatars in avatarImage and clear the other form
+                user.setAvatarImage(value instanceof Blob ? (Blob) value : null);
+                user.setAvatar(value instanceof String ? (String) value : null);
+                user.setAvatarVersion(user.getAvatarVersion() != null ? user.getAvatarVersion() + 1 : 1L);
+                break;
+            default: throw new IllegalArgumentException("Unknown user field: " + field);
+        }
+    }
+}
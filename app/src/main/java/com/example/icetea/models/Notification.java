@@ -30,6 +30,12 @@ public class Notification {
     /** Timestamp indicating when the notification was created */
     private Timestamp timestamp;
 
+    /** Whether the user has seen the notification; null for notifications sent before read tracking */
+    private Boolean read;
+
+    /** ID of the dispatch that sent this notification to many users, or null for a single notification */
+    private String dispatchId;
+
     /**
      * Default constructor required for Firestore deserialization.
      */
@@ -83,4 +89,16 @@ public class Notification {
 
     /** @param title the title of the notification */
     public void setTitle(String title) { this.title = title; }
-}
\ No newline at end of file
+
+    /** @return whether the user has seen the notification, or null if unknown */
+    public Boolean getRead() { return read; }
+
+    /** @param read whether the user has seen the notification */
+    public void setRead(Boolean read) { this.read = read; }
+
+    /** @return the ID of the dispatch that sent the notification, or null */
+    public String getDispatchId() { return dispatchId; }
+
+    /** @param dispatchId the ID of the dispatch that sent the notification */
+    public void setDispatchId(String dispatchId) { this.dispatchId = dispatchId; }
+}
@@ -1,15 +1,30 @@
 package com.example.icetea.models;
 
+import com.example.icetea.util.ListUtil;
 import com.google.android.gms.tasks.OnCompleteListener;
+import com.google.android.gms.tasks.Task;
+import com.google.android.gms.tasks.Tasks;
+import com.google.firebase.firestore.AggregateSource;
 import com.google.firebase.firestore.CollectionReference;
+import com.google.firebase.firestore.DocumentReference;
+import com.google.firebase.firestore.DocumentSnapshot;
+import com.google.firebase.firestore.EventListener;
+import com.google.firebase.firestore.FieldPath;
+import com.google.firebase.firestore.FieldValue;
 import com.google.firebase.firestore.FirebaseFirestore;
 import com.google.firebase.firestore.ListenerRegistration;
 import com.google.firebase.firestore.Query;
 import com.google.firebase.firestore.QuerySnapshot;
+import com.google.firebase.firestore.SetOptions;
+import com.google.firebase.firestore.WriteBatch;
 
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 /**
  * Singleton class for managing notifications in Firestore.
@@ -17,21 +32,55 @@ import java.util.Map;
  * Provides methods to retrieve, add, and listen to notifications for users.
  * All operations are asynchronous and rely on Firestore callbacks.
  * </p>
+ *
+ * <p>Each user also has an unread counter document that is incremented in the
+ * same batch as every notification sent to them and decremented by
+ * {@link #markAllRead} in the same batch as the notifications it marks, so the
+ * unread badge never needs to read the inbox.</p>
+ *
+ * <p>Firestore structure:</p>
+ * <ul>
+ *     <li>Notifications: /notifications/{notificationId}, where notifications sent by
+ *     a dispatch have the ID {@code <dispatchId>_<userId>}</li>
+ *     <li>Unread counters: /notificationCounters/{userId}, field unread (number)</li>
+ * </ul>
  */
 public class NotificationDB {
 
+    /** Number of notifications in one inbox page */
+    public static final int PAGE_SIZE = 20;
+
+    /**
+     * Number of notifications written per batch. Each takes two writes, the
+     * notification and its counter increment, which always share a batch.
+     */
+    static final int NOTIFICATIONS_PER_BATCH = BatchWriter.MAX_OPERATIONS_PER_BATCH / 2;
+
+    /** Maximum number of values Firestore accepts in a single whereIn query */
+    private static final int WHERE_IN_LIMIT = 30;
+
+    /** Name of the counter field in unread counter documents */
+    private static final String UNREAD_FIELD = "unread";
+
     /** Singleton instance */
     private static NotificationDB instance;
 
     /** Reference to the 'notifications' collection in Firestore */
     private final CollectionReference notificationCollection;
 
+    /** Reference to the 'notificationCounters' collection in Firestore */
+    private final CollectionReference counterCollection;
+
+    /** Running {@link #markAllRead} calls by user ID, joined by overlapping calls */
+    private final Map<String, Task<Void>> markingRead = new HashMap<>();
+
     /**
-     * Private constructor initializing the Firestore collection reference.
+     * Private constructor initializing the Firestore collection references.
      */
     public NotificationDB() {
         FirebaseFirestore db = FirebaseFirestore.getInstance();
         notificationCollection = db.collection("notifications");
+        counterCollection = db.collection("notificationCounters");
     }
 
     /**
@@ -68,7 +117,8 @@ public class NotificationDB {
     /**
      * Adds a new notification document to the Firestore collection.
      * <p>
-     * A new document ID is automatically generated by Firestore.
+     * A new document ID is automatically generated by Firestore, and the
+     * recipient's unread counter is incremented in the same batch.
      * This is an asynchronous operation; the result is delivered via the provided listener.
      * </p>
      *
@@ -76,42 +126,247 @@ public class NotificationDB {
      * @param listener     the OnCompleteListener callback that handles the operation result
      */
     public void addNotification(Notification notification, OnCompleteListener<Void> listener) {
-        notificationCollection.document()
-                .set(notification)
-                .addOnCompleteListener(listener);
+        markUnread(notification);
+        WriteBatch batch = FirebaseFirestore.getInstance().batch();
+        batch.set(notificationCollection.document(), notification);
+        batch.set(counterCollection.document(notification.getUserId()),
+                Collections.singletonMap(UNREAD_FIELD, FieldValue.increment(1)), SetOptions.merge());
+        batch.commit().addOnCompleteListener(listener);
     }
 
     /**
-     * Sets up a real-time listener for notifications of a specific user.
+     * Adds several notification documents.
      * <p>
-     * Whenever the user's notifications are updated in Firestore, the provided
-     * callback is invoked with the updated list.
+     * The notifications are written in atomic batches of up to
+     * {@value #NOTIFICATIONS_PER_BATCH}, each notification in the same batch as
+     * the increment of its recipient's unread counter, so a counter never counts
+     * a notification that was not written.
+     * </p>
+     *
+     * <p>Notifications with a dispatch ID get the document ID
+     * {@code <dispatchId>_<userId>}, and those already written are skipped along
+     * with their increments. Repeating a call after a failure, even one whose
+     * batches partly committed, therefore neither duplicates notifications nor
+     * counts them twice. Other notifications get generated IDs.</p>
+     *
+     * @param notifications the notifications to add
+     * @param listener      the OnCompleteListener callback that handles the operation result
+     */
+    public void addNotifications(List<Notification> notifications, OnCompleteListener<Void> listener) {
+        List<Task<Void>> batches = new ArrayList<>();
+        for (List<Notification> chunk : ListUtil.chunk(notifications, NOTIFICATIONS_PER_BATCH)) {
+            List<DocumentReference> refs = new ArrayList<>();
+            for (Notification notification : chunk) {
+                refs.add(documentFor(notification));
+            }
+            batches.add(existingIds(chunk, refs).continueWithTask(task -> {
+                if (!task.isSuccessful()) {
+                    throw task.getException() != null ? task.getException() : new Exception("Failed to check notifications");
+                }
+                Set<String> existing = task.getResult();
+                WriteBatch batch = FirebaseFirestore.getInstance().batch();
+                for (int i = 0; i < chunk.size(); i++) {
+                    if (existing.contains(refs.get(i).getId())) continue;
+                    Notification notification = chunk.get(i);
+                    markUnread(notification);
+                    batch.set(refs.get(i), notification);
+                    batch.set(counterCollection.document(notification.getUserId()),
+                            Collections.singletonMap(UNREAD_FIELD, FieldValue.increment(1)), SetOptions.merge());
+                }
+                return batch.commit();
+            }));
+        }
+        Tasks.whenAll(batches).addOnCompleteListener(listener);
+    }
+
+    /**
+     * Returns the document a notification is written to: {@code <dispatchId>_<userId>}
+     * for a dispatched notification, otherwise a new generated ID.
+     *
+     * @param notification the notification about to be written
+     * @return the notification's document
+     */
+    private DocumentReference documentFor(Notification notification) {
+        if (notification.getDispatchId() == null) {
+            return notificationCollection.document();
+        }
+        return notificationCollection.document(notification.getDispatchId() + "_" + notification.getUserId());
+    }
+
+    /**
+     * Finds which documents of dispatched notifications already exist.
+     * Documents with generated IDs are new and are not looked up.
+     *
+     * @param notifications the notifications about to be written
+     * @param refs          their documents, in the same order
+     * @return task with the IDs of the documents that exist
+     */
+    private Task<Set<String>> existingIds(List<Notification> notifications, List<DocumentReference> refs) {
+        List<String> ids = new ArrayList<>();
+        for (int i = 0; i < notifications.size(); i++) {
+            if (notifications.get(i).getDispatchId() != null) {
+                ids.add(refs.get(i).getId());
+            }
+        }
+        if (ids.isEmpty()) {
+            return Tasks.forResult(new HashSet<>());
+        }
+
+        List<Task<QuerySnapshot>> lookups = new ArrayList<>();
+        for (List<String> chunk : ListUtil.chunk(ids, WHERE_IN_LIMIT)) {
+            lookups.add(notificationCollection.whereIn(FieldPath.documentId(), chunk).get());
+        }
+        return Tasks.whenAllSuccess(lookups).continueWith(task -> {
+            if (!task.isSuccessful()) {
+                throw task.getException() != null ? task.getException() : new Exception("Failed to check notifications");
+            }
+            Set<String> existing = new HashSet<>();
+            for (Object result : task.getResult()) {
+                for (DocumentSnapshot doc : ((QuerySnapshot) result).getDocuments()) {
+                    existing.add(doc.getId());
+                }
+            }
+            return existing;
+        });
+    }
+
+    /**
+     * Marks a notification about to be sent as unread, unless the caller already set it.
+     *
+     * @param notification the notification about to be written
+     */
+    private static void markUnread(Notification notification) {
+        if (notification.getRead() == null) {
+            notification.setRead(false);
+        }
+    }
+
+    /**
+     * Sets up a real-time listener on the newest page of a user's notifications.
+     * <p>
+     * Only the {@code pageSize} most recent notifications are listened to, so the
+     * cost of the listener does not grow with the size of the inbox. Older
+     * notifications are loaded on demand with {@link #getNotificationsPage}.
      * </p>
      *
      * @param userId   the ID of the user to listen for
-     * @param callback callback invoked on updates with a list of notifications
+     * @param pageSize the number of notifications to listen to
+     * @param listener listener invoked with each snapshot of the newest page
      * @return the ListenerRegistration object which can be used to remove the listener
      */
-    public ListenerRegistration listenNotificationsForUser(String userId, NotificationsCallback callback) {
+    public ListenerRegistration listenLatestNotificationsForUser(String userId, int pageSize,
+                                                                 EventListener<QuerySnapshot> listener) {
+        return inboxQuery(userId)
+                .limit(pageSize)
+                .addSnapshotListener(listener);
+    }
+
+    /**
+     * Retrieves one page of a user's notifications older than a given one.
+     *
+     * @param userId     the ID of the user whose notifications to retrieve
+     * @param startAfter the oldest notification already loaded; the page starts after it
+     * @param pageSize   the maximum number of notifications to return
+     * @param listener   the OnCompleteListener callback that handles the query result
+     */
+    public void getNotificationsPage(String userId, DocumentSnapshot startAfter, int pageSize,
+                                     OnCompleteListener<QuerySnapshot> listener) {
+        inboxQuery(userId)
+                .startAfter(startAfter)
+                .limit(pageSize)
+                .get()
+                .addOnCompleteListener(listener);
+    }
+
+    /**
+     * Builds the query of a user's inbox, most recent first.
+     *
+     * @param userId the ID of the user
+     * @return the inbox query
+     */
+    private Query inboxQuery(String userId) {
         return notificationCollection
                 .whereEqualTo("userId", userId)
-                .orderBy("timestamp", Query.Direction.DESCENDING)
-                .addSnapshotListener((querySnapshot, e) -> {
-                    if (e != null || querySnapshot == null) return;
-                    List<Notification> notifications = querySnapshot.toObjects(Notification.class);
-                    callback.onUpdate(notifications);
+                .orderBy("timestamp", Query.Direction.DESCENDING);
+    }
+
+    /**
+     * Sets up a real-time listener on a user's unread counter.
+     *
+     * @param userId   the ID of the user to listen for
+     * @param callback callback invoked with the number of unread notifications
+     * @return the ListenerRegistration object which can be used to remove the listener
+     */
+    public ListenerRegistration listenUnreadCount(String userId, UnreadCountCallback callback) {
+        return counterCollection.document(userId)
+                .addSnapshotListener((snapshot, e) -> {
+                    if (e != null || snapshot == null) return;
+                    Long unread = snapshot.getLong(UNREAD_FIELD);
+                    callback.onUpdate(unread != null ? (int) Math.max(unread, 0) : 0);
                 });
     }
 
     /**
-     * Callback interface for receiving updates when notifications change in Firestore.
+     * Marks every unread notification of a user as read.
+     * <p>
+     * The notifications are updated in atomic batches of up to
+     * {@value #NOTIFICATIONS_PER_BATCH}. Each batch also decrements the counter by
+     * the number of notifications it marks, so a failed batch leaves both its
+     * notifications and the counter unchanged, and notifications that arrive
+     * meanwhile stay counted.
+     * </p>
+     *
+     * <p>The call is safe to repeat. A call made while another is running for
+     * the same user joins it instead of decrementing the same notifications
+     * again. Once every batch is written, the counter is set to the number of
+     * unread notifications counted on the server, which corrects any drift left
+     * by calls from another device. A notification that arrives between that
+     * count and the write is left out until the next call.</p>
+     *
+     * @param userId   the ID of the user
+     * @param listener the OnCompleteListener callback that handles the operation result
+     */
+    public void markAllRead(String userId, OnCompleteListener<Void> listener) {
+        Task<Void> running = markingRead.get(userId);
+        if (running == null) {
+            Query unreadQuery = notificationCollection
+                    .whereEqualTo("userId", userId)
+                    .whereEqualTo("read", false);
+            DocumentReference counter = counterCollection.document(userId);
+
+            running = unreadQuery.get()
+                    .continueWithTask(task -> {
+                        if (!task.isSuccessful()) {
+                            throw task.getException() != null ? task.getException() : new Exception("Failed to load unread notifications");
+                        }
+                        List<Task<Void>> batches = new ArrayList<>();
+                        for (List<DocumentSnapshot> chunk : ListUtil.chunk(task.getResult().getDocuments(), NOTIFICATIONS_PER_BATCH)) {
+                            WriteBatch batch = FirebaseFirestore.getInstance().batch();
+                            for (DocumentSnapshot doc : chunk) {
+                                batch.update(doc.getReference(), "read", true);
+                            }
+                            batch.set(counter, Collections.singletonMap(UNREAD_FIELD, FieldValue.increment(-chunk.size())), SetOptions.merge());
+                            batches.add(batch.commit());
+                        }
+                        return Tasks.whenAll(batches);
+                    })
+                    .onSuccessTask(done -> unreadQuery.count().get(AggregateSource.SERVER))
+                    .onSuccessTask(count -> counter.set(Collections.singletonMap(UNREAD_FIELD, count.getCount()), SetOptions.merge()));
+            markingRead.put(userId, running);
+            running.addOnCompleteListener(task -> markingRead.remove(userId));
+        }
+        running.addOnCompleteListener(listener);
+    }
+
+    /**
+     * Callback interface for receiving updates of a user's unread counter.
      */
-    public interface NotificationsCallback {
+    public interface UnreadCountCallback {
         /**
-         * Called when the list of notifications is updated.
+         * Called when the number of unread notifications changes.
          *
-         * @param notifications the updated list of notifications
+         * @param unread the number of unread notifications
          */
-        void onUpdate(List<Notification> notifications);
+        void onUpdate(int unread);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,227 @@
+package com.example.icetea.models;
+
+import com.example.icetea.core.ChunkedCommitter;
+import com.example.icetea.util.Callback;
+import com.google.firebase.Timestamp;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Sends the same notification to many users with a bounded number of requests.
+ * <p>
+ * Recipients are de-duplicated and split into chunks of
+ * {@value #RECIPIENTS_PER_CHUNK}. For each chunk, the recipients' notification
+ * settings are read from the preference index with one
+ * {@link UserStore#getNotificationPreferences} call, and the notifications of the users
+ * who have them turned on are written with one {@link NotificationStore#addNotifications}
+ * call. Full user documents are loaded only for users missing from the index. At most {@code parallelism} chunks are in flight at once, and a chunk
+ * that failed with a transient error is retried before it is counted as failed.
+ * </p>
+ *
+ * <p>Every notification of a dispatch carries the same dispatch ID, so a retried
+ * chunk rewrites the notifications it already wrote instead of adding copies.</p>
+ */
+public class NotificationDispatcher {
+
+    /** Number of recipients handled per chunk; one Firestore batch of notifications */
+    public static final int RECIPIENTS_PER_CHUNK = BatchWriter.MAX_OPERATIONS_PER_BATCH;
+
+    /** Default number of chunks in flight */
+    public static final int DEFAULT_PARALLELISM = 4;
+
+    /** Number of attempts per chunk */
+    private static final int MAX_ATTEMPTS = 2;
+
+    /**
+     * Outcome of a dispatch.
+     */
+    public static class Result {
+
+        /** IDs of the users the notification was written for */
+        private final List<String> sentUserIds;
+
+        /** Number of users skipped because their notifications are off */
+        private final int skippedDisabled;
+
+        /** Number of users that could not be loaded or notified */
+        private final int failed;
+
+        /** Failure of the first chunk given up on, or null */
+        private final Exception failure;
+
+        /**
+         * Creates a result.
+         *
+         * @param sentUserIds     IDs of the users the notification was written for
+         * @param skippedDisabled Number of users skipped because their notifications are off
+         * @param failed          Number of users that could not be loaded or notified
+         * @param failure         Failure of the first chunk given up on, or null
+         */
+        public Result(List<String> sentUserIds, int skippedDisabled, int failed, Exception failure) {
+            this.sentUserIds = Collections.unmodifiableList(sentUserIds);
+            this.skippedDisabled = skippedDisabled;
+            this.failed = failed;
+            this.failure = failure;
+        }
+
+        /**
+         * @return IDs of the users the notification was written for
+         */
+        public List<String> getSentUserIds() {
+            return sentUserIds;
+        }
+
+        /**
+         * @return Number of users the notification was written for
+         */
+        public int getSent() {
+            return sentUserIds.size();
+        }
+
+        /**
+         * @return Number of users skipped because their notifications are off
+         */
+        public int getSkippedDisabled() {
+            return skippedDisabled;
+        }
+
+        /**
+         * @return Number of users that could not be loaded or notified
+         */
+        public int getFailed() {
+            return failed;
+        }
+
+        /**
+         * @return Failure of the first chunk that could not be written, for the caller
+         *         to report, or null if every chunk was written
+         */
+        public Exception getFailure() {
+            return failure;
+        }
+    }
+
+    /** Maximum number of chunks in flight */
+    private final int parallelism;
+
+    /**
+     * Creates a dispatcher with the default parallelism.
+     */
+    public NotificationDispatcher() {
+        this(DEFAULT_PARALLELISM);
+    }
+
+    /**
+     * Creates a dispatcher.
+     *
+     * @param parallelism Maximum number of chunks in flight; at least 1
+     */
+    public NotificationDispatcher(int parallelism) {
+        this.parallelism = parallelism;
+    }
+
+    /**
+     * Sends a notification to every given user who has notifications turned on.
+     * Users that do not exist count as failed.
+     *
+     * @param userIds  IDs of the recipients; duplicates and nulls are ignored
+     * @param title    Notification title
+     * @param message  Notification message
+     * @param eventId  ID of the related event
+     * @param callback Callback invoked with the result; never fails
+     */
+    public void dispatch(Collection<String> userIds, String title, String message, String eventId,
+                         Callback<Result> callback) {
+        LinkedHashSet<String> unique = new LinkedHashSet<>(userIds);
+        unique.remove(null);
+
+        List<String> sentUserIds = new ArrayList<>();
+        int[] skipped = {0};
+        Object lock = new Object();
+        Timestamp timestamp = Timestamp.now();
+        String dispatchId = UUID.randomUUID().toString();
+
+        new ChunkedCommitter<String>(RECIPIENTS_PER_CHUNK, parallelism, MAX_ATTEMPTS, BatchWriter::isTransient).commit(
+                new ArrayList<>(unique),
+                (chunk, onDone) -> Stores.users().getNotificationPreferences(chunk, new Callback<Map<String, Boolean>>() {
+                    @Override
+                    public void onSuccess(Map<String, Boolean> preferences) {
+                        List<Notification> notifications = new ArrayList<>();
+                        List<String> recipients = new ArrayList<>();
+                        int disabled = 0;
+                        for (String userId : chunk) {
+                            Boolean enabled = preferences.get(userId);
+                            if (enabled == null) {
+                                // No such user; counted as missing rather than notified
+                                continue;
+                            }
+                            if (!enabled) {
+                                disabled++;
+                                continue;
+                            }
+                            notifications.add(newNotification(dispatchId, userId, title, message, eventId, timestamp));
+                            recipients.add(userId);
+                        }
+                        int chunkDisabled = disabled;
+
+                        Stores.notifications().addNotifications(notifications, new Callback<Void>() {
+                            @Override
+                            public void onSuccess(Void result) {
+                                synchronized (lock) {
+                                    sentUserIds.addAll(recipients);
+                                    skipped[0] += chunkDisabled;
+                                }
+                                onDone.accept(null);
+                            }
+
+                            @Override
+                            public void onFailure(Exception e) {
+                                onDone.accept(e);
+                            }
+                        });
+                    }
+
+                    @Override
+                    public void onFailure(Exception e) {
+                        onDone.accept(e);
+                    }
+                }),
+                new ChunkedCommitter.Listener() {
+                    @Override
+                    public void onProgress(int committed, int total) {
+                    }
+
+                    @Override
+                    public void onComplete(int committed, int total, Exception failure) {
+                        Result result;
+                        synchronized (lock) {
+                            // Every recipient of a successful chunk was either sent to, skipped or missing
+                            int missing = committed - sentUserIds.size() - skipped[0];
+                            result = new Result(new ArrayList<>(sentUserIds), skipped[0], (total - committed) + missing, failure);
+                        }
+                        callback.onSuccess(result);
+                    }
+                });
+    }
+
+    /**
+     * Builds a notification for one recipient.
+     */
+    private static Notification newNotification(String dispatchId, String userId, String title, String message,
+                                                String eventId, Timestamp timestamp) {
+        Notification notification = new Notification();
+        notification.setDispatchId(dispatchId);
+        notification.setUserId(userId);
+        notification.setTitle(title);
+        notification.setMessage(message);
+        notification.setEventId(eventId);
+        notification.setTimestamp(timestamp);
+        return notification;
+    }
+}
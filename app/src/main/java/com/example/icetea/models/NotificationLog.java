@@ -32,6 +32,15 @@ public class NotificationLog {
     /** The timestamp when this notification was created */
     private Timestamp timestamp;
 
+    /** Number of recipients the notification was delivered to, or null if not recorded */
+    private Integer sentCount;
+
+    /** Number of recipients skipped because they turned notifications off, or null if not recorded */
+    private Integer skippedCount;
+
+    /** Number of recipients the notification could not be delivered to, or null if not recorded */
+    private Integer failedCount;
+
     /**
      * Required empty constructor for Firestore deserialization
      */
@@ -118,4 +127,34 @@ public class NotificationLog {
     public void setStatuses(List<String> statuses) {
         this.statuses = statuses;
     }
-}
\ No newline at end of file
+
+    /** @return Number of recipients the notification was delivered to, or null if not recorded */
+    public Integer getSentCount() {
+        return sentCount;
+    }
+
+    /** @param sentCount Number of recipients the notification was delivered to */
+    public void setSentCount(Integer sentCount) {
+        this.sentCount = sentCount;
+    }
+
+    /** @return Number of recipients skipped because notifications were off, or null if not recorded */
+    public Integer getSkippedCount() {
+        return skippedCount;
+    }
+
+    /** @param skippedCount Number of recipients skipped because notifications were off */
+    public void setSkippedCount(Integer skippedCount) {
+        this.skippedCount = skippedCount;
+    }
+
+    /** @return Number of recipients the notification could not be delivered to, or null if not recorded */
+    public Integer getFailedCount() {
+        return failedCount;
+    }
+
+    /** @param failedCount Number of recipients the notification could not be delivered to */
+    public void setFailedCount(Integer failedCount) {
+        this.failedCount = failedCount;
+    }
+}
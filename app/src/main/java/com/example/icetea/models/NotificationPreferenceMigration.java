@@ -0,0 +1,133 @@
+package com.example.icetea.models;
+
+import android.util.Log;
+
+import com.google.android.gms.tasks.Task;
+import com.google.android.gms.tasks.TaskCompletionSource;
+import com.google.android.gms.tasks.Tasks;
+import com.google.firebase.firestore.AggregateQuerySnapshot;
+import com.google.firebase.firestore.AggregateSource;
+import com.google.firebase.firestore.DocumentSnapshot;
+import com.google.firebase.firestore.Query;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Background job that adds users created before the notification preference
+ * index existed to the index.
+ * <p>
+ * Until a user is indexed, either by this job or when they next open the app,
+ * notification fan-out has to read their user document instead. The job first
+ * compares the number of users with the number of index entries, two cheap
+ * count queries, and stops if every user is indexed. Otherwise it pages through
+ * the users and writes an index entry for each user of a page that has none.
+ * Entries that already exist are never overwritten. The job can therefore stop
+ * at any point and start again from the beginning.
+ * </p>
+ */
+public class NotificationPreferenceMigration {
+
+    private static final String TAG = "PreferenceMigration";
+
+    /** Number of users indexed per page; within one whereIn lookup of the index */
+    static final int PAGE_SIZE = 20;
+
+    /** The singleton instance of NotificationPreferenceMigration */
+    private static NotificationPreferenceMigration instance;
+
+    /** Whether the job is running; only touched on the main thread */
+    private boolean running;
+
+    /**
+     * Private constructor to enforce singleton pattern.
+     */
+    private NotificationPreferenceMigration() {
+    }
+
+    /**
+     * Retrieves the singleton instance of NotificationPreferenceMigration.
+     *
+     * @return NotificationPreferenceMigration instance
+     */
+    public static NotificationPreferenceMigration getInstance() {
+        if (instance == null) {
+            instance = new NotificationPreferenceMigration();
+        }
+        return instance;
+    }
+
+    /**
+     * Starts indexing the users that are not indexed yet, unless the job is
+     * already running. A job that fails stops and is picked up again by the next call.
+     */
+    public void start() {
+        if (running) return;
+        running = true;
+
+        UserDB userDB = UserDB.getInstance();
+        Task<AggregateQuerySnapshot> users = userDB.allUsers().count().get(AggregateSource.SERVER);
+        Task<AggregateQuerySnapshot> indexed = userDB.allNotificationPreferences().count().get(AggregateSource.SERVER);
+        Tasks.whenAllSuccess(users, indexed)
+                .onSuccessTask(counts -> users.getResult().getCount() > indexed.getResult().getCount()
+                        ? migrate(null) : Tasks.forResult(null))
+                .addOnCompleteListener(task -> {
+                    running = false;
+                    if (!task.isSuccessful()) {
+                        Log.e(TAG, "Notification preference migration stopped", task.getException());
+                    }
+                });
+    }
+
+    /**
+     * Indexes the users after a given one page by page until none are left.
+     */
+    private Task<Void> migrate(DocumentSnapshot after) {
+        Query page = UserDB.getInstance().allUsers().limit(PAGE_SIZE);
+        if (after != null) {
+            page = page.startAfter(after);
+        }
+        return page.get().onSuccessTask(users -> {
+            List<DocumentSnapshot> docs = users.getDocuments();
+            if (docs.isEmpty()) {
+                return Tasks.forResult(null);
+            }
+            return index(docs).onSuccessTask(v ->
+                    docs.size() < PAGE_SIZE ? Tasks.forResult(null) : migrate(docs.get(docs.size() - 1)));
+        });
+    }
+
+    /**
+     * Writes the index entries of the users of a page that have none.
+     */
+    private Task<Void> index(List<DocumentSnapshot> users) {
+        Map<String, Boolean> settings = new HashMap<>();
+        for (DocumentSnapshot doc : users) {
+            settings.put(doc.getId(), Boolean.TRUE.equals(doc.getBoolean(UserDB.NOTIFICATIONS_FIELD)));
+        }
+
+        TaskCompletionSource<Void> result = new TaskCompletionSource<>();
+        UserDB.getInstance().getNotificationPreferences(settings.keySet(), task -> {
+            if (!task.isSuccessful() || task.getResult() == null) {
+                result.setException(task.getException() != null
+                        ? task.getException() : new Exception("Failed to load notification preferences"));
+                return;
+            }
+            settings.keySet().removeAll(task.getResult().keySet());
+            if (settings.isEmpty()) {
+                result.setResult(null);
+                return;
+            }
+            UserDB.getInstance().setNotificationPreferences(settings, writeTask -> {
+                if (writeTask.isSuccessful()) {
+                    result.setResult(null);
+                } else {
+                    result.setException(writeTask.getException() != null
+                            ? writeTask.getException() : new Exception("Failed to index notification preferences"));
+                }
+            });
+        });
+        return result.getTask();
+    }
+}
@@ -0,0 +1,52 @@
+package com.example.icetea.models;
+
+import com.example.icetea.util.Callback;
+
+import java.util.List;
+
+/**
+ * Storage operations on user notifications and the organizer notification log,
+ * independent of the backing database.
+ */
+public interface NotificationStore {
+
+    /**
+     * Stores a notification for its user.
+     *
+     * @param notification The notification to store
+     * @param callback     Callback invoked on success or failure
+     */
+    void addNotification(Notification notification, Callback<Void> callback);
+
+    /**
+     * Adds several notifications. Implementations may split large lists into
+     * several atomic writes.
+     *
+     * @param notifications The notifications to add
+     * @param callback      Callback invoked on success or failure
+     */
+    void addNotifications(List<Notification> notifications, Callback<Void> callback);
+
+    /**
+     * Retrieves a user's notifications, most recent first.
+     *
+     * @param userId   ID of the user
+     * @param callback Callback invoked with the notifications
+     */
+    void getNotificationsForUser(String userId, Callback<List<Notification>> callback);
+
+    /**
+     * Records a notification sent by an organizer.
+     *
+     * @param log      The log entry to store
+     * @param callback Callback invoked on success or failure
+     */
+    void addNotificationLog(NotificationLog log, Callback<Void> callback);
+
+    /**
+     * Retrieves every notification log entry.
+     *
+     * @param callback Callback invoked with the log entries
+     */
+    void getAllNotificationLogs(Callback<List<NotificationLog>> callback);
+}
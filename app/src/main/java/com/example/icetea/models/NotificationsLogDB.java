@@ -8,7 +8,7 @@ import com.google.firebase.firestore.QuerySnapshot;
 /**
  * Singleton class that provides database access for notification logs using Firebase Firestore.
  * <p>
- * This class handles retrieval of all notifications stored in the 'notificationsLog' collection.
+ * This class handles storing and retrieving the notifications in the 'notificationsLog' collection.
  * </p>
  *
  * <p>Firestore Collection Path: /notificationsLog/{autoId}</p>
@@ -49,4 +49,16 @@ public class NotificationsLogDB {
     public void getAllNotifications(OnCompleteListener<QuerySnapshot> listener) {
         notificationsCollection.get().addOnCompleteListener(listener);
     }
-}
\ No newline at end of file
+
+    /**
+     * Adds a notification log entry with an auto-generated ID.
+     *
+     * @param log      The {@link NotificationLog} to store
+     * @param listener {@link OnCompleteListener} called when the write completes
+     */
+    public void addNotificationLog(NotificationLog log, OnCompleteListener<Void> listener) {
+        notificationsCollection.document()
+                .set(log)
+                .addOnCompleteListener(listener);
+    }
+}
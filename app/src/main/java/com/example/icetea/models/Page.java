@@ -0,0 +1,60 @@
+package com.example.icetea.models;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * One page of results from a paged store query.
+ * <p>
+ * The page token is opaque to callers: pass it back to the same query to fetch
+ * the following page. A null token means there are no more pages.
+ * </p>
+ *
+ * @param <T> Item type
+ */
+public class Page<T> {
+
+    /** Items on this page */
+    private final List<T> items;
+
+    /** Token of the next page, or null if this is the last page */
+    private final String nextPageToken;
+
+    /**
+     * Creates a page.
+     *
+     * @param items         Items on this page
+     * @param nextPageToken Token of the next page, or null if this is the last page
+     */
+    public Page(List<T> items, String nextPageToken) {
+        this.items = items != null ? items : Collections.emptyList();
+        this.nextPageToken = nextPageToken;
+    }
+
+    /**
+     * Returns the items on this page.
+     *
+     * @return Items in query order
+     */
+    public List<T> getItems() {
+        return items;
+    }
+
+    /**
+     * Returns the token of the next page.
+     *
+     * @return Token to pass to the next query, or null if this is the last page
+     */
+    public String getNextPageToken() {
+        return nextPageToken;
+    }
+
+    /**
+     * Returns whether there are more pages after this one.
+     *
+     * @return True if {@link #getNextPageToken()} is not null
+     */
+    public boolean hasNextPage() {
+        return nextPageToken != null;
+    }
+}
@@ -0,0 +1,233 @@
+package com.example.icetea.models;
+
+import com.example.icetea.util.ImageUtil;
+import com.google.android.gms.tasks.OnCompleteListener;
+import com.google.android.gms.tasks.Task;
+import com.google.android.gms.tasks.Tasks;
+import com.google.firebase.firestore.Blob;
+import com.google.firebase.firestore.CollectionReference;
+import com.google.firebase.firestore.DocumentReference;
+import com.google.firebase.firestore.DocumentSnapshot;
+import com.google.firebase.firestore.FirebaseFirestore;
+import com.google.firebase.firestore.Query;
+import com.google.firebase.firestore.QuerySnapshot;
+import com.google.firebase.firestore.WriteBatch;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+
+/**
+ * Singleton class that provides access to event posters in Firestore.
+ * <p>
+ * Posters are kept out of the event documents so that event lists do not
+ * download them. Each poster is stored twice: a small thumbnail for lists and
+ * grids, and the full image for the event's own screens. The two variants live
+ * in separate collections because Firestore always reads whole documents.
+ * <p>
+ * Firestore structure assumed:
+ * <ul>
+ *     <li>Collections: posterThumbnails, posters</li>
+ *     <li>Document ID: poster ID, which is the ID of the event</li>
+ *     <li>Fields: eventId, image (Blob); posters stored before images became
+ *     Blobs hold a Base64 string in data instead</li>
+ * </ul>
+ */
+public class PosterDB {
+
+    /** Maximum width and height of a thumbnail in pixels */
+    public static final int THUMBNAIL_SIZE = 320;
+
+    /** Field holding the encoded image of a variant as a Blob */
+    public static final String IMAGE_FIELD = "image";
+
+    /** Field holding the image of a variant as a Base64 string, in posters saved before {@link #IMAGE_FIELD} */
+    public static final String DATA_FIELD = "data";
+
+    /** Field holding the ID of the event a poster belongs to */
+    public static final String EVENT_ID_FIELD = "eventId";
+
+    /** The singleton instance of PosterDB */
+    private static PosterDB instance;
+
+    /** Firestore collection reference for thumbnails */
+    private final CollectionReference thumbnailsCollection;
+
+    /** Firestore collection reference for full posters */
+    private final CollectionReference postersCollection;
+
+    /** Executor that makes thumbnails off the main thread */
+    private final Executor executor = Executors.newSingleThreadExecutor();
+
+    /**
+     * Both variants of a poster, encoded and ready to store.
+     */
+    public static class PreparedPoster {
+
+        private final Blob full;
+        private final Blob thumbnail;
+
+        PreparedPoster(byte[] full, byte[] thumbnail) {
+            this.full = Blob.fromBytes(full);
+            this.thumbnail = Blob.fromBytes(thumbnail);
+        }
+    }
+
+    /**
+     * Private constructor to enforce singleton pattern.
+     * Initializes Firestore collection references.
+     */
+    private PosterDB() {
+        FirebaseFirestore db = FirebaseFirestore.getInstance();
+        thumbnailsCollection = db.collection("posterThumbnails");
+        postersCollection = db.collection("posters");
+    }
+
+    /**
+     * Retrieves the singleton instance of PosterDB.
+     *
+     * @return PosterDB instance
+     */
+    public static PosterDB getInstance() {
+        if (instance == null) {
+            instance = new PosterDB();
+        }
+        return instance;
+    }
+
+    /**
+     * Decodes a poster stored as Base64 and makes its thumbnail on a background thread.
+     *
+     * @param posterBase64 The full poster as a Base64 string
+     * @return Task with both variants; fails if the poster cannot be decoded
+     */
+    public Task<PreparedPoster> prepare(String posterBase64) {
+        return Tasks.call(executor, () -> {
+            byte[] full = ImageUtil.toBytes(null, posterBase64);
+            return variants(full, ImageUtil.thumbnailBytes(full, THUMBNAIL_SIZE));
+        });
+    }
+
+    /**
+     * Pairs an encoded poster with its thumbnail, making the thumbnail on a
+     * background thread if the caller has none.
+     *
+     * @param full      The encoded poster
+     * @param thumbnail Its encoded thumbnail, at most {@link #THUMBNAIL_SIZE} pixels wide and high, or null
+     * @return Task with both variants; fails if the poster cannot be decoded
+     */
+    public Task<PreparedPoster> prepare(byte[] full, byte[] thumbnail) {
+        if (full != null && thumbnail != null) {
+            return Tasks.forResult(new PreparedPoster(full, thumbnail));
+        }
+        return Tasks.call(executor, () -> variants(full, ImageUtil.thumbnailBytes(full, THUMBNAIL_SIZE)));
+    }
+
+    private static PreparedPoster variants(byte[] full, byte[] thumbnail) {
+        if (full == null || thumbnail == null) {
+            throw new IllegalArgumentException("Poster image could not be read");
+        }
+        return new PreparedPoster(full, thumbnail);
+    }
+
+    /**
+     * Adds the writes that store both variants of a poster to a batch.
+     *
+     * @param batch    The batch to add the writes to
+     * @param posterId The poster ID
+     * @param eventId  The ID of the event the poster belongs to
+     * @param poster   Both variants of the poster
+     */
+    public void putPoster(WriteBatch batch, String posterId, String eventId, PreparedPoster poster) {
+        batch.set(thumbnailsCollection.document(posterId), variant(eventId, poster.thumbnail));
+        batch.set(postersCollection.document(posterId), variant(eventId, poster.full));
+    }
+
+    /**
+     * Adds the writes that delete both variants of a poster to a batch.
+     *
+     * @param batch    The batch to add the writes to
+     * @param posterId The poster ID
+     */
+    public void deletePoster(WriteBatch batch, String posterId) {
+        batch.delete(thumbnailsCollection.document(posterId));
+        batch.delete(postersCollection.document(posterId));
+    }
+
+    /**
+     * Returns the references of both variants of a poster, for callers that
+     * delete them through a {@link BatchWriter}.
+     *
+     * @param posterId The poster ID
+     * @return The thumbnail and full poster references
+     */
+    public DocumentReference[] posterRefs(String posterId) {
+        return new DocumentReference[]{thumbnailsCollection.document(posterId), postersCollection.document(posterId)};
+    }
+
+    /**
+     * Retrieves the thumbnail of a poster.
+     *
+     * @param posterId The poster ID
+     * @param listener Listener to handle the resulting DocumentSnapshot; see {@link #imageBytes}
+     */
+    public void getThumbnail(String posterId, OnCompleteListener<DocumentSnapshot> listener) {
+        thumbnailsCollection.document(posterId)
+                .get()
+                .addOnCompleteListener(listener);
+    }
+
+    /**
+     * Retrieves the full poster.
+     *
+     * @param posterId The poster ID
+     * @param listener Listener to handle the resulting DocumentSnapshot; see {@link #imageBytes}
+     */
+    public void getFullPoster(String posterId, OnCompleteListener<DocumentSnapshot> listener) {
+        postersCollection.document(posterId)
+                .get()
+                .addOnCompleteListener(listener);
+    }
+
+    /**
+     * Retrieves the thumbnails of all posters.
+     *
+     * @param listener Listener to handle the resulting QuerySnapshot
+     */
+    public void getAllThumbnails(OnCompleteListener<QuerySnapshot> listener) {
+        thumbnailsCollection
+                .get()
+                .addOnCompleteListener(listener);
+    }
+
+    /**
+     * Returns the queries for thumbnails and full posters whose image is still
+     * stored as a Base64 string.
+     *
+     * @return One query per variant collection
+     */
+    Query[] variantsWithBase64() {
+        return new Query[]{
+                thumbnailsCollection.whereGreaterThan(DATA_FIELD, ""),
+                postersCollection.whereGreaterThan(DATA_FIELD, "")
+        };
+    }
+
+    /**
+     * Returns the encoded image of a variant, whether stored as a Blob or as Base64.
+     *
+     * @param doc A thumbnail or full poster document
+     * @return The encoded image, or null if the document has none
+     */
+    public static byte[] imageBytes(DocumentSnapshot doc) {
+        return ImageUtil.toBytes(doc.getBlob(IMAGE_FIELD), doc.getString(DATA_FIELD));
+    }
+
+    private static Map<String, Object> variant(String eventId, Blob image) {
+        Map<String, Object> fields = new HashMap<>();
+        fields.put(EVENT_ID_FIELD, eventId);
+        fields.put(IMAGE_FIELD, image);
+        return fields;
+    }
+}
@@ -0,0 +1,96 @@
+package com.example.icetea.models;
+
+/**
+ * Registry of the storage implementations used by the controllers.
+ * <p>
+ * Defaults to {@link FirestoreStore}. Tests and benchmarks can install another
+ * implementation, such as {@link InMemoryStore}, and restore the default with
+ * {@link #reset()} afterwards.
+ * </p>
+ */
+public final class Stores {
+
+    /** Store used for events */
+    private static EventStore eventStore;
+
+    /** Store used for waitlist entries */
+    private static WaitlistStore waitlistStore;
+
+    /** Store used for users */
+    private static UserStore userStore;
+
+    /** Store used for notifications and notification logs */
+    private static NotificationStore notificationStore;
+
+    private Stores() {
+    }
+
+    /**
+     * Returns the event store.
+     *
+     * @return the installed EventStore, or the Firestore one by default
+     */
+    public static synchronized EventStore events() {
+        return eventStore != null ? eventStore : FirestoreStore.getInstance();
+    }
+
+    /**
+     * Returns the waitlist store.
+     *
+     * @return the installed WaitlistStore, or the Firestore one by default
+     */
+    public static synchronized WaitlistStore waitlist() {
+        return waitlistStore != null ? waitlistStore : FirestoreStore.getInstance();
+    }
+
+    /**
+     * Returns the user store.
+     *
+     * @return the installed UserStore, or the Firestore one by default
+     */
+    public static synchronized UserStore users() {
+        return userStore != null ? userStore : FirestoreStore.getInstance();
+    }
+
+    /**
+     * Returns the notification store.
+     *
+     * @return the installed NotificationStore, or the Firestore one by default
+     */
+    public static synchronized NotificationStore notifications() {
+        return notificationStore != null ? notificationStore : FirestoreStore.getInstance();
+    }
+
+    /**
+     * Installs the given stores in place of the defaults.
+     *
+     * @param events        store for events
+     * @param waitlist      store for waitlist entries
+     * @param users         store for users
+     * @param notifications store for notifications
+     */
+    public static synchronized void use(EventStore events, WaitlistStore waitlist,
+                                        UserStore users, NotificationStore notifications) {
+        eventStore = events;
+        waitlistStore = waitlist;
+        userStore = users;
+        notificationStore = notifications;
+        EventRepository.getInstance().clear();
+    }
+
+    /**
+     * Installs one in-memory store for all data.
+     *
+     * @param store the in-memory store
+     */
+    public static void use(InMemoryStore store) {
+        use(store, store, store, store);
+    }
+
+    /**
+     * Restores the Firestore stores.
+     */
+    public static void reset() {
+        use(null, null, null, null);
+    }
+}
@@ -1,5 +1,7 @@
 package com.example.icetea.models;
 
+import com.google.firebase.firestore.Blob;
+
 /**
  * Model class representing a User in the application.
  * <p>
@@ -27,9 +29,15 @@ public class User {
     /** Flag indicating if the user has enabled notifications */
     private boolean notifications;
 
-    /** Base64-encoded string representing the user's avatar image */
+    /** Base64-encoded avatar image, as stored before avatars became Blobs */
     private String avatar;
 
+    /** Encoded avatar image */
+    private Blob avatarImage;
+
+    /** Number of times the avatar was replaced or removed, so cached copies can tell it changed */
+    private Long avatarVersion;
+
     /**
      * Default constructor required by Firestore and serialization frameworks.
      */
@@ -144,4 +152,40 @@ public class User {
     public void setAvatar(String avatar) {
         this.avatar = avatar;
     }
+
+    /**
+     * Returns the user's encoded avatar image.
+     *
+     * @return Avatar as a Blob, or null if not set or still stored as Base64
+     */
+    public Blob getAvatarImage() {
+        return avatarImage;
+    }
+
+    /**
+     * Sets the user's encoded avatar image.
+     *
+     * @param avatarImage Avatar as a Blob
+     */
+    public void setAvatarImage(Blob avatarImage) {
+        this.avatarImage = avatarImage;
+    }
+
+    /**
+     * Returns the version of the user's avatar.
+     *
+     * @return Avatar version, or null if the avatar was never changed
+     */
+    public Long getAvatarVersion() {
+        return avatarVersion;
+    }
+
+    /**
+     * Sets the version of the user's avatar.
+     *
+     * @param avatarVersion Avatar version
+     */
+    public void setAvatarVersion(Long avatarVersion) {
+        this.avatarVersion = avatarVersion;
+    }
 }
\ No newline at end of file
@@ -1,12 +1,27 @@
 package com.example.icetea.models;
 
+import com.example.icetea.util.ImageUtil;
+import com.example.icetea.util.ListUtil;
 import com.google.android.gms.tasks.OnCompleteListener;
+import com.google.android.gms.tasks.Task;
+import com.google.android.gms.tasks.TaskCompletionSource;
+import com.google.android.gms.tasks.Tasks;
+import com.google.firebase.firestore.Blob;
 import com.google.firebase.firestore.CollectionReference;
 import com.google.firebase.firestore.DocumentSnapshot;
+import com.google.firebase.firestore.FieldPath;
+import com.google.firebase.firestore.FieldValue;
 import com.google.firebase.firestore.FirebaseFirestore;
+import com.google.firebase.firestore.Query;
 import com.google.firebase.firestore.QuerySnapshot;
+import com.google.firebase.firestore.WriteBatch;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 
 /**
  * Singleton class that provides database access for User objects using Firebase Firestore.
@@ -16,21 +31,49 @@ import java.util.HashMap;
  * </p>
  *
  * <p>Firestore Collection Path: /users/{userId}</p>
+ *
+ * <p>Each user's notification setting is also kept in a small index document,
+ * /notificationPreferences/{userId} with a single {@code enabled} field, so that
+ * notification fan-out can check the setting without downloading user documents
+ * and their avatars. {@link #createUser} and {@link #updateUser} keep the index in
+ * step with the user document.</p>
  */
 public class UserDB {
 
+    /** Maximum number of values Firestore accepts in a single whereIn query */
+    private static final int WHERE_IN_LIMIT = 30;
+
+    /** Name of the notification setting field in user documents */
+    static final String NOTIFICATIONS_FIELD = "notifications";
+
+    /** Name of the setting field in notification preference documents */
+    private static final String ENABLED_FIELD = "enabled";
+
+    /** Update key that replaces or removes the avatar, and the field of avatars stored as Base64 */
+    public static final String AVATAR_FIELD = "avatar";
+
+    /** Field holding the encoded avatar as a Blob */
+    public static final String AVATAR_IMAGE_FIELD = "avatarImage";
+
+    /** Field counting avatar changes, incremented by {@link #updateUser} */
+    public static final String AVATAR_VERSION_FIELD = "avatarVersion";
+
     /** Singleton instance of UserDB */
     private static UserDB instance;
 
     /** Reference to the 'users' collection in Firestore */
     private final CollectionReference usersCollection;
 
+    /** Reference to the 'notificationPreferences' collection in Firestore */
+    private final CollectionReference preferencesCollection;
+
     /**
-     * Private constructor initializes the Firestore collection reference for users.
+     * Private constructor initializes the Firestore collection references for users.
      */
     private UserDB() {
         FirebaseFirestore db = FirebaseFirestore.getInstance();
         usersCollection = db.collection("users");
+        preferencesCollection = db.collection("notificationPreferences");
     }
 
     /**
@@ -46,15 +89,17 @@ public class UserDB {
     }
 
     /**
-     * Creates a new user in Firestore.
+     * Creates a new user in Firestore, together with their notification preference.
      *
      * @param user     The {@link User} object to save
      * @param listener {@link OnCompleteListener} called when the operation completes
      */
     public void createUser(User user, OnCompleteListener<Void> listener) {
-        usersCollection.document(user.getId())
-                .set(user)
-                .addOnCompleteListener(listener);
+        WriteBatch batch = FirebaseFirestore.getInstance().batch();
+        batch.set(usersCollection.document(user.getId()), user);
+        batch.set(preferencesCollection.document(user.getId()),
+                Collections.singletonMap(ENABLED_FIELD, user.getNotifications()));
+        batch.commit().addOnCompleteListener(listener);
     }
 
     /**
@@ -69,16 +114,226 @@ public class UserDB {
                 .addOnCompleteListener(listener);
     }
 
+    /**
+     * Retrieves many users in as few round trips as possible.
+     * <p>
+     * The IDs are de-duplicated and split into chunks of at most 30, the limit
+     * for a {@code whereIn} query on the document ID. All chunks are queried in
+     * parallel and the results are merged into one map. IDs without a user
+     * document are simply absent from the map.
+     * </p>
+     *
+     * @param userIds  The user IDs to fetch
+     * @param listener {@link OnCompleteListener} called with a map of user ID to {@link User}
+     */
+    public void getUsers(Collection<String> userIds, OnCompleteListener<Map<String, User>> listener) {
+        List<String> ids = ListUtil.distinctIds(userIds);
+        if (ids.isEmpty()) {
+            listener.onComplete(Tasks.<Map<String, User>>forResult(new HashMap<>()));
+            return;
+        }
+
+        List<Task<QuerySnapshot>> chunkTasks = new ArrayList<>();
+        for (List<String> chunk : ListUtil.chunk(ids, WHERE_IN_LIMIT)) {
+            chunkTasks.add(usersCollection
+                    .whereIn(FieldPath.documentId(), chunk)
+                    .get());
+        }
+
+        Tasks.whenAllSuccess(chunkTasks)
+                .continueWith(task -> {
+                    if (!task.isSuccessful()) {
+                        throw task.getException() != null ? task.getException() : new Exception("Failed to load users");
+                    }
+                    Map<String, User> users = new HashMap<>();
+                    for (Object result : task.getResult()) {
+                        for (DocumentSnapshot doc : ((QuerySnapshot) result).getDocuments()) {
+                            User user = doc.toObject(User.class);
+                            if (user != null) {
+                                if (user.getId() == null) user.setId(doc.getId());
+                                users.put(doc.getId(), user);
+                            }
+                        }
+                    }
+                    return users;
+                })
+                .addOnCompleteListener(listener);
+    }
+
     /**
      * Updates fields of an existing user document.
+     * <p>
+     * An {@link #AVATAR_FIELD} entry holding a {@link Blob}, or a Base64 string
+     * from older callers, is stored as a Blob in {@link #AVATAR_IMAGE_FIELD};
+     * null removes the avatar. Either way any Base64 avatar is cleared and
+     * {@link #AVATAR_VERSION_FIELD} is incremented.
+     * </p>
      *
      * @param fid      The user ID to update
      * @param updates  {@link HashMap} of field names and values to update
      * @param listener {@link OnCompleteListener} called when the update completes
      */
     public void updateUser(String fid, HashMap<String, Object> updates, OnCompleteListener<Void> listener) {
-        usersCollection.document(fid)
-                .update(updates)
+        if (updates.containsKey(AVATAR_FIELD)) {
+            updates = withAvatarBlob(updates);
+        }
+        if (!updates.containsKey(NOTIFICATIONS_FIELD)) {
+            usersCollection.document(fid)
+                    .update(updates)
+                    .addOnCompleteListener(listener);
+            return;
+        }
+
+        WriteBatch batch = FirebaseFirestore.getInstance().batch();
+        batch.update(usersCollection.document(fid), updates);
+        batch.set(preferencesCollection.document(fid),
+                Collections.singletonMap(ENABLED_FIELD, Boolean.TRUE.equals(updates.get(NOTIFICATIONS_FIELD))));
+        batch.commit().addOnCompleteListener(listener);
+    }
+
+    /**
+     * Replaces the avatar entry of an update with the Blob field.
+     */
+    private static HashMap<String, Object> withAvatarBlob(HashMap<String, Object> updates) {
+        HashMap<String, Object> converted = new HashMap<>(updates);
+        Object avatar = converted.put(AVATAR_FIELD, FieldValue.delete());
+        if (avatar instanceof String) {
+            byte[] bytes = ImageUtil.toBytes(null, (String) avatar);
+            avatar = bytes != null ? Blob.fromBytes(bytes) : null;
+        }
+        converted.put(AVATAR_IMAGE_FIELD, avatar instanceof Blob ? avatar : FieldValue.delete());
+        converted.put(AVATAR_VERSION_FIELD, FieldValue.increment(1));
+        return converted;
+    }
+
+    /**
+     * Returns the key an avatar is cached under by
+     * {@link com.example.icetea.util.ImageLoader}, which changes with the avatar.
+     *
+     * @param userId        The user ID
+     * @param avatarVersion The user's avatar version; may be null
+     * @return Cache key of the avatar
+     */
+    public static String avatarKey(String userId, Long avatarVersion) {
+        return "users/" + userId + "/" + AVATAR_IMAGE_FIELD + "@" + avatarVersion;
+    }
+
+    /**
+     * Retrieves the notification setting of many users from the preference index.
+     * <p>
+     * Only the small preference documents are read, never the user documents.
+     * IDs are queried in parallel chunks of at most 30, like {@link #getUsers}.
+     * IDs without a preference document, such as users created before the index
+     * existed, are absent from the map.
+     * </p>
+     *
+     * @param userIds  The user IDs to look up
+     * @param listener {@link OnCompleteListener} called with a map of user ID to whether notifications are on
+     */
+    public void getNotificationPreferences(Collection<String> userIds, OnCompleteListener<Map<String, Boolean>> listener) {
+        List<String> ids = ListUtil.distinctIds(userIds);
+        if (ids.isEmpty()) {
+            listener.onComplete(Tasks.<Map<String, Boolean>>forResult(new HashMap<>()));
+            return;
+        }
+
+        List<Task<QuerySnapshot>> chunkTasks = new ArrayList<>();
+        for (List<String> chunk : ListUtil.chunk(ids, WHERE_IN_LIMIT)) {
+            chunkTasks.add(preferencesCollection
+                    .whereIn(FieldPath.documentId(), chunk)
+                    .get());
+        }
+
+        Tasks.whenAllSuccess(chunkTasks)
+                .continueWith(task -> {
+                    if (!task.isSuccessful()) {
+                        throw task.getException() != null ? task.getException() : new Exception("Failed to load notification preferences");
+                    }
+                    Map<String, Boolean> preferences = new HashMap<>();
+                    for (Object result : task.getResult()) {
+                        for (DocumentSnapshot doc : ((QuerySnapshot) result).getDocuments()) {
+                            preferences.put(doc.getId(), Boolean.TRUE.equals(doc.getBoolean(ENABLED_FIELD)));
+                        }
+                    }
+                    return preferences;
+                })
+                .addOnCompleteListener(listener);
+    }
+
+    /**
+     * Writes notification preference documents, for users created before the index existed.
+     * Used by {@link NotificationPreferenceMigration} and when the signed-in user is loaded.
+     *
+     * @param preferences Map of user ID to whether notifications are on
+     * @param listener    {@link OnCompleteListener} called when the writes complete
+     */
+    public void setNotificationPreferences(Map<String, Boolean> preferences, OnCompleteListener<Void> listener) {
+        BatchWriter writer = new BatchWriter(FirebaseFirestore.getInstance());
+        for (Map.Entry<String, Boolean> entry : preferences.entrySet()) {
+            writer.set(preferencesCollection.document(entry.getKey()),
+                    Collections.singletonMap(ENABLED_FIELD, Boolean.TRUE.equals(entry.getValue())));
+        }
+        writer.commit().addOnCompleteListener(listener);
+    }
+
+    /**
+     * Deletes a user along with the events they organize and their waitlist entries.
+     * <p>
+     * Each event is deleted through {@link EventDB#deleteEvent}, which also removes its
+     * waiting list, poster and counter shards and invalidates its cached copy. The user's
+     * own waitlist entries are deleted with a {@link BatchWriter}, which splits them into
+     * batches of at most 500 writes. The user document is deleted last, only once
+     * everything else is gone, so a failed delete can simply be retried.
+     * </p>
+     *
+     * @param fid      The user ID to delete
+     * @param listener {@link OnCompleteListener} called when the deletion completes
+     */
+    public void deleteUser(String fid, OnCompleteListener<Void> listener) {
+        FirebaseFirestore db = FirebaseFirestore.getInstance();
+
+        Task<QuerySnapshot> userEventsTask = db.collection("events").whereEqualTo("organizerId", fid).get();
+        Task<QuerySnapshot> waitlistsForUserTask = db.collection("waitlist").whereEqualTo("userId", fid).get();
+
+        Tasks.whenAllSuccess(userEventsTask, waitlistsForUserTask)
+                .continueWithTask(task -> {
+                    if (!task.isSuccessful()) {
+                        throw task.getException() != null ? task.getException() : new Exception("Failed to delete user");
+                    }
+                    QuerySnapshot eventsSnap = (QuerySnapshot) task.getResult().get(0);
+                    QuerySnapshot waitlistsForUserSnap = (QuerySnapshot) task.getResult().get(1);
+
+                    List<Task<Void>> deletions = new ArrayList<>();
+                    for (DocumentSnapshot doc : eventsSnap.getDocuments()) {
+                        TaskCompletionSource<Void> deleted = new TaskCompletionSource<>();
+                        EventDB.getInstance().deleteEvent(doc.getId(), eventTask -> {
+                            if (eventTask.isSuccessful()) {
+                                deleted.setResult(null);
+                            } else {
+                                deleted.setException(eventTask.getException() != null
+                                        ? eventTask.getException() : new Exception("Failed to delete event"));
+                            }
+                        });
+                        deletions.add(deleted.getTask());
+                    }
+
+                    BatchWriter writer = new BatchWriter(db);
+                    for (DocumentSnapshot doc : waitlistsForUserSnap.getDocuments()) {
+                        writer.delete(doc.getReference());
+                    }
+                    deletions.add(writer.commit());
+
+                    return Tasks.whenAll(deletions);
+                })
+                .continueWithTask(task -> {
+                    if (!task.isSuccessful()) {
+                        throw task.getException() != null ? task.getException() : new Exception("Failed to delete user");
+                    }
+                    return new BatchWriter(db)
+                            .delete(preferencesCollection.document(fid))
+                            .delete(usersCollection.document(fid))
+                            .commit();
+                })
                 .addOnCompleteListener(listener);
     }
 
@@ -93,14 +348,53 @@ public class UserDB {
     }
 
     /**
-     * Retrieves all users who have a non-empty avatar field.
+     * Returns the query for users whose avatar is still stored as a Base64 string.
      *
-     * @param listener {@link OnCompleteListener} called with the {@link QuerySnapshot} result
+     * @return Query over users with a non-empty {@link #AVATAR_FIELD}
      */
-    public void getAllUsersWithAvatar(OnCompleteListener<QuerySnapshot> listener) {
-        usersCollection
-                .whereGreaterThan("avatar", "")
-                .get()
+    Query usersWithBase64Avatar() {
+        return usersCollection.whereGreaterThan(AVATAR_FIELD, "");
+    }
+
+    /**
+     * Returns the query over all users, ordered by ID so it can be paged.
+     *
+     * @return Query over every user document
+     */
+    Query allUsers() {
+        return usersCollection.orderBy(FieldPath.documentId());
+    }
+
+    /**
+     * Returns the query over all notification preference documents.
+     *
+     * @return Query over the preference index
+     */
+    Query allNotificationPreferences() {
+        return preferencesCollection;
+    }
+
+    /**
+     * Retrieves all users who have an avatar, stored either as a Blob or as Base64.
+     *
+     * @param listener {@link OnCompleteListener} called with the user documents
+     */
+    public void getAllUsersWithAvatar(OnCompleteListener<List<DocumentSnapshot>> listener) {
+        Task<QuerySnapshot> blobs = usersCollection
+                .whereGreaterThan(AVATAR_IMAGE_FIELD, Blob.fromBytes(new byte[0]))
+                .get();
+        Task<QuerySnapshot> legacy = usersCollection
+                .whereGreaterThan(AVATAR_FIELD, "")
+                .get();
+        Tasks.whenAllSuccess(blobs, legacy)
+                .continueWith(task -> {
+                    if (!task.isSuccessful()) {
+                        throw task.getException() != null ? task.getException() : new Exception("Failed to load users");
+                    }
+                    List<DocumentSnapshot> users = new ArrayList<>(blobs.getResult().getDocuments());
+                    users.addAll(legacy.getResult().getDocuments());
+                    return users;
+                })
                 .addOnCompleteListener(listener);
     }
 }
\ No newline at end of file
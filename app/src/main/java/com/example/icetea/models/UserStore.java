@@ -0,0 +1,65 @@
+package com.example.icetea.models;
+
+import com.example.icetea.util.Callback;
+
+import java.util.Collection;
+import java.util.Map;
+
+/**
+ * Storage operations on user profiles, independent of the backing database.
+ */
+public interface UserStore {
+
+    /**
+     * Creates a new user.
+     *
+     * @param user     The user to store; its ID is used as the key
+     * @param callback Callback invoked on success or failure
+     */
+    void createUser(User user, Callback<Void> callback);
+
+    /**
+     * Retrieves a single user.
+     *
+     * @param userId   ID of the user
+     * @param callback Callback invoked with the user, or null if no profile exists
+     */
+    void getUser(String userId, Callback<User> callback);
+
+    /**
+     * Retrieves many users at once.
+     *
+     * @param userIds  IDs of the users
+     * @param callback Callback invoked with a map of user ID to user; missing users are absent
+     */
+    void getUsers(Collection<String> userIds, Callback<Map<String, User>> callback);
+
+    /**
+     * Retrieves whether each of the given users has notifications turned on,
+     * without loading full user documents.
+     * <p>
+     * Users that do not exist are absent, and callers do not notify them.
+     * </p>
+     *
+     * @param userIds  IDs of the users
+     * @param callback Callback invoked with a map of user ID to the setting
+     */
+    void getNotificationPreferences(Collection<String> userIds, Callback<Map<String, Boolean>> callback);
+
+    /**
+     * Updates fields of an existing user.
+     *
+     * @param userId   ID of the user
+     * @param updates  Map of field names to new values
+     * @param callback Callback invoked on success or failure
+     */
+    void updateUser(String userId, Map<String, Object> updates, Callback<Void> callback);
+
+    /**
+     * Deletes a user together with the events they organize and their waitlist entries.
+     *
+     * @param userId   ID of the user
+     * @param callback Callback invoked on success or failure
+     */
+    void deleteUser(String userId, Callback<Void> callback);
+}
@@ -16,6 +16,7 @@ import com.google.firebase.Timestamp;
  *     <li>status: String – status of the waitlist entry (waiting/selected/cancelled/etc.)</li>
  *     <li>latitude, longitude: Double – optional geolocation of the user</li>
  *     <li>replaced: boolean – whether the user was replaced in the waitlist</li>
+ *     <li>drawKey: Double – uniformly random number in [0, 1) assigned on joining, used to draw winners</li>
  * </ul>
  */
 public class Waitlist {
@@ -56,6 +57,12 @@ public class Waitlist {
     /** Indicates whether the user was replaced by another in the waitlist. */
     private boolean replaced;
 
+    /** Random key used to draw winners without reading the whole waitlist. */
+    private Double drawKey;
+
+    /** Time the entrant checked in at the event door, or null if they have not. */
+    private Timestamp checkedInAt;
+
     /**
      * Default constructor required for Firestore deserialization.
      */
@@ -168,6 +175,36 @@ public class Waitlist {
         this.replaced = replaced;
     }
 
+    /**
+     * @return Random draw key in [0, 1), or null for entries created before draw keys existed.
+     */
+    public Double getDrawKey() {
+        return drawKey;
+    }
+
+    /**
+     * Sets the random draw key of this waitlist entry.
+     * @param drawKey Draw key in [0, 1).
+     */
+    public void setDrawKey(Double drawKey) {
+        this.drawKey = drawKey;
+    }
+
+    /**
+     * @return Time the entrant checked in at the door, or null if they have not.
+     */
+    public Timestamp getCheckedInAt() {
+        return checkedInAt;
+    }
+
+    /**
+     * Sets the time the entrant checked in at the door.
+     * @param checkedInAt Check-in time, or null if they have not checked in.
+     */
+    public void setCheckedInAt(Timestamp checkedInAt) {
+        this.checkedInAt = checkedInAt;
+    }
+
     /**
      * @return A unique ID for this waitlist entry in the format "{userId}_{eventId}".
      */
@@ -2,36 +2,58 @@ package com.example.icetea.models;
 
 import androidx.annotation.NonNull;
 
+import com.example.icetea.core.KeyedDraw;
 import com.google.android.gms.tasks.OnCompleteListener;
+import com.google.android.gms.tasks.Task;
+import com.google.android.gms.tasks.Tasks;
+import com.google.firebase.Timestamp;
+import com.google.firebase.firestore.AggregateQuerySnapshot;
+import com.google.firebase.firestore.AggregateSource;
 import com.google.firebase.firestore.CollectionReference;
 import com.google.firebase.firestore.DocumentReference;
 import com.google.firebase.firestore.DocumentSnapshot;
 import com.google.firebase.firestore.EventListener;
-import com.google.firebase.firestore.FieldValue;
+import com.google.firebase.firestore.FieldPath;
 import com.google.firebase.firestore.FirebaseFirestore;
+import com.google.firebase.firestore.FirebaseFirestoreException;
 import com.google.firebase.firestore.ListenerRegistration;
+import com.google.firebase.firestore.Query;
 import com.google.firebase.firestore.QuerySnapshot;
+import com.google.firebase.firestore.Transaction;
 import com.google.firebase.firestore.WriteBatch;
 
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
 
 /**
  * Singleton class for managing CRUD operations on Waitlist entries in Firestore.
  *
  * <p>This class handles adding, removing, updating, and retrieving waitlist entries.
- * It also updates the corresponding event's current entrants count when a user joins
- * or leaves the waitlist. All operations are performed atomically using Firestore
- * WriteBatch operations.</p>
+ * It also updates the corresponding event's sharded entrants counter (see
+ * {@link EntrantCounterDB}) when a user joins or leaves the waitlist. Joins and leaves
+ * are performed atomically in transactions that check the event still exists, and
+ * replacements using Firestore WriteBatch operations; selecting winners may span
+ * several batches (see {@link BatchWriter}).</p>
  *
  * <p>Firestore collection paths:</p>
  * <ul>
  *     <li>Waitlist: /waitlist/{userId_eventId}</li>
  *     <li>Events: /events/{eventId}</li>
+ *     <li>Entrant counter shards: /events/{eventId}/entrantShards/{shardIndex}</li>
  * </ul>
  */
 public class WaitlistDB {
 
+    /** Default number of entries fetched per page by {@link #getEntrantsByStatusPage}. */
+    public static final int DEFAULT_PAGE_SIZE = 500;
+
+    /** Field holding the time an entrant checked in at the event door. */
+    public static final String CHECKED_IN_AT_FIELD = "checkedInAt";
+
     /** Singleton instance of WaitlistDB. */
     private static WaitlistDB instance;
 
@@ -64,43 +86,169 @@ public class WaitlistDB {
     }
 
     /**
-     * Adds a user to the waitlist for an event and increments the event's current entrants count.
+     * Adds a user to the waitlist for an event and increments the event's entrant counter
+     * using the default number of shards.
      *
      * @param waitlistObj The Waitlist object containing user and event details.
      * @param listener Callback to be invoked upon completion of the operation.
      */
     public void addToWaitlist(Waitlist waitlistObj, OnCompleteListener<Void> listener) {
+        addToWaitlist(waitlistObj, WaitlistStore.DEFAULT_SHARD_COUNT, listener);
+    }
+
+    /**
+     * Adds a user to the waitlist for an event and increments one shard of the event's
+     * entrant counter. Entries without a draw key get a uniformly random one.
+     * <p>
+     * Both writes run in a transaction that reads the event document and fails with
+     * {@link FirebaseFirestoreException.Code#NOT_FOUND} if the event was deleted, so a
+     * join never recreates the counter shards of a deleted event. Joins only read the
+     * event document, so concurrent joins do not contend on it.
+     * </p>
+     *
+     * @param waitlistObj The Waitlist object containing user and event details.
+     * @param shardCount Number of shards the event's counter is spread over.
+     * @param listener Callback to be invoked upon completion of the operation.
+     */
+    public void addToWaitlist(Waitlist waitlistObj, int shardCount, OnCompleteListener<Void> listener) {
         FirebaseFirestore db = FirebaseFirestore.getInstance();
-        WriteBatch batch = db.batch();
 
-        DocumentReference waitlistRef = waitlistCollection.document(waitlistObj.getId());
-        batch.set(waitlistRef, waitlistObj);
+        if (waitlistObj.getDrawKey() == null) {
+            waitlistObj.setDrawKey(ThreadLocalRandom.current().nextDouble());
+        }
 
-        DocumentReference eventRef = eventsCollection.document(waitlistObj.getEventId());
-        batch.update(eventRef, "currentEntrants", FieldValue.increment(1));
+        DocumentReference waitlistRef = waitlistCollection.document(waitlistObj.getId());
+        String eventId = waitlistObj.getEventId();
 
-        batch.commit()
-                .addOnCompleteListener(listener);
+        db.runTransaction((Transaction.Function<Void>) transaction -> {
+                    requireEvent(transaction, eventId);
+                    transaction.set(waitlistRef, waitlistObj);
+                    EntrantCounterDB.getInstance().addIncrement(transaction, eventId, shardCount, 1);
+                    return null;
+                })
+                .addOnCompleteListener(task -> {
+                    EventRepository.getInstance().invalidate(waitlistObj.getEventId());
+                    listener.onComplete(task);
+                });
     }
 
     /**
-     * Removes a user from a waitlist and decrements the event's current entrants count.
+     * Removes a user from a waitlist and decrements the event's entrant counter
+     * using the default number of shards.
      *
      * @param userId User ID to remove.
      * @param eventId Event ID from which the user is removed.
      * @param listener Callback invoked upon completion.
      */
     public void removeFromWaitlist(String userId, String eventId, OnCompleteListener<Void> listener) {
+        removeFromWaitlist(userId, eventId, WaitlistStore.DEFAULT_SHARD_COUNT, listener);
+    }
+
+    /**
+     * Removes a user from a waitlist and decrements one shard of the event's entrant counter.
+     * Like {@link #addToWaitlist(Waitlist, int, OnCompleteListener)}, this fails if the
+     * event was deleted.
+     *
+     * @param userId User ID to remove.
+     * @param eventId Event ID from which the user is removed.
+     * @param shardCount Number of shards the event's counter is spread over.
+     * @param listener Callback invoked upon completion.
+     */
+    public void removeFromWaitlist(String userId, String eventId, int shardCount, OnCompleteListener<Void> listener) {
         FirebaseFirestore db = FirebaseFirestore.getInstance();
-        WriteBatch batch = db.batch();
 
         String waitlistId = userId + "_" + eventId;
 
         DocumentReference waitlistRef = waitlistCollection.document(waitlistId);
-        batch.delete(waitlistRef);
 
-        DocumentReference eventRef = db.collection("events").document(eventId);
-        batch.update(eventRef, "currentEntrants", FieldValue.increment(-1));
+        db.runTransaction((Transaction.Function<Void>) transaction -> {
+                    requireEvent(transaction, eventId);
+                    transaction.delete(waitlistRef);
+                    EntrantCounterDB.getInstance().addIncrement(transaction, eventId, shardCount, -1);
+                    return null;
+                })
+                .addOnCompleteListener(task -> {
+                    EventRepository.getInstance().invalidate(eventId);
+                    listener.onComplete(task);
+                });
+    }
+
+    /**
+     * Reads an event in a transaction, failing it if the event does not exist.
+     */
+    private void requireEvent(Transaction transaction, String eventId) throws FirebaseFirestoreException {
+        if (!transaction.get(eventsCollection.document(eventId)).exists()) {
+            throw new FirebaseFirestoreException("Event " + eventId + " no longer exists",
+                    FirebaseFirestoreException.Code.NOT_FOUND);
+        }
+    }
+
+    /**
+     * Marks the given entrants as selected and the event as drawn.
+     * <p>
+     * The event update is written in the same batch as the last winners, so a draw
+     * of up to 499 winners is committed atomically. Larger draws first commit the
+     * other winners through a {@link BatchWriter}, then the last batch only once they
+     * all succeeded, so the event is never marked as drawn with winners missing. A
+     * draw that failed part way leaves some entrants selected on an undrawn event;
+     * {@link com.example.icetea.home.ManageEventController#drawWinners} counts them
+     * when the draw is retried. The seed of the draw is stored on the event so the
+     * draw can be reproduced.
+     *
+     * @param eventId Event ID.
+     * @param userIds IDs of the entrants who won the draw.
+     * @param drawSeed Seed the winners were drawn with.
+     * @param listener Callback invoked upon completion.
+     */
+    public void selectEntrants(String eventId, List<String> userIds, long drawSeed, OnCompleteListener<Void> listener) {
+        FirebaseFirestore db = FirebaseFirestore.getInstance();
+        int lastBatchStart = Math.max(0, userIds.size() - (BatchWriter.MAX_OPERATIONS_PER_BATCH - 1));
+
+        BatchWriter earlierWinners = new BatchWriter(db);
+        for (String userId : userIds.subList(0, lastBatchStart)) {
+            earlierWinners.update(waitlistCollection.document(userId + "_" + eventId), "status", Waitlist.STATUS_SELECTED);
+        }
+
+        earlierWinners.commit()
+                .continueWithTask(task -> {
+                    if (!task.isSuccessful()) {
+                        throw task.getException() != null ? task.getException() : new Exception("Failed to save winners");
+                    }
+                    BatchWriter lastWinners = new BatchWriter(db);
+                    for (String userId : userIds.subList(lastBatchStart, userIds.size())) {
+                        lastWinners.update(waitlistCollection.document(userId + "_" + eventId), "status", Waitlist.STATUS_SELECTED);
+                    }
+                    return lastWinners
+                            .update(eventsCollection.document(eventId), "alreadyDrew", true, "drawSeed", drawSeed)
+                            .commit();
+                })
+                .addOnCompleteListener(task -> {
+                    EventRepository.getInstance().invalidate(eventId);
+                    listener.onComplete(task);
+                });
+    }
+
+    /**
+     * Replaces a winner with another entrant in a single batch. The replaced entry is
+     * flagged as replaced and optionally cancelled; the replacement becomes selected.
+     *
+     * @param eventId Event ID.
+     * @param replacedUserId ID of the winner being replaced.
+     * @param cancelReplaced Whether the replaced entry's status is set to cancelled.
+     * @param replacementUserId ID of the entrant taking the spot.
+     * @param listener Callback invoked upon completion.
+     */
+    public void replaceEntrant(String eventId, String replacedUserId, boolean cancelReplaced,
+                               String replacementUserId, OnCompleteListener<Void> listener) {
+        WriteBatch batch = FirebaseFirestore.getInstance().batch();
+
+        DocumentReference replacedRef = waitlistCollection.document(replacedUserId + "_" + eventId);
+        if (cancelReplaced) {
+            batch.update(replacedRef, "status", Waitlist.STATUS_CANCELLED, "replaced", true);
+        } else {
+            batch.update(replacedRef, "replaced", true);
+        }
+        batch.update(waitlistCollection.document(replacementUserId + "_" + eventId), "status", Waitlist.STATUS_SELECTED);
 
         batch.commit().addOnCompleteListener(listener);
     }
@@ -176,6 +324,175 @@ public class WaitlistDB {
                 .addOnCompleteListener(listener);
     }
 
+    /**
+     * Retrieves one page of an event's entrants with a given status.
+     * <p>
+     * Entries are ordered by document ID, which needs no composite index next to
+     * the equality filters and gives every draw the same, stable order. To fetch
+     * the next page, pass the ID of the last document of the previous page as
+     * {@code startAfterId}.
+     *
+     * @param eventId Event ID.
+     * @param status Status to filter by.
+     * @param startAfterId Document ID of the last entry of the previous page, or null for the first page.
+     * @param pageSize Maximum number of entries; values below 1 use {@link #DEFAULT_PAGE_SIZE}.
+     * @param listener Callback invoked with the QuerySnapshot of the page.
+     */
+    public void getEntrantsByStatusPage(String eventId, String status, String startAfterId, int pageSize,
+                                        OnCompleteListener<QuerySnapshot> listener) {
+        Query query = waitlistCollection
+                .whereEqualTo("eventId", eventId)
+                .whereEqualTo("status", status)
+                .orderBy(FieldPath.documentId())
+                .limit(pageSize > 0 ? pageSize : DEFAULT_PAGE_SIZE);
+
+        if (startAfterId != null) {
+            query = query.startAfter(startAfterId);
+        }
+
+        query.get().addOnCompleteListener(listener);
+    }
+
+    /**
+     * Draws up to {@code count} waiting entrants of an event using the draw key index.
+     * <p>
+     * Every entry receives a uniformly random {@code drawKey} when it joins. Each
+     * winner is picked by an independent pivot: the waiting entry with the lowest
+     * drawKey at or above it, wrapping around to the lowest key. Pivots that hit an
+     * entry already picked are drawn again. A draw costs about one document read
+     * per winner plus two count aggregations, instead of one read per entrant.
+     * Requires a composite index on eventId, status and drawKey.
+     * </p>
+     * <p>A pick lands on an entry with probability equal to the gap between its
+     * key and the key below it, so the draw is fair over the random assignment of
+     * keys but not exactly uniform for a given set of keys. When at least half of
+     * the waiting list is drawn, every entry is read and the winners are picked
+     * uniformly instead. See {@link KeyedDraw}.</p>
+     * <p>Entries created before draw keys existed are missing from the index. When the
+     * number of keyed waiting entries differs from the number of waiting entries, or
+     * the pivots keep hitting entries already picked, the listener receives null and
+     * the caller should read the whole waiting list instead.</p>
+     *
+     * @param eventId Event ID.
+     * @param count Maximum number of entrants to draw.
+     * @param pivot Uniformly random first pivot in [0, 1); later pivots are derived from it.
+     * @param listener Callback invoked with the drawn entries, fewer than {@code count} if the
+     *                 waiting list is smaller, or null if the index cannot be used.
+     */
+    public void drawEntrantsByKey(String eventId, int count, double pivot,
+                                  OnCompleteListener<List<DocumentSnapshot>> listener) {
+        Query waiting = waitlistCollection
+                .whereEqualTo("eventId", eventId)
+                .whereEqualTo("status", Waitlist.STATUS_WAITING);
+        Query keyed = waiting.orderBy("drawKey");
+
+        Task<AggregateQuerySnapshot> waitingCount = waiting.count().get(AggregateSource.SERVER);
+        Task<AggregateQuerySnapshot> keyedCount = keyed.count().get(AggregateSource.SERVER);
+
+        Tasks.whenAll(waitingCount, keyedCount)
+                .<List<DocumentSnapshot>>continueWithTask(countTask -> {
+                    if (!waitingCount.isSuccessful() || !keyedCount.isSuccessful()) {
+                        Exception e = !waitingCount.isSuccessful() ? waitingCount.getException() : keyedCount.getException();
+                        throw e != null ? e : new Exception("Failed to count entrants");
+                    }
+                    long entrants = waitingCount.getResult().getCount();
+                    if (entrants != keyedCount.getResult().getCount()) {
+                        return Tasks.forResult((List<DocumentSnapshot>) null);
+                    }
+                    if (entrants == 0) {
+                        return Tasks.forResult(new ArrayList<>());
+                    }
+
+                    KeyedDraw draw = new KeyedDraw(pivot);
+                    if (KeyedDraw.readsAll(count, entrants)) {
+                        return keyed.get().continueWith(allTask -> {
+                            if (!allTask.isSuccessful()) {
+                                throw allTask.getException() != null ? allTask.getException() : new Exception("Failed to draw entrants");
+                            }
+                            return draw.sample(allTask.getResult().getDocuments(), count);
+                        });
+                    }
+                    return drawRound(keyed, draw, count, new LinkedHashMap<>(), 0);
+                })
+                .addOnCompleteListener(listener);
+    }
+
+    /**
+     * Draws one pivot for every winner still missing, then repeats until enough
+     * distinct entries are picked or {@link KeyedDraw#MAX_ROUNDS} is reached.
+     *
+     * @param keyed Waiting entries ordered by drawKey.
+     * @param draw Source of pivots.
+     * @param count Number of entrants to draw.
+     * @param drawn Entries picked so far, by document ID, in pick order.
+     * @param round Number of rounds already run.
+     * @return Task with the drawn entries, or null if the draw gave up.
+     */
+    private Task<List<DocumentSnapshot>> drawRound(Query keyed, KeyedDraw draw, int count,
+                                                   Map<String, DocumentSnapshot> drawn, int round) {
+        if (drawn.size() >= count) {
+            return Tasks.forResult(new ArrayList<>(drawn.values()));
+        }
+        if (round >= KeyedDraw.MAX_ROUNDS) {
+            return Tasks.forResult(null);
+        }
+
+        List<Task<QuerySnapshot>> picks = new ArrayList<>();
+        for (int i = drawn.size(); i < count; i++) {
+            picks.add(keyed.startAt(draw.nextPivot()).limit(1).get().continueWithTask(pickTask -> {
+                if (pickTask.isSuccessful() && pickTask.getResult().isEmpty()) {
+                    // Past the highest key; wrap around to the lowest
+                    return keyed.limit(1).get();
+                }
+                return pickTask;
+            }));
+        }
+        return Tasks.whenAllComplete(picks).continueWithTask(roundTask -> {
+            for (Task<QuerySnapshot> pick : picks) {
+                if (!pick.isSuccessful()) {
+                    throw pick.getException() != null ? pick.getException() : new Exception("Failed to draw entrants");
+                }
+                for (DocumentSnapshot doc : pick.getResult().getDocuments()) {
+                    drawn.putIfAbsent(doc.getId(), doc);
+                }
+            }
+            return drawRound(keyed, draw, count, drawn, round + 1);
+        });
+    }
+
+    /**
+     * Listens for real-time updates to an event's entrants with a given status.
+     * The first snapshot holds every matching entry; later ones report only the
+     * changes through {@link QuerySnapshot#getDocumentChanges()}.
+     *
+     * @param eventId Event ID.
+     * @param status Status to filter by.
+     * @param listener EventListener invoked with the entries and their changes.
+     * @return ListenerRegistration to remove the listener when no longer needed.
+     */
+    public ListenerRegistration listenToEntrantsByStatus(String eventId, String status, EventListener<QuerySnapshot> listener) {
+        return waitlistCollection
+                .whereEqualTo("eventId", eventId)
+                .whereEqualTo("status", status)
+                .addSnapshotListener(listener);
+    }
+
+    /**
+     * Records door check-ins of several entrants, in as few batches as possible.
+     *
+     * @param eventId Event ID.
+     * @param checkIns Check-in time of each entrant, by user ID.
+     * @return Task completing once every check-in is written.
+     */
+    public Task<Void> checkInEntrants(String eventId, Map<String, Timestamp> checkIns) {
+        BatchWriter writer = new BatchWriter(FirebaseFirestore.getInstance());
+        for (Map.Entry<String, Timestamp> checkIn : checkIns.entrySet()) {
+            writer.update(waitlistCollection.document(checkIn.getKey() + "_" + eventId),
+                    CHECKED_IN_AT_FIELD, checkIn.getValue());
+        }
+        return writer.commit();
+    }
+
     /**
      * Listens for real-time updates to the waitlist of a specific event.
      *
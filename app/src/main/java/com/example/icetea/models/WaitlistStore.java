@@ -0,0 +1,140 @@
+package com.example.icetea.models;
+
+import com.example.icetea.util.Callback;
+
+import java.util.List;
+
+/**
+ * Storage operations on waitlist entries, independent of the backing database.
+ * <p>
+ * Besides the entries themselves, implementations keep each event's entrant count
+ * in step with joins and leaves.
+ * </p>
+ */
+public interface WaitlistStore {
+
+    /** Number of entrant counter shards used when an event does not specify its own */
+    int DEFAULT_SHARD_COUNT = 10;
+
+    /**
+     * Returns the number of shards an event's entrant counter is spread over.
+     *
+     * @param event The event, may be null
+     * @return The event's configured shard count, or {@link #DEFAULT_SHARD_COUNT}
+     */
+    static int shardCountOf(Event event) {
+        if (event == null || event.getEntrantShardCount() == null || event.getEntrantShardCount() < 1) {
+            return DEFAULT_SHARD_COUNT;
+        }
+        return event.getEntrantShardCount();
+    }
+
+    /**
+     * Adds an entrant to an event's waitlist and increments the event's entrant count.
+     * Fails if the event does not exist.
+     *
+     * @param waitlist   The entry to add
+     * @param shardCount Number of counter shards the event uses; see {@link EntrantCounterDB}
+     * @param callback   Callback invoked on success or failure
+     */
+    void addToWaitlist(Waitlist waitlist, int shardCount, Callback<Void> callback);
+
+    /**
+     * Removes an entrant from an event's waitlist and decrements the event's entrant count.
+     * Fails if the event does not exist.
+     *
+     * @param userId     ID of the entrant
+     * @param eventId    ID of the event
+     * @param shardCount Number of counter shards the event uses; see {@link EntrantCounterDB}
+     * @param callback   Callback invoked on success or failure
+     */
+    void removeFromWaitlist(String userId, String eventId, int shardCount, Callback<Void> callback);
+
+    /**
+     * Retrieves the waitlist entry of a user for an event.
+     *
+     * @param userId   ID of the entrant
+     * @param eventId  ID of the event
+     * @param callback Callback invoked with the entry, or null if the user has not joined
+     */
+    void getWaitlistEntry(String userId, String eventId, Callback<Waitlist> callback);
+
+    /**
+     * Updates the status of a waitlist entry.
+     *
+     * @param userId    ID of the entrant
+     * @param eventId   ID of the event
+     * @param newStatus The new status
+     * @param callback  Callback invoked on success or failure
+     */
+    void updateWaitlistStatus(String userId, String eventId, String newStatus, Callback<Void> callback);
+
+    /**
+     * Retrieves the entries of an event that have a given status.
+     *
+     * @param eventId  ID of the event
+     * @param status   Status to filter by
+     * @param callback Callback invoked with the matching entries
+     */
+    void getEntrantsByStatus(String eventId, String status, Callback<List<Waitlist>> callback);
+
+    /**
+     * Retrieves one page of the entries of an event that have a given status.
+     * Entries come back in a stable order, so paging through the same entries
+     * twice visits them in the same sequence.
+     *
+     * @param eventId   ID of the event
+     * @param status    Status to filter by
+     * @param pageToken Token from the previous page, or null for the first page
+     * @param pageSize  Maximum number of entries on the page
+     * @param callback  Callback invoked with the page
+     */
+    void getEntrantsPageByStatus(String eventId, String status, String pageToken, int pageSize,
+                                 Callback<Page<Waitlist>> callback);
+
+    /**
+     * Draws up to {@code count} waiting entrants of an event by their random draw keys,
+     * one independent pivot per winner as described in {@link com.example.icetea.core.KeyedDraw},
+     * without reading the rest of the waiting list.
+     *
+     * @param eventId  ID of the event
+     * @param count    Maximum number of entrants to draw
+     * @param pivot    Uniformly random first pivot in [0, 1); later pivots are derived from it
+     * @param callback Callback invoked with the drawn entries, fewer than {@code count} if the
+     *                 waiting list is smaller, or null if some waiting entries have no draw key
+     *                 or the draw gave up
+     */
+    void drawWaitingEntrants(String eventId, int count, double pivot, Callback<List<Waitlist>> callback);
+
+    /**
+     * Retrieves the number of entrants of an event.
+     *
+     * @param event    The event
+     * @param callback Callback invoked with the entrant count
+     */
+    void getEntrantCount(Event event, Callback<Integer> callback);
+
+    /**
+     * Marks entrants as selected and the event as drawn. The event is only marked
+     * as drawn once every entrant is selected.
+     *
+     * @param eventId  ID of the event
+     * @param userIds  IDs of the selected entrants
+     * @param drawSeed Seed the entrants were drawn with, stored on the event
+     * @param callback Callback invoked on success or failure
+     */
+    void selectEntrants(String eventId, List<String> userIds, long drawSeed, Callback<Void> callback);
+
+    /**
+     * Replaces a winner with another entrant in one atomic write.
+     * The replaced entry is flagged as replaced and, if requested, cancelled.
+     *
+     * @param eventId           ID of the event
+     * @param replacedUserId    ID of the winner being replaced
+     * @param cancelReplaced    Whether the replaced entry's status becomes cancelled
+     * @param replacementUserId ID of the entrant who takes the spot
+     * @param callback          Callback invoked on success or failure
+     */
+    void replaceEntrant(String eventId, String replacedUserId, boolean cancelReplaced,
+                        String replacementUserId, Callback<Void> callback);
+}
@@ -0,0 +1,177 @@
+package com.example.icetea.notifications;
+
+import com.example.icetea.models.Notification;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Keyed in-memory model of the loaded part of a user's inbox.
+ *
+ * <p>The inbox is the live window of newest notifications followed by older
+ * notifications loaded page by page. Window changes are applied with the
+ * indexes Firestore reports for each document change, so a change costs
+ * O(n) list shifting at worst instead of comparing whole lists. Every change
+ * is recorded as an item change for {@link NotificationsUpdate}.</p>
+ *
+ * <p>Not thread-safe; use from the main thread.</p>
+ */
+public class NotificationInbox {
+
+    /** IDs in the live window, in the order of the window query */
+    private final List<String> window = new ArrayList<>();
+
+    /** IDs loaded outside the live window, newest first */
+    private final List<String> older = new ArrayList<>();
+
+    /** Loaded notifications by document ID */
+    private final Map<String, Notification> byId = new HashMap<>();
+
+    /** Changes since the last published update */
+    private final List<NotificationsUpdate.Change> pending = new ArrayList<>();
+
+    private int version;
+
+    /**
+     * Applies a notification added to the live window.
+     *
+     * @param id           Document ID
+     * @param notification The notification
+     * @param newIndex     Its index in the window after the change
+     * @return whether the notification was not loaded before
+     */
+    public boolean added(String id, Notification notification, int newIndex) {
+        int olderIndex = older.indexOf(id);
+        byId.put(id, notification);
+        window.add(newIndex, id);
+        if (olderIndex >= 0) {
+            // Pulled back into the window after a deletion higher up
+            older.remove(olderIndex);
+            int from = window.size() - 1 + olderIndex;
+            if (from != newIndex) {
+                record(NotificationsUpdate.Change.Type.MOVED, from, newIndex);
+            }
+            record(NotificationsUpdate.Change.Type.CHANGED, newIndex, newIndex);
+            return false;
+        }
+        record(NotificationsUpdate.Change.Type.INSERTED, newIndex, newIndex);
+        return true;
+    }
+
+    /**
+     * Applies a notification modified in the live window.
+     *
+     * @param id           Document ID
+     * @param notification The new value
+     * @param oldIndex     Its index in the window before the change
+     * @param newIndex     Its index in the window after the change
+     */
+    public void modified(String id, Notification notification, int oldIndex, int newIndex) {
+        byId.put(id, notification);
+        if (oldIndex != newIndex) {
+            window.remove(oldIndex);
+            window.add(newIndex, id);
+            record(NotificationsUpdate.Change.Type.MOVED, oldIndex, newIndex);
+        }
+        record(NotificationsUpdate.Change.Type.CHANGED, newIndex, newIndex);
+    }
+
+    /**
+     * Applies a notification leaving the live window.
+     *
+     * @param id        Document ID
+     * @param oldIndex  Its index in the window before the change
+     * @param deleted   True if the notification was deleted; false if newer
+     *                  notifications pushed it out of the window, in which case it stays loaded
+     */
+    public void removed(String id, int oldIndex, boolean deleted) {
+        window.remove(oldIndex);
+        if (deleted) {
+            byId.remove(id);
+            record(NotificationsUpdate.Change.Type.REMOVED, oldIndex, oldIndex);
+            return;
+        }
+        // Everything pushed out is older than the window, so it goes first among older
+        int pushedOut = 0;
+        while (pushedOut < older.size() && isPushedOutBefore(older.get(pushedOut), id)) {
+            pushedOut++;
+        }
+        older.add(pushedOut, id);
+        int to = window.size() + pushedOut;
+        if (to != oldIndex) {
+            record(NotificationsUpdate.Change.Type.MOVED, oldIndex, to);
+        }
+    }
+
+    /**
+     * Appends an older notification loaded from a page after the window.
+     *
+     * @param id           Document ID
+     * @param notification The notification
+     * @return whether the notification was not loaded before
+     */
+    public boolean appendOlder(String id, Notification notification) {
+        if (byId.containsKey(id)) {
+            return false;
+        }
+        byId.put(id, notification);
+        older.add(id);
+        int position = window.size() + older.size() - 1;
+        record(NotificationsUpdate.Change.Type.INSERTED, position, position);
+        return true;
+    }
+
+    /**
+     * @param id Document ID
+     * @return whether the notification is loaded
+     */
+    public boolean contains(String id) {
+        return byId.containsKey(id);
+    }
+
+    /**
+     * @return the number of loaded notifications
+     */
+    public int size() {
+        return window.size() + older.size();
+    }
+
+    /**
+     * Builds an update with the current inbox and the changes since the last one.
+     *
+     * @return the update
+     */
+    public NotificationsUpdate publish() {
+        List<Notification> notifications = new ArrayList<>(size());
+        for (String id : window) {
+            notifications.add(byId.get(id));
+        }
+        for (String id : older) {
+            notifications.add(byId.get(id));
+        }
+        NotificationsUpdate update = new NotificationsUpdate(notifications, new ArrayList<>(pending), version, version + 1);
+        pending.clear();
+        version++;
+        return update;
+    }
+
+    /**
+     * Whether a notification already pushed out of the window ranks before one
+     * being pushed out now. Notifications leave the window oldest first, so
+     * earlier ones rank after later ones.
+     */
+    private boolean isPushedOutBefore(String existing, String leaving) {
+        Notification a = byId.get(existing);
+        Notification b = byId.get(leaving);
+        if (a == null || b == null || a.getTimestamp() == null || b.getTimestamp() == null) {
+            return false;
+        }
+        return a.getTimestamp().compareTo(b.getTimestamp()) > 0;
+    }
+
+    private void record(NotificationsUpdate.Change.Type type, int from, int to) {
+        pending.add(new NotificationsUpdate.Change(type, from, to));
+    }
+}
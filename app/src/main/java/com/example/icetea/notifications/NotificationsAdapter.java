@@ -27,6 +27,9 @@ public class NotificationsAdapter extends RecyclerView.Adapter<NotificationsAdap
     private final OnNotificationClickListener listener;
     private List<Notification> notifications = new ArrayList<>();
 
+    /** Version of the last {@link NotificationsUpdate} applied */
+    private int version;
+
     /**
      * Interface for handling notification click events.
      */
@@ -93,6 +96,44 @@ public class NotificationsAdapter extends RecyclerView.Adapter<NotificationsAdap
         notifyDataSetChanged();
     }
 
+    /**
+     * Applies an inbox update with fine-grained item notifications.
+     * <p>
+     * If the update does not follow the last one applied, for example because
+     * LiveData skipped updates while the list was not visible, the whole list
+     * is replaced instead.
+     * </p>
+     *
+     * @param update The inbox update
+     */
+    public void applyUpdate(NotificationsUpdate update) {
+        boolean follows = update.getBaseVersion() == version;
+        version = update.getVersion();
+        if (!follows) {
+            updateList(update.getNotifications());
+            return;
+        }
+
+        notifications.clear();
+        notifications.addAll(update.getNotifications());
+        for (NotificationsUpdate.Change change : update.getChanges()) {
+            switch (change.getType()) {
+                case INSERTED:
+                    notifyItemInserted(change.getFrom());
+                    break;
+                case REMOVED:
+                    notifyItemRemoved(change.getFrom());
+                    break;
+                case CHANGED:
+                    notifyItemChanged(change.getFrom());
+                    break;
+                case MOVED:
+                    notifyItemMoved(change.getFrom(), change.getTo());
+                    break;
+            }
+        }
+    }
+
     /**
      * ViewHolder for a single notification item.
      *
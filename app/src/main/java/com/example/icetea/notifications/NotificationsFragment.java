@@ -30,6 +30,9 @@ import java.util.ArrayList;
  */
 public class NotificationsFragment extends Fragment {
 
+    /** How close to the end of the list the user scrolls before older notifications load */
+    private static final int LOAD_MORE_THRESHOLD = 5;
+
     private NotificationsAdapter adapter;
 
     /**
@@ -71,7 +74,8 @@ public class NotificationsFragment extends Fragment {
      * Called immediately after onCreateView().
      *
      * <p>Sets up the RecyclerView, adapter, and observes the {@link NotificationsViewModel}
-     * to update notifications in real-time.</p>
+     * to update notifications in real-time. Older notifications load as the user
+     * scrolls, and opening the inbox marks every notification read.</p>
      *
      * <p>Handles navigation to {@link EventDetailsFragment} when a notification is clicked.</p>
      *
@@ -104,8 +108,18 @@ public class NotificationsFragment extends Fragment {
 
         NotificationsViewModel viewModel = new ViewModelProvider(requireActivity()).get(NotificationsViewModel.class);
 
-        viewModel.getNotifications().observe(getViewLifecycleOwner(), notifications -> {
-            adapter.updateList(notifications);
+        viewModel.getNotifications().observe(getViewLifecycleOwner(), adapter::applyUpdate);
+
+        LinearLayoutManager layoutManager = (LinearLayoutManager) recyclerView.getLayoutManager();
+        recyclerView.addOnScrollListener(new RecyclerView.OnScrollListener() {
+            @Override
+            public void onScrolled(@NonNull RecyclerView rv, int dx, int dy) {
+                if (dy > 0 && layoutManager.findLastVisibleItemPosition() >= adapter.getItemCount() - LOAD_MORE_THRESHOLD) {
+                    viewModel.loadOlder();
+                }
+            }
         });
+
+        viewModel.markAllRead();
     }
 }
\ No newline at end of file
@@ -0,0 +1,84 @@
+package com.example.icetea.notifications;
+
+import com.example.icetea.models.Notification;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * A new state of the notification inbox together with the item changes that
+ * turn the previous state into it.
+ *
+ * <p>The changes are relative to the state numbered {@link #getBaseVersion()}.
+ * An observer that last saw a different version must replace its whole list
+ * instead of applying them.</p>
+ */
+public class NotificationsUpdate {
+
+    /**
+     * One change to the positions of the inbox list.
+     */
+    public static class Change {
+
+        /** Kinds of item changes */
+        public enum Type { INSERTED, REMOVED, CHANGED, MOVED }
+
+        private final Type type;
+        private final int from;
+        private final int to;
+
+        /**
+         * Creates a change.
+         *
+         * @param type Kind of change
+         * @param from Position before the change; for INSERTED, the inserted position
+         * @param to   Position after the change; equal to {@code from} unless MOVED
+         */
+        Change(Type type, int from, int to) {
+            this.type = type;
+            this.from = from;
+            this.to = to;
+        }
+
+        /** @return the kind of change */
+        public Type getType() { return type; }
+
+        /** @return the position before the change */
+        public int getFrom() { return from; }
+
+        /** @return the position after the change */
+        public int getTo() { return to; }
+    }
+
+    private final List<Notification> notifications;
+    private final List<Change> changes;
+    private final int baseVersion;
+    private final int version;
+
+    /**
+     * Creates an update.
+     *
+     * @param notifications The inbox after the update, newest first
+     * @param changes       Changes from the base version, in the order they apply
+     * @param baseVersion   Version of the state the changes apply to
+     * @param version       Version of this state
+     */
+    NotificationsUpdate(List<Notification> notifications, List<Change> changes, int baseVersion, int version) {
+        this.notifications = Collections.unmodifiableList(notifications);
+        this.changes = Collections.unmodifiableList(changes);
+        this.baseVersion = baseVersion;
+        this.version = version;
+    }
+
+    /** @return the notifications after the update, newest first */
+    public List<Notification> getNotifications() { return notifications; }
+
+    /** @return the changes from the base version, in the order they apply */
+    public List<Change> getChanges() { return changes; }
+
+    /** @return the version of the state the changes apply to */
+    public int getBaseVersion() { return baseVersion; }
+
+    /** @return the version of this state */
+    public int getVersion() { return version; }
+}
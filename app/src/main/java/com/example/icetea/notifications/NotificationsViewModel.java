@@ -1,12 +1,18 @@
 package com.example.icetea.notifications;
 
+import android.util.Log;
+
 import androidx.lifecycle.LiveData;
 import androidx.lifecycle.MutableLiveData;
 import androidx.lifecycle.ViewModel;
 
 import com.example.icetea.models.Notification;
 import com.example.icetea.models.NotificationDB;
+import com.google.firebase.Timestamp;
+import com.google.firebase.firestore.DocumentChange;
+import com.google.firebase.firestore.DocumentSnapshot;
 import com.google.firebase.firestore.ListenerRegistration;
+import com.google.firebase.firestore.QuerySnapshot;
 
 import java.util.List;
 
@@ -15,9 +21,11 @@ import java.util.List;
  *
  * <p>Provides:
  * <ul>
- *     <li>A LiveData list of all notifications for the user.</li>
+ *     <li>A LiveData of the loaded notifications for the user, with item-level changes.</li>
  *     <li>A LiveData event for newly received notifications.</li>
- *     <li>Automatic real-time updates via Firestore listener.</li>
+ *     <li>A LiveData number of unread notifications, read from the user's counter.</li>
+ *     <li>Automatic real-time updates of the newest page via Firestore listener.</li>
+ *     <li>Loading of older pages on demand.</li>
  * </ul>
  * </p>
  *
@@ -26,16 +34,32 @@ import java.util.List;
  */
 public class NotificationsViewModel extends ViewModel {
 
-    private final MutableLiveData<List<Notification>> notificationsLiveData = new MutableLiveData<>();
+    private static final String TAG = "NotificationsViewModel";
+
+    private final MutableLiveData<NotificationsUpdate> notificationsLiveData = new MutableLiveData<>();
     private final MutableLiveData<Notification> newNotificationEvent = new MutableLiveData<>();
+    private final MutableLiveData<Integer> unreadCountLiveData = new MutableLiveData<>(0);
     private ListenerRegistration listenerRegistration;
+    private ListenerRegistration unreadRegistration;
+
+    /** Loaded notifications; only touched on the main thread, where Firestore delivers results */
+    private final NotificationInbox inbox = new NotificationInbox();
+
+    /** Oldest loaded notification, where the next older page starts */
+    private DocumentSnapshot oldestLoaded;
+
+    private String userId;
+    private boolean receivedLatestPage;
+    private boolean loadingOlder;
+    private boolean reachedEnd;
 
     /**
-     * Returns a LiveData representing the current list of notifications for the user.
+     * Returns a LiveData of the loaded notifications for the user, together with
+     * the item changes since the previous value.
      *
-     * @return LiveData containing a list of {@link Notification} objects.
+     * @return LiveData containing a {@link NotificationsUpdate}.
      */
-    public LiveData<List<Notification>> getNotifications() {
+    public LiveData<NotificationsUpdate> getNotifications() {
         return notificationsLiveData;
     }
 
@@ -52,24 +76,134 @@ public class NotificationsViewModel extends ViewModel {
     }
 
     /**
-     * Starts listening for real-time updates to notifications for the specified user.
+     * Returns a LiveData representing the number of unread notifications.
+     *
+     * @return LiveData containing the unread count.
+     */
+    public LiveData<Integer> getUnreadCount() {
+        return unreadCountLiveData;
+    }
+
+    /**
+     * Starts listening for real-time updates to the newest notifications and
+     * the unread counter of the specified user.
      *
      * @param userId The Firebase user ID of the current user.
      */
     public void startListening(String userId) {
-        NotificationDB notificationDB = new NotificationDB();
-        listenerRegistration = notificationDB.listenNotificationsForUser(userId, notifications -> {
-            List<Notification> oldList = notificationsLiveData.getValue();
-            notificationsLiveData.postValue(notifications);
-
-            if (oldList != null && !notifications.isEmpty()) {
-                for (Notification n : notifications) {
-                    boolean isNew = oldList.stream().noneMatch(o -> o.getTimestamp().equals(n.getTimestamp()));
-                    if (isNew) {
-                        newNotificationEvent.postValue(n);
-                        break;
+        this.userId = userId;
+        NotificationDB notificationDB = NotificationDB.getInstance();
+
+        unreadRegistration = notificationDB.listenUnreadCount(userId, unreadCountLiveData::postValue);
+
+        listenerRegistration = notificationDB.listenLatestNotificationsForUser(userId, NotificationDB.PAGE_SIZE,
+                (querySnapshot, e) -> {
+                    if (e != null || querySnapshot == null) return;
+                    onLatestPage(querySnapshot);
+                });
+    }
+
+    /**
+     * Applies the document changes of a snapshot of the newest page to the inbox.
+     * Notifications pushed out of the newest page by newer ones stay loaded.
+     *
+     * @param querySnapshot The newest page
+     */
+    private void onLatestPage(QuerySnapshot querySnapshot) {
+        boolean firstPage = !receivedLatestPage;
+        receivedLatestPage = true;
+        List<DocumentSnapshot> docs = querySnapshot.getDocuments();
+        Timestamp windowEnd = docs.size() >= NotificationDB.PAGE_SIZE
+                ? docs.get(docs.size() - 1).getTimestamp("timestamp")
+                : null;
+
+        Notification newest = null;
+        int newestIndex = Integer.MAX_VALUE;
+        for (DocumentChange change : querySnapshot.getDocumentChanges()) {
+            DocumentSnapshot doc = change.getDocument();
+            switch (change.getType()) {
+                case ADDED: {
+                    Notification notification = doc.toObject(Notification.class);
+                    boolean isNew = inbox.added(doc.getId(), notification, change.getNewIndex());
+                    if (isNew && !firstPage && change.getNewIndex() < newestIndex) {
+                        newest = notification;
+                        newestIndex = change.getNewIndex();
                     }
+                    break;
                 }
+                case MODIFIED:
+                    inbox.modified(doc.getId(), doc.toObject(Notification.class),
+                            change.getOldIndex(), change.getNewIndex());
+                    break;
+                case REMOVED:
+                    inbox.removed(doc.getId(), change.getOldIndex(), !isPushedOut(doc, windowEnd));
+                    break;
+            }
+        }
+
+        if (oldestLoaded == null && !docs.isEmpty()) {
+            oldestLoaded = docs.get(docs.size() - 1);
+        }
+        if (firstPage && docs.size() < NotificationDB.PAGE_SIZE) {
+            reachedEnd = true;
+        }
+        notificationsLiveData.setValue(inbox.publish());
+
+        if (newest != null) {
+            newNotificationEvent.setValue(newest);
+        }
+    }
+
+    /**
+     * Whether a document that left the newest page was pushed out by newer
+     * notifications rather than deleted. Only a full page can push documents out,
+     * and only those not newer than its last document.
+     *
+     * @param doc       The document that left the page
+     * @param windowEnd Timestamp of the last document of the full page, or null if the page is not full
+     * @return true if the document was pushed out
+     */
+    private static boolean isPushedOut(DocumentSnapshot doc, Timestamp windowEnd) {
+        Timestamp timestamp = doc.getTimestamp("timestamp");
+        return windowEnd != null && timestamp != null && timestamp.compareTo(windowEnd) <= 0;
+    }
+
+    /**
+     * Loads the next page of older notifications, if there is one and no load
+     * is already in progress.
+     */
+    public void loadOlder() {
+        if (userId == null || oldestLoaded == null || loadingOlder || reachedEnd) return;
+        loadingOlder = true;
+
+        NotificationDB.getInstance().getNotificationsPage(userId, oldestLoaded, NotificationDB.PAGE_SIZE, task -> {
+            loadingOlder = false;
+            if (!task.isSuccessful() || task.getResult() == null) {
+                Log.w(TAG, "Failed to load older notifications", task.getException());
+                return;
+            }
+            List<DocumentSnapshot> docs = task.getResult().getDocuments();
+            for (DocumentSnapshot doc : docs) {
+                inbox.appendOlder(doc.getId(), doc.toObject(Notification.class));
+            }
+            if (!docs.isEmpty()) {
+                oldestLoaded = docs.get(docs.size() - 1);
+            }
+            if (docs.size() < NotificationDB.PAGE_SIZE) {
+                reachedEnd = true;
+            }
+            notificationsLiveData.setValue(inbox.publish());
+        });
+    }
+
+    /**
+     * Marks every notification of the user as read, which clears the unread count.
+     */
+    public void markAllRead() {
+        if (userId == null) return;
+        NotificationDB.getInstance().markAllRead(userId, task -> {
+            if (!task.isSuccessful()) {
+                Log.e(TAG, "Failed to mark notifications read", task.getException());
             }
         });
     }
@@ -77,10 +211,11 @@ public class NotificationsViewModel extends ViewModel {
     /**
      * Stops listening for notification updates.
      *
-     * <p>Removes the Firestore listener to avoid memory leaks or unnecessary database reads.</p>
+     * <p>Removes the Firestore listeners to avoid memory leaks or unnecessary database reads.</p>
      */
     public void stopListening() {
         if (listenerRegistration != null) listenerRegistration.remove();
+        if (unreadRegistration != null) unreadRegistration.remove();
     }
 
     /**
@@ -93,4 +228,4 @@ public class NotificationsViewModel extends ViewModel {
         stopListening();
         super.onCleared();
     }
-}
\ No newline at end of file
+}
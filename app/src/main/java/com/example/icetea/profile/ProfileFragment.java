@@ -1,6 +1,7 @@
 package com.example.icetea.profile;
 
 import android.content.Intent;
+import android.graphics.Bitmap;
 import android.os.Bundle;
 
 import androidx.activity.result.ActivityResultLauncher;
@@ -31,6 +32,7 @@ import com.google.android.material.button.MaterialButton;
 import com.google.android.material.dialog.MaterialAlertDialogBuilder;
 import com.google.android.material.textfield.TextInputEditText;
 import com.google.android.material.textfield.TextInputLayout;
+import com.google.firebase.firestore.Blob;
 import com.google.firebase.firestore.FirebaseFirestore;
 import com.google.firebase.firestore.QuerySnapshot;
 
@@ -57,27 +59,38 @@ public class ProfileFragment extends Fragment {
     private Runnable checkInputChanged;
     private ImageView avatarImageView;
     private boolean avatarChanged = false;
-    private String newAvatarBase64;
+    private byte[] newAvatarBytes;
+    private Bitmap newAvatar;
 
     /**
      * Activity result launcher for picking an image from the device.
-     * Converts the selected image to Base64 and updates the avatar preview.
+     * Encodes the selected image on a background thread and then shows the
+     * downsampled image as the avatar preview.
      */
     private final ActivityResultLauncher<String> pickImageLauncher =
             registerForActivityResult(new ActivityResultContracts.GetContent(), uri -> {
                 if (uri != null) {
-                    String uriToBase64;
-                    try {
-                        uriToBase64 = ImageUtil.uriToBase64(requireContext(), uri);
-                        avatarImageView.setImageURI(uri);
-                        avatarChanged = true;
-                        checkInputChanged.run();
-                        newAvatarBase64 = uriToBase64;
-                    } catch (ImageUtil.ImageTooLargeException e) {
-                        Toast.makeText(getContext(), "Image too large. Please select a smaller image.", Toast.LENGTH_SHORT).show();
-                    } catch (Exception e) {
-                        Toast.makeText(getContext(), "Failed to process image.", Toast.LENGTH_SHORT).show();
-                    }
+                    ImageUtil.encodeImageAsync(requireContext(), uri, new int[0], new Callback<ImageUtil.EncodedImage>() {
+                        @Override
+                        public void onSuccess(ImageUtil.EncodedImage image) {
+                            if (!isAdded()) return;
+                            avatarImageView.setImageBitmap(image.getBitmap());
+                            avatarChanged = true;
+                            newAvatarBytes = image.getBytes();
+                            newAvatar = image.getBitmap();
+                            checkInputChanged.run();
+                        }
+
+                        @Override
+                        public void onFailure(Exception e) {
+                            if (!isAdded()) return;
+                            if (e instanceof ImageUtil.ImageTooLargeException) {
+                                Toast.makeText(getContext(), "Image too large. Please select a smaller image.", Toast.LENGTH_SHORT).show();
+                            } else {
+                                Toast.makeText(getContext(), "Failed to process image.", Toast.LENGTH_SHORT).show();
+                            }
+                        }
+                    });
                 }
             });
 
@@ -227,9 +240,9 @@ public class ProfileFragment extends Fragment {
             HashMap<String, Object> updates = new HashMap<>();
 
             if (avatarChanged) {
-                updates.put("avatar", newAvatarBase64);
+                updates.put(UserDB.AVATAR_FIELD, newAvatarBytes != null ? Blob.fromBytes(newAvatarBytes) : null);
             } else {
-                newAvatarBase64 = null;
+                newAvatarBytes = null;
             }
 
             if (hasError) return;
@@ -246,9 +259,10 @@ public class ProfileFragment extends Fragment {
                     CurrentUser.getInstance().setPhone(phone);
 
                     if (avatarChanged) {
-                        CurrentUser.getInstance().setAvatar(ImageUtil.base64ToBitmap(newAvatarBase64));
+                        CurrentUser.getInstance().setAvatar(newAvatar);
                         avatarChanged = false;
-                        newAvatarBase64 = null;
+                        newAvatarBytes = null;
+                        newAvatar = null;
                     }
 
                     View root = getView();
@@ -279,7 +293,8 @@ public class ProfileFragment extends Fragment {
             nameTextLayout.setError(null);
             emailTextLayout.setError(null);
             phoneTextLayout.setError(null);
-            newAvatarBase64 = null;
+            newAvatarBytes = null;
+            newAvatar = null;
             avatarChanged = false;
             if (CurrentUser.getInstance().getAvatar() == null) {
                 avatarImageView.setImageResource(R.drawable.default_avatar);
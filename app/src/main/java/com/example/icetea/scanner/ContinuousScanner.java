@@ -0,0 +1,152 @@
+package com.example.icetea.scanner;
+
+import android.app.Activity;
+import android.os.SystemClock;
+
+import com.example.icetea.core.ScanThrottle;
+import com.google.zxing.BarcodeFormat;
+import com.google.zxing.DecodeHintType;
+import com.google.zxing.LuminanceSource;
+import com.google.zxing.MultiFormatReader;
+import com.google.zxing.Reader;
+import com.google.zxing.Result;
+import com.journeyapps.barcodescanner.BeepManager;
+import com.journeyapps.barcodescanner.DecoratedBarcodeView;
+import com.journeyapps.barcodescanner.Decoder;
+
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Decodes QR codes continuously from a {@link DecoratedBarcodeView} embedded in a fragment.
+ * <p>
+ * The camera stays open between scans, so only the first scan after
+ * {@link #resume()} pays the camera start-up cost. Frames are decoded at most
+ * {@code maxFramesPerSecond} times a second, and a payload seen again within the
+ * duplicate window is ignored, both through a {@link ScanThrottle}. Decoding
+ * statistics are kept for an on-screen counter in debug builds.
+ * </p>
+ *
+ * <p>All methods must be called on the main thread.</p>
+ */
+public class ContinuousScanner {
+
+    /**
+     * Receives new payloads.
+     */
+    public interface Listener {
+
+        /**
+         * Called on the main thread for each payload not seen within the duplicate window.
+         *
+         * @param text The decoded text
+         */
+        void onScan(String text);
+    }
+
+    private final DecoratedBarcodeView barcodeView;
+    private final ScanThrottle throttle;
+    private final BeepManager beepManager;
+
+    private final AtomicInteger framesDecoded = new AtomicInteger();
+    private final AtomicInteger framesSkipped = new AtomicInteger();
+    private volatile long lastDecodeNanos;
+
+    private long resumedAt;
+    private long firstScanMs = -1;
+
+    /**
+     * Sets up continuous decoding on a barcode view. The camera opens on {@link #resume()}.
+     *
+     * @param activity           The activity hosting the view, used for the scan beep
+     * @param barcodeView        The barcode view
+     * @param maxFramesPerSecond Most frames to decode per second
+     * @param duplicateWindowMs  Time in milliseconds during which a repeated payload is ignored
+     * @param listener           Receives new payloads
+     */
+    public ContinuousScanner(Activity activity, DecoratedBarcodeView barcodeView,
+                             int maxFramesPerSecond, long duplicateWindowMs, Listener listener) {
+        this.barcodeView = barcodeView;
+        this.throttle = new ScanThrottle(maxFramesPerSecond, duplicateWindowMs);
+        this.beepManager = new BeepManager(activity);
+
+        barcodeView.getBarcodeView().setDecoderFactory(baseHints -> {
+            Map<DecodeHintType, Object> hints = new EnumMap<>(DecodeHintType.class);
+            hints.putAll(baseHints);
+            hints.put(DecodeHintType.POSSIBLE_FORMATS, EnumSet.of(BarcodeFormat.QR_CODE));
+            MultiFormatReader reader = new MultiFormatReader();
+            reader.setHints(hints);
+            return new ThrottledDecoder(reader);
+        });
+        barcodeView.setStatusText("");
+        barcodeView.decodeContinuous(result -> {
+            long now = SystemClock.elapsedRealtime();
+            if (result.getText() == null || !throttle.accept(result.getText(), now)) {
+                return;
+            }
+            if (firstScanMs < 0) {
+                firstScanMs = now - resumedAt;
+            }
+            beepManager.playBeepSoundAndVibrate();
+            listener.onScan(result.getText());
+        });
+    }
+
+    /**
+     * Opens the camera and starts decoding.
+     */
+    public void resume() {
+        resumedAt = SystemClock.elapsedRealtime();
+        firstScanMs = -1;
+        barcodeView.resume();
+    }
+
+    /**
+     * Stops decoding and releases the camera.
+     */
+    public void pause() {
+        barcodeView.pause();
+    }
+
+    /**
+     * Describes the decoding statistics since this scanner was created, for the
+     * debug counter.
+     *
+     * @return Frames decoded and skipped, the last frame's decode time, and the
+     *         time from the last {@link #resume()} to the first new payload
+     */
+    public String getStats() {
+        return String.format(Locale.US, "%d decoded, %d skipped | decode %.1f ms | first scan %s",
+                framesDecoded.get(),
+                framesSkipped.get(),
+                lastDecodeNanos / 1_000_000.0,
+                firstScanMs < 0 ? "-" : firstScanMs + " ms");
+    }
+
+    /**
+     * Decoder that skips the frames the throttle does not let through. Runs on the
+     * barcode view's decoder thread.
+     */
+    private class ThrottledDecoder extends Decoder {
+
+        ThrottledDecoder(Reader reader) {
+            super(reader);
+        }
+
+        @Override
+        public Result decode(LuminanceSource source) {
+            if (!throttle.shouldDecode(SystemClock.elapsedRealtime())) {
+                framesSkipped.incrementAndGet();
+                return null;
+            }
+            long start = System.nanoTime();
+            Result result = super.decode(source);
+            lastDecodeNanos = System.nanoTime() - start;
+            framesDecoded.incrementAndGet();
+            return result;
+        }
+    }
+}
@@ -1,33 +1,80 @@
 package com.example.icetea.scanner;
 
-import android.content.Intent;
+import android.Manifest;
+import android.content.pm.PackageManager;
 import android.os.Bundle;
+import android.os.Handler;
+import android.os.Looper;
 import android.view.LayoutInflater;
 import android.view.View;
 import android.view.ViewGroup;
 import android.widget.TextView;
 import android.widget.Toast;
 
+import androidx.activity.result.ActivityResultLauncher;
+import androidx.activity.result.contract.ActivityResultContracts;
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
+import androidx.core.content.ContextCompat;
 import androidx.fragment.app.Fragment;
 
+import com.example.icetea.BuildConfig;
 import com.example.icetea.R;
+import com.example.icetea.core.QrPayload;
 import com.example.icetea.home.EventDetailsFragment;
-import com.example.icetea.models.EventDB;
+import com.example.icetea.models.Event;
+import com.example.icetea.models.EventRepository;
+import com.example.icetea.util.Callback;
+import com.example.icetea.util.QRCode;
 import com.google.android.material.button.MaterialButton;
-import com.google.zxing.integration.android.IntentIntegrator;
-import com.google.zxing.integration.android.IntentResult;
+import com.journeyapps.barcodescanner.DecoratedBarcodeView;
 
 /**
  * Fragment for scanning QR codes to join event waitlists.
  *
- * <p>Uses ZXing library to scan QR codes and validates them against the database
- * to ensure the event exists before navigating to the event details page.</p>
+ * <p>Scans continuously with a {@link ContinuousScanner} embedded in the fragment, so
+ * the camera stays open while the fragment is shown. Signed payloads are checked on
+ * the device, and the event details page opens at once while the event loads. Codes
+ * printed before payloads were signed hold a bare event ID, which is validated
+ * against the database before navigating to the event details page.</p>
+ *
+ * <p>Debug builds show a counter of decoded frames and scan latency over the camera.</p>
  */
 public class QRScannerFragment extends Fragment {
 
+    /** Most camera frames decoded per second */
+    private static final int MAX_FRAMES_PER_SECOND = 8;
+
+    /** Time in milliseconds during which the same code is not handled again */
+    private static final long DUPLICATE_WINDOW_MS = 3_000L;
+
+    /** Interval in milliseconds between refreshes of the debug counter */
+    private static final long STATS_INTERVAL_MS = 500L;
+
     private TextView tvScanStatus;
+    private TextView tvScanStats;
+    private MaterialButton btnStartScan;
+    private ContinuousScanner scanner;
+
+    private final Handler handler = new Handler(Looper.getMainLooper());
+    private final Runnable statsTask = new Runnable() {
+        @Override
+        public void run() {
+            if (scanner == null || tvScanStats == null) return;
+            tvScanStats.setText(scanner.getStats());
+            handler.postDelayed(this, STATS_INTERVAL_MS);
+        }
+    };
+
+    private final ActivityResultLauncher<String> cameraPermissionLauncher = registerForActivityResult(
+            new ActivityResultContracts.RequestPermission(),
+            isGranted -> {
+                if (isGranted) {
+                    startScanner();
+                } else {
+                    updateScanStatus("Camera permission is needed to scan QR codes");
+                }
+            });
 
     /**
      * Required empty public constructor.
@@ -52,8 +99,8 @@ public class QRScannerFragment extends Fragment {
     }
 
     /**
-     * Called immediately after onCreateView(). Initializes UI elements and sets up
-     * the scan button click listener.
+     * Called immediately after onCreateView(). Initializes UI elements, sets up the
+     * embedded scanner, and asks for the camera permission if it is missing.
      *
      * @param view The view returned by onCreateView.
      * @param savedInstanceState Saved state bundle.
@@ -63,54 +110,110 @@ public class QRScannerFragment extends Fragment {
         super.onViewCreated(view, savedInstanceState);
 
         tvScanStatus = view.findViewById(R.id.tvScanStatus);
-        MaterialButton btnStartScan = view.findViewById(R.id.btnStartScan);
+        tvScanStats = view.findViewById(R.id.tvScanStats);
+        btnStartScan = view.findViewById(R.id.btnStartScan);
+        DecoratedBarcodeView barcodeView = view.findViewById(R.id.barcodeScanner);
+
+        scanner = new ContinuousScanner(requireActivity(), barcodeView,
+                MAX_FRAMES_PER_SECOND, DUPLICATE_WINDOW_MS, text -> {
+                    updateScanStatus("Verifying event...");
+                    openScannedEvent(text);
+                });
+        tvScanStats.setVisibility(BuildConfig.DEBUG ? View.VISIBLE : View.GONE);
 
-        btnStartScan.setOnClickListener(v -> startScanner());
+        btnStartScan.setOnClickListener(v ->
+                cameraPermissionLauncher.launch(Manifest.permission.CAMERA));
+        if (!hasCameraPermission()) {
+            cameraPermissionLauncher.launch(Manifest.permission.CAMERA);
+        }
     }
 
     /**
-     * Initializes and starts the QR code scanner using ZXing IntentIntegrator.
+     * Opens the camera when the fragment is shown, if the permission has been granted.
      */
-    private void startScanner() {
-        IntentIntegrator integrator = IntentIntegrator.forSupportFragment(this);
+    @Override
+    public void onResume() {
+        super.onResume();
+        if (hasCameraPermission()) {
+            startScanner();
+        }
+    }
+
+    /**
+     * Releases the camera when the fragment is hidden.
+     */
+    @Override
+    public void onPause() {
+        super.onPause();
+        handler.removeCallbacks(statsTask);
+        if (scanner != null) {
+            scanner.pause();
+        }
+    }
+
+    /**
+     * Drops the scanner with the view it decodes from.
+     */
+    @Override
+    public void onDestroyView() {
+        super.onDestroyView();
+        scanner = null;
+        tvScanStatus = null;
+        tvScanStats = null;
+        btnStartScan = null;
+    }
 
-        integrator.setDesiredBarcodeFormats(IntentIntegrator.QR_CODE);
-        integrator.setPrompt("Scan an Event QR Code");
-        integrator.setCameraId(0);
-        integrator.setBeepEnabled(true);
-        integrator.setBarcodeImageEnabled(false);
-        integrator.setOrientationLocked(false);
+    /**
+     * @return Whether the app may use the camera.
+     */
+    private boolean hasCameraPermission() {
+        return ContextCompat.checkSelfPermission(requireContext(), Manifest.permission.CAMERA)
+                == PackageManager.PERMISSION_GRANTED;
+    }
 
-        integrator.initiateScan();
+    /**
+     * Opens the camera and starts decoding, and starts the debug counter in debug builds.
+     */
+    private void startScanner() {
+        if (scanner == null || !isResumed()) {
+            return;
+        }
+        btnStartScan.setVisibility(View.GONE);
+        scanner.resume();
+        if (BuildConfig.DEBUG) {
+            handler.removeCallbacks(statsTask);
+            handler.post(statsTask);
+        }
     }
 
     /**
-     * Handles the result from the QR code scanner.
+     * Opens the event of a scanned code. A signed payload is checked locally and the
+     * event fetch is started before the details screen opens; a bare event ID is
+     * verified against the database first.
      *
-     * @param requestCode Request code.
-     * @param resultCode Result code.
-     * @param data Intent data.
+     * @param scannedData The scanned text.
      */
-    @Override
-    public void onActivityResult(int requestCode, int resultCode, @Nullable Intent data) {
-        IntentResult result = IntentIntegrator.parseActivityResult(requestCode, resultCode, data);
-
-        if (result != null) {
-            if (result.getContents() == null) {
-                Toast.makeText(getContext(), "Scan cancelled", Toast.LENGTH_SHORT).show();
-                updateScanStatus("Scan cancelled");
-            } else {
-                String scannedData = result.getContents();
-                updateScanStatus("Verifying event...");
-                verifyAndOpenEvent(scannedData);
-            }
-        } else {
-            super.onActivityResult(requestCode, resultCode, data);
+    private void openScannedEvent(String scannedData) {
+        String text = scannedData != null ? scannedData.trim() : null;
+        if (!QrPayload.isPayload(text)) {
+            verifyAndOpenEvent(text);
+            return;
         }
+
+        QrPayload payload = QRCode.parsePayload(text);
+        if (payload == null) {
+            showInvalidQRCode();
+            return;
+        }
+        EventRepository.getInstance().prefetch(payload.getEventId());
+        updateScanStatus("Opening event...");
+        openEventDetails(payload.getEventId());
     }
 
     /**
      * Verifies that the scanned data corresponds to a valid event in the database.
+     * The event is loaded through {@link EventRepository}, so the details screen
+     * opened next reuses it instead of reading it again.
      *
      * @param eventId The scanned event ID.
      */
@@ -124,13 +227,17 @@ public class QRScannerFragment extends Fragment {
             return;
         }
 
-        EventDB.getInstance().getEvent(eventId.trim(), task -> {
-            if (!isAdded()) return;
-
-            if (task.isSuccessful() && task.getResult() != null && task.getResult().exists()) {
+        EventRepository.getInstance().getEvent(eventId.trim(), new Callback<Event>() {
+            @Override
+            public void onSuccess(Event result) {
+                if (!isAdded()) return;
                 updateScanStatus("Event found! Opening...");
                 openEventDetails(eventId.trim());
-            } else {
+            }
+
+            @Override
+            public void onFailure(Exception e) {
+                if (!isAdded()) return;
                 showInvalidQRCode();
             }
         });
@@ -146,6 +253,9 @@ public class QRScannerFragment extends Fragment {
             return;
         }
 
+        if (scanner != null) {
+            scanner.pause();
+        }
         requireActivity().getSupportFragmentManager()
                 .beginTransaction()
                 .setCustomAnimations(
@@ -0,0 +1,196 @@
+package com.example.icetea.util;
+
+import java.io.DataInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Size-capped disk cache of encoded thumbnails, so images do not need to be
+ * decoded from their Base64 source again after a restart.
+ * <p>
+ * Each entry is one file named by its key. Reads refresh the file's modification
+ * time, and when the total size exceeds the cap the least recently used files
+ * are deleted. Writes go to a temporary file that is renamed into place, so a
+ * crash never leaves a partly written entry behind.
+ * </p>
+ *
+ * <p>All methods do file I/O and must not be called on the main thread.</p>
+ */
+public class DiskThumbnailCache {
+
+    /** Suffix of files being written */
+    private static final String TEMP_SUFFIX = ".tmp";
+
+    private final File directory;
+    private final long maxBytes;
+
+    /** Total size of the entries, or -1 until the directory has been scanned */
+    private long totalBytes = -1;
+
+    /**
+     * Creates a cache in a directory. The directory is created when needed.
+     *
+     * @param directory Directory holding the entries
+     * @param maxBytes  Maximum total size of the entries
+     */
+    public DiskThumbnailCache(File directory, long maxBytes) {
+        this.directory = directory;
+        this.maxBytes = maxBytes;
+    }
+
+    /**
+     * Builds the key of a thumbnail from a hash of its Base64 source and its size.
+     *
+     * @param base64 The Base64 source of the image
+     * @param width  Width the thumbnail was made for
+     * @param height Height the thumbnail was made for
+     * @return A key that is safe to use as a file name
+     */
+    public static String keyFor(String base64, int width, int height) {
+        return keyFor(base64.getBytes(StandardCharsets.US_ASCII), width, height);
+    }
+
+    /**
+     * Builds the key of a thumbnail from a hash of its encoded source and its size.
+     *
+     * @param source The encoded source of the image
+     * @param width  Width the thumbnail was made for
+     * @param height Height the thumbnail was made for
+     * @return A key that is safe to use as a file name
+     */
+    public static String keyFor(byte[] source, int width, int height) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            byte[] hash = digest.digest(source);
+            StringBuilder key = new StringBuilder(hash.length * 2 + 16);
+            for (byte b : hash) {
+                key.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+            }
+            return key.append('_').append(width).append('x').append(height).toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    /**
+     * Returns the bytes of an entry and marks it as recently used.
+     *
+     * @param key The entry's key
+     * @return The bytes, or null if there is no such entry or it cannot be read
+     */
+    public synchronized byte[] get(String key) {
+        File file = new File(directory, key);
+        if (!file.isFile()) {
+            return null;
+        }
+        try (DataInputStream in = new DataInputStream(new FileInputStream(file))) {
+            byte[] bytes = new byte[(int) file.length()];
+            in.readFully(bytes);
+            file.setLastModified(System.currentTimeMillis());
+            return bytes;
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Stores an entry, replacing any entry with the same key, then evicts the
+     * least recently used entries until the cache fits its cap.
+     *
+     * @param key   The entry's key
+     * @param bytes The bytes to store
+     * @return whether the entry was stored
+     */
+    public synchronized boolean put(String key, byte[] bytes) {
+        if (bytes.length > maxBytes || (!directory.isDirectory() && !directory.mkdirs())) {
+            return false;
+        }
+        ensureScanned();
+
+        File file = new File(directory, key);
+        File temp = new File(directory, key + TEMP_SUFFIX);
+        try (FileOutputStream out = new FileOutputStream(temp)) {
+            out.write(bytes);
+            out.getFD().sync();
+        } catch (IOException e) {
+            temp.delete();
+            return false;
+        }
+
+        long replaced = file.isFile() ? file.length() : 0;
+        if (!temp.renameTo(file)) {
+            temp.delete();
+            return false;
+        }
+        totalBytes += bytes.length - replaced;
+        trimToSize(maxBytes);
+        return true;
+    }
+
+    /**
+     * Deletes least recently used entries until the total size is at most the given size.
+     *
+     * @param size Size to trim to in bytes
+     */
+    public synchronized void trimToSize(long size) {
+        ensureScanned();
+        if (totalBytes <= size) {
+            return;
+        }
+        List<File> entries = entries();
+        entries.sort(Comparator.comparingLong(File::lastModified));
+        for (File entry : entries) {
+            if (totalBytes <= size) {
+                break;
+            }
+            long length = entry.length();
+            if (entry.delete()) {
+                totalBytes -= length;
+            }
+        }
+    }
+
+    /**
+     * @return The total size of the entries in bytes
+     */
+    public synchronized long size() {
+        ensureScanned();
+        return totalBytes;
+    }
+
+    /**
+     * Sums the entries on first use and deletes temporary files left by a crash.
+     */
+    private void ensureScanned() {
+        if (totalBytes >= 0) {
+            return;
+        }
+        File[] files = directory.listFiles();
+        if (files != null) {
+            for (File file : files) {
+                if (file.getName().endsWith(TEMP_SUFFIX)) {
+                    file.delete();
+                }
+            }
+        }
+        long total = 0;
+        for (File entry : entries()) {
+            total += entry.length();
+        }
+        totalBytes = total;
+    }
+
+    private List<File> entries() {
+        File[] files = directory.listFiles(file -> file.isFile() && !file.getName().endsWith(TEMP_SUFFIX));
+        return files != null ? new ArrayList<>(Arrays.asList(files)) : new ArrayList<>();
+    }
+}
@@ -0,0 +1,499 @@
+package com.example.icetea.util;
+
+import android.content.ComponentCallbacks2;
+import android.content.Context;
+import android.content.res.Configuration;
+import android.content.res.Resources;
+import android.graphics.Bitmap;
+import android.graphics.BitmapFactory;
+import android.os.Handler;
+import android.os.Looper;
+import android.util.Base64;
+import android.util.LruCache;
+import android.view.ViewGroup;
+import android.widget.ImageView;
+
+import androidx.annotation.DrawableRes;
+import androidx.annotation.NonNull;
+
+import com.example.icetea.core.ImageSampling;
+import com.google.firebase.firestore.Blob;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.lang.ref.SoftReference;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Singleton that loads images stored as Blobs or Base64 strings, such as posters
+ * and avatars, into image views.
+ * <p>
+ * Images are decoded on a background executor and subsampled to the size of
+ * the target view. Decoded bitmaps are kept in a memory {@link LruCache} with a
+ * byte budget, keyed by the decoded size and by an identity the caller gives,
+ * such as the document ID, field and version of the image, so a rebind never
+ * copies or hashes the image on the main thread. Base64 strings, which cache
+ * their own hash, are keyed by their content. Bitmaps
+ * evicted from the cache and no longer shown are reused for later decodes, and
+ * the cache shrinks when the system reports memory pressure.
+ * </p>
+ *
+ * <p>Subsampled images are also written to a {@link DiskThumbnailCache}, so
+ * after a restart they are read back at their small size instead of being
+ * decoded from Base64 again.</p>
+ *
+ * <p>All public methods must be called on the main thread. Adapters should call
+ * {@link #cancel(ImageView)} when a view holder is recycled.</p>
+ */
+public class ImageLoader implements ComponentCallbacks2 {
+
+    /** Share of the app's maximum heap the cache may use */
+    private static final int CACHE_HEAP_FRACTION = 8;
+
+    /** Maximum total size of the thumbnails kept on disk */
+    private static final long DISK_CACHE_BYTES = 32L * 1024 * 1024;
+
+    /** Directory under the app's cache directory holding the thumbnails */
+    private static final String DISK_CACHE_DIR = "thumbnails";
+
+    /** JPEG quality of thumbnails without transparency */
+    private static final int THUMBNAIL_QUALITY = 90;
+
+    /** Number of images decoded at the same time */
+    private static final int DECODE_THREADS = 2;
+
+    /** Singleton instance of ImageLoader */
+    private static ImageLoader instance;
+
+    private final LruCache<String, Bitmap> cache;
+    private final DiskThumbnailCache diskCache;
+    private final ExecutorService executor = Executors.newFixedThreadPool(DECODE_THREADS);
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+
+    /** Pending decode of each view; main thread only */
+    private final Map<ImageView, Request> pending = new WeakHashMap<>();
+
+    /** Bitmap each view currently shows from this loader; main thread only */
+    private final Map<ImageView, Bitmap> shown = new WeakHashMap<>();
+
+    /** Number of views showing or about to show each bitmap; guarded by itself */
+    private final Map<Bitmap, Integer> useCounts = new IdentityHashMap<>();
+
+    /** Bitmaps evicted while in use, reusable once no view shows them; guarded by useCounts */
+    private final Map<Bitmap, Boolean> evictedInUse = new IdentityHashMap<>();
+
+    /** Bitmaps that may be reused by later decodes; guarded by useCounts */
+    private final List<SoftReference<Bitmap>> reusable = new ArrayList<>();
+
+    /** A decode started for a view */
+    private static class Request {
+        Future<?> future;
+    }
+
+    /** An encoded image, read and hashed only on the decode threads */
+    private interface Source {
+
+        /** Returns the disk cache key of the image decoded for a size */
+        String diskKey(int width, int height);
+
+        /** Returns the encoded bytes, or null if the image is malformed */
+        byte[] read();
+    }
+
+    /** An image stored as a Blob or as Base64, read at most once by its decode */
+    private static class StoredSource implements Source {
+        private final Blob blob;
+        private final String base64;
+        private byte[] bytes;
+
+        StoredSource(Blob blob, String base64) {
+            this.blob = blob;
+            this.base64 = base64;
+        }
+
+        @Override
+        public String diskKey(int width, int height) {
+            if (blob == null) {
+                return DiskThumbnailCache.keyFor(base64, width, height);
+            }
+            return DiskThumbnailCache.keyFor(read(), width, height);
+        }
+
+        @Override
+        public byte[] read() {
+            if (bytes == null) {
+                try {
+                    bytes = blob != null ? blob.toBytes() : Base64.decode(base64, Base64.DEFAULT);
+                } catch (IllegalArgumentException e) {
+                    return null;
+                }
+            }
+            return bytes;
+        }
+    }
+
+    /**
+     * Private constructor to enforce the singleton pattern.
+     *
+     * @param context Application context to register for memory callbacks and
+     *                locate the cache directory
+     */
+    private ImageLoader(Context context) {
+        int maxBytes = (int) Math.min(Runtime.getRuntime().maxMemory() / CACHE_HEAP_FRACTION, Integer.MAX_VALUE);
+        cache = new LruCache<String, Bitmap>(maxBytes) {
+            @Override
+            protected int sizeOf(String key, Bitmap bitmap) {
+                return bitmap.getAllocationByteCount();
+            }
+
+            @Override
+            protected void entryRemoved(boolean evicted, String key, Bitmap oldValue, Bitmap newValue) {
+                if (oldValue != newValue) {
+                    recycleForReuse(oldValue);
+                }
+            }
+        };
+        diskCache = new DiskThumbnailCache(new File(context.getCacheDir(), DISK_CACHE_DIR), DISK_CACHE_BYTES);
+        context.registerComponentCallbacks(this);
+    }
+
+    /**
+     * Returns the singleton instance of ImageLoader.
+     *
+     * @param context Any context; only its application context is kept
+     * @return ImageLoader instance
+     */
+    public static ImageLoader getInstance(Context context) {
+        if (instance == null) {
+            instance = new ImageLoader(context.getApplicationContext());
+        }
+        return instance;
+    }
+
+    /**
+     * Shows a Base64 image in a view, or the placeholder if there is no image or
+     * it cannot be decoded. The placeholder is shown while the image is decoding.
+     *
+     * @param base64      The image as a Base64 string; may be null or empty
+     * @param target      The view to show the image in
+     * @param placeholder Drawable shown while loading and when there is no image
+     */
+    public void load(String base64, @NonNull ImageView target, @DrawableRes int placeholder) {
+        if (base64 == null || base64.isEmpty()) {
+            cancel(target);
+            target.setImageResource(placeholder);
+            return;
+        }
+        // String caches its hash, so building the key is cheap on rebinds of the same item
+        load(base64.hashCode() + ":" + base64.length(), new Source() {
+            @Override
+            public String diskKey(int width, int height) {
+                return DiskThumbnailCache.keyFor(base64, width, height);
+            }
+
+            @Override
+            public byte[] read() {
+                try {
+                    return Base64.decode(base64, Base64.DEFAULT);
+                } catch (IllegalArgumentException e) {
+                    return null;
+                }
+            }
+        }, target, placeholder);
+    }
+
+    /**
+     * Shows an encoded image in a view, or the placeholder if there is no image or
+     * it cannot be decoded. The placeholder is shown while the image is decoding.
+     *
+     * @param key         Identity of the image, such as its document ID, field and
+     *                    version; must change whenever the image does
+     * @param bytes       The encoded image; may be null or empty
+     * @param target      The view to show the image in
+     * @param placeholder Drawable shown while loading and when there is no image
+     */
+    public void load(@NonNull String key, byte[] bytes, @NonNull ImageView target, @DrawableRes int placeholder) {
+        if (bytes == null || bytes.length == 0) {
+            cancel(target);
+            target.setImageResource(placeholder);
+            return;
+        }
+        load("k" + key, new Source() {
+            @Override
+            public String diskKey(int width, int height) {
+                return DiskThumbnailCache.keyFor(bytes, width, height);
+            }
+
+            @Override
+            public byte[] read() {
+                return bytes;
+            }
+        }, target, placeholder);
+    }
+
+    /**
+     * Shows an image stored as a Blob, or as a Base64 string by older versions of
+     * the app, in a view. The Blob is used when both are present. Its bytes are
+     * copied, and the Base64 string decoded, only on the decode threads.
+     *
+     * @param key         Identity of the image, such as its document ID, field and
+     *                    version; must change whenever the image does
+     * @param blob        The image as a Blob; may be null
+     * @param base64      The image as a Base64 string; may be null or empty
+     * @param target      The view to show the image in
+     * @param placeholder Drawable shown while loading and when there is no image
+     */
+    public void load(@NonNull String key, Blob blob, String base64, @NonNull ImageView target, @DrawableRes int placeholder) {
+        if (blob == null && (base64 == null || base64.isEmpty())) {
+            cancel(target);
+            target.setImageResource(placeholder);
+            return;
+        }
+        load("k" + key, new StoredSource(blob, base64), target, placeholder);
+    }
+
+    private void load(String contentKey, Source source, ImageView target, int placeholder) {
+        cancel(target);
+        int reqWidth = targetSize(target.getWidth(), target.getLayoutParams() != null ? target.getLayoutParams().width : 0);
+        int reqHeight = targetSize(target.getHeight(), target.getLayoutParams() != null ? target.getLayoutParams().height : 0);
+        String key = contentKey + "@" + reqWidth + "x" + reqHeight;
+
+        Bitmap cached = getAndRetain(key);
+        if (cached != null) {
+            show(target, cached);
+            return;
+        }
+
+        target.setImageResource(placeholder);
+        Request request = new Request();
+        pending.put(target, request);
+        request.future = executor.submit(() -> {
+            String diskKey = source.diskKey(reqWidth, reqHeight);
+            byte[] thumbnail = diskCache.get(diskKey);
+            boolean fromDisk = thumbnail != null;
+            Bitmap bitmap = fromDisk ? decode(thumbnail, reqWidth, reqHeight) : null;
+            if (bitmap == null) {
+                fromDisk = false;
+                byte[] encoded = source.read();
+                bitmap = encoded != null ? decode(encoded, reqWidth, reqHeight) : null;
+            }
+            if (bitmap == null) {
+                mainHandler.post(() -> pending.remove(target, request));
+                return;
+            }
+            Bitmap decoded = bitmap;
+            // Retain before caching, so an eviction by the other decode thread cannot make it reusable
+            retain(decoded);
+            cache.put(key, decoded);
+            if (fromDisk) {
+                mainHandler.post(() -> deliver(target, request, decoded));
+                return;
+            }
+            // Keep the bitmap from being reused while it is written to disk
+            retain(decoded);
+            mainHandler.post(() -> deliver(target, request, decoded));
+            try {
+                diskCache.put(diskKey, compress(decoded));
+            } finally {
+                release(decoded);
+            }
+        });
+    }
+
+    /**
+     * Cancels any pending decode for a view and releases the bitmap it shows,
+     * so the bitmap can be reused once evicted.
+     *
+     * @param target The view
+     */
+    public void cancel(@NonNull ImageView target) {
+        Request request = pending.remove(target);
+        if (request != null && request.future != null) {
+            request.future.cancel(false);
+        }
+        Bitmap previous = shown.remove(target);
+        if (previous != null) {
+            release(previous);
+        }
+    }
+
+    /**
+     * Shows a decoded bitmap if the view still waits for it.
+     */
+    private void deliver(ImageView target, Request request, Bitmap bitmap) {
+        if (!pending.remove(target, request)) {
+            release(bitmap);
+            return;
+        }
+        show(target, bitmap);
+    }
+
+    private void show(ImageView target, Bitmap bitmap) {
+        shown.put(target, bitmap);
+        target.setImageBitmap(bitmap);
+    }
+
+    /**
+     * Decodes an encoded image subsampled for a target size, reusing an evicted
+     * bitmap when one is large enough.
+     *
+     * @return The bitmap, or null if the image cannot be decoded
+     */
+    private Bitmap decode(byte[] bytes, int reqWidth, int reqHeight) {
+        BitmapFactory.Options options = new BitmapFactory.Options();
+        options.inJustDecodeBounds = true;
+        BitmapFactory.decodeByteArray(bytes, 0, bytes.length, options);
+        if (options.outWidth <= 0 || options.outHeight <= 0) {
+            return null;
+        }
+
+        options.inJustDecodeBounds = false;
+        options.inSampleSize = ImageSampling.inSampleSize(options.outWidth, options.outHeight, reqWidth, reqHeight);
+        options.inMutable = true;
+        options.inBitmap = takeReusable(ImageSampling.decodedByteCount(options.outWidth, options.outHeight, options.inSampleSize));
+        try {
+            return BitmapFactory.decodeByteArray(bytes, 0, bytes.length, options);
+        } catch (IllegalArgumentException e) {
+            // The reused bitmap did not fit after all; decode into a new one
+            options.inBitmap = null;
+            return BitmapFactory.decodeByteArray(bytes, 0, bytes.length, options);
+        }
+    }
+
+    /**
+     * Encodes a decoded thumbnail for the disk cache, as JPEG unless it has transparency.
+     */
+    private static byte[] compress(Bitmap bitmap) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        if (bitmap.hasAlpha()) {
+            bitmap.compress(Bitmap.CompressFormat.PNG, 100, out);
+        } else {
+            bitmap.compress(Bitmap.CompressFormat.JPEG, THUMBNAIL_QUALITY, out);
+        }
+        return out.toByteArray();
+    }
+
+    /**
+     * Returns the size to decode for along one axis.
+     *
+     * @param measured     The measured size of the view, 0 before layout
+     * @param layoutParam  The layout parameter for the axis
+     * @return The size in pixels, or 0 if unknown
+     */
+    private static int targetSize(int measured, int layoutParam) {
+        if (measured > 0) return measured;
+        if (layoutParam > 0) return layoutParam;
+        // MATCH_PARENT and WRAP_CONTENT before layout: fall back to the screen size
+        return layoutParam == ViewGroup.LayoutParams.MATCH_PARENT
+                ? Resources.getSystem().getDisplayMetrics().widthPixels
+                : 0;
+    }
+
+    /**
+     * Returns the cached bitmap for a key, retained for the caller, or null.
+     * <p>
+     * The lookup and the retain happen under the cache's own lock, which
+     * {@link LruCache} also holds while removing an entry. An entry evicted
+     * concurrently is therefore either missed here or seen as in use by
+     * {@link #recycleForReuse}, and is never handed out for reuse while shown.
+     * </p>
+     */
+    private Bitmap getAndRetain(String key) {
+        synchronized (cache) {
+            Bitmap bitmap = cache.get(key);
+            if (bitmap != null) {
+                retain(bitmap);
+            }
+            return bitmap;
+        }
+    }
+
+    private void retain(Bitmap bitmap) {
+        synchronized (useCounts) {
+            useCounts.merge(bitmap, 1, Integer::sum);
+        }
+    }
+
+    private void release(Bitmap bitmap) {
+        synchronized (useCounts) {
+            Integer count = useCounts.get(bitmap);
+            if (count == null || count <= 1) {
+                useCounts.remove(bitmap);
+                if (evictedInUse.remove(bitmap) != null) {
+                    reusable.add(new SoftReference<>(bitmap));
+                }
+            } else {
+                useCounts.put(bitmap, count - 1);
+            }
+        }
+    }
+
+    /**
+     * Makes a bitmap that left the cache reusable, now if no view shows it or
+     * otherwise once the last view releases it.
+     */
+    private void recycleForReuse(Bitmap bitmap) {
+        if (!bitmap.isMutable()) return;
+        synchronized (useCounts) {
+            if (useCounts.containsKey(bitmap)) {
+                evictedInUse.put(bitmap, Boolean.TRUE);
+            } else {
+                reusable.add(new SoftReference<>(bitmap));
+            }
+        }
+    }
+
+    /**
+     * Takes a reusable bitmap with at least the given number of bytes, if there is one.
+     */
+    private Bitmap takeReusable(long byteCount) {
+        synchronized (useCounts) {
+            Iterator<SoftReference<Bitmap>> iterator = reusable.iterator();
+            while (iterator.hasNext()) {
+                Bitmap candidate = iterator.next().get();
+                if (candidate == null || candidate.isRecycled()) {
+                    iterator.remove();
+                } else if (candidate.getAllocationByteCount() >= byteCount && !useCounts.containsKey(candidate)) {
+                    iterator.remove();
+                    return candidate;
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Shrinks the cache when the system asks the app to release memory.
+     *
+     * @param level The trim level reported by the system
+     */
+    @Override
+    public void onTrimMemory(int level) {
+        if (level >= TRIM_MEMORY_MODERATE || level == TRIM_MEMORY_RUNNING_CRITICAL) {
+            cache.evictAll();
+            synchronized (useCounts) {
+                reusable.clear();
+            }
+        } else if (level >= TRIM_MEMORY_RUNNING_LOW) {
+            cache.trimToSize(cache.maxSize() / 2);
+        }
+    }
+
+    @Override
+    public void onLowMemory() {
+        onTrimMemory(TRIM_MEMORY_COMPLETE);
+    }
+
+    @Override
+    public void onConfigurationChanged(@NonNull Configuration newConfig) {
+        // Nothing to do
+    }
+}
@@ -1,80 +1,289 @@
 package com.example.icetea.util;
 
+import android.content.ContentResolver;
 import android.content.Context;
 import android.graphics.Bitmap;
 import android.graphics.BitmapFactory;
 import android.net.Uri;
-import android.provider.MediaStore;
+import android.os.Build;
+import android.os.Handler;
+import android.os.Looper;
 import android.util.Base64;
 
+import com.example.icetea.core.ImageEncoding;
+import com.example.icetea.core.ImageSampling;
+import com.google.firebase.firestore.Blob;
+
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
-import java.nio.charset.StandardCharsets;
+import java.io.InputStream;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
 
 /**
  * Utility class for image conversions and manipulations.
  * <p>
- * Provides methods to convert between {@link Bitmap} and Base64 strings,
- * as well as converting image {@link Uri}s to Base64 with size checks.
+ * Provides methods to convert between {@link Bitmap}s and images stored as
+ * Base64 strings or {@link Blob} bytes, as well as encoding picked image
+ * {@link Uri}s within a size budget.
  */
 public class ImageUtil {
 
+    /** JPEG quality used for thumbnails */
+    private static final int THUMBNAIL_QUALITY = 80;
+
+    /** Maximum width and height of uploaded images in pixels */
+    public static final int MAX_DIMENSION = 512;
+
+    /** Maximum length of an uploaded image's Base64 string */
+    private static final int MAX_BASE64_CHARS = 500 * 1024;
+
+    /** Lowest and highest quality tried when encoding an upload */
+    private static final int MIN_QUALITY = 40;
+    private static final int MAX_QUALITY = 90;
+
+    /** Factor an upload is scaled by when it does not fit at the lowest quality */
+    private static final float DOWNSCALE_STEP = 0.75f;
+
+    /** Size below which an upload is not scaled down further */
+    private static final int MIN_DIMENSION = 64;
+
+    /** Executor that encodes uploads off the main thread */
+    private static final Executor ENCODE_EXECUTOR = Executors.newSingleThreadExecutor();
+
     /**
-     * Converts a Base64-encoded string to a {@link Bitmap}.
+     * Converts encoded image bytes, such as those of a Firestore {@link Blob}, to a {@link Bitmap}.
      *
-     * @param base64Str The Base64 string representing the image.
-     * @return A {@link Bitmap} decoded from the Base64 string, or {@code null} if the string is null or empty.
+     * @param bytes The encoded image.
+     * @return A {@link Bitmap} decoded from the bytes, or {@code null} if there are none.
      */
-    public static Bitmap base64ToBitmap(String base64Str) {
+    public static Bitmap bytesToBitmap(byte[] bytes) {
+        if (bytes == null || bytes.length == 0) {
+            return null;
+        }
+        return BitmapFactory.decodeByteArray(bytes, 0, bytes.length);
+    }
+
+    /**
+     * Returns the encoded bytes of an image stored either as a {@link Blob} or,
+     * by older versions of the app, as a Base64 string. The Blob is used when
+     * both are present.
+     *
+     * @param blob      The image as a Blob, or {@code null}.
+     * @param base64Str The image as a Base64 string, or {@code null}.
+     * @return The encoded image, or {@code null} if there is none or the string is malformed.
+     */
+    public static byte[] toBytes(Blob blob, String base64Str) {
+        if (blob != null) {
+            return blob.toBytes();
+        }
         if (base64Str == null || base64Str.isEmpty()) {
             return null;
         }
-        byte[] decodedBytes = Base64.decode(base64Str, Base64.DEFAULT);
-        return BitmapFactory.decodeByteArray(decodedBytes, 0, decodedBytes.length);
+        try {
+            return Base64.decode(base64Str, Base64.DEFAULT);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Makes a smaller copy of an image whose longest side is at most the given size.
+     * <p>
+     * The image is decoded subsampled, scaled down if still too large, and
+     * compressed to JPEG. Should be called off the main thread.
+     *
+     * @param bytes        The encoded image.
+     * @param maxDimension The maximum width and height of the copy in pixels.
+     * @return The encoded copy, or {@code null} if the image cannot be decoded.
+     */
+    public static byte[] thumbnailBytes(byte[] bytes, int maxDimension) {
+        if (bytes == null || bytes.length == 0) {
+            return null;
+        }
+
+        BitmapFactory.Options options = new BitmapFactory.Options();
+        options.inJustDecodeBounds = true;
+        BitmapFactory.decodeByteArray(bytes, 0, bytes.length, options);
+        if (options.outWidth <= 0 || options.outHeight <= 0) {
+            return null;
+        }
+        options.inJustDecodeBounds = false;
+        options.inSampleSize = ImageSampling.inSampleSize(options.outWidth, options.outHeight, maxDimension, maxDimension);
+        Bitmap bitmap = BitmapFactory.decodeByteArray(bytes, 0, bytes.length, options);
+        if (bitmap == null) {
+            return null;
+        }
+
+        bitmap = scaleToFit(bitmap, maxDimension);
+
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        bitmap.compress(Bitmap.CompressFormat.JPEG, THUMBNAIL_QUALITY, outputStream);
+        return outputStream.toByteArray();
+    }
+
+    /**
+     * Encodes an image {@link Uri} on a background thread and delivers
+     * the result on the main thread.
+     *
+     * @param context      The context to access content resolver.
+     * @param uri          The {@link Uri} of the image to convert.
+     * @param variantSizes Maximum dimensions of smaller copies to make as well.
+     * @param callback     Receives the image, or an {@link IOException} or
+     *                     {@link ImageTooLargeException} on failure.
+     */
+    public static void encodeImageAsync(Context context, Uri uri, int[] variantSizes, Callback<EncodedImage> callback) {
+        Context appContext = context.getApplicationContext();
+        Handler mainHandler = new Handler(Looper.getMainLooper());
+        ENCODE_EXECUTOR.execute(() -> {
+            try {
+                EncodedImage image = encodeImage(appContext, uri, variantSizes);
+                mainHandler.post(() -> callback.onSuccess(image));
+            } catch (Exception e) {
+                mainHandler.post(() -> callback.onFailure(e));
+            }
+        });
     }
 
     /**
-     * Converts an image {@link Uri} to a Base64-encoded string.
+     * Encodes an image {@link Uri} without loading it at full resolution.
      * <p>
-     * The image will be resized to a maximum dimension of 512 pixels and compressed
-     * to JPEG format with 50% quality to limit the Base64 string size.
-     * Throws {@link ImageTooLargeException} if the resulting Base64 exceeds 500 KB.
+     * The image's bounds are read first and it is decoded subsampled, then scaled
+     * so its longest side is at most {@value #MAX_DIMENSION} pixels. It is encoded
+     * as JPEG or WebP, whichever keeps the higher quality within 500 KB of Base64.
+     * If neither fits even at the lowest quality, the image is scaled down further
+     * instead of being rejected. Smaller copies for the requested variant sizes are
+     * made from the same decoded image. Blocks, so must not be called on the main thread.
      *
-     * @param context The context to access content resolver.
-     * @param uri     The {@link Uri} of the image to convert.
-     * @return A Base64-encoded string of the image.
-     * @throws IOException               If the image cannot be loaded from the given {@link Uri}.
-     * @throws ImageTooLargeException    If the resulting Base64 string exceeds 500 KB.
+     * @param context      The context to access content resolver.
+     * @param uri          The {@link Uri} of the image to convert.
+     * @param variantSizes Maximum dimensions of smaller copies to make as well.
+     * @return The encoded image and its variants.
+     * @throws IOException            If the image cannot be loaded from the given {@link Uri}.
+     * @throws ImageTooLargeException If the image does not fit even at the smallest size.
      */
-    public static String uriToBase64(Context context, Uri uri) throws IOException, ImageTooLargeException {
+    public static EncodedImage encodeImage(Context context, Uri uri, int... variantSizes)
+            throws IOException, ImageTooLargeException {
         if (uri == null) {
             throw new IOException("URI is null");
         }
-        Bitmap bitmap;
-        try {
-            bitmap = MediaStore.Images.Media.getBitmap(context.getContentResolver(), uri);
-        } catch (Exception e) {
-            throw new IOException("Failed to load bitmap", e);
+        ContentResolver resolver = context.getContentResolver();
+
+        BitmapFactory.Options options = new BitmapFactory.Options();
+        options.inJustDecodeBounds = true;
+        try (InputStream in = resolver.openInputStream(uri)) {
+            BitmapFactory.decodeStream(in, null, options);
+        }
+        if (options.outWidth <= 0 || options.outHeight <= 0) {
+            throw new IOException("Failed to load bitmap");
         }
 
-        int maxDimension = 512;
-        int width = bitmap.getWidth();
-        int height = bitmap.getHeight();
-        float scale = Math.min((float) maxDimension / width, (float) maxDimension / height);
-        if (scale < 1f) {
-            bitmap = Bitmap.createScaledBitmap(bitmap, (int) (width * scale), (int) (height * scale), true);
+        options.inJustDecodeBounds = false;
+        options.inSampleSize = ImageSampling.inSampleSize(options.outWidth, options.outHeight, MAX_DIMENSION, MAX_DIMENSION);
+        Bitmap decoded;
+        try (InputStream in = resolver.openInputStream(uri)) {
+            decoded = BitmapFactory.decodeStream(in, null, options);
+        }
+        if (decoded == null) {
+            throw new IOException("Failed to load bitmap");
         }
 
-        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
-        bitmap.compress(Bitmap.CompressFormat.JPEG, 50, outputStream);
-        byte[] imageBytes = outputStream.toByteArray();
+        Bitmap base = scaleToFit(decoded, MAX_DIMENSION);
+        EncodedImage image = new EncodedImage(encodeToFit(base, MAX_BASE64_CHARS), base);
+        for (int size : variantSizes) {
+            if (size >= Math.max(base.getWidth(), base.getHeight())) {
+                image.variants.put(size, image.bytes);
+            } else {
+                image.variants.put(size, encodeToFit(scaleToFit(base, size), MAX_BASE64_CHARS));
+            }
+        }
+        return image;
+    }
+
+    /**
+     * Encodes a bitmap in the format and quality that fit a Base64 length,
+     * scaling it down when nothing fits.
+     */
+    private static byte[] encodeToFit(Bitmap bitmap, int maxChars) throws ImageTooLargeException {
+        Bitmap.CompressFormat[] formats = {Bitmap.CompressFormat.JPEG, webpFormat()};
+        int maxBytes = ImageEncoding.maxBytesForBase64(maxChars);
+        while (true) {
+            Bitmap source = bitmap;
+            ImageEncoding.Choice choice = ImageEncoding.bestFit((format, quality) -> {
+                ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+                source.compress(formats[format], quality, outputStream);
+                return outputStream.toByteArray();
+            }, formats.length, maxBytes, MIN_QUALITY, MAX_QUALITY);
+            if (choice != null) {
+                return choice.getBytes();
+            }
+
+            int longest = Math.max(bitmap.getWidth(), bitmap.getHeight());
+            if (longest <= MIN_DIMENSION) {
+                throw new ImageTooLargeException("Image is too large to upload");
+            }
+            bitmap = scaleToFit(bitmap, Math.max(MIN_DIMENSION, (int) (longest * DOWNSCALE_STEP)));
+        }
+    }
+
+    /**
+     * Scales a bitmap down so its longest side is at most the given size.
+     */
+    private static Bitmap scaleToFit(Bitmap bitmap, int maxDimension) {
+        float scale = Math.min((float) maxDimension / bitmap.getWidth(), (float) maxDimension / bitmap.getHeight());
+        if (scale >= 1f) {
+            return bitmap;
+        }
+        return Bitmap.createScaledBitmap(bitmap, Math.max(1, (int) (bitmap.getWidth() * scale)),
+                Math.max(1, (int) (bitmap.getHeight() * scale)), true);
+    }
+
+    @SuppressWarnings("deprecation")
+    private static Bitmap.CompressFormat webpFormat() {
+        return Build.VERSION.SDK_INT >= Build.VERSION_CODES.R
+                ? Bitmap.CompressFormat.WEBP_LOSSY
+                : Bitmap.CompressFormat.WEBP;
+    }
+
+    /**
+     * An encoded image, with smaller copies of it.
+     */
+    public static class EncodedImage {
+
+        private final byte[] bytes;
+        private final Bitmap bitmap;
+        private final Map<Integer, byte[]> variants = new HashMap<>();
 
-        int base64Size = Base64.encodeToString(imageBytes, Base64.DEFAULT).getBytes(StandardCharsets.UTF_8).length;
-        if (base64Size > 500 * 1024) {
-            throw new ImageTooLargeException("Image is too large to upload");
+        EncodedImage(byte[] bytes, Bitmap bitmap) {
+            this.bytes = bytes;
+            this.bitmap = bitmap;
         }
 
-        return Base64.encodeToString(imageBytes, Base64.DEFAULT);
+        /**
+         * @return The downsampled image that was encoded, for previews
+         */
+        public Bitmap getBitmap() {
+            return bitmap;
+        }
+
+        /**
+         * @return The encoded image, for storing as a Firestore {@link Blob}
+         */
+        public byte[] getBytes() {
+            return bytes;
+        }
+
+        /**
+         * Returns the copy made for a variant size.
+         *
+         * @param size A size passed when encoding
+         * @return The encoded copy, or null if no copy was made for the size
+         */
+        public byte[] getVariant(int size) {
+            return variants.get(size);
+        }
     }
 
     /**
@@ -0,0 +1,54 @@
+package com.example.icetea.util;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+
+/**
+ * Utility methods for preparing lists of IDs for batched database queries.
+ */
+public class ListUtil {
+
+    /**
+     * Splits a list into consecutive sublists of at most {@code chunkSize} elements.
+     * <p>
+     * The returned sublists are copies, so later changes to the source list do not affect them.
+     *
+     * @param source    The list to split.
+     * @param chunkSize Maximum size of each chunk; must be greater than 0.
+     * @param <T>       The element type.
+     * @return A list of chunks in the original order, empty if the source is null or empty.
+     */
+    public static <T> List<List<T>> chunk(List<T> source, int chunkSize) {
+        if (chunkSize <= 0) {
+            throw new IllegalArgumentException("Chunk size must be greater than 0");
+        }
+        List<List<T>> chunks = new ArrayList<>();
+        if (source == null) {
+            return chunks;
+        }
+        for (int i = 0; i < source.size(); i += chunkSize) {
+            chunks.add(new ArrayList<>(source.subList(i, Math.min(i + chunkSize, source.size()))));
+        }
+        return chunks;
+    }
+
+    /**
+     * Returns the distinct non-null, non-empty IDs from a collection, preserving first-seen order.
+     *
+     * @param ids The IDs to clean up; may be null.
+     * @return A new list of unique IDs.
+     */
+    public static List<String> distinctIds(Collection<String> ids) {
+        LinkedHashSet<String> unique = new LinkedHashSet<>();
+        if (ids != null) {
+            for (String id : ids) {
+                if (id != null && !id.isEmpty()) {
+                    unique.add(id);
+                }
+            }
+        }
+        return new ArrayList<>(unique);
+    }
+}
@@ -0,0 +1,182 @@
+package com.example.icetea.util;
+
+import android.content.Context;
+import android.util.LruCache;
+import android.widget.ImageView;
+
+import androidx.annotation.DrawableRes;
+import androidx.annotation.NonNull;
+
+import com.example.icetea.models.Event;
+import com.example.icetea.models.PosterDB;
+import com.google.android.gms.tasks.OnCompleteListener;
+import com.google.firebase.firestore.DocumentSnapshot;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+/**
+ * Singleton that shows event posters from {@link PosterDB} in image views.
+ * <p>
+ * List screens load the thumbnail of each poster when its row is bound, and
+ * the event's own screens load the full poster. Fetched images are kept in a
+ * small memory cache keyed by poster ID, version and variant, so a replaced
+ * poster is fetched again, and concurrent requests for the same image share
+ * one fetch. Decoding is left to {@link ImageLoader}. Events saved before
+ * posters had their own collection show their inline poster.
+ * </p>
+ *
+ * <p>All public methods must be called on the main thread. Adapters should call
+ * {@link #cancel(ImageView)} when a view holder is recycled.</p>
+ */
+public class PosterLoader {
+
+    /** Maximum number of encoded image bytes kept in the cache */
+    private static final int CACHE_BYTES = 4 * 1024 * 1024;
+
+    /** Singleton instance of PosterLoader */
+    private static PosterLoader instance;
+
+    private final ImageLoader imageLoader;
+
+    /** Fetched images by key; an empty array marks a poster that does not exist */
+    private final LruCache<String, byte[]> cache = new LruCache<String, byte[]>(CACHE_BYTES) {
+        @Override
+        protected int sizeOf(String key, byte[] image) {
+            return Math.max(1, image.length);
+        }
+    };
+
+    /** Callbacks waiting for each image being fetched */
+    private final Map<String, List<Callback<byte[]>>> inFlight = new HashMap<>();
+
+    /** Key of the image each view waits for */
+    private final Map<ImageView, String> expected = new WeakHashMap<>();
+
+    /**
+     * Private constructor to enforce the singleton pattern.
+     *
+     * @param context Application context
+     */
+    private PosterLoader(Context context) {
+        imageLoader = ImageLoader.getInstance(context);
+    }
+
+    /**
+     * Returns the singleton instance of PosterLoader.
+     *
+     * @param context Any context; only its application context is kept
+     * @return PosterLoader instance
+     */
+    public static PosterLoader getInstance(Context context) {
+        if (instance == null) {
+            instance = new PosterLoader(context.getApplicationContext());
+        }
+        return instance;
+    }
+
+    /**
+     * Shows the thumbnail of an event's poster, for lists and grids.
+     *
+     * @param event       The event
+     * @param target      The view to show the poster in
+     * @param placeholder Drawable shown while loading and when there is no poster
+     */
+    public void loadThumbnail(@NonNull Event event, @NonNull ImageView target, @DrawableRes int placeholder) {
+        load(event, false, target, placeholder);
+    }
+
+    /**
+     * Shows the full poster of an event, for the event's own screens.
+     *
+     * @param event       The event
+     * @param target      The view to show the poster in
+     * @param placeholder Drawable shown while loading and when there is no poster
+     */
+    public void loadFull(@NonNull Event event, @NonNull ImageView target, @DrawableRes int placeholder) {
+        load(event, true, target, placeholder);
+    }
+
+    /**
+     * Stops waiting for a poster for a view and cancels its decode.
+     *
+     * @param target The view
+     */
+    public void cancel(@NonNull ImageView target) {
+        expected.remove(target);
+        imageLoader.cancel(target);
+    }
+
+    private void load(Event event, boolean full, ImageView target, int placeholder) {
+        String posterId = event.getPosterId();
+        if (posterId == null) {
+            expected.remove(target);
+            imageLoader.load(event.getPosterBase64(), target, placeholder);
+            return;
+        }
+
+        String key = posterId + "@" + event.getPosterVersion() + (full ? "/full" : "/thumb");
+        byte[] cached = cache.get(key);
+        if (cached != null) {
+            expected.remove(target);
+            imageLoader.load(key, cached, target, placeholder);
+            return;
+        }
+
+        imageLoader.cancel(target);
+        target.setImageResource(placeholder);
+        expected.put(target, key);
+        fetch(key, posterId, full, new Callback<byte[]>() {
+            @Override
+            public void onSuccess(byte[] image) {
+                if (key.equals(expected.get(target))) {
+                    expected.remove(target);
+                    imageLoader.load(key, image, target, placeholder);
+                }
+            }
+
+            @Override
+            public void onFailure(Exception e) {
+                if (key.equals(expected.get(target))) {
+                    expected.remove(target);
+                }
+            }
+        });
+    }
+
+    /**
+     * Fetches an image once, however many views are waiting for it.
+     */
+    private void fetch(String key, String posterId, boolean full, Callback<byte[]> callback) {
+        List<Callback<byte[]>> waiting = inFlight.get(key);
+        if (waiting != null) {
+            waiting.add(callback);
+            return;
+        }
+        waiting = new ArrayList<>();
+        waiting.add(callback);
+        inFlight.put(key, waiting);
+
+        PosterDB posterDB = PosterDB.getInstance();
+        OnCompleteListener<DocumentSnapshot> listener = task -> {
+            List<Callback<byte[]>> callbacks = inFlight.remove(key);
+            if (callbacks == null) return;
+            if (!task.isSuccessful() || task.getResult() == null) {
+                Exception e = task.getException() != null ? task.getException() : new Exception("Error loading poster");
+                for (Callback<byte[]> c : callbacks) c.onFailure(e);
+                return;
+            }
+            byte[] image = PosterDB.imageBytes(task.getResult());
+            cache.put(key, image != null ? image : new byte[0]);
+            for (Callback<byte[]> c : callbacks) c.onSuccess(image);
+        };
+        if (full) {
+            posterDB.getFullPoster(posterId, listener);
+        } else {
+            posterDB.getThumbnail(posterId, listener);
+        }
+    }
+}
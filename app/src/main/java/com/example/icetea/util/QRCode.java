@@ -10,45 +10,98 @@ import android.os.Environment;
 import android.provider.MediaStore;
 import android.widget.ImageView;
 
-import com.google.zxing.BarcodeFormat;
+import com.example.icetea.core.CheckInCode;
+import com.example.icetea.core.QrPayload;
+import com.example.icetea.core.QrPixels;
 import com.google.zxing.WriterException;
 import com.google.zxing.common.BitMatrix;
-import com.google.zxing.qrcode.QRCodeWriter;
 
 import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
 
 /**
  * Utility class for generating and saving QR codes.
  * <p>
- * Provides methods to generate a QR code bitmap from a string and display it in an ImageView,
- * as well as to save that QR code to the device's storage.
+ * Provides methods to render a QR code bitmap from a string, as well as to save a
+ * displayed QR code to the device's storage. Screens load codes through {@link QrCodeLoader}.
  */
 public class QRCode {
 
+    /** Default width and height of a rendered QR code in pixels */
+    public static final int DEFAULT_SIZE = 512;
+
+    /**
+     * Key that signs event QR payloads and check-in codes. It ships with the app,
+     * so the signature rejects foreign and damaged codes offline; it does not stop
+     * a determined forger. Events are still loaded before anyone can join them, and
+     * check-ins are only accepted for entrants on the event's roster.
+     */
+    private static final byte[] PAYLOAD_KEY = "icetea-event-qr-v1".getBytes(StandardCharsets.UTF_8);
+
     /**
-     * Generates a QR code from the given text and sets it to an ImageView.
+     * Returns the text encoded in the QR code of an event.
      *
-     * @param qrText      The text to encode into the QR code.
-     * @param qrImageView The ImageView in which to display the generated QR code.
+     * @param eventId The event ID.
+     * @return The signed payload for the event.
      */
-    public static void generateQRCode(String qrText, ImageView qrImageView) {
-        QRCodeWriter writer = new QRCodeWriter();
-        try {
-            BitMatrix bitMatrix = writer.encode(qrText, BarcodeFormat.QR_CODE, 512, 512);
-            int width = bitMatrix.getWidth();
-            int height = bitMatrix.getHeight();
-            Bitmap bitmap = Bitmap.createBitmap(width, height, Bitmap.Config.RGB_565);
-
-            for (int x = 0; x < width; x++) {
-                for (int y = 0; y < height; y++) {
-                    bitmap.setPixel(x, y, bitMatrix.get(x, y) ? 0xFF000000 : 0xFFFFFFFF);
-                }
-            }
+    public static String payloadFor(String eventId) {
+        return QrPayload.encode(eventId, PAYLOAD_KEY);
+    }
 
-            qrImageView.setImageBitmap(bitmap);
-        } catch (WriterException e) {
-            e.printStackTrace();
-        }
+    /**
+     * Checks a scanned signed payload without a network read.
+     *
+     * @param text The scanned text.
+     * @return The payload, or {@code null} if the text is not a valid signed payload.
+     *         Codes printed before payloads were signed hold a bare event ID; see
+     *         {@link QrPayload#isPayload}.
+     */
+    public static QrPayload parsePayload(String text) {
+        return QrPayload.parse(text, PAYLOAD_KEY);
+    }
+
+    /**
+     * Returns the text encoded in an entrant's check-in code for an event.
+     *
+     * @param eventId The event ID.
+     * @param userId  The entrant's user ID.
+     * @return The signed check-in code.
+     */
+    public static String checkInPayloadFor(String eventId, String userId) {
+        return CheckInCode.encode(eventId, userId, PAYLOAD_KEY);
+    }
+
+    /**
+     * Checks a scanned check-in code without a network read.
+     *
+     * @param text The scanned text.
+     * @return The code, or {@code null} if the text is not a valid check-in code.
+     */
+    public static CheckInCode parseCheckIn(String text) {
+        return CheckInCode.parse(text, PAYLOAD_KEY);
+    }
+
+    /**
+     * Renders a QR code as a bitmap.
+     * <p>
+     * The code is encoded at one pixel per module and scaled up by the largest
+     * whole factor that fits the size, so the bitmap is at most {@code size}
+     * pixels wide and every module is a sharp square. All pixels are written
+     * with a single {@link Bitmap#setPixels} call.
+     *
+     * @param qrText The text to encode into the QR code.
+     * @param size   The maximum width and height of the bitmap in pixels.
+     * @return The rendered QR code.
+     * @throws WriterException If the text cannot be encoded.
+     */
+    public static Bitmap render(String qrText, int size) throws WriterException {
+        BitMatrix modules = QrPixels.encodeModules(qrText);
+        int scale = QrPixels.scaleFor(modules.getWidth(), size);
+        int width = modules.getWidth() * scale;
+        int height = modules.getHeight() * scale;
+        Bitmap bitmap = Bitmap.createBitmap(width, height, Bitmap.Config.RGB_565);
+        bitmap.setPixels(QrPixels.toPixels(modules, scale), 0, width, 0, 0, width, height);
+        return bitmap;
     }
 
     /**
@@ -0,0 +1,167 @@
+package com.example.icetea.util;
+
+import android.content.Context;
+import android.graphics.Bitmap;
+import android.graphics.BitmapFactory;
+import android.os.Handler;
+import android.os.Looper;
+import android.util.LruCache;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+
+/**
+ * Singleton that renders event QR codes and check-in codes off the main thread
+ * and caches them.
+ * <p>
+ * Codes are rendered with {@link QRCode#render} on a background executor.
+ * Rendered codes are kept in a memory {@link LruCache} and written as PNG to a
+ * {@link DiskThumbnailCache}, both keyed by what they encode and size, so reopening a
+ * QR screen, even after a restart, does not render the code again.
+ * </p>
+ *
+ * <p>All public methods must be called on the main thread.</p>
+ */
+public class QrCodeLoader {
+
+    /** Maximum total size of the codes kept in memory */
+    private static final int MEMORY_CACHE_BYTES = 4 * 1024 * 1024;
+
+    /** Maximum total size of the codes kept on disk */
+    private static final long DISK_CACHE_BYTES = 4L * 1024 * 1024;
+
+    /** Directory under the app's cache directory holding the codes */
+    private static final String DISK_CACHE_DIR = "qrcodes";
+
+    /** Singleton instance of QrCodeLoader */
+    private static QrCodeLoader instance;
+
+    private final LruCache<String, Bitmap> cache = new LruCache<String, Bitmap>(MEMORY_CACHE_BYTES) {
+        @Override
+        protected int sizeOf(String key, Bitmap bitmap) {
+            return bitmap.getAllocationByteCount();
+        }
+    };
+    private final DiskThumbnailCache diskCache;
+    private final Executor executor = Executors.newSingleThreadExecutor();
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+
+    /** Callbacks waiting for each code being rendered; main thread only */
+    private final Map<String, List<Callback<Bitmap>>> inFlight = new HashMap<>();
+
+    /**
+     * Private constructor to enforce the singleton pattern.
+     *
+     * @param context Application context to locate the cache directory
+     */
+    private QrCodeLoader(Context context) {
+        diskCache = new DiskThumbnailCache(new File(context.getCacheDir(), DISK_CACHE_DIR), DISK_CACHE_BYTES);
+    }
+
+    /**
+     * Returns the singleton instance of QrCodeLoader.
+     *
+     * @param context Any context; only its application context is kept
+     * @return QrCodeLoader instance
+     */
+    public static QrCodeLoader getInstance(Context context) {
+        if (instance == null) {
+            instance = new QrCodeLoader(context.getApplicationContext());
+        }
+        return instance;
+    }
+
+    /**
+     * Loads the QR code of an event. A cached code is delivered immediately;
+     * otherwise it is read from disk or rendered, and delivered on the main thread.
+     *
+     * @param eventId  The event ID
+     * @param size     The maximum width and height of the code in pixels
+     * @param callback Receives the code, or the error if it cannot be rendered
+     */
+    public void load(String eventId, int size, Callback<Bitmap> callback) {
+        load(eventId + "@" + size, QRCode.payloadFor(eventId), size, callback);
+    }
+
+    /**
+     * Loads an entrant's check-in code for an event, like {@link #load(String, int, Callback)}.
+     *
+     * @param eventId  The event ID
+     * @param userId   The entrant's user ID
+     * @param size     The maximum width and height of the code in pixels
+     * @param callback Receives the code, or the error if it cannot be rendered
+     */
+    public void loadCheckIn(String eventId, String userId, int size, Callback<Bitmap> callback) {
+        load(eventId + "/" + userId + "@" + size, QRCode.checkInPayloadFor(eventId, userId), size, callback);
+    }
+
+    /**
+     * Delivers the cached code under a key, or renders the payload off the main thread.
+     */
+    private void load(String key, String payload, int size, Callback<Bitmap> callback) {
+        Bitmap cached = cache.get(key);
+        if (cached != null) {
+            callback.onSuccess(cached);
+            return;
+        }
+
+        List<Callback<Bitmap>> waiting = inFlight.get(key);
+        if (waiting != null) {
+            waiting.add(callback);
+            return;
+        }
+        waiting = new ArrayList<>();
+        waiting.add(callback);
+        inFlight.put(key, waiting);
+
+        executor.execute(() -> {
+            try {
+                Bitmap bitmap = loadOrRender(payload, size);
+                mainHandler.post(() -> {
+                    cache.put(key, bitmap);
+                    for (Callback<Bitmap> c : inFlight.remove(key)) {
+                        c.onSuccess(bitmap);
+                    }
+                });
+            } catch (Exception e) {
+                mainHandler.post(() -> {
+                    for (Callback<Bitmap> c : inFlight.remove(key)) {
+                        c.onFailure(e);
+                    }
+                });
+            }
+        });
+    }
+
+    /**
+     * Reads a code from the disk cache, or renders it and writes it there.
+     * Runs on the executor.
+     */
+    private Bitmap loadOrRender(String payload, int size) throws Exception {
+        // Keyed by the payload, so codes rendered for an older payload format are not reused
+        String diskKey = DiskThumbnailCache.keyFor(payload.getBytes(StandardCharsets.UTF_8), size, size);
+        byte[] png = diskCache.get(diskKey);
+        if (png != null) {
+            BitmapFactory.Options options = new BitmapFactory.Options();
+            options.inPreferredConfig = Bitmap.Config.RGB_565;
+            Bitmap bitmap = BitmapFactory.decodeByteArray(png, 0, png.length, options);
+            if (bitmap != null) {
+                return bitmap;
+            }
+        }
+
+        Bitmap bitmap = QRCode.render(payload, size);
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        if (bitmap.compress(Bitmap.CompressFormat.PNG, 100, outputStream)) {
+            diskCache.put(diskKey, outputStream.toByteArray());
+        }
+        return bitmap;
+    }
+}
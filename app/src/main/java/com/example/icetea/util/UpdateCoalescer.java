@@ -0,0 +1,86 @@
+package com.example.icetea.util;
+
+import android.os.Handler;
+import android.os.Looper;
+
+import java.util.function.Consumer;
+
+/**
+ * Coalesces bursts of updates into at most one delivery per time window.
+ * <p>
+ * Each {@link #submit} replaces the pending value. The first submission in a
+ * window schedules a delivery on the main thread at the end of the window, and
+ * only the latest value is delivered. Intermediate values are dropped, so this
+ * is only suitable for values that fully replace the previous one, such as a
+ * query snapshot.
+ * </p>
+ *
+ * @param <T> The type of the updates.
+ */
+public class UpdateCoalescer<T> {
+
+    /** Window that keeps deliveries to about one per frame at 60 Hz */
+    public static final long FRAME_WINDOW_MS = 16;
+
+    private final Handler handler = new Handler(Looper.getMainLooper());
+    private final long windowMs;
+    private final Consumer<T> consumer;
+
+    private T pending;
+    private boolean scheduled;
+
+    private final Runnable deliver = () -> {
+        T value;
+        synchronized (this) {
+            value = pending;
+            pending = null;
+            scheduled = false;
+        }
+        consumer.accept(value);
+    };
+
+    /**
+     * Creates a coalescer with a window of {@link #FRAME_WINDOW_MS}.
+     *
+     * @param consumer Receives the latest value on the main thread.
+     */
+    public UpdateCoalescer(Consumer<T> consumer) {
+        this(FRAME_WINDOW_MS, consumer);
+    }
+
+    /**
+     * Creates a coalescer.
+     *
+     * @param windowMs Length of the window in milliseconds.
+     * @param consumer Receives the latest value on the main thread.
+     */
+    public UpdateCoalescer(long windowMs, Consumer<T> consumer) {
+        this.windowMs = windowMs;
+        this.consumer = consumer;
+    }
+
+    /**
+     * Submits a value, replacing any value not delivered yet.
+     *
+     * @param value The new value.
+     */
+    public void submit(T value) {
+        synchronized (this) {
+            pending = value;
+            if (scheduled) return;
+            scheduled = true;
+        }
+        handler.postDelayed(deliver, windowMs);
+    }
+
+    /**
+     * Drops any value not delivered yet.
+     */
+    public void cancel() {
+        handler.removeCallbacks(deliver);
+        synchronized (this) {
+            pending = null;
+            scheduled = false;
+        }
+    }
+}
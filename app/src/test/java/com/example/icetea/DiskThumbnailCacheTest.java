@@ -0,0 +1,80 @@
+package com.example.icetea;
+
+import static org.junit.Assert.*;
+
+import com.example.icetea.util.DiskThumbnailCache;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+
+/**
+ * Tests storage, eviction and crash recovery of {@link DiskThumbnailCache}.
+ */
+public class DiskThumbnailCacheTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void testKeyDependsOnContentAndSize() {
+        String key = DiskThumbnailCache.keyFor("abc", 100, 50);
+
+        assertEquals(key, DiskThumbnailCache.keyFor("abc", 100, 50));
+        assertNotEquals(key, DiskThumbnailCache.keyFor("abd", 100, 50));
+        assertNotEquals(key, DiskThumbnailCache.keyFor("abc", 50, 100));
+        assertTrue(key.matches("[0-9a-f]{64}_100x50"));
+    }
+
+    @Test
+    public void testStoredEntryIsReadBack() throws Exception {
+        DiskThumbnailCache cache = new DiskThumbnailCache(folder.newFolder(), 100);
+
+        assertNull(cache.get("a"));
+        assertTrue(cache.put("a", new byte[]{1, 2, 3}));
+        assertArrayEquals(new byte[]{1, 2, 3}, cache.get("a"));
+        assertEquals(3, cache.size());
+    }
+
+    @Test
+    public void testLeastRecentlyUsedEntryIsEvicted() throws Exception {
+        File dir = folder.newFolder();
+        DiskThumbnailCache cache = new DiskThumbnailCache(dir, 25);
+        cache.put("a", new byte[10]);
+        cache.put("b", new byte[10]);
+        new File(dir, "a").setLastModified(1000);
+        new File(dir, "b").setLastModified(2000);
+        // Reading "a" makes "b" the least recently used entry
+        cache.get("a");
+
+        cache.put("c", new byte[10]);
+
+        assertNotNull(cache.get("a"));
+        assertNull(cache.get("b"));
+        assertNotNull(cache.get("c"));
+        assertEquals(20, cache.size());
+    }
+
+    @Test
+    public void testEntryLargerThanCapIsNotStored() throws Exception {
+        DiskThumbnailCache cache = new DiskThumbnailCache(folder.newFolder(), 5);
+
+        assertFalse(cache.put("a", new byte[6]));
+        assertNull(cache.get("a"));
+    }
+
+    @Test
+    public void testLeftoverTempFilesAreIgnoredAndDeleted() throws Exception {
+        File dir = folder.newFolder();
+        File leftover = new File(dir, "a.tmp");
+        assertTrue(leftover.createNewFile());
+
+        DiskThumbnailCache cache = new DiskThumbnailCache(dir, 100);
+
+        assertEquals(0, cache.size());
+        assertNull(cache.get("a"));
+        assertFalse(leftover.exists());
+    }
+}
@@ -39,6 +39,20 @@ public class EventPosterTest {
         assertEquals(posterBase64, event.getPosterBase64());
     }
 
+    @Test
+    public void testPosterReference() {
+        // A new Event has no stored poster until one is saved to the poster store
+        Event event = new Event();
+        assertNull(event.getPosterId());
+        assertNull(event.getPosterVersion());
+
+        event.setPosterId("event_1");
+        event.setPosterVersion(2L);
+
+        assertEquals("event_1", event.getPosterId());
+        assertEquals(Long.valueOf(2L), event.getPosterVersion());
+    }
+
     @Test
     public void testUpdatePosterBase64() {
         Event event = new Event();
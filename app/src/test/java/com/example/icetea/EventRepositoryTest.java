@@ -0,0 +1,169 @@
+package com.example.icetea;
+
+import static org.junit.Assert.*;
+
+import com.example.icetea.models.Event;
+import com.example.icetea.models.EventRepository;
+import com.example.icetea.util.Callback;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Tests the caching behaviour of EventRepository:
+ *  - repeated reads are served from memory
+ *  - concurrent reads for the same event share one fetch
+ *  - the least recently used event is evicted first
+ *  - invalidation and TTL expiry force a new fetch
+ */
+public class EventRepositoryTest {
+
+    /** Loader that records calls and completes only when told to */
+    private static class FakeLoader implements EventRepository.EventLoader {
+        final Map<String, Integer> loadCounts = new HashMap<>();
+        final Map<String, List<Callback<Event>>> pending = new HashMap<>();
+
+        @Override
+        public void load(String eventId, Callback<Event> callback) {
+            loadCounts.merge(eventId, 1, Integer::sum);
+            pending.computeIfAbsent(eventId, k -> new ArrayList<>()).add(callback);
+        }
+
+        void complete(String eventId) {
+            Event event = new Event();
+            event.setEventId(eventId);
+            event.setName("Event " + eventId);
+            for (Callback<Event> cb : pending.remove(eventId)) {
+                cb.onSuccess(event);
+            }
+        }
+
+        void fail(String eventId) {
+            for (Callback<Event> cb : pending.remove(eventId)) {
+                cb.onFailure(new Exception("Error loading event"));
+            }
+        }
+
+        int count(String eventId) {
+            return loadCounts.getOrDefault(eventId, 0);
+        }
+    }
+
+    private FakeLoader loader;
+    private EventRepository repository;
+
+    @Before
+    public void setUp() {
+        loader = new FakeLoader();
+        repository = new EventRepository(loader, 2, 60_000L);
+    }
+
+    @Test
+    public void testConcurrentRequestsShareOneFetch() {
+        Recorder<Event> first = new Recorder<>();
+        Recorder<Event> second = new Recorder<>();
+
+        repository.getEvent("E1", first);
+        repository.getEvent("E1", second);
+        loader.complete("E1");
+
+        assertEquals(1, loader.count("E1"));
+        assertNotNull(first.result);
+        assertSame(first.result, second.result);
+    }
+
+    @Test
+    public void testCachedEventIsServedWithoutFetch() {
+        repository.getEvent("E1", new Recorder<>());
+        loader.complete("E1");
+
+        Recorder<Event> again = new Recorder<>();
+        repository.getEvent("E1", again);
+
+        assertEquals(1, loader.count("E1"));
+        assertEquals("Event E1", again.result.getName());
+    }
+
+    @Test
+    public void testLeastRecentlyUsedEventIsEvicted() {
+        repository.getEvent("E1", new Recorder<>());
+        loader.complete("E1");
+        repository.getEvent("E2", new Recorder<>());
+        loader.complete("E2");
+
+        // Touch E1 so E2 becomes the eldest entry
+        assertNotNull(repository.peek("E1"));
+
+        repository.getEvent("E3", new Recorder<>());
+        loader.complete("E3");
+
+        assertEquals(2, repository.size());
+        assertNotNull(repository.peek("E1"));
+        assertNull(repository.peek("E2"));
+        assertNotNull(repository.peek("E3"));
+    }
+
+    @Test
+    public void testInvalidateForcesRefetch() {
+        repository.getEvent("E1", new Recorder<>());
+        loader.complete("E1");
+
+        repository.invalidate("E1");
+        repository.getEvent("E1", new Recorder<>());
+
+        assertEquals(2, loader.count("E1"));
+    }
+
+    @Test
+    public void testInvalidateDuringFetchDoesNotCacheStaleResult() {
+        Recorder<Event> recorder = new Recorder<>();
+        repository.getEvent("E1", recorder);
+        repository.invalidate("E1");
+        loader.complete("E1");
+
+        assertNotNull(recorder.result);
+        assertNull(repository.peek("E1"));
+    }
+
+    @Test
+    public void testExpiredEntryIsRefetched() {
+        EventRepository noTtl = new EventRepository(loader, 2, 0L);
+        noTtl.getEvent("E1", new Recorder<>());
+        loader.complete("E1");
+
+        noTtl.getEvent("E1", new Recorder<>());
+
+        assertEquals(2, loader.count("E1"));
+    }
+
+    @Test
+    public void testFailureIsDeliveredToAllWaitersAndNotCached() {
+        Recorder<Event> first = new Recorder<>();
+        Recorder<Event> second = new Recorder<>();
+
+        repository.getEvent("E1", first);
+        repository.getEvent("E1", second);
+        loader.fail("E1");
+
+        assertNotNull(first.error);
+        assertNotNull(second.error);
+        assertEquals(0, repository.size());
+    }
+
+    @Test
+    public void testPrefetchIsSharedWithTheNextRead() {
+        Recorder<Event> details = new Recorder<>();
+
+        repository.prefetch("E1");
+        repository.getEvent("E1", details);
+        loader.complete("E1");
+
+        assertEquals(1, loader.count("E1"));
+        assertEquals("E1", details.result.getEventId());
+    }
+}
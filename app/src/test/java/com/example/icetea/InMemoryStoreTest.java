@@ -0,0 +1,362 @@
+package com.example.icetea;
+
+import static org.junit.Assert.*;
+
+import com.example.icetea.home.ManageEventController;
+import com.example.icetea.models.Event;
+import com.example.icetea.models.InMemoryStore;
+import com.example.icetea.models.Notification;
+import com.example.icetea.models.Page;
+import com.example.icetea.models.Stores;
+import com.example.icetea.models.User;
+import com.example.icetea.models.Waitlist;
+import com.example.icetea.util.Callback;
+import com.google.firebase.firestore.Blob;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Tests the in-memory storage implementation and runs ManageEventController
+ * against it without a Firestore backend.
+ */
+public class InMemoryStoreTest {
+
+    private InMemoryStore store;
+
+    @Before
+    public void setUp() {
+        store = new InMemoryStore();
+        Stores.use(store);
+    }
+
+    @After
+    public void tearDown() {
+        Stores.reset();
+        store.shutdown();
+    }
+
+    private Event addEvent(String eventId, int entrants) {
+        Event event = new Event();
+        event.setEventId(eventId);
+        event.setName("Event " + eventId);
+        event.setCurrentEntrants(0);
+        store.createEvent(event, new Recorder<>());
+
+        for (int i = 0; i < entrants; i++) {
+            String userId = "user" + i;
+            User user = new User();
+            user.setId(userId);
+            user.setNotifications(true);
+            store.createUser(user, new Recorder<>());
+
+            Waitlist entry = new Waitlist();
+            entry.setUserId(userId);
+            entry.setEventId(eventId);
+            entry.setStatus(Waitlist.STATUS_WAITING);
+            // Spread keys evenly but out of join order, so draws are repeatable across stores
+            entry.setDrawKey((i * 0.6180339887) % 1.0);
+            store.addToWaitlist(entry, 1, new Recorder<>());
+        }
+        return event;
+    }
+
+    private List<Waitlist> entrants(String eventId, String status) {
+        Recorder<List<Waitlist>> recorder = new Recorder<>();
+        store.getEntrantsByStatus(eventId, status, recorder);
+        return recorder.result;
+    }
+
+    @Test
+    public void testJoinAndLeaveUpdateEntrantCount() {
+        Event event = addEvent("E1", 3);
+        store.removeFromWaitlist("user0", "E1", 1, new Recorder<>());
+        store.removeFromWaitlist("user0", "E1", 1, new Recorder<>());
+
+        Recorder<Integer> count = new Recorder<>();
+        store.getEntrantCount(event, count);
+
+        assertEquals(Integer.valueOf(2), count.result);
+        assertEquals(2, entrants("E1", Waitlist.STATUS_WAITING).size());
+    }
+
+    @Test
+    public void testJoiningDeletedEventFails() {
+        addEvent("E1", 2);
+        store.deleteEvent("E1", new Recorder<>());
+
+        Waitlist entry = new Waitlist();
+        entry.setUserId("late");
+        entry.setEventId("E1");
+        entry.setStatus(Waitlist.STATUS_WAITING);
+        Recorder<Void> joined = new Recorder<>();
+        store.addToWaitlist(entry, 1, joined);
+        Recorder<Void> left = new Recorder<>();
+        store.removeFromWaitlist("user0", "E1", 1, left);
+
+        assertNotNull(joined.error);
+        assertNotNull(left.error);
+        assertTrue(entrants("E1", Waitlist.STATUS_WAITING).isEmpty());
+    }
+
+    @Test
+    public void testUpdatingMissingEntryFails() {
+        addEvent("E1", 1);
+        Recorder<Void> recorder = new Recorder<>();
+
+        store.updateWaitlistStatus("nobody", "E1", Waitlist.STATUS_SELECTED, recorder);
+
+        assertNotNull(recorder.error);
+    }
+
+    @Test
+    public void testDeletingOrganizerDeletesTheirEventsWithWaitingLists() {
+        Event event = addEvent("E1", 3);
+        event.setOrganizerId("user0");
+        addEvent("E2", 2);
+
+        Recorder<Void> deleted = new Recorder<>();
+        store.deleteUser("user0", deleted);
+
+        assertNull(deleted.error);
+        Recorder<Event> loaded = new Recorder<>();
+        store.getEvent("E1", loaded);
+        assertNotNull(loaded.error);
+        assertTrue(entrants("E1", Waitlist.STATUS_WAITING).isEmpty());
+        // Their own entry in another event is gone, the other entrants stay
+        assertEquals(1, entrants("E2", Waitlist.STATUS_WAITING).size());
+    }
+
+    @Test
+    public void testDrawWinnersSelectsExactlyCountAndNotifiesEveryone() {
+        Event event = addEvent("E1", 100);
+        Recorder<Void> recorder = new Recorder<>();
+
+        new ManageEventController().drawWinners(event, 10, recorder);
+
+        assertNull(recorder.error);
+        assertTrue(recorder.done);
+        assertEquals(10, entrants("E1", Waitlist.STATUS_SELECTED).size());
+        assertEquals(90, entrants("E1", Waitlist.STATUS_WAITING).size());
+        assertTrue(event.getAlreadyDrew());
+
+        int notified = 0;
+        for (int i = 0; i < 100; i++) {
+            Recorder<List<Notification>> inbox = new Recorder<>();
+            store.getNotificationsForUser("user" + i, inbox);
+            notified += inbox.result.size();
+        }
+        assertEquals(100, notified);
+    }
+
+    @Test
+    public void testRetriedDrawOnlyDrawsMissingWinners() {
+        Event event = addEvent("E1", 100);
+        // Winners left selected by an earlier draw that failed before the event was marked drawn
+        for (int i = 0; i < 4; i++) {
+            store.updateWaitlistStatus("user" + i, "E1", Waitlist.STATUS_SELECTED, new Recorder<>());
+        }
+        Recorder<Void> recorder = new Recorder<>();
+
+        new ManageEventController().drawWinners(event, 10, recorder);
+
+        assertNull(recorder.error);
+        assertEquals(10, entrants("E1", Waitlist.STATUS_SELECTED).size());
+        assertEquals(90, entrants("E1", Waitlist.STATUS_WAITING).size());
+        assertTrue(event.getAlreadyDrew());
+    }
+
+    @Test
+    public void testDrawWithSameSeedIsReproducible() {
+        Event event = addEvent("E1", 1200);
+        new ManageEventController().drawWinners(event, 25, 1234L, new Recorder<>());
+        List<String> firstDraw = new ArrayList<>();
+        for (Waitlist entry : entrants("E1", Waitlist.STATUS_SELECTED)) {
+            firstDraw.add(entry.getUserId());
+        }
+
+        Stores.reset();
+        store.shutdown();
+        store = new InMemoryStore();
+        Stores.use(store);
+        Event again = addEvent("E1", 1200);
+        new ManageEventController().drawWinners(again, 25, 1234L, new Recorder<>());
+        List<String> secondDraw = new ArrayList<>();
+        for (Waitlist entry : entrants("E1", Waitlist.STATUS_SELECTED)) {
+            secondDraw.add(entry.getUserId());
+        }
+
+        assertEquals(25, firstDraw.size());
+        assertEquals(firstDraw, secondDraw);
+        assertEquals(Long.valueOf(1234L), again.getDrawSeed());
+    }
+
+    @Test
+    public void testDrawFallsBackToFullScanForEntriesWithoutDrawKey() {
+        // More entrants than fit on one page, so the fallback streams several pages
+        Event event = addEvent("E1", 1200);
+        Recorder<Waitlist> legacy = new Recorder<>();
+        store.getWaitlistEntry("user7", "E1", legacy);
+        legacy.result.setDrawKey(null);
+
+        Recorder<List<Waitlist>> indexed = new Recorder<>();
+        store.drawWaitingEntrants("E1", 5, 0.5, indexed);
+        assertTrue(indexed.done);
+        assertNull(indexed.result);
+
+        Recorder<Void> recorder = new Recorder<>();
+        new ManageEventController().drawWinners(event, 25, recorder);
+
+        assertNull(recorder.error);
+        assertEquals(25, entrants("E1", Waitlist.STATUS_SELECTED).size());
+        assertEquals(1175, entrants("E1", Waitlist.STATUS_WAITING).size());
+    }
+
+    @Test
+    public void testDrawByKeyWrapsAroundPastHighestKey() {
+        addEvent("E1", 10);
+
+        Recorder<List<Waitlist>> drawn = new Recorder<>();
+        store.drawWaitingEntrants("E1", 4, 0.99, drawn);
+
+        assertEquals(4, drawn.result.size());
+        assertEquals(4, new HashSet<>(drawn.result).size());
+    }
+
+    @Test
+    public void testDrawByKeyIsNotLimitedToConsecutiveKeys() {
+        addEvent("E1", 20);
+
+        Set<Set<String>> outcomes = new HashSet<>();
+        for (int i = 0; i < 300; i++) {
+            Recorder<List<Waitlist>> drawn = new Recorder<>();
+            store.drawWaitingEntrants("E1", 3, i / 300.0, drawn);
+            assertEquals(3, drawn.result.size());
+
+            Set<String> winners = new HashSet<>();
+            for (Waitlist entry : drawn.result) {
+                winners.add(entry.getUserId());
+            }
+            assertEquals(3, winners.size());
+            outcomes.add(winners);
+        }
+        // A window of consecutive keys could only give 20 different outcomes
+        assertTrue(outcomes.size() > 20);
+    }
+
+    @Test
+    public void testPagingVisitsEveryEntryOnce() {
+        addEvent("E1", 250);
+        List<String> seen = new ArrayList<>();
+        String token = null;
+        do {
+            Recorder<Page<Waitlist>> page = new Recorder<>();
+            store.getEntrantsPageByStatus("E1", Waitlist.STATUS_WAITING, token, 100, page);
+            for (Waitlist entry : page.result.getItems()) {
+                seen.add(entry.getUserId());
+            }
+            token = page.result.getNextPageToken();
+        } while (token != null);
+
+        assertEquals(250, seen.size());
+        assertEquals(250, new HashSet<>(seen).size());
+    }
+
+    @Test
+    public void testReplaceWinnerPromotesWaitingEntrant() {
+        Event event = addEvent("E1", 5);
+        new ManageEventController().drawWinners(event, 1, new Recorder<>());
+        String winner = entrants("E1", Waitlist.STATUS_SELECTED).get(0).getUserId();
+
+        Recorder<Void> recorder = new Recorder<>();
+        new ManageEventController().replaceWinner(winner, "E1", recorder);
+
+        assertNull(recorder.error);
+        List<Waitlist> selected = entrants("E1", Waitlist.STATUS_SELECTED);
+        assertEquals(1, selected.size());
+        assertNotEquals(winner, selected.get(0).getUserId());
+        assertEquals(1, entrants("E1", Waitlist.STATUS_CANCELLED).size());
+    }
+
+    @Test
+    public void testLatencyDelaysCallbacks() throws InterruptedException {
+        InMemoryStore slowStore = new InMemoryStore(20);
+        try {
+            CountDownLatch latch = new CountDownLatch(50);
+            List<Exception> errors = new ArrayList<>();
+            long start = System.nanoTime();
+
+            for (int i = 0; i < 50; i++) {
+                User user = new User();
+                user.setId("user" + i);
+                slowStore.createUser(user, new Callback<Void>() {
+                    @Override
+                    public void onSuccess(Void result) {
+                        latch.countDown();
+                    }
+
+                    @Override
+                    public void onFailure(Exception e) {
+                        synchronized (errors) {
+                            errors.add(e);
+                        }
+                        latch.countDown();
+                    }
+                });
+            }
+
+            assertTrue(latch.await(5, TimeUnit.SECONDS));
+            assertTrue(errors.isEmpty());
+            assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) >= 20);
+        } finally {
+            slowStore.shutdown();
+        }
+    }
+
+    @Test
+    public void testBlobAvatarReplacesBase64Avatar() {
+        User user = new User();
+        user.setId("U1");
+        user.setAvatar("base64Avatar");
+        store.createUser(user, new Recorder<>());
+
+        Map<String, Object> updates = new HashMap<>();
+        updates.put("avatar", Blob.fromBytes(new byte[]{1, 2, 3}));
+        store.updateUser("U1", updates, new Recorder<>());
+
+        Recorder<User> stored = new Recorder<>();
+        store.getUser("U1", stored);
+        assertNull(stored.result.getAvatar());
+        assertArrayEquals(new byte[]{1, 2, 3}, stored.result.getAvatarImage().toBytes());
+        // A new version, so images cached under the old key are not shown
+        assertEquals(Long.valueOf(1L), stored.result.getAvatarVersion());
+    }
+
+    @Test
+    public void testRepeatedDispatchWriteDoesNotDuplicateNotifications() {
+        List<Notification> notifications = new ArrayList<>();
+        for (String userId : new String[]{"U1", "U2"}) {
+            Notification notification = new Notification(userId, "E1", "Title", "Message", null);
+            notification.setDispatchId("D1");
+            notifications.add(notification);
+        }
+
+        // A retried chunk writes the same notifications again
+        store.addNotifications(notifications, new Recorder<>());
+        store.addNotifications(notifications, new Recorder<>());
+
+        Recorder<List<Notification>> inbox = new Recorder<>();
+        store.getNotificationsForUser("U1", inbox);
+        assertEquals(1, inbox.result.size());
+    }
+}
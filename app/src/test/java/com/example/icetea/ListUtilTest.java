@@ -0,0 +1,53 @@
+package com.example.icetea;
+
+import static org.junit.Assert.*;
+
+import com.example.icetea.util.ListUtil;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Tests the helpers used to split ID lists into whereIn-sized chunks
+ * for the bulk user and event lookups.
+ */
+public class ListUtilTest {
+
+    @Test
+    public void testChunkSplitsIntoLimitSizedPieces() {
+        List<String> ids = new ArrayList<>();
+        for (int i = 0; i < 65; i++) {
+            ids.add("user" + i);
+        }
+
+        List<List<String>> chunks = ListUtil.chunk(ids, 30);
+
+        assertEquals(3, chunks.size());
+        assertEquals(30, chunks.get(0).size());
+        assertEquals(30, chunks.get(1).size());
+        assertEquals(5, chunks.get(2).size());
+        assertEquals("user0", chunks.get(0).get(0));
+        assertEquals("user64", chunks.get(2).get(4));
+    }
+
+    @Test
+    public void testChunkOfEmptyListIsEmpty() {
+        assertTrue(ListUtil.chunk(new ArrayList<String>(), 30).isEmpty());
+        assertTrue(ListUtil.chunk(null, 30).isEmpty());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testChunkRejectsNonPositiveSize() {
+        ListUtil.chunk(Arrays.asList("a", "b"), 0);
+    }
+
+    @Test
+    public void testDistinctIdsRemovesDuplicatesAndBlanks() {
+        List<String> ids = Arrays.asList("u1", "u2", null, "u1", "", "u3");
+
+        assertEquals(Arrays.asList("u1", "u2", "u3"), ListUtil.distinctIds(ids));
+    }
+}
@@ -9,7 +9,6 @@ import com.example.icetea.models.NotificationDB;
 import com.example.icetea.models.UserDB;
 import com.google.android.gms.tasks.OnCompleteListener;
 import com.google.android.gms.tasks.Task;
-import com.google.firebase.firestore.DocumentSnapshot;
 
 import org.junit.After;
 import org.junit.Before;
@@ -18,6 +17,9 @@ import org.mockito.ArgumentCaptor;
 import org.mockito.MockedStatic;
 import org.mockito.Mockito;
 
+import java.util.Collections;
+import java.util.Map;
+
 /**
  * US 01.04.01 & US 01.04.02
  * Ensures notifications are sent when a user wins OR loses the lottery.
@@ -122,21 +124,18 @@ public class ManageEventControllerNotificationTest {
 
 
     private void mockUserWithNotificationsEnabled(String userId) {
-        Task<DocumentSnapshot> mockTask = mock(Task.class);
-        DocumentSnapshot mockDoc = mock(DocumentSnapshot.class);
+        Task<Map<String, Boolean>> mockTask = mock(Task.class);
 
         doAnswer(invocation -> {
-            OnCompleteListener<DocumentSnapshot> listener =
+            OnCompleteListener<Map<String, Boolean>> listener =
                     invocation.getArgument(1);
 
             when(mockTask.isSuccessful()).thenReturn(true);
-            when(mockTask.getResult()).thenReturn(mockDoc);
-            when(mockDoc.exists()).thenReturn(true);
-            when(mockDoc.getBoolean("notifications")).thenReturn(true);
+            when(mockTask.getResult()).thenReturn(Collections.singletonMap(userId, true));
 
             listener.onComplete(mockTask);
             return null;
-        }).when(mockUserDB).getUser(eq(userId), any());
+        }).when(mockUserDB).getNotificationPreferences(eq(Collections.singletonList(userId)), any());
     }
 
     private void mockNotificationAddSuccess() {
@@ -11,7 +11,6 @@ import com.google.android.gms.tasks.OnCompleteListener;
 import com.google.android.gms.tasks.Task;
 import com.google.firebase.firestore.DocumentSnapshot;
 import com.google.firebase.firestore.FirebaseFirestore;
-import com.google.firebase.firestore.QuerySnapshot;
 import com.google.firebase.firestore.WriteBatch;
 
 import org.junit.After;
@@ -21,6 +20,7 @@ import org.mockito.MockedStatic;
 import org.mockito.Mockito;
 
 import java.util.Collections;
+import java.util.List;
 //THERE WAS USE OF LLM IN THE BELOW CODE
 /**
  * US 01.05.01
@@ -114,22 +114,17 @@ public class ManageEventControllerReplaceWinnerTest {
         DocumentSnapshot waitingEntry = mock(DocumentSnapshot.class);
         when(waitingEntry.getString("userId")).thenReturn(newUserId);
 
-        QuerySnapshot waitingSnapshot = mock(QuerySnapshot.class);
-        when(waitingSnapshot.isEmpty()).thenReturn(false);
-        when(waitingSnapshot.getDocuments())
-                .thenReturn(Collections.singletonList(waitingEntry));
-
-        Task<QuerySnapshot> waitingTask = mock(Task.class);
+        Task<List<DocumentSnapshot>> waitingTask = mock(Task.class);
         when(waitingTask.isSuccessful()).thenReturn(true);
-        when(waitingTask.getResult()).thenReturn(waitingSnapshot);
+        when(waitingTask.getResult()).thenReturn(Collections.singletonList(waitingEntry));
 
         doAnswer(invocation -> {
-            OnCompleteListener<QuerySnapshot> listener =
-                    invocation.getArgument(2);
+            OnCompleteListener<List<DocumentSnapshot>> listener =
+                    invocation.getArgument(3);
             listener.onComplete(waitingTask);
             return null;
         }).when(mockWaitlistDB)
-                .getEntrantsByStatus(eq(eventId), eq(Waitlist.STATUS_WAITING), any());
+                .drawEntrantsByKey(eq(eventId), eq(1), anyDouble(), any());
         DocumentSnapshot eventDoc = mock(DocumentSnapshot.class);
         when(eventDoc.exists()).thenReturn(true);
         when(eventDoc.getString("name")).thenReturn("Test Event");
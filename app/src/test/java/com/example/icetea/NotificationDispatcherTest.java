@@ -0,0 +1,92 @@
+package com.example.icetea;
+
+import static org.junit.Assert.*;
+
+import com.example.icetea.models.InMemoryStore;
+import com.example.icetea.models.Notification;
+import com.example.icetea.models.NotificationDispatcher;
+import com.example.icetea.models.Stores;
+import com.example.icetea.models.User;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Tests bulk notification fan-out against the in-memory store.
+ */
+public class NotificationDispatcherTest {
+
+    private InMemoryStore store;
+
+    @Before
+    public void setUp() {
+        store = new InMemoryStore();
+        Stores.use(store);
+    }
+
+    @After
+    public void tearDown() {
+        Stores.reset();
+        store.shutdown();
+    }
+
+    private void addUser(String userId, boolean notifications) {
+        User user = new User();
+        user.setId(userId);
+        user.setNotifications(notifications);
+        store.createUser(user, new Recorder<>());
+    }
+
+    private int inboxSize(String userId) {
+        Recorder<List<Notification>> inbox = new Recorder<>();
+        store.getNotificationsForUser(userId, inbox);
+        return inbox.result.size();
+    }
+
+    @Test
+    public void testSummarizesSentSkippedAndFailedAcrossChunks() {
+        List<String> recipients = new ArrayList<>();
+        // More recipients than fit in one chunk; every tenth has notifications off
+        for (int i = 0; i < 1200; i++) {
+            addUser("user" + i, i % 10 != 0);
+            recipients.add("user" + i);
+        }
+        recipients.add("ghost");
+
+        Recorder<NotificationDispatcher.Result> recorder = new Recorder<>();
+        new NotificationDispatcher(2).dispatch(recipients, "Title", "Message", "E1", recorder);
+
+        assertNull(recorder.error);
+        assertEquals(1080, recorder.result.getSent());
+        assertEquals(120, recorder.result.getSkippedDisabled());
+        assertEquals(1, recorder.result.getFailed());
+        assertEquals(1, inboxSize("user1"));
+        assertEquals(0, inboxSize("user0"));
+    }
+
+    @Test
+    public void testIgnoresDuplicateAndNullRecipients() {
+        addUser("a", true);
+        addUser("b", true);
+
+        Recorder<NotificationDispatcher.Result> recorder = new Recorder<>();
+        new NotificationDispatcher().dispatch(Arrays.asList("a", "b", "a", null), "Title", "Message", "E1", recorder);
+
+        assertEquals(Arrays.asList("a", "b"), recorder.result.getSentUserIds());
+        assertEquals(1, inboxSize("a"));
+    }
+
+    @Test
+    public void testEmptyRecipientListSucceeds() {
+        Recorder<NotificationDispatcher.Result> recorder = new Recorder<>();
+        new NotificationDispatcher().dispatch(new ArrayList<>(), "Title", "Message", "E1", recorder);
+
+        assertEquals(0, recorder.result.getSent());
+        assertEquals(0, recorder.result.getFailed());
+    }
+}
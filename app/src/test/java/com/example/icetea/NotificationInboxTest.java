@@ -0,0 +1,161 @@
+package com.example.icetea;
+
+import static org.junit.Assert.*;
+
+import com.example.icetea.models.Notification;
+import com.example.icetea.notifications.NotificationInbox;
+import com.example.icetea.notifications.NotificationsUpdate;
+import com.google.firebase.Timestamp;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Tests that the inbox model applies document changes by index and that the
+ * item changes it reports turn each published list into the next one.
+ */
+public class NotificationInboxTest {
+
+    private NotificationInbox inbox;
+    private List<Notification> shown;
+
+    @Before
+    public void setUp() {
+        inbox = new NotificationInbox();
+        shown = new ArrayList<>();
+    }
+
+    private static Notification notification(String title, long seconds) {
+        return new Notification("U1", "E1", title, "message", new Timestamp(seconds, 0));
+    }
+
+    /**
+     * Replays the changes of the next update on the last shown list the way a
+     * RecyclerView adapter would. Inserted and changed rows are rebound from the
+     * new list, so they are left empty; every other row must already hold the
+     * notification the new list has at its position.
+     */
+    private NotificationsUpdate publishAndReplay() {
+        NotificationsUpdate update = inbox.publish();
+        List<Notification> replay = new ArrayList<>(shown);
+        for (NotificationsUpdate.Change change : update.getChanges()) {
+            switch (change.getType()) {
+                case INSERTED:
+                    replay.add(change.getFrom(), null);
+                    break;
+                case REMOVED:
+                    replay.remove(change.getFrom());
+                    break;
+                case CHANGED:
+                    replay.set(change.getFrom(), null);
+                    break;
+                case MOVED:
+                    replay.add(change.getTo(), replay.remove(change.getFrom()));
+                    break;
+            }
+        }
+        assertEquals(update.getNotifications().size(), replay.size());
+        for (int i = 0; i < replay.size(); i++) {
+            if (replay.get(i) != null) {
+                assertSame(update.getNotifications().get(i), replay.get(i));
+            }
+        }
+        shown = new ArrayList<>(update.getNotifications());
+        return update;
+    }
+
+    private List<String> titles() {
+        List<String> titles = new ArrayList<>();
+        for (Notification n : shown) {
+            titles.add(n.getTitle());
+        }
+        return titles;
+    }
+
+    @Test
+    public void testInitialWindowIsInsertedInOrder() {
+        assertTrue(inbox.added("c", notification("c", 3), 0));
+        assertTrue(inbox.added("b", notification("b", 2), 1));
+        assertTrue(inbox.added("a", notification("a", 1), 2));
+
+        NotificationsUpdate update = publishAndReplay();
+
+        assertEquals(List.of("c", "b", "a"), titles());
+        assertEquals(3, update.getChanges().size());
+        assertEquals(update.getBaseVersion() + 1, update.getVersion());
+    }
+
+    @Test
+    public void testPushedOutNotificationStaysLoadedBelowWindow() {
+        inbox.added("c", notification("c", 3), 0);
+        inbox.added("b", notification("b", 2), 1);
+        inbox.added("a", notification("a", 1), 2);
+        publishAndReplay();
+
+        // A window of three receives "d"; "a" is pushed out
+        inbox.removed("a", 2, false);
+        assertTrue(inbox.added("d", notification("d", 4), 0));
+        publishAndReplay();
+
+        assertEquals(List.of("d", "c", "b", "a"), titles());
+        assertTrue(inbox.contains("a"));
+    }
+
+    @Test
+    public void testSameTimestampsAreStillDistinctNotifications() {
+        inbox.added("x", notification("x", 5), 0);
+        publishAndReplay();
+
+        assertTrue(inbox.added("y", notification("y", 5), 0));
+        publishAndReplay();
+
+        assertEquals(2, inbox.size());
+    }
+
+    @Test
+    public void testModifiedAndDeletedNotificationsUpdateInPlace() {
+        inbox.added("b", notification("b", 2), 0);
+        inbox.added("a", notification("a", 1), 1);
+        inbox.appendOlder("z", notification("z", 0));
+        publishAndReplay();
+
+        Notification readB = notification("b", 2);
+        readB.setRead(true);
+        inbox.modified("b", readB, 0, 0);
+        inbox.removed("a", 1, true);
+        NotificationsUpdate update = publishAndReplay();
+
+        assertEquals(List.of("b", "z"), titles());
+        assertTrue(update.getNotifications().get(0).getRead());
+        assertFalse(inbox.contains("a"));
+    }
+
+    @Test
+    public void testOlderNotificationPulledBackIntoWindowIsMoved() {
+        inbox.added("b", notification("b", 2), 0);
+        inbox.removed("b", 0, false);
+        inbox.added("c", notification("c", 3), 0);
+        publishAndReplay();
+        assertEquals(List.of("c", "b"), titles());
+
+        // "c" is deleted, so "b" re-enters the window
+        inbox.removed("c", 0, true);
+        assertFalse(inbox.added("b", notification("b", 2), 0));
+        publishAndReplay();
+
+        assertEquals(List.of("b"), titles());
+    }
+
+    @Test
+    public void testAppendOlderSkipsLoadedNotifications() {
+        inbox.added("b", notification("b", 2), 0);
+        assertFalse(inbox.appendOlder("b", notification("b", 2)));
+        assertTrue(inbox.appendOlder("a", notification("a", 1)));
+        publishAndReplay();
+
+        assertEquals(List.of("b", "a"), titles());
+    }
+}
@@ -11,13 +11,15 @@ import com.example.icetea.models.NotificationDB;
 import com.example.icetea.models.UserDB;
 import com.google.android.gms.tasks.OnCompleteListener;
 import com.google.android.gms.tasks.Task;
-import com.google.firebase.firestore.DocumentSnapshot;
 
 import org.junit.Before;
 import org.junit.Test;
 import org.mockito.ArgumentCaptor;
 import org.mockito.MockedStatic;
 
+import java.util.Collections;
+import java.util.Map;
+
 /**
  * Mocked test for sending notifications to entrants
  * US 02.07.01 US 02.07.02 US 02.07.03
@@ -50,23 +52,18 @@ public class OrganizerNotificationManagerTest {
         userStatic.when(UserDB::getInstance).thenReturn(mockUserDB);
 
         doAnswer(invocation -> {
-            String userId = invocation.getArgument(0);
             @SuppressWarnings("unchecked")
-            OnCompleteListener<DocumentSnapshot> listener =
-                    (OnCompleteListener<DocumentSnapshot>) invocation.getArgument(1);
-
-            DocumentSnapshot mockDoc = mock(DocumentSnapshot.class);
-            when(mockDoc.exists()).thenReturn(true);
-            when(mockDoc.getBoolean("notifications")).thenReturn(true);
+            OnCompleteListener<Map<String, Boolean>> listener =
+                    (OnCompleteListener<Map<String, Boolean>>) invocation.getArgument(1);
 
             @SuppressWarnings("unchecked")
-            Task<DocumentSnapshot> mockTask = mock(Task.class);
+            Task<Map<String, Boolean>> mockTask = mock(Task.class);
             when(mockTask.isSuccessful()).thenReturn(true);
-            when(mockTask.getResult()).thenReturn(mockDoc);
+            when(mockTask.getResult()).thenReturn(Collections.singletonMap("user123", true));
 
             listener.onComplete(mockTask);
             return null;
-        }).when(mockUserDB).getUser(eq("user123"), any());
+        }).when(mockUserDB).getNotificationPreferences(eq(Collections.singletonList("user123")), any());
 
         doAnswer(invocation -> {
             @SuppressWarnings("unchecked")
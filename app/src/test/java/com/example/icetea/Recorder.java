@@ -0,0 +1,26 @@
+package com.example.icetea;
+
+import com.example.icetea.util.Callback;
+
+/**
+ * Callback for tests that stores the last result or error.
+ *
+ * @param <T> Result type
+ */
+class Recorder<T> implements Callback<T> {
+    T result;
+    Exception error;
+    boolean done;
+
+    @Override
+    public void onSuccess(T result) {
+        this.result = result;
+        this.done = true;
+    }
+
+    @Override
+    public void onFailure(Exception e) {
+        this.error = e;
+        this.done = true;
+    }
+}
@@ -2,6 +2,7 @@ package com.example.icetea;
 
 import static org.junit.Assert.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyDouble;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
@@ -14,7 +15,6 @@ import com.google.android.gms.tasks.OnCompleteListener;
 import com.google.android.gms.tasks.Task;
 import com.google.firebase.firestore.DocumentSnapshot;
 import com.google.firebase.firestore.FirebaseFirestore;
-import com.google.firebase.firestore.QuerySnapshot;
 
 import org.junit.Test;
 import org.mockito.MockedStatic;
@@ -81,39 +81,35 @@ public class SelectNumberOfWinnersTest {
             FirebaseFirestore mockDb = mock(FirebaseFirestore.class);
             firestoreStatic.when(FirebaseFirestore::getInstance).thenReturn(mockDb);
 
-            // only TWO waiting entrants returned
+            // only TWO waiting entrants drawn
             doAnswer(invocation -> {
                 String eventId = invocation.getArgument(0);
-                String status = invocation.getArgument(1);
+                int count = invocation.getArgument(1);
 
                 @SuppressWarnings("unchecked")
-                OnCompleteListener<QuerySnapshot> listener =
-                        (OnCompleteListener<QuerySnapshot>) invocation.getArgument(2);
+                OnCompleteListener<List<DocumentSnapshot>> listener =
+                        (OnCompleteListener<List<DocumentSnapshot>>) invocation.getArgument(3);
 
                 // Verify correct params passed to DB
                 assertEquals("event456", eventId);
-                assertEquals(Waitlist.STATUS_WAITING, status);
+                assertEquals(requestedCount, count);
 
                 // Fake Firestore response
-                QuerySnapshot mockSnapshot = mock(QuerySnapshot.class);
                 DocumentSnapshot doc1 = mock(DocumentSnapshot.class);
                 DocumentSnapshot doc2 = mock(DocumentSnapshot.class);
                 List<DocumentSnapshot> docs = List.of(doc1, doc2);
 
-                when(mockSnapshot.getDocuments()).thenReturn(docs);
-                when(mockSnapshot.isEmpty()).thenReturn(false);
-
                 // Fake successful Firestore task
                 @SuppressWarnings("unchecked")
-                Task<QuerySnapshot> mockTask = mock(Task.class);
+                Task<List<DocumentSnapshot>> mockTask = mock(Task.class);
                 when(mockTask.isSuccessful()).thenReturn(true);
-                when(mockTask.getResult()).thenReturn(mockSnapshot);
+                when(mockTask.getResult()).thenReturn(docs);
 
                 // Trigger callback
                 listener.onComplete(mockTask);
                 return null;
             }).when(mockWaitlistDB)
-                    .getEntrantsByStatus(eq(event.getEventId()), eq(Waitlist.STATUS_WAITING), any());
+                    .drawEntrantsByKey(eq(event.getEventId()), eq(requestedCount), anyDouble(), any());
 
             final boolean[] failureCalled = {false};
             final Exception[] captured = {null};
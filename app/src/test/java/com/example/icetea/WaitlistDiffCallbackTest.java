@@ -0,0 +1,49 @@
+package com.example.icetea;
+
+import static org.junit.Assert.*;
+
+import com.example.icetea.home.WaitlistDiffCallback;
+import com.example.icetea.models.Waitlist;
+
+import org.junit.Test;
+
+/**
+ * Tests which waitlist changes make the list adapters rebind a row.
+ */
+public class WaitlistDiffCallbackTest {
+
+    private final WaitlistDiffCallback callback = new WaitlistDiffCallback();
+
+    private static Waitlist entry(String userId, String status) {
+        Waitlist entry = new Waitlist();
+        entry.setUserId(userId);
+        entry.setEventId("E1");
+        entry.setStatus(status);
+        return entry;
+    }
+
+    @Test
+    public void testSameUserAndEventIsSameItem() {
+        assertTrue(callback.areItemsTheSame(entry("U1", Waitlist.STATUS_WAITING), entry("U1", Waitlist.STATUS_SELECTED)));
+        assertFalse(callback.areItemsTheSame(entry("U1", Waitlist.STATUS_WAITING), entry("U2", Waitlist.STATUS_WAITING)));
+    }
+
+    @Test
+    public void testUnchangedEntryFromNewSnapshotIsNotRebound() {
+        Waitlist before = entry("U1", Waitlist.STATUS_WAITING);
+        Waitlist after = entry("U1", Waitlist.STATUS_WAITING);
+        after.setDrawKey(0.5);
+
+        assertTrue(callback.areContentsTheSame(before, after));
+    }
+
+    @Test
+    public void testStatusOrReplacedChangeIsRebound() {
+        Waitlist declined = entry("U1", Waitlist.STATUS_DECLINED);
+        Waitlist replaced = entry("U1", Waitlist.STATUS_DECLINED);
+        replaced.setReplaced(true);
+
+        assertFalse(callback.areContentsTheSame(entry("U1", Waitlist.STATUS_WAITING), declined));
+        assertFalse(callback.areContentsTheSame(declined, replaced));
+    }
+}
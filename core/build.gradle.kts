@@ -0,0 +1,25 @@
+plugins {
+    `java-library`
+    alias(libs.plugins.jmh)
+}
+
+java {
+    sourceCompatibility = JavaVersion.VERSION_11
+    targetCompatibility = JavaVersion.VERSION_11
+}
+
+dependencies {
+    api(libs.zxing.core)
+    testImplementation(libs.junit)
+}
+
+// Run with: ./gradlew :core:jmh
+// Narrow to one benchmark with: ./gradlew :core:jmh -PjmhIncludes=LotteryBenchmark
+jmh {
+    jmhVersion.set(libs.versions.jmh)
+    warmupIterations.set(3)
+    iterations.set(5)
+    fork.set(1)
+    resultFormat.set("JSON")
+    (project.findProperty("jmhIncludes") as String?)?.let { includes.set(listOf(it)) }
+}
@@ -0,0 +1,54 @@
+package com.example.icetea.core;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.io.IOException;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures formatting the final entrants CSV.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class EntrantCsvBenchmark {
+
+    /** Number of rows written */
+    @Param({"1000", "10000", "100000", "1000000"})
+    public int entrants;
+
+    private String[] names;
+    private String[] emails;
+    private Date[] joined;
+
+    @Setup
+    public void setUp() {
+        names = new String[entrants];
+        emails = new String[entrants];
+        joined = new Date[entrants];
+        for (int i = 0; i < entrants; i++) {
+            names[i] = "Entrant " + i;
+            emails[i] = "entrant" + i + "@example.com";
+            joined[i] = new Date(1_700_000_000_000L + i * 60_000L);
+        }
+    }
+
+    @Benchmark
+    public int writeCsv() throws IOException {
+        StringBuilder out = new StringBuilder(entrants * 48);
+        out.append(EntrantCsv.HEADER);
+        EntrantCsv csv = new EntrantCsv();
+        for (int i = 0; i < entrants; i++) {
+            csv.appendRow(out, names[i], emails[i], joined[i]);
+        }
+        return out.length();
+    }
+}
@@ -0,0 +1,83 @@
+package com.example.icetea.core;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the search and date range filter of the events feed.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class EventFilterBenchmark {
+
+    private static final long DAY_MS = 24L * 60 * 60 * 1000;
+
+    /** Minimal stand-in for an event */
+    static final class BenchEvent {
+        final String name;
+        final String description;
+        final Date start;
+
+        BenchEvent(String name, String description, Date start) {
+            this.name = name;
+            this.description = description;
+            this.start = start;
+        }
+    }
+
+    /** Number of loaded events */
+    @Param({"1000", "10000", "100000", "1000000"})
+    public int events;
+
+    private List<BenchEvent> source;
+    private EventFilter<BenchEvent> filter;
+    private Date rangeStart;
+    private Date rangeEnd;
+
+    @Setup
+    public void setUp() {
+        String[] words = {"Swimming", "Piano", "Yoga", "Dance", "Chess", "Pottery", "Coding", "Hiking"};
+        Random random = new Random(42);
+        long base = 1_700_000_000_000L;
+
+        source = new ArrayList<>(events);
+        for (int i = 0; i < events; i++) {
+            String word = words[random.nextInt(words.length)];
+            source.add(new BenchEvent(
+                    word + " Lessons " + i,
+                    "Beginner friendly " + word.toLowerCase() + " sessions at the community centre",
+                    new Date(base + random.nextInt(365) * DAY_MS)));
+        }
+        filter = new EventFilter<>(e -> e.name, e -> e.description, e -> e.start);
+        rangeStart = new Date(base + 30 * DAY_MS);
+        rangeEnd = new Date(base + 90 * DAY_MS);
+    }
+
+    @Benchmark
+    public List<BenchEvent> textQuery() {
+        return filter.filter(source, "yoga", null, null);
+    }
+
+    @Benchmark
+    public List<BenchEvent> dateRange() {
+        return filter.filter(source, "", rangeStart, rangeEnd);
+    }
+
+    @Benchmark
+    public List<BenchEvent> textQueryAndDateRange() {
+        return filter.filter(source, "yoga", rangeStart, rangeEnd);
+    }
+}
@@ -0,0 +1,78 @@
+package com.example.icetea.core;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures drawing winners from waiting lists of increasing size.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class LotteryBenchmark {
+
+    /** Number of waiting entrants */
+    @Param({"1000", "10000", "100000", "1000000"})
+    public int entrants;
+
+    /** Number of winners drawn */
+    @Param({"10", "1000"})
+    public int winners;
+
+    /** Entrants per page offered to the streaming engine */
+    private static final int PAGE_SIZE = 500;
+
+    private List<String> waitingList;
+    private List<List<String>> pages;
+    private Random random;
+    private SplittableRandom splittableRandom;
+
+    @Setup
+    public void setUp() {
+        waitingList = new ArrayList<>(entrants);
+        for (int i = 0; i < entrants; i++) {
+            waitingList.add("user" + i);
+        }
+        pages = new ArrayList<>();
+        for (int i = 0; i < entrants; i += PAGE_SIZE) {
+            pages.add(waitingList.subList(i, Math.min(i + PAGE_SIZE, entrants)));
+        }
+        random = new Random(42);
+        splittableRandom = new SplittableRandom(42);
+    }
+
+    /** Previous approach: copy and shuffle the whole list, then take a prefix */
+    @Benchmark
+    public List<String> fullShuffle() {
+        List<String> shuffled = new ArrayList<>(waitingList);
+        Collections.shuffle(shuffled, random);
+        return shuffled.subList(0, winners);
+    }
+
+    @Benchmark
+    public List<String> partialFisherYates() {
+        return LotteryEngine.draw(waitingList, winners, splittableRandom);
+    }
+
+    @Benchmark
+    public List<String> streamedPages() {
+        LotteryEngine<String> engine = new LotteryEngine<>(winners, splittableRandom);
+        for (List<String> page : pages) {
+            engine.offer(page);
+        }
+        return engine.getWinners();
+    }
+}
@@ -0,0 +1,56 @@
+package com.example.icetea.core;
+
+import com.google.zxing.WriterException;
+import com.google.zxing.common.BitMatrix;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures encoding an event QR code and converting it to pixels.
+ * Sized by output resolution rather than entrant count.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class QrPixelsBenchmark {
+
+    /** Width and height of the QR code in pixels */
+    @Param({"256", "512", "1024"})
+    public int size;
+
+    private static final String PAYLOAD = "icetea://event/8f2c1d9e-4b7a-4e0f-9a63-2d5c7b1e0f44";
+
+    private BitMatrix matrix;
+
+    private BitMatrix modules;
+
+    @Setup
+    public void setUp() throws WriterException {
+        matrix = QrPixels.encode(PAYLOAD, size);
+        modules = QrPixels.encodeModules(PAYLOAD);
+    }
+
+    @Benchmark
+    public BitMatrix encode() throws WriterException {
+        return QrPixels.encode(PAYLOAD, size);
+    }
+
+    @Benchmark
+    public int[] toPixels() {
+        return QrPixels.toPixels(matrix);
+    }
+
+    @Benchmark
+    public int[] toScaledPixels() {
+        return QrPixels.toPixels(modules, QrPixels.scaleFor(modules.getWidth(), size));
+    }
+}
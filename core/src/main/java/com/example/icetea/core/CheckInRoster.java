@@ -0,0 +1,90 @@
+package com.example.icetea.core;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * In-memory roster of the entrants admitted to an event, checked at the door.
+ * <p>
+ * Holds the accepted entrants in one hash map from user ID to whether they have
+ * checked in, so a scan is a single lookup with no network read. The roster is
+ * filled once and then kept current with {@link #put} and {@link #remove} as
+ * entrants are accepted or drop out. Not thread-safe; use it from one thread.
+ * </p>
+ */
+public class CheckInRoster {
+
+    /**
+     * Outcome of a check-in.
+     */
+    public enum Result {
+        /** The entrant is on the roster and is now checked in */
+        ADMITTED,
+        /** The entrant is on the roster but already checked in */
+        ALREADY_CHECKED_IN,
+        /** The entrant is not on the roster */
+        NOT_ON_ROSTER
+    }
+
+    /** Whether each accepted entrant has checked in, by user ID */
+    private final Map<String, Boolean> entrants = new HashMap<>();
+
+    /** Number of entrants that have checked in */
+    private int checkedIn;
+
+    /**
+     * Adds an accepted entrant, or updates one already on the roster.
+     *
+     * @param userId    The entrant's user ID
+     * @param checkedIn Whether the entrant has already checked in
+     */
+    public void put(String userId, boolean checkedIn) {
+        Boolean previous = entrants.put(userId, checkedIn);
+        if (Boolean.TRUE.equals(previous)) this.checkedIn--;
+        if (checkedIn) this.checkedIn++;
+    }
+
+    /**
+     * Removes an entrant who is no longer accepted.
+     *
+     * @param userId The entrant's user ID
+     */
+    public void remove(String userId) {
+        if (Boolean.TRUE.equals(entrants.remove(userId))) {
+            checkedIn--;
+        }
+    }
+
+    /**
+     * Checks an entrant in.
+     *
+     * @param userId The entrant's user ID
+     * @return Whether the entrant was admitted, had already checked in, or is not on the roster
+     */
+    public Result checkIn(String userId) {
+        Boolean state = entrants.get(userId);
+        if (state == null) {
+            return Result.NOT_ON_ROSTER;
+        }
+        if (state) {
+            return Result.ALREADY_CHECKED_IN;
+        }
+        entrants.put(userId, true);
+        checkedIn++;
+        return Result.ADMITTED;
+    }
+
+    /**
+     * @return Number of accepted entrants
+     */
+    public int size() {
+        return entrants.size();
+    }
+
+    /**
+     * @return Number of accepted entrants who have checked in
+     */
+    public int checkedInCount() {
+        return checkedIn;
+    }
+}
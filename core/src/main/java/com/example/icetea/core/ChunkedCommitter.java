@@ -0,0 +1,217 @@
+package com.example.icetea.core;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+/**
+ * Splits a list of write operations into chunks and commits them with bounded parallelism.
+ * <p>
+ * Each chunk is handed to a {@link ChunkWriter}, which commits it atomically and reports
+ * back asynchronously. At most {@code parallelism} chunks are in flight at once. A chunk
+ * that fails with a retryable failure is retried immediately until it has been attempted
+ * {@code maxAttempts} times; after that, or after any other failure, it is given up on
+ * and the remaining chunks still run. The chunks are independent, so a failed run can
+ * leave earlier chunks committed.
+ * </p>
+ *
+ * <p>A retry writes the whole chunk again. A chunk whose commit reached the store
+ * but reported a failure is then applied twice, so only chunks whose operations have
+ * the same effect when applied twice should be given more than one attempt.</p>
+ *
+ * <p>Chunk results may arrive on any thread. Listener calls are made outside the
+ * committer's lock, so progress updates from concurrent chunks can arrive out of order.</p>
+ *
+ * @param <T> Operation type
+ */
+public class ChunkedCommitter<T> {
+
+    /**
+     * Commits one chunk of operations.
+     *
+     * @param <T> Operation type
+     */
+    public interface ChunkWriter<T> {
+
+        /**
+         * Commits a chunk atomically.
+         *
+         * @param chunk  Operations to commit
+         * @param onDone Receives null on success or the failure
+         */
+        void write(List<T> chunk, Consumer<Exception> onDone);
+    }
+
+    /**
+     * Receives the progress and outcome of a commit.
+     */
+    public interface Listener {
+
+        /**
+         * Called after each chunk is committed.
+         *
+         * @param committed Number of operations committed so far
+         * @param total     Total number of operations
+         */
+        void onProgress(int committed, int total);
+
+        /**
+         * Called once every chunk has been committed or given up on.
+         *
+         * @param committed Number of operations committed
+         * @param total     Total number of operations
+         * @param failure   Failure of the first chunk given up on, or null if all were committed
+         */
+        void onComplete(int committed, int total, Exception failure);
+    }
+
+    /** Maximum number of operations per chunk */
+    private final int chunkSize;
+
+    /** Maximum number of chunks in flight */
+    private final int parallelism;
+
+    /** Number of times a chunk is attempted before it is given up on */
+    private final int maxAttempts;
+
+    /** Whether a failed chunk may be attempted again */
+    private final Predicate<Exception> retryable;
+
+    /**
+     * Creates a committer that retries every failure.
+     *
+     * @param chunkSize   Maximum number of operations per chunk; at least 1
+     * @param parallelism Maximum number of chunks in flight; at least 1
+     * @param maxAttempts Number of attempts per chunk; at least 1
+     */
+    public ChunkedCommitter(int chunkSize, int parallelism, int maxAttempts) {
+        this(chunkSize, parallelism, maxAttempts, failure -> true);
+    }
+
+    /**
+     * Creates a committer that retries only some failures, such as transient ones.
+     *
+     * @param chunkSize   Maximum number of operations per chunk; at least 1
+     * @param parallelism Maximum number of chunks in flight; at least 1
+     * @param maxAttempts Number of attempts per chunk; at least 1
+     * @param retryable   Whether a chunk that failed with a given failure may be attempted again
+     */
+    public ChunkedCommitter(int chunkSize, int parallelism, int maxAttempts, Predicate<Exception> retryable) {
+        if (chunkSize < 1 || parallelism < 1 || maxAttempts < 1) {
+            throw new IllegalArgumentException("Chunk size, parallelism and attempts must be at least 1");
+        }
+        this.chunkSize = chunkSize;
+        this.parallelism = parallelism;
+        this.maxAttempts = maxAttempts;
+        this.retryable = retryable;
+    }
+
+    /**
+     * Commits the operations in chunks.
+     *
+     * @param operations Operations to commit, in order; chunks keep this order
+     * @param writer     Commits each chunk
+     * @param listener   Receives progress and the outcome
+     */
+    public void commit(List<T> operations, ChunkWriter<T> writer, Listener listener) {
+        new Run(operations, writer, listener).start();
+    }
+
+    /**
+     * State of a single call to {@link #commit}.
+     */
+    private final class Run {
+
+        private final List<List<T>> chunks = new ArrayList<>();
+        private final int[] attempts;
+        private final int total;
+        private final ChunkWriter<T> writer;
+        private final Listener listener;
+
+        private int nextChunk;
+        private int finishedChunks;
+        private int committed;
+        private Exception failure;
+
+        Run(List<T> operations, ChunkWriter<T> writer, Listener listener) {
+            for (int i = 0; i < operations.size(); i += chunkSize) {
+                chunks.add(new ArrayList<>(operations.subList(i, Math.min(i + chunkSize, operations.size()))));
+            }
+            this.attempts = new int[chunks.size()];
+            this.total = operations.size();
+            this.writer = writer;
+            this.listener = listener;
+        }
+
+        void start() {
+            if (chunks.isEmpty()) {
+                listener.onComplete(0, 0, null);
+                return;
+            }
+            for (int i = 0; i < Math.min(parallelism, chunks.size()); i++) {
+                startNextChunk();
+            }
+        }
+
+        private void startNextChunk() {
+            int index;
+            synchronized (this) {
+                if (nextChunk >= chunks.size()) {
+                    return;
+                }
+                index = nextChunk++;
+            }
+            attempt(index);
+        }
+
+        private void attempt(int index) {
+            synchronized (this) {
+                attempts[index]++;
+            }
+            try {
+                writer.write(chunks.get(index), error -> onChunkDone(index, error));
+            } catch (RuntimeException e) {
+                onChunkDone(index, e);
+            }
+        }
+
+        private void onChunkDone(int index, Exception error) {
+            boolean retry = false;
+            boolean done;
+            int committedSoFar;
+
+            synchronized (this) {
+                if (error == null) {
+                    committed += chunks.get(index).size();
+                } else if (attempts[index] < maxAttempts && retryable.test(error)) {
+                    retry = true;
+                } else if (failure == null) {
+                    failure = error;
+                }
+                if (!retry) {
+                    finishedChunks++;
+                }
+                done = finishedChunks == chunks.size();
+                committedSoFar = committed;
+            }
+
+            if (retry) {
+                attempt(index);
+                return;
+            }
+            if (error == null) {
+                listener.onProgress(committedSoFar, total);
+            }
+            if (done) {
+                Exception result;
+                synchronized (this) {
+                    result = failure;
+                }
+                listener.onComplete(committedSoFar, total, result);
+            } else {
+                startNextChunk();
+            }
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package com.example.icetea.core;
+
+import java.io.IOException;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.Locale;
+
+/**
+ * Formats the final entrants of an event as CSV rows.
+ * <p>
+ * Not thread-safe: each instance keeps its own date formatter.
+ * </p>
+ */
+public class EntrantCsv {
+
+    /** Header row of the exported file */
+    public static final String HEADER = "Name,Email,Registration Date\n";
+
+    /** Placeholder written for missing values */
+    private static final String MISSING = "N/A";
+
+    private final SimpleDateFormat dateFormat = new SimpleDateFormat("yyyy-MM-dd HH:mm", Locale.getDefault());
+
+    /**
+     * Appends one entrant as a CSV row.
+     *
+     * @param out      Destination of the row
+     * @param name     Entrant name, or null if unknown
+     * @param email    Entrant email, or null if unknown
+     * @param joinedAt When the entrant joined, or null if unknown
+     * @throws IOException if the destination cannot be written
+     */
+    public void appendRow(Appendable out, String name, String email, Date joinedAt) throws IOException {
+        out.append(name != null ? name : MISSING).append(',')
+                .append(email != null ? email : MISSING).append(',')
+                .append(joinedAt != null ? dateFormat.format(joinedAt) : MISSING)
+                .append('\n');
+    }
+}
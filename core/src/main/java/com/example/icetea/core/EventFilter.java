@@ -0,0 +1,97 @@
+package com.example.icetea.core;
+
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.Date;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Filters events by a search query and an optional date range.
+ * <p>
+ * The event type is generic so the logic can run outside Android; the caller
+ * supplies how to read an event's name, description and start date.
+ * </p>
+ *
+ * @param <T> Event type
+ */
+public class EventFilter<T> {
+
+    private final Function<T, String> name;
+    private final Function<T, String> description;
+    private final Function<T, Date> startDate;
+
+    /**
+     * Creates a filter reading events through the given accessors.
+     *
+     * @param name        Returns the event's name, may return null
+     * @param description Returns the event's description, may return null
+     * @param startDate   Returns the event's start date, may return null
+     */
+    public EventFilter(Function<T, String> name, Function<T, String> description, Function<T, Date> startDate) {
+        this.name = name;
+        this.description = description;
+        this.startDate = startDate;
+    }
+
+    /**
+     * Returns the events that start within the date range and whose name or
+     * description contains the query, ignoring case. Order is preserved.
+     *
+     * @param source     Events to filter
+     * @param query      Search text; empty matches every event
+     * @param rangeStart First day of the range, or null for no date filter
+     * @param rangeEnd   Last day of the range (inclusive), or null for no date filter
+     * @return A new list with the matching events
+     */
+    public List<T> filter(List<T> source, String query, Date rangeStart, Date rangeEnd) {
+        List<T> eventsToFilter = source;
+
+        if (rangeStart != null && rangeEnd != null) {
+            List<T> dateFilteredEvents = new ArrayList<>();
+
+            Calendar startCal = Calendar.getInstance();
+            startCal.setTime(rangeStart);
+            startCal.set(Calendar.HOUR_OF_DAY, 0);
+            startCal.set(Calendar.MINUTE, 0);
+            startCal.set(Calendar.SECOND, 0);
+            startCal.set(Calendar.MILLISECOND, 0);
+
+            Calendar endCal = Calendar.getInstance();
+            endCal.setTime(rangeEnd);
+            endCal.set(Calendar.HOUR_OF_DAY, 23);
+            endCal.set(Calendar.MINUTE, 59);
+            endCal.set(Calendar.SECOND, 59);
+            endCal.set(Calendar.MILLISECOND, 999);
+
+            for (T event : source) {
+                Date eventDate = startDate.apply(event);
+                if (eventDate != null
+                        && eventDate.compareTo(startCal.getTime()) >= 0
+                        && eventDate.compareTo(endCal.getTime()) <= 0) {
+                    dateFilteredEvents.add(event);
+                }
+            }
+            eventsToFilter = dateFilteredEvents;
+        }
+
+        if (query.isEmpty()) {
+            return new ArrayList<>(eventsToFilter);
+        }
+
+        List<T> matches = new ArrayList<>();
+        String lowerCaseQuery = query.toLowerCase().trim();
+        for (T event : eventsToFilter) {
+            String eventName = name.apply(event);
+            if (eventName != null && eventName.toLowerCase().contains(lowerCaseQuery)) {
+                matches.add(event);
+                continue;
+            }
+            String eventDescription = description.apply(event);
+            if (eventDescription != null && eventDescription.toLowerCase().contains(lowerCaseQuery)) {
+                matches.add(event);
+            }
+        }
+        return matches;
+    }
+}
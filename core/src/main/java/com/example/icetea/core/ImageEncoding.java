@@ -0,0 +1,134 @@
+package com.example.icetea.core;
+
+/**
+ * Chooses the format and quality to encode an image with so it fits a byte budget.
+ * <p>
+ * Each format is searched for the highest quality whose output fits, assuming
+ * the output grows with the quality. The format that fits at the highest
+ * quality wins; on a tie the smaller output wins.
+ * </p>
+ */
+public final class ImageEncoding {
+
+    /** Characters per line of Base64 written with line breaks, as Android's Base64.DEFAULT does */
+    private static final int BASE64_LINE_LENGTH = 76;
+
+    private ImageEncoding() {
+    }
+
+    /**
+     * Encodes an image in a given format and quality.
+     */
+    public interface Encoder {
+
+        /**
+         * @param format  Index of the format, from 0 to the format count given to {@link #bestFit}
+         * @param quality Quality from 0 to 100
+         * @return The encoded bytes
+         */
+        byte[] encode(int format, int quality);
+    }
+
+    /**
+     * An encoding that fits the budget.
+     */
+    public static final class Choice {
+
+        private final int format;
+        private final int quality;
+        private final byte[] bytes;
+
+        Choice(int format, int quality, byte[] bytes) {
+            this.format = format;
+            this.quality = quality;
+            this.bytes = bytes;
+        }
+
+        /**
+         * @return Index of the chosen format
+         */
+        public int getFormat() {
+            return format;
+        }
+
+        /**
+         * @return The chosen quality
+         */
+        public int getQuality() {
+            return quality;
+        }
+
+        /**
+         * @return The encoded bytes
+         */
+        public byte[] getBytes() {
+            return bytes;
+        }
+    }
+
+    /**
+     * Finds the best encoding that fits a byte budget.
+     *
+     * @param encoder     Encodes the image
+     * @param formatCount Number of formats to try
+     * @param maxBytes    Maximum size of the output in bytes
+     * @param minQuality  Lowest quality to accept
+     * @param maxQuality  Highest quality to try
+     * @return The best encoding, or null if no format fits even at the lowest quality
+     */
+    public static Choice bestFit(Encoder encoder, int formatCount, int maxBytes, int minQuality, int maxQuality) {
+        Choice best = null;
+        for (int format = 0; format < formatCount; format++) {
+            Choice choice = bestQuality(encoder, format, maxBytes, minQuality, maxQuality);
+            if (choice != null && (best == null
+                    || choice.quality > best.quality
+                    || (choice.quality == best.quality && choice.bytes.length < best.bytes.length))) {
+                best = choice;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Binary searches one format for the highest quality that fits.
+     */
+    private static Choice bestQuality(Encoder encoder, int format, int maxBytes, int minQuality, int maxQuality) {
+        byte[] top = encoder.encode(format, maxQuality);
+        if (top.length <= maxBytes) {
+            return new Choice(format, maxQuality, top);
+        }
+
+        Choice fit = null;
+        int low = minQuality;
+        int high = maxQuality - 1;
+        while (low <= high) {
+            int quality = (low + high) >>> 1;
+            byte[] bytes = encoder.encode(format, quality);
+            if (bytes.length <= maxBytes) {
+                fit = new Choice(format, quality, bytes);
+                low = quality + 1;
+            } else {
+                high = quality - 1;
+            }
+        }
+        return fit;
+    }
+
+    /**
+     * Returns the largest number of bytes whose Base64 encoding, with a line
+     * break after every 76 characters and at the end, fits in a number of characters.
+     *
+     * @param maxChars Maximum length of the Base64 string
+     * @return The maximum number of bytes
+     */
+    public static int maxBytesForBase64(int maxChars) {
+        // Each full line holds 57 bytes in 76 characters plus a line break
+        int fullLines = maxChars / (BASE64_LINE_LENGTH + 1);
+        int bytes = fullLines * (BASE64_LINE_LENGTH / 4 * 3);
+        int rest = maxChars - fullLines * (BASE64_LINE_LENGTH + 1) - 1;
+        if (rest > 0) {
+            bytes += Math.min(rest, BASE64_LINE_LENGTH) / 4 * 3;
+        }
+        return bytes;
+    }
+}
@@ -0,0 +1,51 @@
+package com.example.icetea.core;
+
+/**
+ * Chooses how far to subsample an image while decoding it for a view of a given size.
+ */
+public final class ImageSampling {
+
+    private ImageSampling() {
+    }
+
+    /**
+     * Returns the largest power-of-two sample size that keeps both decoded
+     * dimensions at least as large as the requested ones, so the image is never
+     * upscaled after subsampling.
+     *
+     * @param srcWidth  Width of the encoded image in pixels
+     * @param srcHeight Height of the encoded image in pixels
+     * @param reqWidth  Width the image will be shown at; 0 or less if unknown
+     * @param reqHeight Height the image will be shown at; 0 or less if unknown
+     * @return The sample size; 1 means decode at full size, which is also used
+     *         when neither requested dimension is known
+     */
+    public static int inSampleSize(int srcWidth, int srcHeight, int reqWidth, int reqHeight) {
+        if (srcWidth <= 0 || srcHeight <= 0 || (reqWidth <= 0 && reqHeight <= 0)) {
+            return 1;
+        }
+        int targetWidth = Math.max(reqWidth, 1);
+        int targetHeight = Math.max(reqHeight, 1);
+
+        int sampleSize = 1;
+        while (srcWidth / (sampleSize * 2) >= targetWidth && srcHeight / (sampleSize * 2) >= targetHeight) {
+            sampleSize *= 2;
+        }
+        return sampleSize;
+    }
+
+    /**
+     * Returns the number of bytes an ARGB_8888 bitmap needs for an image decoded
+     * with a given sample size, which is the smallest bitmap it can reuse.
+     *
+     * @param srcWidth   Width of the encoded image in pixels
+     * @param srcHeight  Height of the encoded image in pixels
+     * @param sampleSize The sample size used for decoding
+     * @return The number of bytes needed
+     */
+    public static long decodedByteCount(int srcWidth, int srcHeight, int sampleSize) {
+        long width = (srcWidth + sampleSize - 1) / sampleSize;
+        long height = (srcHeight + sampleSize - 1) / sampleSize;
+        return width * height * 4;
+    }
+}
@@ -0,0 +1,79 @@
+package com.example.icetea.core;
+
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Randomness for drawing entrants through a random key index.
+ * <p>
+ * Every entrant holds an independent uniformly random key in [0, 1). A draw
+ * takes one independent pivot per winner and picks the entrant with the lowest
+ * key at or above it, wrapping around to the lowest key, and draws again for
+ * pivots that hit an entrant already picked. Each pick therefore lands on an
+ * entrant with probability equal to the gap between its key and the key below
+ * it. Before keys are assigned every entrant has the same chance, but once they
+ * are assigned, entrants behind wider gaps are favoured.
+ * </p>
+ *
+ * <p>When the draw takes at least half of the entrants, repeats would make
+ * pivots costly, so the whole list is read and {@link #sample} picks an exactly
+ * uniform subset instead.</p>
+ *
+ * <p>Pivots after the first come from a generator seeded by the first, so a draw
+ * is reproducible from its first pivot.</p>
+ */
+public final class KeyedDraw {
+
+    /** Rounds of pivots after which a draw gives up and the caller scans the whole list */
+    public static final int MAX_ROUNDS = 16;
+
+    private final double firstPivot;
+    private final SplittableRandom random;
+    private boolean firstUsed;
+
+    /**
+     * Creates a draw.
+     *
+     * @param firstPivot Uniformly random first pivot in [0, 1)
+     */
+    public KeyedDraw(double firstPivot) {
+        this.firstPivot = firstPivot;
+        this.random = new SplittableRandom(Double.doubleToLongBits(firstPivot));
+    }
+
+    /**
+     * Whether a draw should read every entrant and {@link #sample} them rather
+     * than use pivots.
+     *
+     * @param count   Number of entrants to draw
+     * @param entrants Number of entrants in the draw
+     * @return true if at least half of the entrants are drawn
+     */
+    public static boolean readsAll(int count, long entrants) {
+        return 2L * count >= entrants;
+    }
+
+    /**
+     * @return The next pivot in [0, 1); the first call returns the first pivot
+     */
+    public double nextPivot() {
+        if (!firstUsed) {
+            firstUsed = true;
+            return firstPivot;
+        }
+        return random.nextDouble();
+    }
+
+    /**
+     * Picks a uniformly random subset, in random order, with
+     * {@link LotteryEngine#draw}.
+     *
+     * @param items Entrants to pick from; not modified; should support fast random access
+     * @param count Number of entrants to pick
+     * @param <T>   Entrant type
+     * @return {@code count} distinct entrants, or all of them if there are fewer
+     */
+    public <T> List<T> sample(List<T> items, int count) {
+        return LotteryEngine.draw(items, Math.min(Math.max(count, 0), items.size()), random);
+    }
+}
@@ -0,0 +1,217 @@
+package com.example.icetea.core;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.function.Consumer;
+
+/**
+ * Draws a fixed number of winners uniformly at random from a waiting list.
+ * <p>
+ * Entrants are offered one page at a time and only the current winners are
+ * kept, so the full waiting list never has to be held in memory. Sampling uses
+ * Li's Algorithm L: after the first {@code winners} entrants, the engine jumps
+ * straight to the next entrant that enters the sample, drawing
+ * O(k (1 + log(N / k))) random numbers for k winners out of N entrants.
+ * </p>
+ *
+ * <p>All randomness comes from the given {@link SplittableRandom}, so the same
+ * seed and the same entrants offered in the same order always produce the same
+ * winners. Not thread-safe.</p>
+ *
+ * @param <T> Entrant type
+ */
+public class LotteryEngine<T> {
+
+    /** Number of winners to draw */
+    private final int winners;
+
+    /** Source of randomness */
+    private final SplittableRandom random;
+
+    /** Receives entrants as soon as they can no longer win; may be null */
+    private final Consumer<? super T> onDropped;
+
+    /** Current sample */
+    private final List<T> sample;
+
+    /** Number of entrants offered so far */
+    private long seen;
+
+    /** Index of the next entrant that replaces a member of the sample */
+    private long nextAccepted;
+
+    /** Algorithm L's running weight */
+    private double weight;
+
+    /**
+     * Creates an engine that draws the given number of winners.
+     *
+     * @param winners Number of winners; must not be negative
+     * @param random  Source of randomness
+     */
+    public LotteryEngine(int winners, SplittableRandom random) {
+        this(winners, random, null);
+    }
+
+    /**
+     * Creates an engine that draws the given number of winners and reports every
+     * entrant that is definitely not among them.
+     * <p>
+     * Each offered entrant is passed to {@code onDropped} at most once, either
+     * when it is skipped or when it is evicted from the sample. Entrants still
+     * in the sample when offering ends are the winners.
+     * </p>
+     *
+     * @param winners   Number of winners; must not be negative
+     * @param random    Source of randomness
+     * @param onDropped Receives entrants that did not win, or null
+     */
+    public LotteryEngine(int winners, SplittableRandom random, Consumer<? super T> onDropped) {
+        if (winners < 0) {
+            throw new IllegalArgumentException("Cannot draw " + winners + " winners");
+        }
+        this.winners = winners;
+        this.random = random;
+        this.onDropped = onDropped;
+        this.sample = new ArrayList<>(Math.min(winners, 1024));
+    }
+
+    /**
+     * Offers the next page of entrants.
+     *
+     * @param page Entrants in a stable order; not modified
+     */
+    public void offer(List<? extends T> page) {
+        int size = page.size();
+        int i = 0;
+
+        while (i < size && sample.size() < winners) {
+            sample.add(page.get(i++));
+            seen++;
+            if (sample.size() == winners) {
+                weight = Math.exp(Math.log(nextOpenUnit()) / winners);
+                scheduleNext();
+            }
+        }
+
+        if (winners == 0) {
+            drop(page, i, size);
+            seen += size - i;
+            return;
+        }
+
+        while (i < size) {
+            long skip = nextAccepted - seen;
+            if (skip >= size - i) {
+                drop(page, i, size);
+                seen += size - i;
+                return;
+            }
+            drop(page, i, i + (int) skip);
+            i += (int) skip;
+            seen += skip;
+
+            T evicted = sample.set(random.nextInt(winners), page.get(i++));
+            seen++;
+            if (onDropped != null) {
+                onDropped.accept(evicted);
+            }
+
+            weight *= Math.exp(Math.log(nextOpenUnit()) / winners);
+            scheduleNext();
+        }
+    }
+
+    /**
+     * Returns the number of entrants offered so far.
+     *
+     * @return Entrant count
+     */
+    public long getSeen() {
+        return seen;
+    }
+
+    /**
+     * Returns whether enough entrants have been offered to fill every winning spot.
+     *
+     * @return True if the sample is full
+     */
+    public boolean isFull() {
+        return sample.size() == winners;
+    }
+
+    /**
+     * Returns the winners among the entrants offered so far. If fewer entrants
+     * than winners were offered, every entrant is returned.
+     *
+     * @return Unmodifiable copy of the current sample
+     */
+    public List<T> getWinners() {
+        return Collections.unmodifiableList(new ArrayList<>(sample));
+    }
+
+    /**
+     * Draws winners from a list that is already in memory with a partial
+     * Fisher-Yates shuffle. Only the swapped positions are tracked, so the draw
+     * takes O(k) time and memory and leaves the list untouched.
+     *
+     * @param entrants Entrants to draw from; should support fast random access
+     * @param winners  Number of winners; must be between 0 and the list size
+     * @param random   Source of randomness
+     * @param <T>      Entrant type
+     * @return The winners in draw order
+     */
+    public static <T> List<T> draw(List<? extends T> entrants, int winners, SplittableRandom random) {
+        int size = entrants.size();
+        if (winners < 0 || winners > size) {
+            throw new IllegalArgumentException("Cannot draw " + winners + " of " + size + " entrants");
+        }
+
+        Map<Integer, Integer> swapped = new HashMap<>(winners * 2);
+        List<T> result = new ArrayList<>(winners);
+        for (int i = 0; i < winners; i++) {
+            int j = i + random.nextInt(size - i);
+            Integer atJ = swapped.get(j);
+            Integer atI = swapped.remove(i);
+            result.add(entrants.get(atJ != null ? atJ : j));
+            if (j != i) {
+                swapped.put(j, atI != null ? atI : i);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Computes the index of the next entrant to enter the sample.
+     */
+    private void scheduleNext() {
+        double skip = Math.floor(Math.log(nextOpenUnit()) / Math.log1p(-weight));
+        nextAccepted = skip >= Long.MAX_VALUE - seen ? Long.MAX_VALUE : seen + (long) skip;
+    }
+
+    /**
+     * Returns a uniform random number in (0, 1).
+     */
+    private double nextOpenUnit() {
+        double u;
+        do {
+            u = random.nextDouble();
+        } while (u == 0.0);
+        return u;
+    }
+
+    /**
+     * Passes a range of a page to the drop listener, if any.
+     */
+    private void drop(List<? extends T> page, int from, int to) {
+        if (onDropped != null) {
+            for (int i = from; i < to; i++) {
+                onDropped.accept(page.get(i));
+            }
+        }
+    }
+}
@@ -0,0 +1,160 @@
+package com.example.icetea.core;
+
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.util.Arrays;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+
+/**
+ * Text encoded in an event QR code: the event ID, a format version and a short
+ * signature that can be checked without a network read.
+ * <p>
+ * The format is {@code icetea:<version>:<eventId>:<signature>}, where the signature
+ * is the first {@value #SIGNATURE_BYTES} bytes of an HMAC-SHA256 of the version and
+ * event ID, in unpadded URL-safe Base64. Codes printed before this format hold the
+ * bare event ID and are not signed payloads.
+ * </p>
+ */
+public final class QrPayload {
+
+    /** Prefix of every signed payload */
+    public static final String PREFIX = "icetea:";
+
+    /** Version of the payloads written by {@link #encode} */
+    public static final int VERSION = 1;
+
+    /** Number of HMAC bytes kept in the signature */
+    private static final int SIGNATURE_BYTES = 8;
+
+    private static final String ALGORITHM = "HmacSHA256";
+
+    /** Alphabet of URL-safe Base64 */
+    private static final char[] BASE64_URL =
+            "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789-_".toCharArray();
+
+    private final int version;
+    private final String eventId;
+
+    private QrPayload(int version, String eventId) {
+        this.version = version;
+        this.eventId = eventId;
+    }
+
+    /**
+     * @return Version of the payload
+     */
+    public int getVersion() {
+        return version;
+    }
+
+    /**
+     * @return ID of the event the payload points to
+     */
+    public String getEventId() {
+        return eventId;
+    }
+
+    /**
+     * Returns whether text is meant to be a signed payload, as opposed to a bare event ID.
+     *
+     * @param text The scanned text
+     * @return True if the text starts with {@link #PREFIX}
+     */
+    public static boolean isPayload(String text) {
+        return text != null && text.startsWith(PREFIX);
+    }
+
+    /**
+     * Builds the signed payload for an event.
+     *
+     * @param eventId The event ID
+     * @param key     The signing key
+     * @return The payload text
+     */
+    public static String encode(String eventId, byte[] key) {
+        return PREFIX + VERSION + ":" + eventId + ":" + sign(VERSION, eventId, key);
+    }
+
+    /**
+     * Parses and checks a signed payload.
+     *
+     * @param text The scanned text
+     * @param key  The signing key
+     * @return The payload, or null if the text is malformed, of an unknown version,
+     *         or its signature does not match
+     */
+    public static QrPayload parse(String text, byte[] key) {
+        if (!isPayload(text)) {
+            return null;
+        }
+        int versionEnd = text.indexOf(':', PREFIX.length());
+        int signatureStart = text.lastIndexOf(':');
+        if (versionEnd < 0 || signatureStart <= versionEnd + 1) {
+            return null;
+        }
+
+        int version;
+        try {
+            version = Integer.parseInt(text.substring(PREFIX.length(), versionEnd));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+        if (version != VERSION) {
+            return null;
+        }
+
+        String eventId = text.substring(versionEnd + 1, signatureStart);
+        if (!signatureMatches(version + ":" + eventId, text.substring(signatureStart + 1), key)) {
+            return null;
+        }
+        return new QrPayload(version, eventId);
+    }
+
+    private static String sign(int version, String eventId, byte[] key) {
+        return sign(version + ":" + eventId, key);
+    }
+
+    /**
+     * Returns the truncated, Base64 HMAC signature of a message.
+     */
+    static String sign(String message, byte[] key) {
+        try {
+            Mac mac = Mac.getInstance(ALGORITHM);
+            mac.init(new SecretKeySpec(key, ALGORITHM));
+            byte[] digest = mac.doFinal(message.getBytes(StandardCharsets.UTF_8));
+            return base64Url(Arrays.copyOf(digest, SIGNATURE_BYTES));
+        } catch (GeneralSecurityException e) {
+            // HmacSHA256 is available on every Java and Android platform
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Encodes bytes as unpadded URL-safe Base64. {@code java.util.Base64} is only
+     * available from Android API 26, below the app's minimum SDK.
+     */
+    static String base64Url(byte[] bytes) {
+        StringBuilder out = new StringBuilder((bytes.length * 4 + 2) / 3);
+        for (int i = 0; i < bytes.length; i += 3) {
+            int remaining = Math.min(3, bytes.length - i);
+            int bits = (bytes[i] & 0xff) << 16;
+            if (remaining > 1) bits |= (bytes[i + 1] & 0xff) << 8;
+            if (remaining > 2) bits |= bytes[i + 2] & 0xff;
+            for (int j = 0; j <= remaining; j++) {
+                out.append(BASE64_URL[(bits >> (18 - 6 * j)) & 0x3f]);
+            }
+        }
+        return out.toString();
+    }
+
+    /**
+     * Compares a signature with the expected one in constant time.
+     */
+    static boolean signatureMatches(String message, String signature, byte[] key) {
+        byte[] expected = sign(message, key).getBytes(StandardCharsets.US_ASCII);
+        return MessageDigest.isEqual(expected, signature.getBytes(StandardCharsets.US_ASCII));
+    }
+}
@@ -0,0 +1,107 @@
+package com.example.icetea.core;
+
+import com.google.zxing.BarcodeFormat;
+import com.google.zxing.WriterException;
+import com.google.zxing.common.BitMatrix;
+import com.google.zxing.qrcode.QRCodeWriter;
+
+import java.util.Arrays;
+
+/**
+ * Converts QR codes to ARGB pixel arrays that can be handed to a bitmap in one call.
+ * <p>
+ * A code is cheapest to render at module resolution, one pixel per module, and
+ * then scaled up by a whole factor with nearest-neighbour sampling so every
+ * module stays a sharp square.
+ * </p>
+ */
+public final class QrPixels {
+
+    /** ARGB value of a dark module */
+    public static final int BLACK = 0xFF000000;
+
+    /** ARGB value of a light module */
+    public static final int WHITE = 0xFFFFFFFF;
+
+    private QrPixels() {
+    }
+
+    /**
+     * Encodes text as a square QR code.
+     *
+     * @param text The text to encode
+     * @param size Width and height in pixels
+     * @return The encoded matrix
+     * @throws WriterException if the text cannot be encoded
+     */
+    public static BitMatrix encode(String text, int size) throws WriterException {
+        return new QRCodeWriter().encode(text, BarcodeFormat.QR_CODE, size, size);
+    }
+
+    /**
+     * Encodes text as a QR code with one pixel per module, including the quiet zone.
+     *
+     * @param text The text to encode
+     * @return The encoded matrix
+     * @throws WriterException if the text cannot be encoded
+     */
+    public static BitMatrix encodeModules(String text) throws WriterException {
+        // QRCodeWriter never renders smaller than the code itself
+        return new QRCodeWriter().encode(text, BarcodeFormat.QR_CODE, 0, 0);
+    }
+
+    /**
+     * Returns the largest whole factor a code can be scaled by to fit a size.
+     *
+     * @param modules Width of the code in modules
+     * @param size    Maximum width of the scaled code in pixels
+     * @return The factor, at least 1
+     */
+    public static int scaleFor(int modules, int size) {
+        return Math.max(1, size / modules);
+    }
+
+    /**
+     * Converts a bit matrix to row-major ARGB pixels, scaling each module up to a
+     * {@code scale}-by-{@code scale} square. Each module row is filled once and
+     * copied for the remaining pixel rows.
+     *
+     * @param matrix The matrix to convert
+     * @param scale  Pixels per module along each side, at least 1
+     * @return Pixels of length {@code (width * scale) * (height * scale)}
+     */
+    public static int[] toPixels(BitMatrix matrix, int scale) {
+        int width = matrix.getWidth() * scale;
+        int height = matrix.getHeight() * scale;
+        int[] pixels = new int[width * height];
+        int[] row = new int[width];
+        for (int y = 0; y < matrix.getHeight(); y++) {
+            for (int x = 0; x < matrix.getWidth(); x++) {
+                Arrays.fill(row, x * scale, (x + 1) * scale, matrix.get(x, y) ? BLACK : WHITE);
+            }
+            for (int i = 0; i < scale; i++) {
+                System.arraycopy(row, 0, pixels, (y * scale + i) * width, width);
+            }
+        }
+        return pixels;
+    }
+
+    /**
+     * Converts a bit matrix to row-major ARGB pixels.
+     *
+     * @param matrix The matrix to convert
+     * @return Pixels of length {@code width * height}, indexed {@code y * width + x}
+     */
+    public static int[] toPixels(BitMatrix matrix) {
+        int width = matrix.getWidth();
+        int height = matrix.getHeight();
+        int[] pixels = new int[width * height];
+        for (int y = 0; y < height; y++) {
+            int offset = y * width;
+            for (int x = 0; x < width; x++) {
+                pixels[offset + x] = matrix.get(x, y) ? BLACK : WHITE;
+            }
+        }
+        return pixels;
+    }
+}
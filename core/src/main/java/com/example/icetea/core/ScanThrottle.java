@@ -0,0 +1,73 @@
+package com.example.icetea.core;
+
+/**
+ * Rate limits for a scanner that decodes camera frames continuously.
+ * <p>
+ * {@link #shouldDecode} lets through at most a fixed number of frames per second,
+ * so the camera can stay open without decoding every preview frame.
+ * {@link #accept} drops a payload that was already seen within a time window, so a
+ * code held in front of the camera is handled once rather than on every frame.
+ * Each sighting restarts the window, so the code is handled again only after it
+ * has been out of view for the whole window.
+ * </p>
+ *
+ * <p>Times are in milliseconds from any monotonic clock. Thread-safe; frames are
+ * usually gated on the decoder thread and payloads on the main thread.</p>
+ */
+public final class ScanThrottle {
+
+    private final long frameIntervalMs;
+    private final long duplicateWindowMs;
+
+    private boolean decodedAny;
+    private long nextFrameAt;
+    private String lastText;
+    private long lastSeenAt;
+
+    /**
+     * Creates a throttle.
+     *
+     * @param maxFramesPerSecond Most frames to decode per second
+     * @param duplicateWindowMs  Time in milliseconds during which a repeated payload is dropped
+     * @throws IllegalArgumentException if the frame rate is not positive or the window is negative
+     */
+    public ScanThrottle(int maxFramesPerSecond, long duplicateWindowMs) {
+        if (maxFramesPerSecond <= 0) {
+            throw new IllegalArgumentException("maxFramesPerSecond must be positive: " + maxFramesPerSecond);
+        }
+        if (duplicateWindowMs < 0) {
+            throw new IllegalArgumentException("duplicateWindowMs must not be negative: " + duplicateWindowMs);
+        }
+        this.frameIntervalMs = 1000L / maxFramesPerSecond;
+        this.duplicateWindowMs = duplicateWindowMs;
+    }
+
+    /**
+     * Decides whether to decode the frame captured at the given time.
+     *
+     * @param nowMs The current time
+     * @return true if the frame should be decoded, false if it should be skipped
+     */
+    public synchronized boolean shouldDecode(long nowMs) {
+        if (decodedAny && nowMs < nextFrameAt) {
+            return false;
+        }
+        decodedAny = true;
+        nextFrameAt = nowMs + frameIntervalMs;
+        return true;
+    }
+
+    /**
+     * Decides whether a decoded payload is new.
+     *
+     * @param text  The decoded text
+     * @param nowMs The current time
+     * @return true if the payload should be handled, false if it repeats one seen within the window
+     */
+    public synchronized boolean accept(String text, long nowMs) {
+        boolean repeat = text != null && text.equals(lastText) && nowMs - lastSeenAt < duplicateWindowMs;
+        lastText = text;
+        lastSeenAt = nowMs;
+        return !repeat;
+    }
+}
@@ -0,0 +1,107 @@
+package com.example.icetea.core;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.FutureTask;
+
+/**
+ * Produces items in parallel and consumes them one at a time in their original order,
+ * with a bounded number of items alive at once.
+ * <p>
+ * Items are produced on an executor, but at most {@code window} items are started
+ * ahead of the one being consumed. Consumption happens on the calling thread, so the
+ * consumer does not need to be thread-safe. This suits rendering pages in parallel
+ * and writing them to a single output stream.
+ * </p>
+ *
+ * @param <T> Item type
+ */
+public class WindowedPipeline<T> {
+
+    /**
+     * Produces one item. Called on the executor.
+     *
+     * @param <T> Item type
+     */
+    public interface Producer<T> {
+
+        /**
+         * @param index Index of the item, from 0 to the count minus 1
+         * @return The item
+         * @throws Exception if the item cannot be produced
+         */
+        T produce(int index) throws Exception;
+    }
+
+    /**
+     * Consumes one item. Called on the thread running the pipeline, in index order.
+     *
+     * @param <T> Item type
+     */
+    public interface Consumer<T> {
+
+        /**
+         * @param index Index of the item
+         * @param item  The item
+         * @throws Exception if the item cannot be consumed
+         */
+        void consume(int index, T item) throws Exception;
+    }
+
+    /** Maximum number of items produced or being produced ahead of consumption */
+    private final int window;
+
+    /** Executor the items are produced on */
+    private final Executor executor;
+
+    /**
+     * Creates a pipeline.
+     *
+     * @param window   Maximum number of items alive at once, not counting the one being consumed; at least 1
+     * @param executor Executor to produce items on
+     */
+    public WindowedPipeline(int window, Executor executor) {
+        if (window < 1) {
+            throw new IllegalArgumentException("window must be at least 1");
+        }
+        this.window = window;
+        this.executor = executor;
+    }
+
+    /**
+     * Produces and consumes {@code count} items, blocking until all are consumed.
+     * On the first failure, items not yet started are skipped and the failure is thrown.
+     *
+     * @param count    Number of items
+     * @param producer Produces the items
+     * @param consumer Consumes the items in index order
+     * @throws Exception the first failure of the producer or consumer
+     */
+    public void run(int count, Producer<T> producer, Consumer<T> consumer) throws Exception {
+        Deque<FutureTask<T>> started = new ArrayDeque<>();
+        int next = 0;
+        try {
+            for (int consumed = 0; consumed < count; consumed++) {
+                while (next < count && started.size() < window) {
+                    int index = next++;
+                    FutureTask<T> task = new FutureTask<>(() -> producer.produce(index));
+                    started.add(task);
+                    executor.execute(task);
+                }
+                T item;
+                try {
+                    item = started.poll().get();
+                } catch (ExecutionException e) {
+                    throw e.getCause() instanceof Exception ? (Exception) e.getCause() : e;
+                }
+                consumer.consume(consumed, item);
+            }
+        } finally {
+            for (FutureTask<T> task : started) {
+                task.cancel(true);
+            }
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package com.example.icetea.core;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Tests the door roster and the check-in codes scanned against it.
+ */
+public class CheckInRosterTest {
+
+    private static final byte[] KEY = "test-key".getBytes(StandardCharsets.UTF_8);
+
+    @Test
+    public void testEntrantIsAdmittedOnce() {
+        CheckInRoster roster = new CheckInRoster();
+        roster.put("U1", false);
+
+        assertEquals(CheckInRoster.Result.ADMITTED, roster.checkIn("U1"));
+        assertEquals(CheckInRoster.Result.ALREADY_CHECKED_IN, roster.checkIn("U1"));
+        assertEquals(1, roster.checkedInCount());
+    }
+
+    @Test
+    public void testUnknownEntrantIsRejected() {
+        CheckInRoster roster = new CheckInRoster();
+        roster.put("U1", false);
+
+        assertEquals(CheckInRoster.Result.NOT_ON_ROSTER, roster.checkIn("U2"));
+        assertEquals(0, roster.checkedInCount());
+    }
+
+    @Test
+    public void testLateChangesUpdateTheRoster() {
+        CheckInRoster roster = new CheckInRoster();
+        roster.put("U1", true);
+        roster.put("U2", false);
+
+        // U1's check-in comes back from the server; U2 drops out; U3 is accepted late
+        roster.put("U1", true);
+        roster.remove("U2");
+        roster.put("U3", false);
+
+        assertEquals(2, roster.size());
+        assertEquals(1, roster.checkedInCount());
+        assertEquals(CheckInRoster.Result.NOT_ON_ROSTER, roster.checkIn("U2"));
+        assertEquals(CheckInRoster.Result.ADMITTED, roster.checkIn("U3"));
+        assertEquals(2, roster.checkedInCount());
+    }
+
+    @Test
+    public void testCheckInCodeRoundTrips() {
+        CheckInCode code = CheckInCode.parse(CheckInCode.encode("E:1", "U1", KEY), KEY);
+
+        assertNotNull(code);
+        assertEquals("E:1", code.getEventId());
+        assertEquals("U1", code.getUserId());
+    }
+
+    @Test
+    public void testTamperedOrForeignCodesAreRejected() {
+        String text = CheckInCode.encode("E1", "U1", KEY);
+
+        assertNull(CheckInCode.parse(text.replace(":U1:", ":U2:"), KEY));
+        assertNull(CheckInCode.parse(text, "other-key".getBytes(StandardCharsets.UTF_8)));
+        assertNull(CheckInCode.parse(QrPayload.encode("E1", KEY), KEY));
+        assertNull(CheckInCode.parse("icetea-checkin:1:E1", KEY));
+        assertNull(CheckInCode.parse(null, KEY));
+    }
+}
@@ -0,0 +1,148 @@
+package com.example.icetea.core;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Tests chunking, parallelism limits and retries of {@link ChunkedCommitter}.
+ */
+public class ChunkedCommitterTest {
+
+    /** Listener that records the last progress and the outcome */
+    private static class Recorder implements ChunkedCommitter.Listener {
+        final List<Integer> progress = new ArrayList<>();
+        int committed = -1;
+        int total = -1;
+        Exception failure;
+        int completions;
+
+        @Override
+        public void onProgress(int committed, int total) {
+            progress.add(committed);
+        }
+
+        @Override
+        public void onComplete(int committed, int total, Exception failure) {
+            this.committed = committed;
+            this.total = total;
+            this.failure = failure;
+            completions++;
+        }
+    }
+
+    private static List<Integer> operations(int count) {
+        List<Integer> ops = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            ops.add(i);
+        }
+        return ops;
+    }
+
+    @Test
+    public void testSplitsIntoChunksOfAtMostChunkSize() {
+        List<Integer> chunkSizes = new ArrayList<>();
+        Recorder recorder = new Recorder();
+
+        new ChunkedCommitter<Integer>(500, 4, 1).commit(operations(1201), (chunk, onDone) -> {
+            chunkSizes.add(chunk.size());
+            onDone.accept(null);
+        }, recorder);
+
+        assertEquals(List.of(500, 500, 201), chunkSizes);
+        assertEquals(1201, recorder.committed);
+        assertEquals(1201, recorder.total);
+        assertNull(recorder.failure);
+        assertEquals(List.of(500, 1000, 1201), recorder.progress);
+        assertEquals(1, recorder.completions);
+    }
+
+    @Test
+    public void testLimitsChunksInFlight() {
+        List<Consumer<Exception>> pending = new ArrayList<>();
+        Recorder recorder = new Recorder();
+
+        new ChunkedCommitter<Integer>(10, 3, 1).commit(operations(100), (chunk, onDone) -> pending.add(onDone), recorder);
+
+        assertEquals(3, pending.size());
+        int completed = 0;
+        while (completed < pending.size()) {
+            pending.get(completed++).accept(null);
+            assertTrue(pending.size() - completed <= 3);
+        }
+        assertEquals(10, pending.size());
+        assertEquals(100, recorder.committed);
+        assertNull(recorder.failure);
+    }
+
+    @Test
+    public void testRetriesFailedChunk() {
+        Map<Integer, Integer> attemptsByFirstOp = new HashMap<>();
+        Recorder recorder = new Recorder();
+
+        new ChunkedCommitter<Integer>(10, 2, 3).commit(operations(30), (chunk, onDone) -> {
+            int attempt = attemptsByFirstOp.merge(chunk.get(0), 1, Integer::sum);
+            // The second chunk fails twice before succeeding
+            onDone.accept(chunk.get(0) == 10 && attempt < 3 ? new Exception("unavailable") : null);
+        }, recorder);
+
+        assertEquals(Integer.valueOf(3), attemptsByFirstOp.get(10));
+        assertEquals(30, recorder.committed);
+        assertNull(recorder.failure);
+    }
+
+    @Test
+    public void testReportsPartialProgressWhenRetriesRunOut() {
+        Exception permanent = new Exception("permission denied");
+        Recorder recorder = new Recorder();
+
+        new ChunkedCommitter<Integer>(10, 2, 2).commit(operations(35), (chunk, onDone) ->
+                onDone.accept(chunk.get(0) == 20 ? permanent : null), recorder);
+
+        assertEquals(25, recorder.committed);
+        assertEquals(35, recorder.total);
+        assertSame(permanent, recorder.failure);
+        assertEquals(1, recorder.completions);
+    }
+
+    @Test
+    public void testDoesNotRetryFailuresThatAreNotRetryable() {
+        Exception permanent = new IllegalStateException("permission denied");
+        Map<Integer, Integer> attemptsByFirstOp = new HashMap<>();
+        Recorder recorder = new Recorder();
+
+        new ChunkedCommitter<Integer>(10, 2, 3, e -> !(e instanceof IllegalStateException)).commit(operations(30),
+                (chunk, onDone) -> {
+                    int attempt = attemptsByFirstOp.merge(chunk.get(0), 1, Integer::sum);
+                    if (chunk.get(0) == 0) {
+                        onDone.accept(permanent);
+                    } else {
+                        // A transient failure is still retried
+                        onDone.accept(chunk.get(0) == 10 && attempt < 2 ? new Exception("unavailable") : null);
+                    }
+                }, recorder);
+
+        assertEquals(Integer.valueOf(1), attemptsByFirstOp.get(0));
+        assertEquals(Integer.valueOf(2), attemptsByFirstOp.get(10));
+        assertEquals(20, recorder.committed);
+        assertSame(permanent, recorder.failure);
+    }
+
+    @Test
+    public void testEmptyCommitCompletesImmediately() {
+        Recorder recorder = new Recorder();
+
+        new ChunkedCommitter<Integer>(10, 2, 2).commit(new ArrayList<>(), (chunk, onDone) ->
+                fail("No chunk should be written"), recorder);
+
+        assertEquals(0, recorder.committed);
+        assertNull(recorder.failure);
+        assertEquals(1, recorder.completions);
+    }
+}
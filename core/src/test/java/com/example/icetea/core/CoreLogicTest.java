@@ -0,0 +1,127 @@
+package com.example.icetea.core;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Calendar;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Tests the pure-Java domain logic shared with the app.
+ */
+public class CoreLogicTest {
+
+    private static Date day(int year, int month, int dayOfMonth, int hour) {
+        Calendar cal = Calendar.getInstance();
+        cal.clear();
+        cal.set(year, month, dayOfMonth, hour, 0);
+        return cal.getTime();
+    }
+
+    @Test
+    public void testDrawPicksDistinctEntrants() {
+        List<Integer> entrants = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            entrants.add(i);
+        }
+
+        List<Integer> winners = LotteryEngine.draw(entrants, 30, new SplittableRandom(1));
+
+        assertEquals(30, winners.size());
+        assertEquals(30, new HashSet<>(winners).size());
+        assertEquals(LotteryEngine.draw(entrants, 30, new SplittableRandom(1)), winners);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testDrawRejectsTooManyWinners() {
+        LotteryEngine.draw(Arrays.asList("a", "b"), 3, new SplittableRandom(1));
+    }
+
+    @Test
+    public void testEngineDropsEveryLoserExactlyOnce() {
+        List<Integer> dropped = new ArrayList<>();
+        LotteryEngine<Integer> engine = new LotteryEngine<>(10, new SplittableRandom(7), dropped::add);
+
+        for (int start = 0; start < 1000; start += 64) {
+            List<Integer> page = new ArrayList<>();
+            for (int i = start; i < Math.min(start + 64, 1000); i++) {
+                page.add(i);
+            }
+            engine.offer(page);
+        }
+
+        List<Integer> winners = engine.getWinners();
+        assertEquals(1000, engine.getSeen());
+        assertEquals(10, new HashSet<>(winners).size());
+        assertEquals(990, new HashSet<>(dropped).size());
+        assertEquals(990, dropped.size());
+        for (Integer winner : winners) {
+            assertFalse(dropped.contains(winner));
+        }
+    }
+
+    @Test
+    public void testEngineIsUniform() {
+        int[] wins = new int[20];
+        SplittableRandom random = new SplittableRandom(3);
+        List<Integer> entrants = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            entrants.add(i);
+        }
+
+        for (int trial = 0; trial < 20000; trial++) {
+            LotteryEngine<Integer> engine = new LotteryEngine<>(5, random);
+            engine.offer(entrants.subList(0, 7));
+            engine.offer(entrants.subList(7, 20));
+            for (Integer winner : engine.getWinners()) {
+                wins[winner]++;
+            }
+        }
+
+        // Each entrant is expected to win 5000 times
+        for (int count : wins) {
+            assertTrue("Win count " + count + " is far from 5000", Math.abs(count - 5000) < 400);
+        }
+    }
+
+    @Test
+    public void testEngineWithFewerEntrantsThanWinnersKeepsAll() {
+        LotteryEngine<String> engine = new LotteryEngine<>(5, new SplittableRandom(1));
+
+        engine.offer(Arrays.asList("a", "b"));
+
+        assertFalse(engine.isFull());
+        assertEquals(Arrays.asList("a", "b"), engine.getWinners());
+    }
+
+    @Test
+    public void testEventFilterMatchesQueryAndDateRange() {
+        EventFilter<String[]> filter = new EventFilter<>(
+                e -> e[0], e -> e[1], e -> e[0].startsWith("Yoga") ? day(2025, Calendar.MARCH, 10, 18) : day(2025, Calendar.MAY, 1, 9));
+        List<String[]> events = new ArrayList<>();
+        events.add(new String[]{"Yoga Basics", "Morning stretch"});
+        events.add(new String[]{"Piano", "Learn yoga-free piano"});
+        events.add(new String[]{"Chess", "Openings"});
+
+        assertEquals(2, filter.filter(events, "YOGA", null, null).size());
+
+        List<String[]> inRange = filter.filter(events, "", day(2025, Calendar.MARCH, 10, 0), day(2025, Calendar.MARCH, 10, 0));
+        assertEquals(1, inRange.size());
+        assertEquals("Yoga Basics", inRange.get(0)[0]);
+    }
+
+    @Test
+    public void testCsvRowUsesPlaceholderForMissingValues() throws Exception {
+        StringBuilder out = new StringBuilder();
+
+        new EntrantCsv().appendRow(out, "Alice", null, null);
+
+        assertEquals("Alice,N/A,N/A\n", out.toString());
+    }
+}
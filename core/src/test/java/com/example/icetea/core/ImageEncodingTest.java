@@ -0,0 +1,67 @@
+package com.example.icetea.core;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Tests the format and quality search of {@link ImageEncoding}.
+ */
+public class ImageEncodingTest {
+
+    /** Fake encoder whose output grows by 10 bytes per quality step, format 1 being half the size */
+    private final List<String> calls = new ArrayList<>();
+    private final ImageEncoding.Encoder encoder = (format, quality) -> {
+        calls.add(format + ":" + quality);
+        return new byte[(quality * 10) / (format + 1)];
+    };
+
+    @Test
+    public void testMaxQualityIsUsedWhenItFits() {
+        ImageEncoding.Choice choice = ImageEncoding.bestFit(encoder, 1, 1000, 30, 90);
+
+        assertEquals(90, choice.getQuality());
+        assertEquals(900, choice.getBytes().length);
+        assertEquals(1, calls.size());
+    }
+
+    @Test
+    public void testHighestFittingQualityIsFound() {
+        ImageEncoding.Choice choice = ImageEncoding.bestFit(encoder, 1, 555, 30, 90);
+
+        assertEquals(55, choice.getQuality());
+        assertTrue(calls.size() <= 8);
+    }
+
+    @Test
+    public void testFormatFittingAtHigherQualityWins() {
+        ImageEncoding.Choice choice = ImageEncoding.bestFit(encoder, 2, 600, 30, 90);
+
+        // Format 0 fits at 60, format 1 fits at 90
+        assertEquals(1, choice.getFormat());
+        assertEquals(90, choice.getQuality());
+    }
+
+    @Test
+    public void testNothingFitsBelowMinimumQuality() {
+        assertNull(ImageEncoding.bestFit(encoder, 2, 100, 30, 90));
+    }
+
+    @Test
+    public void testMaxBytesForBase64MatchesLineWrappedLength() {
+        for (int chars = 0; chars < 1000; chars++) {
+            int bytes = ImageEncoding.maxBytesForBase64(chars);
+            assertTrue("fits at " + chars, base64Length(bytes) <= chars);
+            assertTrue("largest at " + chars, base64Length(bytes + 1) > chars);
+        }
+    }
+
+    /** Length of Base64 with a line break after every 76 characters and at the end */
+    private static int base64Length(int bytes) {
+        int encoded = (bytes + 2) / 3 * 4;
+        return encoded == 0 ? 0 : encoded + (encoded + 75) / 76;
+    }
+}
@@ -0,0 +1,42 @@
+package com.example.icetea.core;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+/**
+ * Tests the subsampling choices of {@link ImageSampling}.
+ */
+public class ImageSamplingTest {
+
+    @Test
+    public void testPosterIsSubsampledToCoverTheView() {
+        // 2048x1536 poster in a 300x200 view: 1/4 gives 512x384, 1/8 would give 256x192
+        assertEquals(4, ImageSampling.inSampleSize(2048, 1536, 300, 200));
+    }
+
+    @Test
+    public void testSmallImageIsNotSubsampled() {
+        assertEquals(1, ImageSampling.inSampleSize(256, 256, 300, 300));
+        assertEquals(1, ImageSampling.inSampleSize(600, 600, 300, 300 + 1));
+    }
+
+    @Test
+    public void testBothDimensionsMustStayCovered() {
+        // A wide view over a tall image is limited by the width
+        assertEquals(2, ImageSampling.inSampleSize(1000, 4000, 400, 100));
+    }
+
+    @Test
+    public void testUnknownSizesOnlyConstrainTheKnownOne() {
+        assertEquals(1, ImageSampling.inSampleSize(1000, 1000, 0, 0));
+        assertEquals(4, ImageSampling.inSampleSize(1000, 1000, 200, 0));
+        assertEquals(1, ImageSampling.inSampleSize(0, 0, 100, 100));
+    }
+
+    @Test
+    public void testDecodedByteCountRoundsUp() {
+        assertEquals(4L * 4 * 4, ImageSampling.decodedByteCount(8, 8, 2));
+        assertEquals(3L * 2 * 4, ImageSampling.decodedByteCount(9, 5, 4));
+    }
+}
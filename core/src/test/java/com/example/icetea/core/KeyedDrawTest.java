@@ -0,0 +1,62 @@
+package com.example.icetea.core;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+
+/**
+ * Tests the pivots and sampling used to draw entrants through the key index.
+ */
+public class KeyedDrawTest {
+
+    @Test
+    public void testFirstPivotIsTheGivenOneAndTheRestAreReproducible() {
+        KeyedDraw a = new KeyedDraw(0.25);
+        KeyedDraw b = new KeyedDraw(0.25);
+
+        assertEquals(0.25, a.nextPivot(), 0.0);
+        assertEquals(0.25, b.nextPivot(), 0.0);
+        for (int i = 0; i < 10; i++) {
+            double pivot = a.nextPivot();
+            assertTrue(pivot >= 0 && pivot < 1);
+            assertEquals(pivot, b.nextPivot(), 0.0);
+        }
+    }
+
+    @Test
+    public void testSamplePicksDistinctItems() {
+        List<Integer> items = new ArrayList<>();
+        for (int i = 0; i < 10; i++) items.add(i);
+
+        List<Integer> picked = new KeyedDraw(0.5).sample(items, 6);
+
+        assertEquals(6, picked.size());
+        assertEquals(6, new HashSet<>(picked).size());
+        assertEquals(10, items.size());
+        assertEquals(10, new KeyedDraw(0.5).sample(items, 20).size());
+    }
+
+    @Test
+    public void testSampleReachesEverySubset() {
+        List<Integer> items = new ArrayList<>();
+        for (int i = 0; i < 5; i++) items.add(i);
+
+        HashSet<HashSet<Integer>> outcomes = new HashSet<>();
+        for (int seed = 0; seed < 2_000; seed++) {
+            outcomes.add(new HashSet<>(new KeyedDraw(seed / 2_000.0).sample(items, 2)));
+        }
+        // C(5, 2) subsets, not just the 5 contiguous windows
+        assertEquals(10, outcomes.size());
+    }
+
+    @Test
+    public void testReadsAllOnlyForLargeDraws() {
+        assertFalse(KeyedDraw.readsAll(10, 100));
+        assertTrue(KeyedDraw.readsAll(50, 100));
+        assertTrue(KeyedDraw.readsAll(1, 1));
+    }
+}
@@ -0,0 +1,81 @@
+package com.example.icetea.core;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Base64;
+
+/**
+ * Tests encoding and offline checking of {@link QrPayload}.
+ */
+public class QrPayloadTest {
+
+    private static final byte[] KEY = "test-key".getBytes(StandardCharsets.UTF_8);
+
+    @Test
+    public void testEncodedPayloadParsesBackToTheEvent() {
+        String text = QrPayload.encode("8f2c1d9e-4b7a", KEY);
+
+        QrPayload payload = QrPayload.parse(text, KEY);
+
+        assertNotNull(payload);
+        assertEquals("8f2c1d9e-4b7a", payload.getEventId());
+        assertEquals(QrPayload.VERSION, payload.getVersion());
+        assertTrue(text.length() < "icetea:1:8f2c1d9e-4b7a:".length() + 12);
+    }
+
+    @Test
+    public void testBase64MatchesUnpaddedUrlSafeEncoding() {
+        byte[] bytes = new byte[64];
+        for (int i = 0; i < bytes.length; i++) {
+            bytes[i] = (byte) (i * 37 + 250);
+        }
+        for (int length = 0; length <= bytes.length; length++) {
+            byte[] prefix = Arrays.copyOf(bytes, length);
+            assertEquals(Base64.getUrlEncoder().withoutPadding().encodeToString(prefix), QrPayload.base64Url(prefix));
+        }
+    }
+
+    @Test
+    public void testTamperedEventIdIsRejected() {
+        String text = QrPayload.encode("E1", KEY);
+
+        assertNull(QrPayload.parse(text.replace(":E1:", ":E2:"), KEY));
+    }
+
+    @Test
+    public void testOtherKeyIsRejected() {
+        String text = QrPayload.encode("E1", KEY);
+
+        assertNull(QrPayload.parse(text, "other-key".getBytes(StandardCharsets.UTF_8)));
+    }
+
+    @Test
+    public void testEventIdMayContainColons() {
+        QrPayload payload = QrPayload.parse(QrPayload.encode("a:b", KEY), KEY);
+
+        assertNotNull(payload);
+        assertEquals("a:b", payload.getEventId());
+    }
+
+    @Test
+    public void testMalformedAndUnknownVersionsAreRejected() {
+        String signature = QrPayload.encode("E1", KEY).substring("icetea:1:E1:".length());
+
+        assertNull(QrPayload.parse("icetea:", KEY));
+        assertNull(QrPayload.parse("icetea:1", KEY));
+        assertNull(QrPayload.parse("icetea:1::" + signature, KEY));
+        assertNull(QrPayload.parse("icetea:x:E1:" + signature, KEY));
+        assertNull(QrPayload.parse("icetea:2:E1:" + signature, KEY));
+    }
+
+    @Test
+    public void testBareEventIdIsNotAPayload() {
+        assertFalse(QrPayload.isPayload("8f2c1d9e"));
+        assertFalse(QrPayload.isPayload(null));
+        assertNull(QrPayload.parse("8f2c1d9e", KEY));
+    }
+}
@@ -0,0 +1,56 @@
+package com.example.icetea.core;
+
+import static org.junit.Assert.*;
+
+import com.google.zxing.WriterException;
+import com.google.zxing.common.BitMatrix;
+
+import org.junit.Test;
+
+/**
+ * Tests module-resolution rendering and scaling in {@link QrPixels}.
+ */
+public class QrPixelsTest {
+
+    @Test
+    public void testModulesAreScaledToSquares() {
+        BitMatrix matrix = new BitMatrix(2, 2);
+        matrix.set(0, 0);
+        matrix.set(1, 1);
+
+        int[] pixels = QrPixels.toPixels(matrix, 3);
+
+        assertEquals(36, pixels.length);
+        for (int y = 0; y < 6; y++) {
+            for (int x = 0; x < 6; x++) {
+                boolean dark = (x / 3) == (y / 3);
+                assertEquals("pixel " + x + "," + y, dark ? QrPixels.BLACK : QrPixels.WHITE, pixels[y * 6 + x]);
+            }
+        }
+    }
+
+    @Test
+    public void testScaleOfOneMatchesUnscaledPixels() {
+        BitMatrix matrix = new BitMatrix(5, 3);
+        matrix.set(4, 0);
+        matrix.set(2, 2);
+
+        assertArrayEquals(QrPixels.toPixels(matrix), QrPixels.toPixels(matrix, 1));
+    }
+
+    @Test
+    public void testScaleIsTheLargestWholeFactorThatFits() {
+        assertEquals(15, QrPixels.scaleFor(33, 512));
+        assertEquals(16, QrPixels.scaleFor(32, 512));
+        assertEquals(1, QrPixels.scaleFor(600, 512));
+    }
+
+    @Test
+    public void testModuleMatrixHasOnePixelPerModule() throws WriterException {
+        // Version 1 is 21 modules wide, plus a quiet zone of 4 on each side
+        BitMatrix matrix = QrPixels.encodeModules("E1");
+
+        assertEquals(29, matrix.getWidth());
+        assertEquals(29, matrix.getHeight());
+    }
+}
@@ -0,0 +1,49 @@
+package com.example.icetea.core;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+/**
+ * Tests the frame and duplicate limits of the continuous scanner.
+ */
+public class ScanThrottleTest {
+
+    @Test
+    public void testFramesAreLimitedToTheFrameRate() {
+        ScanThrottle throttle = new ScanThrottle(10, 0);
+
+        assertTrue(throttle.shouldDecode(1_000));
+        assertFalse(throttle.shouldDecode(1_050));
+        assertFalse(throttle.shouldDecode(1_099));
+        assertTrue(throttle.shouldDecode(1_100));
+        assertTrue(throttle.shouldDecode(5_000));
+    }
+
+    @Test
+    public void testRepeatedPayloadIsDroppedWithinTheWindow() {
+        ScanThrottle throttle = new ScanThrottle(10, 2_000);
+
+        assertTrue(throttle.accept("A", 0));
+        assertFalse(throttle.accept("A", 500));
+        assertTrue(throttle.accept("B", 600));
+        assertTrue(throttle.accept("A", 700));
+    }
+
+    @Test
+    public void testHeldCodeStaysSuppressedUntilItLeavesView() {
+        ScanThrottle throttle = new ScanThrottle(10, 2_000);
+
+        assertTrue(throttle.accept("A", 0));
+        // Seen every second, so the window keeps restarting
+        for (long t = 1_000; t <= 10_000; t += 1_000) {
+            assertFalse("at " + t, throttle.accept("A", t));
+        }
+        assertTrue(throttle.accept("A", 12_000));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testFrameRateMustBePositive() {
+        new ScanThrottle(0, 1_000);
+    }
+}
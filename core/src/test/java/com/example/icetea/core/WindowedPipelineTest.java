@@ -0,0 +1,84 @@
+package com.example.icetea.core;
+
+import static org.junit.Assert.*;
+
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Tests ordering, the memory bound and failure handling of {@link WindowedPipeline}.
+ */
+public class WindowedPipelineTest {
+
+    private final ExecutorService executor = Executors.newFixedThreadPool(4);
+
+    @After
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void testItemsAreConsumedInOrder() throws Exception {
+        List<Integer> consumed = new ArrayList<>();
+
+        new WindowedPipeline<Integer>(3, executor).run(20, index -> {
+            // Later items finish first, so order must come from the pipeline
+            Thread.sleep((20 - index) % 4);
+            return index * 10;
+        }, (index, item) -> consumed.add(item));
+
+        assertEquals(20, consumed.size());
+        for (int i = 0; i < 20; i++) {
+            assertEquals(Integer.valueOf(i * 10), consumed.get(i));
+        }
+    }
+
+    @Test
+    public void testNoMoreThanWindowItemsAreAlive() throws Exception {
+        AtomicInteger alive = new AtomicInteger();
+        AtomicInteger maxAlive = new AtomicInteger();
+
+        new WindowedPipeline<Integer>(2, executor).run(30, index -> {
+            int now = alive.incrementAndGet();
+            maxAlive.accumulateAndGet(now, Math::max);
+            return index;
+        }, (index, item) -> {
+            Thread.sleep(1);
+            alive.decrementAndGet();
+        });
+
+        // The window plus the item being consumed
+        assertTrue("max alive " + maxAlive.get(), maxAlive.get() <= 3);
+        assertEquals(0, alive.get());
+    }
+
+    @Test
+    public void testProducerFailureStopsThePipeline() {
+        List<Integer> consumed = new ArrayList<>();
+        IllegalStateException failure = new IllegalStateException("render failed");
+
+        try {
+            new WindowedPipeline<Integer>(2, executor).run(10, index -> {
+                if (index == 4) throw failure;
+                return index;
+            }, (index, item) -> consumed.add(item));
+            fail("Expected the producer failure");
+        } catch (Exception e) {
+            assertSame(failure, e);
+        }
+        assertEquals(4, consumed.size());
+    }
+
+    @Test
+    public void testEmptyRunDoesNothing() throws Exception {
+        new WindowedPipeline<Integer>(1, executor).run(0, index -> {
+            throw new AssertionError("not produced");
+        }, (index, item) -> fail("not consumed"));
+    }
+}